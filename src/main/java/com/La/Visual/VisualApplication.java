@@ -12,10 +12,12 @@
  * 
  * The class combines several Spring Boot annotations to enable auto-configuration
  * and component scanning. It also includes a CommandLineRunner bean that initializes
- * the file storage system when the application starts, ensuring a clean storage state.
+ * the file storage system when the application starts.
  * 
- * This approach provides a consistent storage environment on each application restart,
- * which is useful during development and testing to prevent file accumulation.
+ * Uploaded files are kept across restarts: storage initialization is skipped when the
+ * storage manifest is present. Wiping the upload directory on startup is still possible
+ * for development by setting file.reset-on-startup=true. Each startup phase is timed
+ * and reported by StartupTimings.
  */
 package com.La.Visual;
 
@@ -25,6 +27,10 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Import the startup timing recorder
+import com.La.Visual.config.StartupTimings;
 
 // Import the storage-related classes
 import com.La.Visual.storage.StorageProperties;
@@ -34,6 +40,8 @@ import com.La.Visual.storage.StorageService;
 @SpringBootApplication
 // Enable the StorageProperties configuration class to bind properties from application.properties
 @EnableConfigurationProperties(StorageProperties.class)
+// Enable @Scheduled background jobs (e.g. the orphaned upload sweeper)
+@EnableScheduling
 public class VisualApplication {
 
     /**
@@ -48,17 +56,26 @@ public class VisualApplication {
 
     /**
      * Defines a CommandLineRunner bean that executes on application startup
-     * This runner initializes the file storage system by first clearing any existing files
-     * and then creating the necessary directory structure
+     * This runner makes sure the file storage is ready. Existing uploads are kept
+     * unless file.reset-on-startup is enabled, in which case the storage location
+     * is cleared first (development only - all payment proofs are lost)
      * 
      * @param storageService The storage service that's automatically injected by Spring
+     * @param storageProperties Storage settings (reset-on-startup flag)
+     * @param startupTimings Records how long each startup phase takes
      * @return A CommandLineRunner that initializes the storage system
      */
     @Bean
-    CommandLineRunner init(StorageService storageService) {
+    CommandLineRunner init(StorageService storageService, StorageProperties storageProperties,
+                           StartupTimings startupTimings) {
         return (args) -> {
-            storageService.deleteAll();  // Remove any existing files in the storage location
-            storageService.init();       // Create the necessary directory structure
+            if (storageProperties.isResetOnStartup()) {
+                // Remove any existing files in the storage location
+                startupTimings.time("storage reset", storageService::deleteAll);
+                startupTimings.note("storage reset", "file.reset-on-startup=true");
+            }
+            // Create the necessary directory structure (no-op on a warm restart)
+            startupTimings.time("storage init", storageService::init);
         };
     }
-}
\ No newline at end of file
+}
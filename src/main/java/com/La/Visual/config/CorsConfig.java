@@ -35,7 +35,7 @@ public class CorsConfig {
             public void addCorsMappings(CorsRegistry registry) {
                 registry.addMapping("/**")  // Apply these CORS settings to all paths in the application
                 .allowedOrigins("http://localhost:5173") // Your frontend URL
-                .allowedMethods("GET", "POST", "PUT", "DELETE")  // Specify which HTTP methods are allowed
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE")  // Specify which HTTP methods are allowed
                 .allowedHeaders("*")  // Allow all headers in requests ("*" is a wildcard)
                 .allowCredentials(true);  // Allow cookies and authentication headers to be included
                                           // This is essential for maintaining sessions or authentication
@@ -50,6 +50,14 @@ public class JWTAuthFilter extends OncePerRequestFilter{
     @Autowired
     private OurUserDetailsService ourUserDetailsService;
 
+    // Signed file URLs carry their own proof of access, so the file endpoints skip
+    // JWT parsing and the user lookup entirely (see FileUrlSigner)
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return path.startsWith("/api/files/view/") || path.startsWith("/api/files/download/");
+    }
+
     // This method is called for each HTTP request that passes through the filter chain
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
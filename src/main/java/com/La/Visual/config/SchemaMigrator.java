@@ -0,0 +1,232 @@
+/**
+ * Schema Migrator
+ *
+ * This component replaces Spring Boot's "run schema.sql on every startup" behaviour
+ * (spring.sql.init.mode=always) with a small versioned migration ledger.
+ *
+ * Every SQL script is applied exactly once and recorded in the schema_version table
+ * together with a checksum. On a warm restart the migrator only reads the ledger and
+ * skips all DDL, so startup time no longer depends on re-running the schema and
+ * non-idempotent statements (such as adding the bookings -> payments foreign key)
+ * are not executed again.
+ *
+ * Scripts:
+ * - Version 1 is the baseline schema in classpath:schema.sql
+ * - Later versions live in classpath:db/migration and are named V{version}__{description}.sql
+ *   (for example V2__add_proof_hash.sql); they are applied in version order
+ *
+ * Databases created before the ledger existed already contain the baseline tables;
+ * in that case version 1 is recorded as applied without running it again.
+ */
+package com.La.Visual.config;
+
+// Import Spring components for JDBC access, resource loading and bean lifecycle
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+// Import Java I/O, security and utility classes
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+
+// Mark this class as a Spring component; migrations run while the context starts
+@Component
+public class SchemaMigrator implements InitializingBean {
+
+    // File name pattern for versioned migrations: V{version}__{description}.sql
+    private static final Pattern MIGRATION_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    // Data access for the ledger and the migration scripts
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    // Records how long the migration phase took
+    private final StartupTimings startupTimings;
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param jdbcTemplate JdbcTemplate for reading and writing the ledger
+     * @param dataSource DataSource used to execute migration scripts
+     * @param startupTimings Startup phase recorder
+     */
+    @Autowired
+    public SchemaMigrator(JdbcTemplate jdbcTemplate, DataSource dataSource, StartupTimings startupTimings) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.startupTimings = startupTimings;
+    }
+
+    /**
+     * Runs pending migrations when the bean is created
+     * This happens during context startup, before any runner or request uses the database
+     */
+    @Override
+    public void afterPropertiesSet() {
+        startupTimings.time("schema migrations", this::migrate);
+    }
+
+    /**
+     * Applies all migrations that are not yet recorded in the ledger
+     *
+     * @return The number of migrations applied
+     */
+    public int migrate() {
+        Map<Integer, String> applied = loadLedger();
+        Map<Integer, Migration> migrations = discoverMigrations();
+
+        // Pre-ledger database: the baseline tables exist already, so only record version 1
+        if (applied.isEmpty() && tableExists("bookings")) {
+            Migration baseline = migrations.get(1);
+            recordApplied(baseline, 0);
+            applied.put(1, baseline.checksum);
+            System.out.println("Existing schema detected - recorded baseline without re-running it");
+        }
+
+        int count = 0;
+        for (Migration migration : migrations.values()) {
+            String recordedChecksum = applied.get(migration.version);
+            if (recordedChecksum != null) {
+                // Already applied; a changed file is reported but never re-run automatically
+                if (!recordedChecksum.equals(migration.checksum)) {
+                    System.err.println("WARNING: migration V" + migration.version + " (" + migration.description
+                        + ") changed after it was applied; add a new migration instead of editing it");
+                }
+                continue;
+            }
+
+            long started = System.currentTimeMillis();
+            System.out.println("Applying schema migration V" + migration.version + ": " + migration.description);
+            new ResourceDatabasePopulator(migration.resource).execute(dataSource);
+            recordApplied(migration, System.currentTimeMillis() - started);
+            count++;
+        }
+
+        startupTimings.note("schema migrations", count == 0
+            ? "up to date, " + migrations.size() + " known"
+            : count + " applied");
+        return count;
+    }
+
+    /**
+     * Reads version -> checksum from the ledger, creating the ledger table on first use
+     */
+    private Map<Integer, String> loadLedger() {
+        try {
+            Map<Integer, String> applied = new HashMap<>();
+            jdbcTemplate.query("SELECT version, checksum FROM schema_version",
+                rs -> { applied.put(rs.getInt("version"), rs.getString("checksum")); });
+            return applied;
+        } catch (DataAccessException e) {
+            // Ledger does not exist yet (first start with migrations)
+            jdbcTemplate.execute(
+                "CREATE TABLE IF NOT EXISTS schema_version (" +
+                "  version INT PRIMARY KEY," +
+                "  description VARCHAR(200) NOT NULL," +
+                "  checksum CHAR(64) NOT NULL," +
+                "  execution_ms INT NOT NULL," +
+                "  applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                ")"
+            );
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Collects the baseline and all versioned migration scripts, ordered by version
+     */
+    private Map<Integer, Migration> discoverMigrations() {
+        Map<Integer, Migration> migrations = new TreeMap<>();
+        migrations.put(1, new Migration(1, "baseline", new ClassPathResource("schema.sql")));
+
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver()
+                .getResources("classpath*:db/migration/V*__*.sql");
+            for (Resource resource : resources) {
+                Matcher matcher = MIGRATION_NAME.matcher(resource.getFilename());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                int version = Integer.parseInt(matcher.group(1));
+                if (migrations.containsKey(version)) {
+                    throw new IllegalStateException("Duplicate schema migration version: V" + version);
+                }
+                migrations.put(version, new Migration(version, matcher.group(2).replace('_', ' '), resource));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read schema migrations", e);
+        }
+        return migrations;
+    }
+
+    /**
+     * Checks whether a table exists in the current database
+     */
+    private boolean tableExists(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?",
+            Integer.class,
+            table
+        );
+        return count != null && count > 0;
+    }
+
+    /**
+     * Writes a ledger row for an applied migration
+     */
+    private void recordApplied(Migration migration, long executionMillis) {
+        jdbcTemplate.update(
+            "INSERT INTO schema_version (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)",
+            migration.version,
+            migration.description,
+            migration.checksum,
+            (int) executionMillis
+        );
+    }
+
+    /**
+     * One migration script with its version and content checksum
+     */
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final Resource resource;
+        private final String checksum;
+
+        private Migration(int version, String description, Resource resource) {
+            this.version = version;
+            this.description = description;
+            this.resource = resource;
+            this.checksum = sha256(resource);
+        }
+
+        // SHA-256 of the script contents, hex encoded
+        private static String sha256(Resource resource) {
+            try (InputStream in = resource.getInputStream()) {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+                return HexFormat.of().formatHex(digest.digest());
+            } catch (IOException | NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Could not checksum " + resource.getFilename(), e);
+            }
+        }
+    }
+}
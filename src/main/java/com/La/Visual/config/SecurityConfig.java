@@ -67,19 +67,21 @@ public class SecurityConfig {
                         // Public endpoints that anyone can access without authentication
                         .requestMatchers("/auth/**", "/public/**").permitAll()  // Authentication and public endpoints
                         .requestMatchers("/favicon.ico").permitAll()  // Browser favicon requests
-                        .requestMatchers("/api/files/view/**").permitAll()  // Public file viewing
+                        .requestMatchers("/api/files/view/**").permitAll()  // File viewing, protected by signed URLs instead of JWT
                         // Role-based access control for different URL patterns
                         .requestMatchers("/admin/**").hasAnyAuthority("ADMIN")  // Admin-only endpoints
                         .requestMatchers("/user/**").hasAnyAuthority("USER")  // User-only endpoints
                         .requestMatchers("/adminuser/**").hasAnyAuthority("ADMIN", "USER")  // Endpoints for both admins and users
                         // These specific API endpoints should come BEFORE the catch-all
                         .requestMatchers("/api/bookings/booked-slots").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/bookings/available-starts").permitAll()  // Free start times (no guest data)
+                        .requestMatchers("/api/bookings/stream").permitAll()  // Live change stream (no guest data)
                         .requestMatchers("/api/bookings").permitAll()
                         .requestMatchers("/api/bookings/with-proof").permitAll()
                         .requestMatchers("/api/bookings/*/payment-proof").permitAll()  // Wildcard path for payment proofs
                         .requestMatchers("/api/bookings/test-endpoint").permitAll()
                         .requestMatchers("/api/files/upload").permitAll()
-                        .requestMatchers("/api/files/download/**").permitAll()
+                        .requestMatchers("/api/files/download/**").permitAll()  // Protected by signed URLs instead of JWT
                         // OPTIONS requests for CORS preflight
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()  // Allow OPTIONS requests for CORS preflight
                         // Specific admin-only booking endpoints
@@ -87,6 +89,8 @@ public class SecurityConfig {
                         .requestMatchers("/api/bookings/{id}/approve").hasAuthority("ADMIN") 
                         .requestMatchers("/api/bookings/{id}/reject").hasAuthority("ADMIN")
                         .requestMatchers("/api/bookings/{id}/details").hasAuthority("ADMIN")
+                        .requestMatchers("/api/bookings/bulk-status").hasAuthority("ADMIN")
+                        .requestMatchers("/api/bookings/import").hasAuthority("ADMIN")
                         // This catch-all should come LAST
                         .requestMatchers("/api/bookings/**").hasAuthority("ADMIN")  // Any other booking endpoints require ADMIN
                         .anyRequest().authenticated())  // Any other request requires authentication (but not specific role)
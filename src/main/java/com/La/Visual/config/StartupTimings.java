@@ -0,0 +1,120 @@
+/**
+ * Startup Timings
+ *
+ * This component records how long each startup phase takes (schema migrations,
+ * storage initialization, warm-up jobs, ...) and prints a single report once the
+ * application is ready to serve requests.
+ *
+ * Phases are recorded by the components that perform them through time(), so the
+ * report always reflects what actually ran on this boot - a warm restart that skips
+ * migrations or storage setup shows up as near-zero phases.
+ *
+ * The report also includes the JVM start to "ready" time and Spring Boot's own
+ * context startup time, which helps spot regressions as the data set grows.
+ */
+package com.La.Visual.config;
+
+// Import Spring Boot events and component annotations
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Import Java management API for the JVM start time
+import java.lang.management.ManagementFactory;
+// Import Java utility classes
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Mark this class as a Spring component so it can be injected into startup code
+@Component
+public class StartupTimings {
+
+    // Phase name -> duration in milliseconds, in the order the phases ran
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    // Phase name -> short note about what the phase did (e.g. "skipped", "3 migrations applied")
+    private final Map<String, String> notes = new LinkedHashMap<>();
+
+    /**
+     * Runs a startup phase and records its duration
+     *
+     * @param phase Name shown in the report
+     * @param work The work to run
+     * @return Whatever the work returns
+     */
+    public <T> T time(String phase, Supplier<T> work) {
+        long started = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(phase, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    /**
+     * Runs a startup phase that returns nothing and records its duration
+     *
+     * @param phase Name shown in the report
+     * @param work The work to run
+     */
+    public void time(String phase, Runnable work) {
+        time(phase, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Records an already measured phase
+     *
+     * @param phase Name shown in the report
+     * @param millis Duration in milliseconds
+     */
+    public synchronized void record(String phase, long millis) {
+        phases.merge(phase, millis, Long::sum);
+    }
+
+    /**
+     * Attaches a short note to a phase (shown next to its duration)
+     *
+     * @param phase Name of the phase
+     * @param note What the phase did on this boot
+     */
+    public synchronized void note(String phase, String note) {
+        notes.put(phase, note);
+    }
+
+    /**
+     * Returns a copy of the recorded phases
+     *
+     * @return Map of phase name to duration in milliseconds
+     */
+    public synchronized Map<String, Long> getPhases() {
+        return new LinkedHashMap<>(phases);
+    }
+
+    /**
+     * Prints the startup report once the application is ready
+     *
+     * @param event Spring Boot's ready event (carries the context startup time)
+     */
+    @EventListener
+    public synchronized void onApplicationReady(ApplicationReadyEvent event) {
+        long jvmUptime = ManagementFactory.getRuntimeMXBean().getUptime();
+
+        StringBuilder report = new StringBuilder("Startup timing report:\n");
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            report.append(String.format("  %-28s %6d ms", phase.getKey(), phase.getValue()));
+            String note = notes.get(phase.getKey());
+            if (note != null) {
+                report.append("  (").append(note).append(')');
+            }
+            report.append('\n');
+        }
+        if (event.getTimeTaken() != null) {
+            report.append(String.format("  %-28s %6d ms%n", "spring context (total)", event.getTimeTaken().toMillis()));
+        }
+        report.append(String.format("  %-28s %6d ms", "jvm start to ready", jvmUptime));
+        System.out.println(report);
+    }
+}
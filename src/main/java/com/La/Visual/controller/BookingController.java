@@ -21,14 +21,28 @@ package com.La.Visual.controller;
 import com.La.Visual.dto.BookingRequest;
 import com.La.Visual.dto.BookingTimeUpdateRequest;
 import com.La.Visual.dto.BookingUpdateRequest;
+import com.La.Visual.dto.BulkStatusRequest;
 import com.La.Visual.dto.RequestResponse;
 // Import entity class representing booking data
 import com.La.Visual.entity.Booking;
 // Import repositories for data access
 import com.La.Visual.repository.BookingRepository;
 import com.La.Visual.repository.PaymentRepository;
-// Import service for booking business logic
+import com.La.Visual.repository.RequestCoalescer;
+// Import services for booking business logic and availability
+import com.La.Visual.service.AnalyticsService;
+import com.La.Visual.service.BookingSnapshot;
+import com.La.Visual.service.BookedSlotsService;
+import com.La.Visual.service.BookingChangesService;
+import com.La.Visual.service.BookingImportService;
 import com.La.Visual.service.BookingService;
+import com.La.Visual.service.BusinessHoursService;
+import com.La.Visual.service.CalendarSummaryService;
+import com.La.Visual.service.ChangeBroadcaster;
+import com.La.Visual.service.ResourceVersions;
+import com.La.Visual.service.ResponseCache;
+// Import service for detecting reused payment proofs
+import com.La.Visual.service.ProofHashService;
 // Import service for file storage operations
 import com.La.Visual.storage.StorageService;
 // Import Jackson classes for JSON handling
@@ -39,14 +53,17 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 // Import Java utilities
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
@@ -67,17 +84,56 @@ public class BookingController {
     private final StorageService storageService;         // For file storage operations
     private final PaymentRepository paymentRepository;   // For direct payment data access
     private final BookingRepository bookingRepository;   // For direct booking data access
+    private final ProofHashService proofHashService;     // For flagging reused payment proofs
+    private final BookedSlotsService bookedSlotsService; // For the cached public availability payload
+    private final ResponseCache responseCache;           // For pre-serialized calendar responses
+    private final ResourceVersions resourceVersions;     // For ETags of uncached booking lists
+    private final ChangeBroadcaster changeBroadcaster;   // For the live change stream
+    private final BookingChangesService bookingChangesService; // For delta sync of admin clients
+    private final BookingImportService bookingImportService; // For bulk CSV/NDJSON imports
+    private final BusinessHoursService businessHoursService; // For the free start time search
+    private final CalendarSummaryService calendarSummaryService; // For per-day occupancy over a range
+    private final RequestCoalescer requestCoalescer;     // For read coalescing statistics
+    private final AnalyticsService analyticsService;     // For analytics cache statistics
+    private final BookingSnapshot bookingSnapshot;       // For analytics snapshot statistics
+    private final ObjectMapper objectMapper;             // For serializing responses returned as bytes
 
     // Constructor with dependency injection via @Autowired
     @Autowired
     public BookingController(BookingService bookingService, 
                             StorageService storageService,
                             PaymentRepository paymentRepository,
-                            BookingRepository bookingRepository) {
+                            BookingRepository bookingRepository,
+                            ProofHashService proofHashService,
+                            BookedSlotsService bookedSlotsService,
+                            ResponseCache responseCache,
+                            ResourceVersions resourceVersions,
+                            ChangeBroadcaster changeBroadcaster,
+                            BookingChangesService bookingChangesService,
+                            BookingImportService bookingImportService,
+                            BusinessHoursService businessHoursService,
+                            CalendarSummaryService calendarSummaryService,
+                            RequestCoalescer requestCoalescer,
+                            AnalyticsService analyticsService,
+                            BookingSnapshot bookingSnapshot,
+                            ObjectMapper objectMapper) {
         this.bookingService = bookingService;
         this.storageService = storageService;
         this.paymentRepository = paymentRepository;
         this.bookingRepository = bookingRepository;
+        this.proofHashService = proofHashService;
+        this.bookedSlotsService = bookedSlotsService;
+        this.responseCache = responseCache;
+        this.resourceVersions = resourceVersions;
+        this.changeBroadcaster = changeBroadcaster;
+        this.bookingChangesService = bookingChangesService;
+        this.bookingImportService = bookingImportService;
+        this.businessHoursService = businessHoursService;
+        this.calendarSummaryService = calendarSummaryService;
+        this.requestCoalescer = requestCoalescer;
+        this.analyticsService = analyticsService;
+        this.bookingSnapshot = bookingSnapshot;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -107,12 +163,39 @@ public class BookingController {
     /**
      * Get all bookings
      * GET /api/bookings
+     * 
+     * Supports conditional requests: while no booking changed since the client's
+     * If-None-Match ETag, 304 Not Modified is returned without loading any rows.
      */
     @GetMapping
-    public ResponseEntity<RequestResponse> getAllBookings() {
+    public ResponseEntity<RequestResponse> getAllBookings(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        // Take the ETag before loading so a concurrent change is picked up on the next poll
+        String etag = resourceVersions.etag(ResourceVersions.Resource.BOOKINGS);
+        if (ResourceVersions.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
         // Call service to get all bookings
         RequestResponse response = bookingService.getAllBookings();
-        // Return response with appropriate status code
+        // Return response with appropriate status code (only successful lists carry the ETag)
+        if (response.getStatusCode() != 200) {
+            return ResponseEntity.status(response.getStatusCode()).body(response);
+        }
+        return ResponseEntity.status(response.getStatusCode()).eTag(etag).body(response);
+    }
+    
+    /**
+     * Get bookings changed since a change token (delta sync for admin clients)
+     * GET /api/bookings/changes?since={token}
+     * 
+     * Returns changed bookings, changed payments and IDs of deleted bookings, plus the
+     * token to send next time. Without a token (or with an expired one) the response is
+     * a full snapshot and "full" is true.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<RequestResponse> getBookingChanges(@RequestParam(required = false) String since) {
+        RequestResponse response = bookingChangesService.getChangesSince(since);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
     
@@ -184,6 +267,8 @@ public class BookingController {
             storageService.store(file, fileName);
             // Update payment record with the proof file name
             paymentRepository.updatePaymentProof(paymentId, fileName);
+            // Flag the booking if the same screenshot was already used for another booking
+            proofHashService.checkAndRecord(paymentId, bookingId, fileName);
             
             // Prepare response data
             Map<String, Object> data = new HashMap<>();
@@ -268,6 +353,24 @@ public class BookingController {
             // Create the booking with payment proof
             RequestResponse response = bookingService.createBookingWithProof(bookingRequest, proofFileName);
             
+            // The booking was not created and the service rolled back everything it wrote, so no row
+            // references the stored proof - remove it now (anything missed here is picked up later
+            // by the orphaned upload sweeper, which skips files that are still referenced)
+            if (!response.isSuccess()) {
+                try {
+                    storageService.delete(proofFileName);
+                } catch (Exception cleanupError) {
+                    System.err.println("Could not remove unused payment proof " + proofFileName + ": " + cleanupError.getMessage());
+                }
+            } else if (response.getData() instanceof Map<?, ?> created) {
+                // Flag the booking if the same screenshot was already used for another booking
+                proofHashService.checkAndRecord(
+                    (Integer) created.get("paymentId"),
+                    (Integer) created.get("bookingId"),
+                    proofFileName
+                );
+            }
+            
             // Return appropriate response
             return ResponseEntity.status(response.getStatusCode()).body(response);
             
@@ -284,26 +387,31 @@ public class BookingController {
 
     /**
      * Get currently booked time slots for calendar
-     * GET /api/bookings/booked-slots
+     * GET /api/bookings/booked-slots?status=CONFIRMED
+     * 
+     * Public endpoint: returns only [date, start, end] tuples for upcoming bookings.
+     * Without a status every booking except cancelled ones is included.
+     * The JSON is pre-serialized and cached (ResponseCache) until the next booking change.
      */
     @GetMapping("/booked-slots")
-    public ResponseEntity<RequestResponse> getBookedSlots() {
-        try {
-            System.out.println("Fetching upcoming bookings...");
-            // Get all upcoming bookings directly from repository
-            List<Booking> bookings = bookingRepository.findUpcomingBookings();
-            System.out.println("Found " + bookings.size() + " upcoming bookings");
-            
-            // Return success response with the bookings list
-            return ResponseEntity.ok(new RequestResponse(
-                "Booked slots retrieved successfully",
-                Map.of("bookings", bookings),
-                200,
-                true
+    public ResponseEntity<byte[]> getBookedSlots(
+            @RequestParam(required = false) String status,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        // Only accept known statuses (the value goes into the cache key)
+        if (!bookedSlotsService.isValidStatus(status)) {
+            return jsonBytes(400, new RequestResponse(
+                "Invalid status: " + status,
+                null,
+                400,
+                false
             ));
+        }
+        
+        try {
+            return bookedSlotsService.getBookedSlots(status).toResponseEntity(ifNoneMatch);
         } catch (Exception e) {
             e.printStackTrace(); // Log error for debugging
-            return ResponseEntity.status(500).body(new RequestResponse(
+            return jsonBytes(500, new RequestResponse(
                 "Error retrieving booked slots: " + e.getMessage(),
                 null,
                 500,
@@ -312,6 +420,104 @@ public class BookingController {
         }
     }
 
+    /**
+     * Find free start times on a date
+     * GET /api/bookings/available-starts?date=2025-04-18&minutes=120
+     * 
+     * Public endpoint: returns the start times at which a booking of the given length
+     * fits the business hours and does not collide with bookings, unavailable ranges or
+     * recurring rules. Start times are spaced by the slot granularity.
+     */
+    @GetMapping("/available-starts")
+    public ResponseEntity<RequestResponse> getAvailableStarts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "60") int minutes) {
+        try {
+            RequestResponse response = businessHoursService.findAvailableStarts(date, minutes);
+            return ResponseEntity.status(response.getStatusCode()).body(response);
+        } catch (Exception e) {
+            e.printStackTrace(); // Log error for debugging
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new RequestResponse(
+                    "Error retrieving available start times: " + e.getMessage(),
+                    null,
+                    500,
+                    false
+                ));
+        }
+    }
+
+    /**
+     * Serializes an error response for endpoints that return raw JSON bytes
+     */
+    private ResponseEntity<byte[]> jsonBytes(int status, RequestResponse response) {
+        try {
+            return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(objectMapper.writeValueAsBytes(response));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    /**
+     * Live stream of booking and schedule changes (Server-Sent Events)
+     * GET /api/bookings/stream
+     * 
+     * Public endpoint: deltas carry only booking IDs, dates, times and statuses.
+     * Clients reload their data on the "ready" and "resync" events and apply
+     * "booking" and "schedule" deltas in between.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges() {
+        SseEmitter emitter = changeBroadcaster.subscribe();
+        if (emitter == null) {
+            // Too many open streams - the browser retries on its own
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok()
+            .header("Cache-Control", "no-cache")
+            .header("X-Accel-Buffering", "no") // Stop reverse proxies from buffering the stream
+            .body(emitter);
+    }
+
+    /**
+     * Get change stream statistics (admin only)
+     * GET /api/bookings/stream/stats
+     */
+    @GetMapping("/stream/stats")
+    public ResponseEntity<RequestResponse> getStreamStats() {
+        return ResponseEntity.ok(new RequestResponse(
+            "Change stream statistics retrieved successfully",
+            changeBroadcaster.getStats(),
+            200,
+            true
+        ));
+    }
+
+    /**
+     * Read path statistics (admin only)
+     * GET /api/bookings/read-stats
+     * 
+     * Shows how many identical concurrent reads were collapsed into one query and how
+     * often serialized responses and analytics results were served from their caches,
+     * and the size of the in-memory analytics snapshot.
+     */
+    @GetMapping("/read-stats")
+    public ResponseEntity<RequestResponse> getReadStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("coalescing", requestCoalescer.getStats());
+        stats.put("responseCache", responseCache.getStats());
+        stats.put("analytics", analyticsService.getStats());
+        stats.put("snapshot", bookingSnapshot.getStats());
+        return ResponseEntity.ok(new RequestResponse(
+            "Read statistics retrieved successfully",
+            stats,
+            200,
+            true
+        ));
+    }
+
     /**
      * Test endpoint for debugging/health check
      * GET /api/bookings/test-endpoint
@@ -330,6 +536,10 @@ public class BookingController {
     public ResponseEntity<RequestResponse> deleteBooking(@PathVariable Integer id) {
         // Call service to delete booking
         RequestResponse response = bookingService.deleteBooking(id);
+        // A deleted booking's proof must no longer be reported as a duplicate source
+        if (response.isSuccess()) {
+            proofHashService.forgetBooking(id);
+        }
         // Return response with appropriate status code
         return new ResponseEntity<>(response, HttpStatus.valueOf(response.getStatusCode()));
     }
@@ -361,6 +571,18 @@ public class BookingController {
         }
     }
 
+    /**
+     * Partially update booking general information
+     * PATCH /api/bookings/{id}
+     * 
+     * Only the fields present in the body are written; omitted (null) fields keep their values.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<RequestResponse> patchBooking(@PathVariable Integer id, @RequestBody BookingUpdateRequest request) {
+        RequestResponse response = bookingService.patchBooking(id, request);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
     /**
      * Update booking time range (start and end time)
      * PUT /api/bookings/{id}/time-range
@@ -396,6 +618,21 @@ public class BookingController {
         }
     }
 
+    /**
+     * Import many bookings at once (admin only)
+     * POST /api/bookings/import
+     * Body: CSV with a header row (Content-Type: text/csv) or one JSON object per line
+     * (Content-Type: application/x-ndjson). The body is processed as it streams in;
+     * the response lists the rows that could not be imported with their line numbers.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<RequestResponse> importBookings(
+            InputStream body,
+            @RequestHeader(value = "Content-Type", required = false) String contentType) {
+        RequestResponse response = bookingImportService.importBookings(body, contentType);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
     /**
      * Create a manual booking (admin only)
      * POST /api/bookings/manual
@@ -444,16 +681,29 @@ public class BookingController {
     /**
      * Get all pending bookings
      * GET /api/bookings/pending
+     * 
+     * Polled by the admin dashboard; answers 304 Not Modified without loading rows
+     * while the client's If-None-Match ETag is still current.
      */
     @GetMapping("/pending")
-    public ResponseEntity<RequestResponse> getPendingBookings() {
+    public ResponseEntity<RequestResponse> getPendingBookings(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         System.out.println("GET /api/bookings/pending endpoint called");
         
+        // Take the ETag before loading so a concurrent change is picked up on the next poll
+        String etag = resourceVersions.etag(ResourceVersions.Resource.BOOKINGS);
+        if (ResourceVersions.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
         try {
             // Get all bookings with PENDING status
             RequestResponse response = bookingService.getPendingBookings();
             System.out.println("Response prepared: success=" + response.isSuccess() + ", statusCode=" + response.getStatusCode());
-            return ResponseEntity.status(response.getStatusCode()).body(response);
+            if (response.getStatusCode() != 200) {
+                return ResponseEntity.status(response.getStatusCode()).body(response);
+            }
+            return ResponseEntity.status(response.getStatusCode()).eTag(etag).body(response);
         } catch (Exception e) {
             // Log errors for debugging
             System.err.println("Error in getPendingBookings endpoint: " + e.getMessage());
@@ -464,6 +714,19 @@ public class BookingController {
         }
     }
 
+    /**
+     * Get the admin review queue: pending bookings with payment and signed proof URL
+     * GET /api/bookings/pending/review
+     * 
+     * Loaded with a single joined query instead of one details request per booking.
+     * No ETag here: the signed proof URLs expire, so a cached copy would go stale.
+     */
+    @GetMapping("/pending/review")
+    public ResponseEntity<RequestResponse> getPendingBookingsForReview() {
+        RequestResponse response = bookingService.getPendingBookingsForReview();
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
     /**
      * Approve a booking
      * PUT /api/bookings/{id}/approve
@@ -496,6 +759,18 @@ public class BookingController {
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    /**
+     * Approve, reject or complete many bookings at once
+     * POST /api/bookings/bulk-status
+     * Body: {"ids": [1, 2, 3], "status": "CONFIRMED", "adminNotes": "..."}
+     * The response lists the outcome for every ID (UPDATED, UNCHANGED, NOT_ALLOWED, NOT_FOUND)
+     */
+    @PostMapping("/bulk-status")
+    public ResponseEntity<RequestResponse> bulkUpdateStatus(@RequestBody BulkStatusRequest request) {
+        RequestResponse response = bookingService.bulkUpdateStatus(request);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
     /**
      * Get booking details with payment proof
      * GET /api/bookings/{id}/details
@@ -512,10 +787,15 @@ public class BookingController {
      * GET /api/bookings/calendar/date/{date}
      */
     @GetMapping("/calendar/date/{date}")
-    public ResponseEntity<RequestResponse> getBookingsForCalendar(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        // Call service to get bookings for the specified date
-        RequestResponse response = bookingService.getBookingsForCalendar(date);
-        return ResponseEntity.status(response.getStatusCode()).body(response);
+    public ResponseEntity<byte[]> getBookingsForCalendar(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        // Serve the cached JSON; the service is only called when the bookings changed
+        return responseCache.get(
+            ResourceVersions.Resource.BOOKINGS,
+            "calendar/date|" + date,
+            () -> bookingService.getBookingsForCalendar(date)
+        ).toResponseEntity(ifNoneMatch);
     }
 
     /**
@@ -523,11 +803,46 @@ public class BookingController {
      * GET /api/bookings/calendar/month/{year}/{month}
      */
     @GetMapping("/calendar/month/{year}/{month}")
-    public ResponseEntity<RequestResponse> getBookingsForMonthCalendar(
+    public ResponseEntity<byte[]> getBookingsForMonthCalendar(
             @PathVariable int year,
-            @PathVariable int month) {
-        // Call service to get bookings for the specified month and year
-        RequestResponse response = bookingService.getBookingsForMonthCalendar(year, month);
-        return ResponseEntity.status(response.getStatusCode()).body(response);
+            @PathVariable int month,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        // Serve the cached JSON; the service is only called when the bookings changed
+        return responseCache.get(
+            ResourceVersions.Resource.BOOKINGS,
+            "calendar/month|" + year + "|" + month,
+            () -> bookingService.getBookingsForMonthCalendar(year, month)
+        ).toResponseEntity(ifNoneMatch);
+    }
+
+    /**
+     * Get a per-day occupancy summary for a date range (month and year views)
+     * GET /api/bookings/calendar/range?from=2025-01-01&to=2025-12-31
+     * 
+     * Replaces one calendar/month or calendar/date call (plus one unavailable-ranges call)
+     * per period: the whole range, up to 12 months, comes from one bookings scan and one
+     * unavailable-ranges scan. Each day is a tuple in the order given by "fields".
+     */
+    @GetMapping("/calendar/range")
+    public ResponseEntity<byte[]> getCalendarRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        String error = calendarSummaryService.rangeError(from, to);
+        if (error != null) {
+            return jsonBytes(400, new RequestResponse(error, null, 400, false));
+        }
+        
+        try {
+            return calendarSummaryService.getSummary(from, to).toResponseEntity(ifNoneMatch);
+        } catch (Exception e) {
+            e.printStackTrace(); // Log error for debugging
+            return jsonBytes(500, new RequestResponse(
+                "Error retrieving calendar summary: " + e.getMessage(),
+                null,
+                500,
+                false
+            ));
+        }
     }
-}
\ No newline at end of file
+}
@@ -7,6 +7,9 @@
  * - Downloading files
  * - Viewing files directly in the browser (optimized for images)
  * 
+ * Viewing and downloading are open to unauthenticated requests (so files work in <img> tags)
+ * but require a short-lived signed URL issued by FileUrlSigner.
+ * 
  * The controller handles file storage, content type detection, unique filename generation,
  * and provides appropriate HTTP responses for successful operations or errors.
  * 
@@ -29,9 +32,13 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 // Import application-specific components
+import com.La.Visual.storage.FileUrlSigner;
+import com.La.Visual.storage.OrphanedUploadSweeper;
 import com.La.Visual.storage.StorageService;
 import com.La.Visual.storage.StorageFileNotFoundException;
 import com.La.Visual.dto.RequestResponse;
+import com.La.Visual.service.AuthService;
+import com.La.Visual.service.ProofHashService;
 
 // Import Java I/O and utility classes
 import java.io.IOException;
@@ -52,15 +59,31 @@ public class FileController {
 
     // File storage service to handle file operations
     private final StorageService storageService;
+    // Background sweeper that removes unreferenced uploads (for reporting)
+    private final OrphanedUploadSweeper orphanedUploadSweeper;
+    // Service for admin authorization checks
+    private final AuthService authService;
+    // Near-duplicate detection for payment proofs (for reporting)
+    private final ProofHashService proofHashService;
+    // Creates and checks signed file URLs
+    private final FileUrlSigner fileUrlSigner;
     
     // Inject upload directory from application properties (with 'upload-dir' as default)
     @Value("${file.upload-dir:upload-dir}")
     private String uploadDir;
 
-    // Constructor with dependency injection for StorageService
+    // Constructor with dependency injection for StorageService and related components
     @Autowired
-    public FileController(StorageService storageService) {
+    public FileController(StorageService storageService,
+                          OrphanedUploadSweeper orphanedUploadSweeper,
+                          AuthService authService,
+                          ProofHashService proofHashService,
+                          FileUrlSigner fileUrlSigner) {
         this.storageService = storageService;
+        this.orphanedUploadSweeper = orphanedUploadSweeper;
+        this.authService = authService;
+        this.proofHashService = proofHashService;
+        this.fileUrlSigner = fileUrlSigner;
     }
 
     /**
@@ -68,9 +91,17 @@ public class FileController {
      * GET /api/files/download/{fileName}
      * 
      * Retrieves a file from storage and sends it as a downloadable resource
+     * Requires the expires/sig parameters of a signed URL (see FileUrlSigner)
      */
     @GetMapping("/download/{fileName:.+}")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String fileName) {
+    public ResponseEntity<Resource> downloadFile(@PathVariable String fileName,
+                                                 @RequestParam(required = false) Long expires,
+                                                 @RequestParam(required = false) String sig) {
+        // Only serve files through a valid, unexpired signed URL
+        if (!fileUrlSigner.verify(fileName, expires, sig)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        
         // Load the file from storage
         Resource file = storageService.loadAsResource(fileName);
         
@@ -111,9 +142,17 @@ public class FileController {
      * GET /api/files/view/{fileName}
      * 
      * Optimized for displaying images directly in the browser
+     * Requires the expires/sig parameters of a signed URL (see FileUrlSigner)
      */
     @GetMapping("/view/{fileName:.+}")
-    public ResponseEntity<Resource> viewFile(@PathVariable String fileName) {
+    public ResponseEntity<Resource> viewFile(@PathVariable String fileName,
+                                             @RequestParam(required = false) Long expires,
+                                             @RequestParam(required = false) String sig) {
+        // Only serve files through a valid, unexpired signed URL
+        if (!fileUrlSigner.verify(fileName, expires, sig)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        
         try {
             System.out.println("Attempting to serve file: " + fileName);
             Resource file = storageService.loadAsResource(fileName);
@@ -191,8 +230,8 @@ public class FileController {
             // Store file with the generated unique name
             storageService.store(file, newFilename);
             
-            // Build URL for accessing the uploaded file
-            String fileUrl = "/api/files/view/" + newFilename;
+            // Build a signed URL for accessing the uploaded file
+            String fileUrl = fileUrlSigner.viewUrl(newFilename);
             
             // Prepare response data with file information
             Map<String, Object> data = new HashMap<>();
@@ -221,6 +260,117 @@ public class FileController {
         }
     }
 
+    /**
+     * Issue signed URLs for a stored file (admin only)
+     * GET /api/files/signed-url/{fileName}
+     * 
+     * Used by admin screens that only know a file name (e.g. from a booking record)
+     */
+    @GetMapping("/signed-url/{fileName:.+}")
+    public ResponseEntity<RequestResponse> getSignedUrl(@RequestHeader("Authorization") String authHeader,
+                                                        @PathVariable String fileName) {
+        // Verify the admin is authenticated by extracting and validating the JWT token
+        if (!authHeader.startsWith("Bearer ") || !authService.isAdminAuthenticated(authHeader.substring(7))) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new RequestResponse(
+                "Unauthorized access",
+                null,
+                401,
+                false
+            ));
+        }
+        
+        // Prepare both URL variants for the requested file
+        Map<String, Object> data = new HashMap<>();
+        data.put("viewUrl", fileUrlSigner.viewUrl(fileName));
+        data.put("downloadUrl", fileUrlSigner.downloadUrl(fileName));
+        
+        return ResponseEntity.ok(new RequestResponse(
+            "Signed URL created successfully",
+            data,
+            200,
+            true
+        ));
+    }
+
+    /**
+     * Report orphaned upload sweeper statistics (admin only)
+     * GET /api/files/gc/status
+     * 
+     * Shows how many files the background sweeper has inspected and deleted
+     * and how many bytes have been reclaimed so far
+     */
+    @GetMapping("/gc/status")
+    public ResponseEntity<RequestResponse> getSweeperStatus(@RequestHeader("Authorization") String authHeader) {
+        // Verify the admin is authenticated by extracting and validating the JWT token
+        if (!authHeader.startsWith("Bearer ") || !authService.isAdminAuthenticated(authHeader.substring(7))) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new RequestResponse(
+                "Unauthorized access",
+                null,
+                401,
+                false
+            ));
+        }
+        
+        return ResponseEntity.ok(new RequestResponse(
+            "Sweeper status retrieved successfully",
+            orphanedUploadSweeper.getStats(),
+            200,
+            true
+        ));
+    }
+
+    /**
+     * Report hot-file cache statistics (admin only)
+     * GET /api/files/cache/stats
+     * 
+     * Shows hits, misses, evictions and memory used by the in-memory file cache
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<RequestResponse> getCacheStats(@RequestHeader("Authorization") String authHeader) {
+        // Verify the admin is authenticated by extracting and validating the JWT token
+        if (!authHeader.startsWith("Bearer ") || !authService.isAdminAuthenticated(authHeader.substring(7))) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new RequestResponse(
+                "Unauthorized access",
+                null,
+                401,
+                false
+            ));
+        }
+        
+        return ResponseEntity.ok(new RequestResponse(
+            "Cache statistics retrieved successfully",
+            storageService.getCacheStats(),
+            200,
+            true
+        ));
+    }
+
+    /**
+     * Report payment proof duplicate index statistics (admin only)
+     * GET /api/files/proof-index/stats
+     * 
+     * Shows how many proofs are indexed, lookup latency and how many bookings were flagged
+     */
+    @GetMapping("/proof-index/stats")
+    public ResponseEntity<RequestResponse> getProofIndexStats(@RequestHeader("Authorization") String authHeader) {
+        // Verify the admin is authenticated by extracting and validating the JWT token
+        if (!authHeader.startsWith("Bearer ") || !authService.isAdminAuthenticated(authHeader.substring(7))) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new RequestResponse(
+                "Unauthorized access",
+                null,
+                401,
+                false
+            ));
+        }
+        
+        return ResponseEntity.ok(new RequestResponse(
+            "Proof index statistics retrieved successfully",
+            proofHashService.getStats(),
+            200,
+            true
+        ));
+    }
+
     /**
      * Exception handler for file not found errors
      * Maps StorageFileNotFoundException to a 404 response with error details
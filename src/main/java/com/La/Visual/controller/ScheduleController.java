@@ -8,7 +8,10 @@
  * Key features:
  * - Admin-only access for all endpoints through JWT authentication
  * - Creation of unavailable time slots (for blocking off certain times)
+ * - Bulk creation for many dates in one request (e.g. vacations)
  * - Retrieval of unavailable time slots for a specific date
+ * - Recurring availability rules (e.g. "every Sunday") with exception dates
+ * - Business hours: opening windows per weekday, holidays and slot granularity
  * - Standardized error handling and response formatting
  * 
  * This controller works alongside the booking system to ensure that customers
@@ -18,10 +21,16 @@
 package com.La.Visual.controller;
 
 // Import necessary DTOs for request/response handling
+import com.La.Visual.dto.AvailabilityRuleRequest;
+import com.La.Visual.dto.BusinessHoursRequest;
 import com.La.Visual.dto.RequestResponse;
 import com.La.Visual.dto.UnavailableRangesRequest;
 // Import services that contain business logic
 import com.La.Visual.service.AuthService;
+import com.La.Visual.service.AvailabilityRuleService;
+import com.La.Visual.service.BusinessHoursService;
+import com.La.Visual.service.ResourceVersions;
+import com.La.Visual.service.ResponseCache;
 import com.La.Visual.service.ScheduleService;
 // Import Spring framework components for web functionality
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,8 +38,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-// Import Java utility classes
+// Import Java time and utility classes
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -40,16 +52,30 @@ import java.util.Map;
 @RequestMapping("/api/schedules")
 public class ScheduleController {
     
+    // Maximum number of dates saved by one bulk request (one year)
+    private static final int MAX_BULK_DATES = 366;
+    
     // Service for schedule-related business logic operations
     private final ScheduleService scheduleService;
     // Service for authentication and authorization checks
     private final AuthService authService;
+    // Shared cache of serialized read responses
+    private final ResponseCache responseCache;
+    // Service for recurring availability rules
+    private final AvailabilityRuleService ruleService;
+    // Service for the business-hours template
+    private final BusinessHoursService businessHoursService;
     
     // Constructor with dependency injection via @Autowired
     @Autowired
-    public ScheduleController(ScheduleService scheduleService, AuthService authService) {
+    public ScheduleController(ScheduleService scheduleService, AuthService authService,
+                              ResponseCache responseCache, AvailabilityRuleService ruleService,
+                              BusinessHoursService businessHoursService) {
         this.scheduleService = scheduleService;
         this.authService = authService;
+        this.responseCache = responseCache;
+        this.ruleService = ruleService;
+        this.businessHoursService = businessHoursService;
     }
     
     /**
@@ -77,16 +103,25 @@ public class ScheduleController {
                     ));
             }
             
-            // Call service to save the unavailable time ranges
-            scheduleService.saveUnavailableTimeRanges(request.getDate(), request.getUnavailableRanges());
+            // Call service to save the unavailable time ranges (only the difference is written)
+            ScheduleService.SaveSummary summary =
+                scheduleService.saveUnavailableTimeRanges(request.getDate(), request.getUnavailableRanges());
             
             // Return success response
             return ResponseEntity.ok(new RequestResponse(
                 "Unavailable time ranges saved successfully", 
-                null, 
+                summary, 
                 200, 
                 true
             ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(new RequestResponse(
+                    e.getMessage(), 
+                    null, 
+                    400, 
+                    false
+                ));
         } catch (Exception e) {
             // Log the error and return a 500 error response
             e.printStackTrace();
@@ -101,14 +136,15 @@ public class ScheduleController {
     }
     
     /**
-     * Get unavailable time ranges for a specific date
-     * GET /api/schedules/unavailable/{date}
+     * Save unavailable time ranges for several dates at once
+     * POST /api/schedules/unavailable/bulk
+     * Body: [{"date": "2025-06-02", "unavailableRanges": [...]}, ...]
      * 
-     * This endpoint allows admins to retrieve all unavailable time slots for a specific date
+     * All dates are saved in one transaction, e.g. to block every day of a vacation
      */
-    @GetMapping("/unavailable/{date}")
-    public ResponseEntity<RequestResponse> getUnavailableTimeRanges(
-            @PathVariable String date,  // Date parameter from URL path
+    @PostMapping("/unavailable/bulk")
+    public ResponseEntity<RequestResponse> saveUnavailableTimeRangesForDates(
+            @RequestBody List<UnavailableRangesRequest> requests,  // One entry per date
             @RequestHeader("Authorization") String authHeader) {  // JWT token for authentication
         
         try {
@@ -125,20 +161,109 @@ public class ScheduleController {
                     ));
             }
             
-            // Call service to get unavailable time ranges for the specified date
-            List<com.La.Visual.dto.UnavailableTimeRange> ranges = scheduleService.getUnavailableTimeRangesDto(date);
+            if (requests == null || requests.isEmpty() || requests.size() > MAX_BULK_DATES) {
+                return ResponseEntity.badRequest()
+                    .body(new RequestResponse(
+                        "Send between 1 and " + MAX_BULK_DATES + " dates", 
+                        null, 
+                        400, 
+                        false
+                    ));
+            }
+            
+            // Collect the ranges per date; each date may appear only once
+            Map<String, List<com.La.Visual.dto.UnavailableTimeRange>> rangesByDate = new LinkedHashMap<>();
+            for (UnavailableRangesRequest request : requests) {
+                List<com.La.Visual.dto.UnavailableTimeRange> ranges =
+                    request.getUnavailableRanges() == null ? List.of() : request.getUnavailableRanges();
+                if (rangesByDate.put(request.getDate(), ranges) != null) {
+                    return ResponseEntity.badRequest()
+                        .body(new RequestResponse(
+                            "Date " + request.getDate() + " appears more than once", 
+                            null, 
+                            400, 
+                            false
+                        ));
+                }
+            }
             
-            // Prepare response data structure
-            Map<String, Object> responseData = new HashMap<>();
-            responseData.put("unavailableRanges", ranges);
+            ScheduleService.SaveSummary summary = scheduleService.saveUnavailableTimeRanges(rangesByDate);
             
-            // Return success response with the retrieved data
             return ResponseEntity.ok(new RequestResponse(
-                "Unavailable time ranges retrieved successfully", 
-                responseData, 
+                "Unavailable time ranges saved for " + summary.dates() + " date(s)", 
+                summary, 
                 200, 
                 true
             ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(new RequestResponse(
+                    e.getMessage(), 
+                    null, 
+                    400, 
+                    false
+                ));
+        } catch (Exception e) {
+            // Log the error and return a 500 error response
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new RequestResponse(
+                    "Failed to save unavailable time ranges: " + e.getMessage(), 
+                    null, 
+                    500, 
+                    false
+                ));
+        }
+    }
+    
+    /**
+     * Get unavailable time ranges for a specific date
+     * GET /api/schedules/unavailable/{date}
+     * 
+     * This endpoint allows admins to retrieve all unavailable time slots for a specific date
+     */
+    @GetMapping("/unavailable/{date}")
+    public ResponseEntity<?> getUnavailableTimeRanges(
+            @PathVariable String date,  // Date parameter from URL path
+            @RequestHeader("Authorization") String authHeader,  // JWT token for authentication
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {  // ETag from an earlier response
+        
+        try {
+            // Verify the admin is authenticated by extracting and validating the JWT token
+            String token = authHeader.substring(7); // Remove "Bearer " prefix
+            if (!authService.isAdminAuthenticated(token)) {
+                // Return 401 Unauthorized if not an admin
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new RequestResponse(
+                        "Unauthorized access", 
+                        null, 
+                        401, 
+                        false
+                    ));
+            }
+            
+            // Serve the cached JSON; the ranges are only read again after a schedule change
+            return responseCache.get(ResourceVersions.Resource.SCHEDULES, "unavailable|" + date, () -> {
+                // Call service to get unavailable time ranges for the specified date
+                List<com.La.Visual.dto.UnavailableTimeRange> ranges = scheduleService.getUnavailableTimeRangesDto(date);
+                
+                // Prepare response data structure
+                Map<String, Object> responseData = new HashMap<>();
+                responseData.put("unavailableRanges", ranges);
+                // Ranges blocked by recurring rules are expanded for this date only
+                try {
+                    responseData.put("recurringRanges", ruleService.getBlockedRanges(LocalDate.parse(date)));
+                } catch (DateTimeParseException e) {
+                    responseData.put("recurringRanges", List.of());
+                }
+                
+                return new RequestResponse(
+                    "Unavailable time ranges retrieved successfully", 
+                    responseData, 
+                    200, 
+                    true
+                );
+            }).toResponseEntity(ifNoneMatch);
         } catch (Exception e) {
             // Log the error and return a 500 error response
             e.printStackTrace();
@@ -151,4 +276,241 @@ public class ScheduleController {
                 ));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Get all recurring availability rules
+     * GET /api/schedules/rules
+     */
+    @GetMapping("/rules")
+    public ResponseEntity<RequestResponse> getRules(
+            @RequestHeader("Authorization") String authHeader) {  // JWT token for authentication
+        
+        try {
+            // Verify the admin is authenticated by extracting and validating the JWT token
+            String token = authHeader.substring(7); // Remove "Bearer " prefix
+            if (!authService.isAdminAuthenticated(token)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new RequestResponse("Unauthorized access", null, 401, false));
+            }
+            
+            Map<String, Object> responseData = new LinkedHashMap<>();
+            responseData.put("rules", ruleService.getRules());
+            responseData.put("cache", ruleService.getCacheStats());
+            return ResponseEntity.ok(new RequestResponse(
+                "Availability rules retrieved successfully",
+                responseData,
+                200,
+                true
+            ));
+        } catch (Exception e) {
+            // Log the error and return a 500 error response
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new RequestResponse(
+                    "Failed to retrieve availability rules: " + e.getMessage(),
+                    null,
+                    500,
+                    false
+                ));
+        }
+    }
+    
+    /**
+     * Create a recurring availability rule
+     * POST /api/schedules/rules
+     * 
+     * Example: {"label": "Sunday rest day", "days": ["SUNDAY"], "startTime": "00:00", "endTime": "00:00"}
+     * blocks every Sunday from now on, without writing a row per date
+     */
+    @PostMapping("/rules")
+    public ResponseEntity<RequestResponse> createRule(
+            @RequestBody AvailabilityRuleRequest request,  // Rule definition
+            @RequestHeader("Authorization") String authHeader) {  // JWT token for authentication
+        
+        try {
+            // Verify the admin is authenticated by extracting and validating the JWT token
+            String token = authHeader.substring(7); // Remove "Bearer " prefix
+            if (!authService.isAdminAuthenticated(token)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new RequestResponse("Unauthorized access", null, 401, false));
+            }
+            
+            RequestResponse response = ruleService.createRule(request);
+            return ResponseEntity.status(response.getStatusCode()).body(response);
+        } catch (Exception e) {
+            // Log the error and return a 500 error response
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new RequestResponse(
+                    "Failed to create availability rule: " + e.getMessage(),
+                    null,
+                    500,
+                    false
+                ));
+        }
+    }
+    
+    /**
+     * Delete a recurring availability rule
+     * DELETE /api/schedules/rules/{id}
+     */
+    @DeleteMapping("/rules/{id}")
+    public ResponseEntity<RequestResponse> deleteRule(
+            @PathVariable Integer id,  // Rule ID from URL path
+            @RequestHeader("Authorization") String authHeader) {  // JWT token for authentication
+        
+        try {
+            // Verify the admin is authenticated by extracting and validating the JWT token
+            String token = authHeader.substring(7); // Remove "Bearer " prefix
+            if (!authService.isAdminAuthenticated(token)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new RequestResponse("Unauthorized access", null, 401, false));
+            }
+            
+            RequestResponse response = ruleService.deleteRule(id);
+            return ResponseEntity.status(response.getStatusCode()).body(response);
+        } catch (Exception e) {
+            // Log the error and return a 500 error response
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new RequestResponse(
+                    "Failed to delete availability rule: " + e.getMessage(),
+                    null,
+                    500,
+                    false
+                ));
+        }
+    }
+    
+    /**
+     * Exclude a date from a rule (e.g. a Sunday that is open after all)
+     * POST /api/schedules/rules/{id}/exceptions/{date}
+     */
+    @PostMapping("/rules/{id}/exceptions/{date}")
+    public ResponseEntity<RequestResponse> addRuleException(
+            @PathVariable Integer id,  // Rule ID from URL path
+            @PathVariable String date,  // Date from URL path (YYYY-MM-DD)
+            @RequestHeader("Authorization") String authHeader) {  // JWT token for authentication
+        
+        try {
+            // Verify the admin is authenticated by extracting and validating the JWT token
+            String token = authHeader.substring(7); // Remove "Bearer " prefix
+            if (!authService.isAdminAuthenticated(token)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new RequestResponse("Unauthorized access", null, 401, false));
+            }
+            
+            RequestResponse response = ruleService.setException(id, date, true);
+            return ResponseEntity.status(response.getStatusCode()).body(response);
+        } catch (Exception e) {
+            // Log the error and return a 500 error response
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new RequestResponse(
+                    "Failed to add rule exception: " + e.getMessage(),
+                    null,
+                    500,
+                    false
+                ));
+        }
+    }
+    
+    /**
+     * Make a rule apply on a previously excluded date again
+     * DELETE /api/schedules/rules/{id}/exceptions/{date}
+     */
+    @DeleteMapping("/rules/{id}/exceptions/{date}")
+    public ResponseEntity<RequestResponse> removeRuleException(
+            @PathVariable Integer id,  // Rule ID from URL path
+            @PathVariable String date,  // Date from URL path (YYYY-MM-DD)
+            @RequestHeader("Authorization") String authHeader) {  // JWT token for authentication
+        
+        try {
+            // Verify the admin is authenticated by extracting and validating the JWT token
+            String token = authHeader.substring(7); // Remove "Bearer " prefix
+            if (!authService.isAdminAuthenticated(token)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new RequestResponse("Unauthorized access", null, 401, false));
+            }
+            
+            RequestResponse response = ruleService.setException(id, date, false);
+            return ResponseEntity.status(response.getStatusCode()).body(response);
+        } catch (Exception e) {
+            // Log the error and return a 500 error response
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new RequestResponse(
+                    "Failed to remove rule exception: " + e.getMessage(),
+                    null,
+                    500,
+                    false
+                ));
+        }
+    }
+    
+    /**
+     * Get the business-hours template
+     * GET /api/schedules/hours
+     */
+    @GetMapping("/hours")
+    public ResponseEntity<RequestResponse> getBusinessHours(
+            @RequestHeader("Authorization") String authHeader) {  // JWT token for authentication
+        
+        try {
+            // Verify the admin is authenticated by extracting and validating the JWT token
+            String token = authHeader.substring(7); // Remove "Bearer " prefix
+            if (!authService.isAdminAuthenticated(token)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new RequestResponse("Unauthorized access", null, 401, false));
+            }
+            
+            return ResponseEntity.ok(businessHoursService.getBusinessHours());
+        } catch (Exception e) {
+            // Log the error and return a 500 error response
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new RequestResponse(
+                    "Failed to retrieve business hours: " + e.getMessage(),
+                    null,
+                    500,
+                    false
+                ));
+        }
+    }
+    
+    /**
+     * Replace the business-hours template
+     * PUT /api/schedules/hours
+     * 
+     * Example: {"slotMinutes": 30, "windows": [{"day": "MON", "open": "09:00", "close": "18:00"}],
+     *           "holidays": [{"date": "2025-12-25", "label": "Christmas Day"}]}
+     * Weekdays without windows are closed. Takes effect for new bookings once saved.
+     */
+    @PutMapping("/hours")
+    public ResponseEntity<RequestResponse> updateBusinessHours(
+            @RequestBody BusinessHoursRequest request,  // The new template
+            @RequestHeader("Authorization") String authHeader) {  // JWT token for authentication
+        
+        try {
+            // Verify the admin is authenticated by extracting and validating the JWT token
+            String token = authHeader.substring(7); // Remove "Bearer " prefix
+            if (!authService.isAdminAuthenticated(token)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new RequestResponse("Unauthorized access", null, 401, false));
+            }
+            
+            RequestResponse response = businessHoursService.updateBusinessHours(request);
+            return ResponseEntity.status(response.getStatusCode()).body(response);
+        } catch (Exception e) {
+            // Log the error and return a 500 error response
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new RequestResponse(
+                    "Failed to update business hours: " + e.getMessage(),
+                    null,
+                    500,
+                    false
+                ));
+        }
+    }
+}
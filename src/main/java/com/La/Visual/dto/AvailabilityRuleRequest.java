@@ -0,0 +1,168 @@
+/**
+ * AvailabilityRuleRequest DTO (Data Transfer Object)
+ *
+ * This class serves as a container for requests that create a recurring availability rule,
+ * such as "block every Sunday" or "block weekday mornings until the end of the year".
+ *
+ * Key features:
+ * - Weekdays by name ("MONDAY" or "MON"), times in 24-hour format (HH:mm)
+ * - Optional validity period and week interval (every week by default)
+ * - Optional exception dates on which the rule does not apply
+ * - Used by the ScheduleController.createRule endpoint (POST /api/schedules/rules)
+ * - Processed by AvailabilityRuleService.createRule method
+ */
+package com.La.Visual.dto;
+
+// Import the List interface from Java Collections Framework
+import java.util.List;
+
+// Class definition - a standard Java class used as a Data Transfer Object
+public class AvailabilityRuleRequest {
+    // Name shown to admins (e.g., "Sunday rest day")
+    private String label;
+
+    // Weekdays the rule applies to (e.g., ["SATURDAY", "SUNDAY"])
+    private List<String> days;
+
+    // Blocked time of day in 24-hour format (HH:mm); an end of "00:00" means midnight
+    private String startTime;
+    private String endTime;
+
+    // Validity period in "YYYY-MM-DD" format (from defaults to today, until to no end)
+    private String validFrom;
+    private String validUntil;
+
+    // 1 = every week (default), 2 = every other week, ...
+    private Integer intervalWeeks;
+
+    // Dates in "YYYY-MM-DD" format on which the rule does not apply
+    private List<String> exceptions;
+
+    /**
+     * Returns the label of the rule
+     * @return the label
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Sets the label of the rule
+     * @param label the label
+     */
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the weekdays the rule applies to
+     * @return List of weekday names
+     */
+    public List<String> getDays() {
+        return days;
+    }
+
+    /**
+     * Sets the weekdays the rule applies to
+     * @param days List of weekday names
+     */
+    public void setDays(List<String> days) {
+        this.days = days;
+    }
+
+    /**
+     * Returns the start of the blocked time
+     * @return the start time (HH:mm)
+     */
+    public String getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Sets the start of the blocked time
+     * @param startTime the start time (HH:mm)
+     */
+    public void setStartTime(String startTime) {
+        this.startTime = startTime;
+    }
+
+    /**
+     * Returns the end of the blocked time
+     * @return the end time (HH:mm)
+     */
+    public String getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Sets the end of the blocked time
+     * @param endTime the end time (HH:mm)
+     */
+    public void setEndTime(String endTime) {
+        this.endTime = endTime;
+    }
+
+    /**
+     * Returns the first date the rule applies to
+     * @return the date (YYYY-MM-DD), or null for today
+     */
+    public String getValidFrom() {
+        return validFrom;
+    }
+
+    /**
+     * Sets the first date the rule applies to
+     * @param validFrom the date (YYYY-MM-DD)
+     */
+    public void setValidFrom(String validFrom) {
+        this.validFrom = validFrom;
+    }
+
+    /**
+     * Returns the last date the rule applies to
+     * @return the date (YYYY-MM-DD), or null for no end
+     */
+    public String getValidUntil() {
+        return validUntil;
+    }
+
+    /**
+     * Sets the last date the rule applies to
+     * @param validUntil the date (YYYY-MM-DD)
+     */
+    public void setValidUntil(String validUntil) {
+        this.validUntil = validUntil;
+    }
+
+    /**
+     * Returns the week interval
+     * @return the interval, or null for every week
+     */
+    public Integer getIntervalWeeks() {
+        return intervalWeeks;
+    }
+
+    /**
+     * Sets the week interval
+     * @param intervalWeeks 1 for every week, 2 for every other week, ...
+     */
+    public void setIntervalWeeks(Integer intervalWeeks) {
+        this.intervalWeeks = intervalWeeks;
+    }
+
+    /**
+     * Returns the dates on which the rule does not apply
+     * @return List of dates (YYYY-MM-DD)
+     */
+    public List<String> getExceptions() {
+        return exceptions;
+    }
+
+    /**
+     * Sets the dates on which the rule does not apply
+     * @param exceptions List of dates (YYYY-MM-DD)
+     */
+    public void setExceptions(List<String> exceptions) {
+        this.exceptions = exceptions;
+    }
+}
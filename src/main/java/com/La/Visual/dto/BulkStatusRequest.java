@@ -0,0 +1,77 @@
+/**
+ * BulkStatusRequest DTO (Data Transfer Object)
+ *
+ * This class serves as a container for requests that change the status of many bookings at once.
+ * It is used by administrators to approve, reject or complete a selection of bookings in one call
+ * instead of sending one request per booking.
+ *
+ * Key features:
+ * - Contains the IDs of the bookings to change and the single target status
+ * - Optional admin notes that are stored on every changed booking
+ * - Used by the BookingController.bulkUpdateStatus endpoint (POST /api/bookings/bulk-status)
+ * - Processed by BookingService.bulkUpdateStatus method
+ */
+package com.La.Visual.dto;
+
+// Import the List interface from Java Collections Framework to store the booking IDs
+import java.util.List;
+
+// Class definition - a standard Java class used as a Data Transfer Object
+public class BulkStatusRequest {
+    // IDs of the bookings whose status should change
+    private List<Integer> ids;
+
+    // The target status (CONFIRMED, CANCELLED or COMPLETED)
+    private String status;
+
+    // Notes stored on every changed booking (null keeps the existing notes)
+    private String adminNotes;
+
+    /**
+     * Returns the IDs of the bookings to change
+     * @return List of booking IDs
+     */
+    public List<Integer> getIds() {
+        return ids;
+    }
+
+    /**
+     * Sets the IDs of the bookings to change
+     * @param ids List of booking IDs
+     */
+    public void setIds(List<Integer> ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * Returns the target status
+     * @return the status name
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the target status
+     * @param status the status name (e.g. "CONFIRMED")
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Returns the admin notes for the changed bookings
+     * @return the notes, or null
+     */
+    public String getAdminNotes() {
+        return adminNotes;
+    }
+
+    /**
+     * Sets the admin notes for the changed bookings
+     * @param adminNotes the notes to store
+     */
+    public void setAdminNotes(String adminNotes) {
+        this.adminNotes = adminNotes;
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * BusinessHoursRequest DTO (Data Transfer Object)
+ *
+ * This class serves as a container for requests that replace the business-hours
+ * template: when bookings are taken on each weekday, which dates are holidays and
+ * which slot granularity booking times must align to.
+ *
+ * Key features:
+ * - Several windows per weekday are allowed (e.g. 08:00-12:00 and 13:00-18:00)
+ * - A weekday without windows is closed
+ * - Used by the ScheduleController.updateBusinessHours endpoint (PUT /api/schedules/hours)
+ * - Processed by BusinessHoursService.updateBusinessHours method
+ */
+package com.La.Visual.dto;
+
+// Import the List interface from Java Collections Framework
+import java.util.List;
+
+// Class definition - a standard Java class used as a Data Transfer Object
+public class BusinessHoursRequest {
+    // Booking times align to this many minutes (must divide a day evenly)
+    private Integer slotMinutes;
+
+    // Opening windows of the week
+    private List<Window> windows;
+
+    // Dates on which no bookings are taken
+    private List<Holiday> holidays;
+
+    /**
+     * Returns the slot granularity
+     * @return minutes per slot
+     */
+    public Integer getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    /**
+     * Sets the slot granularity
+     * @param slotMinutes minutes per slot
+     */
+    public void setSlotMinutes(Integer slotMinutes) {
+        this.slotMinutes = slotMinutes;
+    }
+
+    /**
+     * Returns the opening windows
+     * @return List of windows
+     */
+    public List<Window> getWindows() {
+        return windows;
+    }
+
+    /**
+     * Sets the opening windows
+     * @param windows List of windows
+     */
+    public void setWindows(List<Window> windows) {
+        this.windows = windows;
+    }
+
+    /**
+     * Returns the holidays
+     * @return List of holidays
+     */
+    public List<Holiday> getHolidays() {
+        return holidays;
+    }
+
+    /**
+     * Sets the holidays
+     * @param holidays List of holidays
+     */
+    public void setHolidays(List<Holiday> holidays) {
+        this.holidays = holidays;
+    }
+
+    // One opening window, e.g. {"day": "MONDAY", "open": "09:00", "close": "18:00"}
+    public static class Window {
+        // Weekday name ("MONDAY" or "MON")
+        private String day;
+        // Times in 24-hour format (HH:mm); a close of "00:00" means midnight
+        private String open;
+        private String close;
+
+        /**
+         * Returns the weekday
+         * @return the weekday name
+         */
+        public String getDay() {
+            return day;
+        }
+
+        /**
+         * Sets the weekday
+         * @param day the weekday name
+         */
+        public void setDay(String day) {
+            this.day = day;
+        }
+
+        /**
+         * Returns the opening time
+         * @return the time (HH:mm)
+         */
+        public String getOpen() {
+            return open;
+        }
+
+        /**
+         * Sets the opening time
+         * @param open the time (HH:mm)
+         */
+        public void setOpen(String open) {
+            this.open = open;
+        }
+
+        /**
+         * Returns the closing time
+         * @return the time (HH:mm)
+         */
+        public String getClose() {
+            return close;
+        }
+
+        /**
+         * Sets the closing time
+         * @param close the time (HH:mm)
+         */
+        public void setClose(String close) {
+            this.close = close;
+        }
+    }
+
+    // One holiday, e.g. {"date": "2025-12-25", "label": "Christmas Day"}
+    public static class Holiday {
+        // Date in "YYYY-MM-DD" format
+        private String date;
+        // Name shown to admins and guests
+        private String label;
+
+        /**
+         * Returns the date
+         * @return the date (YYYY-MM-DD)
+         */
+        public String getDate() {
+            return date;
+        }
+
+        /**
+         * Sets the date
+         * @param date the date (YYYY-MM-DD)
+         */
+        public void setDate(String date) {
+            this.date = date;
+        }
+
+        /**
+         * Returns the label
+         * @return the label
+         */
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * Sets the label
+         * @param label the label
+         */
+        public void setLabel(String label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Availability Rule Entity
+ *
+ * A recurring block in the schedule, such as "every Sunday, all day" or "weekday
+ * mornings 08:00-12:00 until the end of the year". Instead of one unavailable range
+ * per date, the pattern is stored once and evaluated when a date is looked at.
+ *
+ * Key features:
+ * - Weekdays are kept as a bitmask (bit 0 = Monday ... bit 6 = Sunday)
+ * - A validity period (open-ended when validUntil is null) and a week interval
+ *   (every week, every other week, ...)
+ * - Exception dates on which the rule does not apply
+ * - appliesOn(date) is plain arithmetic, so checking a date costs the same whether
+ *   the rule spans a month or ten years
+ *
+ * Like Booking, the entity is immutable and built with Lombok.
+ */
+package com.La.Visual.entity;
+
+// Import Lombok annotations to reduce boilerplate code
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.With;
+
+// Import Java time API and utility classes
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Lombok annotations to generate common methods
+@Getter                 // Automatically generates getter methods for all fields
+@With                   // Creates withX methods that return a new instance with the changed field
+@Builder(toBuilder = true)  // Provides a builder pattern, toBuilder allows creating a builder from an instance
+@ToString               // Generates a toString method that includes all fields
+@EqualsAndHashCode      // Generates equals and hashCode methods based on all fields
+@AllArgsConstructor     // Creates a constructor with all fields as parameters
+public class AvailabilityRule {
+    private final Integer id;
+
+    private final String label;          // Shown to admins (e.g., "Sunday rest day")
+    private final int daysOfWeek;        // Bit 0 = Monday ... bit 6 = Sunday
+
+    private final LocalTime startTime;   // Start of the blocked range
+    private final LocalTime endTime;     // End of the blocked range (00:00 = until midnight)
+
+    private final LocalDate validFrom;   // First date the rule applies to
+    private final LocalDate validUntil;  // Last date the rule applies to (null = no end)
+    private final int intervalWeeks;     // 1 = every week, 2 = every other week, ...
+
+    private final Set<LocalDate> exceptions; // Dates on which the rule does not apply
+
+    private final LocalDateTime createdAt;   // When the rule was created
+
+    /**
+     * Returns the bit of a weekday in the daysOfWeek mask
+     *
+     * @param day The weekday
+     * @return The bit (Monday = 1, Tuesday = 2, ... Sunday = 64)
+     */
+    public static int bitOf(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    /**
+     * Checks whether the rule blocks time on a date
+     *
+     * @param date The date to check
+     * @return true if the date is in the validity period, on a selected weekday, in a
+     *         selected week and not an exception
+     */
+    public boolean appliesOn(LocalDate date) {
+        if (date.isBefore(validFrom) || (validUntil != null && date.isAfter(validUntil))) {
+            return false;
+        }
+        if ((daysOfWeek & bitOf(date.getDayOfWeek())) == 0) {
+            return false;
+        }
+        if (intervalWeeks > 1) {
+            // Weeks are counted from the Monday of the week the rule starts in
+            long firstMonday = validFrom.toEpochDay() - (validFrom.getDayOfWeek().getValue() - 1);
+            long weeks = (date.toEpochDay() - firstMonday) / 7;
+            if (weeks % intervalWeeks != 0) {
+                return false;
+            }
+        }
+        return exceptions == null || !exceptions.contains(date);
+    }
+
+    /**
+     * Returns the selected weekdays (for API responses)
+     *
+     * @return Weekdays in order from Monday
+     */
+    public List<DayOfWeek> getDays() {
+        List<DayOfWeek> days = new ArrayList<>(7);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((daysOfWeek & bitOf(day)) != 0) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+}
@@ -66,6 +66,7 @@ public class Booking {
     // Payment information
     private final Integer paymentId;     // Reference to the associated payment record
     private final String paymentProof;   // File reference to uploaded payment proof
+    private final Integer proofDuplicateOf; // Earlier booking whose payment proof looks the same (for admin review)
     
     // Administrative information
     private final String adminNotes;     // Notes added by administrators
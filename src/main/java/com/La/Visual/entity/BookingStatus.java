@@ -0,0 +1,112 @@
+/**
+ * Booking Status
+ *
+ * The values of bookings.booking_status and the transitions allowed between them.
+ * The transition rules are compiled once into a lookup table, so checking a
+ * transition (for example while validating a bulk approval of thousands of bookings)
+ * is a single array access.
+ *
+ * Allowed transitions:
+ *   PENDING   -> CONFIRMED  (approve)
+ *   PENDING   -> CANCELLED  (reject)
+ *   CONFIRMED -> CANCELLED  (cancel an approved booking)
+ *   CONFIRMED -> COMPLETED  (session took place)
+ *
+ * CANCELLED and COMPLETED are final. Setting a booking to the status it already has
+ * is not a transition; callers report it as unchanged.
+ */
+package com.La.Visual.entity;
+
+// Import Java utility classes
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public enum BookingStatus {
+    PENDING,
+    CONFIRMED,
+    CANCELLED,
+    COMPLETED;
+
+    // ALLOWED[from.ordinal()][to.ordinal()] - compiled from the rules below
+    private static final boolean[][] ALLOWED = new boolean[values().length][values().length];
+    // For each target status, the names of the statuses it can be reached from (for SQL IN lists)
+    private static final List<Set<String>> SOURCES;
+
+    static {
+        allow(PENDING, CONFIRMED);
+        allow(PENDING, CANCELLED);
+        allow(CONFIRMED, CANCELLED);
+        allow(CONFIRMED, COMPLETED);
+
+        List<Set<String>> sources = new ArrayList<>(values().length);
+        for (BookingStatus to : values()) {
+            Set<String> names = new LinkedHashSet<>();
+            for (BookingStatus from : values()) {
+                if (ALLOWED[from.ordinal()][to.ordinal()]) {
+                    names.add(from.name());
+                }
+            }
+            sources.add(Collections.unmodifiableSet(names));
+        }
+        SOURCES = List.copyOf(sources);
+    }
+
+    private static void allow(BookingStatus from, BookingStatus to) {
+        ALLOWED[from.ordinal()][to.ordinal()] = true;
+    }
+
+    /**
+     * Checks whether a booking in this status may move to another status
+     *
+     * @param to The target status
+     * @return true if the transition is allowed
+     */
+    public boolean canTransitionTo(BookingStatus to) {
+        return ALLOWED[ordinal()][to.ordinal()];
+    }
+
+    /**
+     * Returns the statuses from which this status can be reached
+     *
+     * @return Status names, suitable for a "booking_status IN (...)" condition
+     */
+    public Set<String> sourceNames() {
+        return SOURCES.get(ordinal());
+    }
+
+    /**
+     * Returns the statuses this status can move to
+     *
+     * @return Target statuses
+     */
+    public Set<BookingStatus> targets() {
+        EnumSet<BookingStatus> targets = EnumSet.noneOf(BookingStatus.class);
+        for (BookingStatus to : values()) {
+            if (canTransitionTo(to)) {
+                targets.add(to);
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Parses a status name (case-insensitive)
+     *
+     * @param name The status name, e.g. "confirmed"
+     * @return The status, or null if the name is unknown
+     */
+    public static BookingStatus parse(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
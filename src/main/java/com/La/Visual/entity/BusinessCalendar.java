@@ -0,0 +1,271 @@
+/**
+ * Business Calendar
+ *
+ * Compiled, immutable form of the business-hours template: the opening windows of
+ * every weekday, the holidays and the slot granularity.
+ *
+ * How it works:
+ * - The day is divided into slots of slotMinutes (e.g. 48 slots of 30 minutes, or
+ *   1440 slots of one minute - 23 longs per weekday)
+ * - Each weekday's windows are compiled once into a bitmask (long[], bit n = slot n is
+ *   open), so checking a booking is a few word comparisons instead of a walk over the
+ *   windows
+ * - Instances never change after compile(); BusinessHoursService swaps in a new one
+ *   when the template is edited, so readers need no locks
+ */
+package com.La.Visual.entity;
+
+// Import Java time and utility classes
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public final class BusinessCalendar {
+
+    // Minutes in a day; an end time of 00:00 stands for this minute (midnight)
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    // Slot length in minutes (divides MINUTES_PER_DAY)
+    private final int slotMinutes;
+    // Number of slots in a day
+    private final int slotsPerDay;
+    // Open slots per weekday (index 0 = Monday)
+    private final long[][] masks;
+    // The windows the masks were compiled from (for API responses)
+    private final List<Window> windows;
+    // Holidays by date, with their labels
+    private final Map<LocalDate, String> holidays;
+
+    private BusinessCalendar(int slotMinutes, long[][] masks, List<Window> windows, Map<LocalDate, String> holidays) {
+        this.slotMinutes = slotMinutes;
+        this.slotsPerDay = MINUTES_PER_DAY / slotMinutes;
+        this.masks = masks;
+        this.windows = windows;
+        this.holidays = holidays;
+    }
+
+    /**
+     * Compiles a template into per-weekday slot masks
+     *
+     * @param slotMinutes Slot granularity; must divide a day evenly
+     * @param windows Opening windows (windows of one weekday may overlap)
+     * @param holidays Holiday labels by date
+     * @return The compiled calendar
+     * @throws IllegalArgumentException if the granularity or a window is invalid
+     */
+    public static BusinessCalendar compile(int slotMinutes, List<Window> windows, Map<LocalDate, String> holidays) {
+        if (slotMinutes < 1 || slotMinutes > 240 || MINUTES_PER_DAY % slotMinutes != 0) {
+            throw new IllegalArgumentException("slotMinutes must divide a day evenly (1 to 240 minutes)");
+        }
+        int slots = MINUTES_PER_DAY / slotMinutes;
+        long[][] masks = new long[7][(slots + 63) / 64];
+
+        for (Window window : windows) {
+            int open = minuteOf(window.open());
+            int close = endMinuteOf(window.close());
+            if (close <= open) {
+                throw new IllegalArgumentException("window " + window.day() + " " + window.open() + "-" + window.close()
+                    + " must end after it opens (use 00:00 for midnight)");
+            }
+            if (open % slotMinutes != 0 || close % slotMinutes != 0) {
+                throw new IllegalArgumentException("window " + window.day() + " " + window.open() + "-" + window.close()
+                    + " is not aligned to " + slotMinutes + "-minute slots");
+            }
+            setRange(masks[window.day().getValue() - 1], open / slotMinutes, close / slotMinutes);
+        }
+
+        List<Window> sorted = new ArrayList<>(windows);
+        sorted.sort((a, b) -> a.day() != b.day()
+            ? a.day().compareTo(b.day())
+            : a.open().compareTo(b.open()));
+        return new BusinessCalendar(slotMinutes, masks, List.copyOf(sorted),
+            Collections.unmodifiableMap(new TreeMap<>(holidays)));
+    }
+
+    /**
+     * Checks whether a booking fits the business hours
+     *
+     * @param date The booking date
+     * @param start Start time
+     * @param end End time (00:00 = midnight)
+     * @return null if the booking fits, otherwise the reason it does not
+     */
+    public String rejectionReason(LocalDate date, LocalTime start, LocalTime end) {
+        if (date == null || start == null || end == null) {
+            return "Booking date, start time and end time are required";
+        }
+        String holiday = holidays.get(date);
+        if (holiday != null) {
+            return "No bookings are taken on " + date + " (" + holiday + ")";
+        }
+        int from = minuteOf(start);
+        int to = endMinuteOf(end);
+        if (to <= from) {
+            return "Booking must end after it starts";
+        }
+        if (from % slotMinutes != 0 || to % slotMinutes != 0 || start.getSecond() != 0 || end.getSecond() != 0) {
+            return "Booking times must align to " + slotMinutes + "-minute slots";
+        }
+        if (!allSet(masks[date.getDayOfWeek().getValue() - 1], from / slotMinutes, to / slotMinutes)) {
+            return "Booking is outside business hours on " + date.getDayOfWeek();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the open slots of a date as a new bitmask the caller may modify
+     *
+     * @param date The date
+     * @return Bit n set = slot n is open (all clear on holidays)
+     */
+    public long[] openSlots(LocalDate date) {
+        long[] mask = masks[date.getDayOfWeek().getValue() - 1];
+        return holidays.containsKey(date) ? new long[mask.length] : mask.clone();
+    }
+
+    /**
+     * Clears the slots touched by a time range in a mask
+     * Partially covered slots are cleared as well
+     *
+     * @param mask The mask to modify
+     * @param start Start of the range
+     * @param end End of the range (00:00 = midnight)
+     */
+    public void clear(long[] mask, LocalTime start, LocalTime end) {
+        int from = minuteOf(start) / slotMinutes;
+        int to = (endMinuteOf(end) + slotMinutes - 1) / slotMinutes;
+        for (int slot = from; slot < Math.min(to, slotsPerDay); slot++) {
+            mask[slot >>> 6] &= ~(1L << slot);
+        }
+    }
+
+    /**
+     * Counts the minutes covered by the set slots of a mask
+     *
+     * @param mask Slots of a day
+     * @return Minutes in set slots
+     */
+    public int minutesIn(long[] mask) {
+        int slots = 0;
+        for (long word : mask) {
+            slots += Long.bitCount(word);
+        }
+        return slots * slotMinutes;
+    }
+
+    /**
+     * Lists the start times at which a run of open slots begins
+     *
+     * @param mask Open slots of a day
+     * @param length Number of consecutive slots needed
+     * @return Start times in order
+     */
+    public List<LocalTime> startsOf(long[] mask, int length) {
+        List<LocalTime> starts = new ArrayList<>();
+        int run = 0;
+        for (int slot = 0; slot < slotsPerDay; slot++) {
+            run = (mask[slot >>> 6] & (1L << slot)) != 0 ? run + 1 : 0;
+            if (run >= length) {
+                starts.add(LocalTime.MIN.plusMinutes((long) (slot - length + 1) * slotMinutes));
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * @return Slot granularity in minutes
+     */
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    /**
+     * @return The opening windows ordered by weekday and time
+     */
+    public List<Window> getWindows() {
+        return windows;
+    }
+
+    /**
+     * @return Holiday labels ordered by date
+     */
+    public Map<LocalDate, String> getHolidays() {
+        return holidays;
+    }
+
+    /**
+     * Returns the minute of the day of a time
+     *
+     * @param time The time
+     * @return Minutes since midnight
+     */
+    public static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * Returns the minute of the day of an end time, reading 00:00 as midnight
+     *
+     * @param time The end time
+     * @return Minutes since the start of the day (1440 for 00:00)
+     */
+    public static int endMinuteOf(LocalTime time) {
+        return time.equals(LocalTime.MIDNIGHT) ? MINUTES_PER_DAY : minuteOf(time);
+    }
+
+    /**
+     * Parses a weekday from its full name or three-letter abbreviation ("SUNDAY", "sun")
+     *
+     * @param name The weekday name
+     * @return The weekday
+     * @throws IllegalArgumentException if the name is not a weekday
+     */
+    public static DayOfWeek parseDay(String name) {
+        String upper = name == null ? "" : name.trim().toUpperCase();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().equals(upper) || (upper.length() == 3 && day.name().startsWith(upper))) {
+                return day;
+            }
+        }
+        throw new IllegalArgumentException("unknown day: " + name);
+    }
+
+    // Sets bits [from, to)
+    private static void setRange(long[] mask, int from, int to) {
+        for (int slot = from; slot < to; slot++) {
+            mask[slot >>> 6] |= 1L << slot;
+        }
+    }
+
+    // Checks bits [from, to) a word at a time
+    private static boolean allSet(long[] mask, int from, int to) {
+        for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+            long wanted = -1L;
+            if (word == from >>> 6) {
+                wanted &= -1L << from;
+            }
+            if (word == (to - 1) >>> 6) {
+                wanted &= -1L >>> (63 - ((to - 1) & 63));
+            }
+            if ((mask[word] & wanted) != wanted) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * One opening window
+     *
+     * @param day The weekday
+     * @param open Opening time
+     * @param close Closing time (00:00 = midnight)
+     */
+    public record Window(DayOfWeek day, LocalTime open, LocalTime close) {
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Booking Changed Event
+ *
+ * Application event published by BookingService whenever a booking is created,
+ * updated, re-scheduled, has its status changed or is deleted.
+ *
+ * Components that keep derived data about bookings (cached responses, availability
+ * payloads, live change streams, ...) listen for this event instead of being called
+ * directly by the service, so BookingService does not need to know about them.
+ * Listeners normally use @TransactionalEventListener so they only react once the
+ * change is committed.
+ *
+ * Besides the booking ID and the kind of change the event may carry the booking's
+ * slot (date, times and status after the change) - never guest data.
+ */
+package com.La.Visual.event;
+
+// Import Java time classes
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * @param bookingId The booking that changed
+ * @param change What happened to the booking
+ * @param slot The booking's slot after the change (before it, for DELETED), or null if unknown
+ */
+public record BookingChangedEvent(Integer bookingId, Change change, Slot slot) {
+
+    /**
+     * Creates an event without slot information
+     *
+     * @param bookingId The booking that changed
+     * @param change What happened to the booking
+     */
+    public BookingChangedEvent(Integer bookingId, Change change) {
+        this(bookingId, change, null);
+    }
+
+    /**
+     * Kinds of booking changes
+     */
+    public enum Change {
+        CREATED,         // A new booking was stored
+        UPDATED,         // Booking details (guest, package, location, ...) changed
+        RESCHEDULED,     // Booking date or time range changed
+        STATUS_CHANGED,  // Booking status changed (approve, reject, manual status update)
+        DELETED          // The booking was removed
+    }
+
+    /**
+     * The public part of a booking: when it takes place and its status
+     *
+     * @param date Booking date
+     * @param start Start time
+     * @param end End time
+     * @param status Booking status (PENDING, CONFIRMED, CANCELLED, COMPLETED)
+     */
+    public record Slot(LocalDate date, LocalTime start, LocalTime end, String status) {
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * Schedule Changed Event
+ *
+ * Application event published by ScheduleService whenever the unavailable time
+ * ranges of a date are replaced, and by AvailabilityRuleService whenever a recurring
+ * availability rule changes. A rule can affect any number of dates, so those events
+ * carry no date (null) and no ranges.
+ *
+ * Components that keep derived schedule data (such as cached API responses or live
+ * change streams) listen for this event, normally with @TransactionalEventListener
+ * so they only react once the change is committed.
+ */
+package com.La.Visual.event;
+
+// Import Java utility classes
+import java.util.List;
+
+/**
+ * @param date The date whose unavailable ranges changed (YYYY-MM-DD), or null if a
+ *             recurring rule changed
+ * @param ranges The date's unavailable ranges after the change (empty for rule changes)
+ */
+public record ScheduleChangedEvent(String date, List<Range> ranges) {
+
+    /**
+     * One unavailable time range
+     *
+     * @param start Start time (HH:mm)
+     * @param end End time (HH:mm)
+     */
+    public record Range(String start, String end) {
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * Availability Rule Repository
+ *
+ * This repository class is responsible for database operations related to recurring
+ * availability rules (availability_rules) and their exception dates
+ * (availability_rule_exceptions).
+ *
+ * Key features:
+ * - Direct JDBC database access using Spring's JdbcTemplate
+ * - Loads all rules with their exceptions in two queries (the table stays small:
+ *   one row per pattern, not per date)
+ * - Creation and deletion of rules, adding and removing exception dates
+ *
+ * This repository is used by the AvailabilityRuleService, which keeps the rules in
+ * memory and expands them per date.
+ */
+package com.La.Visual.repository;
+
+// Import the entity class that this repository manages
+import com.La.Visual.entity.AvailabilityRule;
+// Import Spring annotations and JDBC components
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+// Import Java SQL, time and utility classes
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Mark this class as a repository component in Spring's component scanning
+@Repository
+public class AvailabilityRuleRepository {
+
+    // Spring's JdbcTemplate for executing SQL queries safely
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor with dependency injection
+     * @param jdbcTemplate Spring's JdbcTemplate for database operations
+     */
+    @Autowired
+    public AvailabilityRuleRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Loads every rule together with its exception dates
+     *
+     * @return All rules ordered by ID
+     */
+    public List<AvailabilityRule> findAll() {
+        // Exception dates grouped by rule
+        Map<Integer, Set<LocalDate>> exceptions = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT rule_id, exception_date FROM availability_rule_exceptions",
+            rs -> {
+                exceptions.computeIfAbsent(rs.getInt("rule_id"), id -> new HashSet<>())
+                    .add(rs.getDate("exception_date").toLocalDate());
+            }
+        );
+
+        List<AvailabilityRule> rules = new ArrayList<>();
+        jdbcTemplate.query(
+            "SELECT * FROM availability_rules ORDER BY id",
+            rs -> {
+                int id = rs.getInt("id");
+                java.sql.Date validUntil = rs.getDate("valid_until");
+                Timestamp createdAt = rs.getTimestamp("created_at");
+                rules.add(AvailabilityRule.builder()
+                    .id(id)
+                    .label(rs.getString("label"))
+                    .daysOfWeek(rs.getInt("days_of_week"))
+                    .startTime(rs.getTime("start_time").toLocalTime())
+                    .endTime(rs.getTime("end_time").toLocalTime())
+                    .validFrom(rs.getDate("valid_from").toLocalDate())
+                    .validUntil(validUntil == null ? null : validUntil.toLocalDate())
+                    .intervalWeeks(rs.getInt("interval_weeks"))
+                    .exceptions(Set.copyOf(exceptions.getOrDefault(id, Set.of())))
+                    .createdAt(createdAt == null ? null : createdAt.toLocalDateTime())
+                    .build());
+            }
+        );
+        return rules;
+    }
+
+    /**
+     * Inserts a new rule with its exception dates
+     *
+     * @param rule The rule to insert (ID is ignored)
+     * @return The generated rule ID
+     */
+    public int insert(AvailabilityRule rule) {
+        // KeyHolder to retrieve auto-generated primary key
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO availability_rules (label, days_of_week, start_time, end_time, valid_from, valid_until, interval_weeks) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS
+            );
+            ps.setString(1, rule.getLabel());
+            ps.setInt(2, rule.getDaysOfWeek());
+            ps.setTime(3, java.sql.Time.valueOf(rule.getStartTime()));
+            ps.setTime(4, java.sql.Time.valueOf(rule.getEndTime()));
+            ps.setDate(5, java.sql.Date.valueOf(rule.getValidFrom()));
+            ps.setDate(6, rule.getValidUntil() == null ? null : java.sql.Date.valueOf(rule.getValidUntil()));
+            ps.setInt(7, rule.getIntervalWeeks());
+            return ps;
+        }, keyHolder);
+
+        int id = keyHolder.getKey().intValue();
+        if (rule.getExceptions() != null) {
+            for (LocalDate date : rule.getExceptions()) {
+                addException(id, date);
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Deletes a rule (its exception dates are removed by the foreign key cascade)
+     *
+     * @param id The rule ID
+     * @return true if the rule existed
+     */
+    public boolean deleteById(Integer id) {
+        return jdbcTemplate.update("DELETE FROM availability_rules WHERE id = ?", id) > 0;
+    }
+
+    /**
+     * Excludes a date from a rule
+     *
+     * @param ruleId The rule ID
+     * @param date The date on which the rule should not apply
+     */
+    public void addException(Integer ruleId, LocalDate date) {
+        jdbcTemplate.update(
+            "INSERT IGNORE INTO availability_rule_exceptions (rule_id, exception_date) VALUES (?, ?)",
+            ruleId,
+            java.sql.Date.valueOf(date)
+        );
+    }
+
+    /**
+     * Makes a rule apply on a previously excluded date again
+     *
+     * @param ruleId The rule ID
+     * @param date The excluded date
+     * @return true if the date was excluded
+     */
+    public boolean removeException(Integer ruleId, LocalDate date) {
+        return jdbcTemplate.update(
+            "DELETE FROM availability_rule_exceptions WHERE rule_id = ? AND exception_date = ?",
+            ruleId,
+            java.sql.Date.valueOf(date)
+        ) > 0;
+    }
+
+    /**
+     * Checks whether a rule exists
+     *
+     * @param id The rule ID
+     * @return true if the rule exists
+     */
+    public boolean existsById(Integer id) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM availability_rules WHERE id = ?", Integer.class, id);
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Booking Field
+ *
+ * The updatable columns of the bookings table. Partial updates pass the fields that
+ * actually changed as an EnumMap<BookingField, Object>, and BookingRepository builds
+ * an UPDATE that sets only those columns.
+ *
+ * Because an EnumMap iterates in declaration order, the same set of changed fields
+ * always produces the same SQL text, so the driver can reuse prepared statements.
+ *
+ * Key features:
+ * - Maps each field to its column name
+ * - Converts Java time values to their JDBC types (DATE, TIME)
+ * - Identity and bookkeeping columns (booking_id, booking_reference, created_at,
+ *   updated_at) are deliberately not listed, so they cannot be changed this way
+ */
+package com.La.Visual.repository;
+
+// Import Java time classes for value conversion
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public enum BookingField {
+    GUEST_NAME("guest_name"),
+    GUEST_EMAIL("guest_email"),
+    GUEST_PHONE("guest_phone"),
+    BOOKING_DATE("booking_date"),
+    BOOKING_TIME_START("booking_time_start"),
+    BOOKING_TIME_END("booking_time_end"),
+    BOOKING_HOURS("booking_hours"),
+    LOCATION("location"),
+    CATEGORY_NAME("category_name"),
+    PACKAGE_NAME("package_name"),
+    PACKAGE_PRICE("package_price"),
+    SPECIAL_REQUESTS("special_requests"),
+    BOOKING_STATUS("booking_status"),
+    PAYMENT_ID("payment_id"),
+    PAYMENT_PROOF("payment_proof"),
+    ADMIN_NOTES("admin_notes");
+
+    // Column name in the bookings table
+    private final String column;
+
+    BookingField(String column) {
+        this.column = column;
+    }
+
+    /**
+     * Returns the column name in the bookings table
+     *
+     * @return Column name
+     */
+    public String column() {
+        return column;
+    }
+
+    /**
+     * Converts a field value to the type passed to JDBC
+     *
+     * @param value The Java value (may be null)
+     * @return The value to bind as a statement parameter
+     */
+    public Object toJdbc(Object value) {
+        if (value instanceof LocalDate date) {
+            return java.sql.Date.valueOf(date);
+        }
+        if (value instanceof LocalTime time) {
+            return java.sql.Time.valueOf(time);
+        }
+        return value;
+    }
+}
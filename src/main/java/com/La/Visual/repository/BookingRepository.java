@@ -17,10 +17,15 @@
  */
 package com.La.Visual.repository;
 
-// Import the Booking entity
+// Import the Booking and Payment entities
 import com.La.Visual.entity.Booking;
+import com.La.Visual.entity.Payment;
+// Import the resource versions that key the coalesced reads
+import com.La.Visual.service.ResourceVersions;
 // Import Spring JDBC components for database access
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -28,6 +33,8 @@ import org.springframework.stereotype.Repository;
 
 // Import Java SQL and time APIs
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDate;
@@ -35,15 +42,28 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 // Import Java collection utilities
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 // Mark this class as a repository component in Spring's component scanning
 @Repository
 public class BookingRepository {
 
+    // Maximum number of IDs bound into one "IN (...)" list
+    private static final int IN_CHUNK_SIZE = 500;
+
     // Spring's JdbcTemplate for executing SQL queries safely
     private final JdbcTemplate jdbcTemplate;
+    // Lets identical concurrent range reads share one query
+    private final RequestCoalescer requestCoalescer;
 
     /**
      * Row mapper to convert database result rows into Booking objects
@@ -67,15 +87,91 @@ public class BookingRepository {
         .bookingReference(rs.getString("booking_reference"))
         .paymentId(rs.getInt("payment_id"))
         .paymentProof(rs.getString("payment_proof"))
+        .proofDuplicateOf(rs.getObject("proof_duplicate_of", Integer.class))
+        .adminNotes(rs.getString("admin_notes"))
         .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
         .build();
 
+    /**
+     * Joined read model: bookings with their payments in one query
+     * Payments are joined twice, each join on a single indexed key:
+     * - p:  payments linked to the booking (payments.booking_id, idx_payments_booking_date)
+     * - pp: the payment the booking references (bookings.payment_id, primary key)
+     * One OR-ed join condition across both columns could not use either index.
+     * The payment columns are aliased with "p_" / "pp_" prefixes so they do not clash
+     * with the booking columns; missing payments give NULL columns (LEFT JOIN)
+     */
+    private static final String BOOKING_WITH_PAYMENTS_SELECT =
+        "SELECT b.*, " + paymentColumns("p") + ", " + paymentColumns("pp") + " " +
+        "FROM bookings b " +
+        "LEFT JOIN payments p ON p.booking_id = b.booking_id " +
+        "LEFT JOIN payments pp ON pp.payment_id = b.payment_id ";
+
+    // Payment columns of a joined payments alias, prefixed with that alias
+    private static String paymentColumns(String alias) {
+        StringBuilder columns = new StringBuilder();
+        for (String column : List.of("payment_id", "booking_id", "amount", "payment_type", "payment_method",
+                "payment_status", "remaining_balance", "gcash_number", "payment_proof", "payment_date")) {
+            if (columns.length() > 0) {
+                columns.append(", ");
+            }
+            columns.append(alias).append('.').append(column).append(" AS ").append(alias).append('_').append(column);
+        }
+        return columns.toString();
+    }
+
+    /**
+     * Assembles joined rows into bookings with their payments
+     * Rows of the same booking are grouped (keeping the query's order); each booking
+     * collects the payments linked to it and remembers the payment it references
+     */
+    private final ResultSetExtractor<List<BookingWithPayments>> bookingWithPaymentsExtractor = rs -> {
+        Map<Integer, Booking> bookings = new LinkedHashMap<>();
+        Map<Integer, List<Payment>> linkedPayments = new LinkedHashMap<>();
+        Map<Integer, Payment> primaryPayments = new LinkedHashMap<>();
+        int rowNum = 0;
+        while (rs.next()) {
+            int bookingId = rs.getInt("booking_id");
+            Booking booking = bookings.get(bookingId);
+            if (booking == null) {
+                booking = bookingRowMapper.mapRow(rs, rowNum);
+                bookings.put(bookingId, booking);
+                linkedPayments.put(bookingId, new ArrayList<>());
+            }
+            rowNum++;
+
+            // Each row carries one linked payment (if any) and the referenced payment (if any)
+            Payment linked = mapJoinedPayment(rs, "p_");
+            if (linked != null) {
+                linkedPayments.get(bookingId).add(linked);
+            }
+            if (!primaryPayments.containsKey(bookingId)) {
+                Payment primary = mapJoinedPayment(rs, "pp_");
+                if (primary != null) {
+                    primaryPayments.put(bookingId, primary);
+                }
+            }
+        }
+
+        List<BookingWithPayments> result = new ArrayList<>(bookings.size());
+        for (Map.Entry<Integer, Booking> entry : bookings.entrySet()) {
+            result.add(new BookingWithPayments(
+                entry.getValue(),
+                linkedPayments.get(entry.getKey()),
+                primaryPayments.get(entry.getKey())
+            ));
+        }
+        return result;
+    };
+
     /**
      * Constructor with dependency injection
      * @param jdbcTemplate Spring's JdbcTemplate for database operations
+     * @param requestCoalescer Single-flight layer for the calendar range reads
      */
-    public BookingRepository(JdbcTemplate jdbcTemplate) {
+    public BookingRepository(JdbcTemplate jdbcTemplate, RequestCoalescer requestCoalescer) {
         this.jdbcTemplate = jdbcTemplate;
+        this.requestCoalescer = requestCoalescer;
     }
 
     /**
@@ -125,6 +221,117 @@ public class BookingRepository {
         return booking.withBookingId(id);
     }
 
+    /**
+     * Inserts many bookings with one batched statement
+     * The driver sends the rows together and returns every generated ID
+     * 
+     * @param bookings The bookings to insert (payment_id must already be set)
+     * @return The bookings with their generated IDs, in the same order
+     */
+    public List<Booking> insertBatch(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(
+                "INSERT INTO bookings (guest_name, guest_email, guest_phone, " +
+                "booking_date, booking_time_start, booking_time_end, booking_hours, " +
+                "location, category_name, package_name, package_price, " +
+                "special_requests, booking_status, booking_reference, payment_id, admin_notes, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS
+            ),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Booking booking = bookings.get(i);
+                    ps.setString(1, booking.getGuestName());
+                    ps.setString(2, booking.getGuestEmail());
+                    ps.setString(3, booking.getGuestPhone());
+                    ps.setDate(4, java.sql.Date.valueOf(booking.getBookingDate()));
+                    ps.setTime(5, java.sql.Time.valueOf(booking.getBookingTimeStart()));
+                    ps.setTime(6, java.sql.Time.valueOf(booking.getBookingTimeEnd()));
+                    ps.setInt(7, booking.getBookingHours());
+                    ps.setString(8, booking.getLocation());
+                    ps.setString(9, booking.getCategoryName());
+                    ps.setString(10, booking.getPackageName());
+                    ps.setDouble(11, booking.getPackagePrice());
+                    ps.setString(12, booking.getSpecialRequests());
+                    ps.setString(13, booking.getBookingStatus());
+                    ps.setString(14, booking.getBookingReference());
+                    ps.setInt(15, booking.getPaymentId());
+                    ps.setString(16, booking.getAdminNotes());
+                    ps.setTimestamp(17, Timestamp.valueOf(booking.getCreatedAt() != null ?
+                              booking.getCreatedAt() : LocalDateTime.now()));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return bookings.size();
+                }
+            },
+            keyHolder
+        );
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != bookings.size()) {
+            throw new IllegalStateException("Expected " + bookings.size() + " generated booking IDs but got " + keys.size());
+        }
+        List<Booking> saved = new ArrayList<>(bookings.size());
+        for (int i = 0; i < bookings.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            saved.add(bookings.get(i).withBookingId(id.intValue()));
+        }
+        return saved;
+    }
+
+    /**
+     * Finds which of the given booking references are already taken
+     * 
+     * @param references Booking references to check
+     * @return The references that exist in the database
+     */
+    public Set<String> findExistingReferences(Collection<String> references) {
+        Set<String> existing = new HashSet<>();
+        List<String> list = new ArrayList<>(references);
+        for (int from = 0; from < list.size(); from += IN_CHUNK_SIZE) {
+            List<String> chunk = list.subList(from, Math.min(list.size(), from + IN_CHUNK_SIZE));
+            existing.addAll(jdbcTemplate.queryForList(
+                "SELECT booking_reference FROM bookings WHERE booking_reference IN (" + placeholders(chunk.size()) + ")",
+                String.class,
+                chunk.toArray()
+            ));
+        }
+        return existing;
+    }
+
+    /**
+     * Finds the occupied time slots (every status except CANCELLED) on the given dates
+     * 
+     * @param dates The dates to look up
+     * @return Occupied slots ordered by date and start time
+     */
+    public List<BookedSlot> findOccupiedSlotsOn(Collection<LocalDate> dates) {
+        List<BookedSlot> slots = new ArrayList<>();
+        List<LocalDate> list = new ArrayList<>(dates);
+        for (int from = 0; from < list.size(); from += IN_CHUNK_SIZE) {
+            List<LocalDate> chunk = list.subList(from, Math.min(list.size(), from + IN_CHUNK_SIZE));
+            slots.addAll(jdbcTemplate.query(
+                "SELECT booking_date, booking_time_start, booking_time_end FROM bookings " +
+                "WHERE booking_date IN (" + placeholders(chunk.size()) + ") AND booking_status != 'CANCELLED' " +
+                "ORDER BY booking_date, booking_time_start",
+                (rs, rowNum) -> new BookedSlot(
+                    rs.getDate("booking_date").toLocalDate(),
+                    rs.getTime("booking_time_start").toLocalTime(),
+                    rs.getTime("booking_time_end").toLocalTime()
+                ),
+                chunk.stream().map(java.sql.Date::valueOf).toArray()
+            ));
+        }
+        return slots;
+    }
+
     /**
      * Finds a booking by its ID
      * 
@@ -183,12 +390,20 @@ public class BookingRepository {
     
     /**
      * Deletes a booking by its ID
+     * A tombstone is recorded so clients syncing changes learn about the deletion
      * 
      * @param id The booking ID to delete
      * @return true if deleted successfully, false otherwise
      */
     public boolean deleteById(Integer id) {
         int rowsAffected = jdbcTemplate.update("DELETE FROM bookings WHERE booking_id = ?", id);
+        if (rowsAffected > 0) {
+            jdbcTemplate.update(
+                "INSERT INTO booking_tombstones (booking_id, deleted_at) VALUES (?, CURRENT_TIMESTAMP(3)) " +
+                "ON DUPLICATE KEY UPDATE deleted_at = CURRENT_TIMESTAMP(3)",
+                id
+            );
+        }
         return rowsAffected > 0;
     }
     
@@ -234,6 +449,152 @@ public class BookingRepository {
         }
     }
 
+    /**
+     * Updates only the given columns of a booking
+     * No read is needed beforehand and unchanged columns are not sent
+     * 
+     * @param id The booking ID to update
+     * @param changes The changed fields and their new values (must not be empty)
+     * @return true if the booking exists and was updated
+     */
+    public boolean updateFields(Integer id, EnumMap<BookingField, Object> changes) {
+        return updateFieldsIf(id, changes, null);
+    }
+
+    /**
+     * Updates only the given columns of a booking, but only while it has one of the
+     * expected statuses (used for status transitions such as PENDING -> CONFIRMED)
+     * The status check and the write happen in one statement, so two admins acting
+     * on the same booking cannot both succeed
+     * 
+     * @param id The booking ID to update
+     * @param changes The changed fields and their new values (must not be empty)
+     * @param expectedStatuses Statuses the booking must currently have, or null for any
+     * @return true if the booking was updated, false if it does not exist or has another status
+     */
+    public boolean updateFieldsIf(Integer id, EnumMap<BookingField, Object> changes, Collection<String> expectedStatuses) {
+        if (changes.isEmpty()) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+        
+        StringBuilder sql = new StringBuilder("UPDATE bookings SET ");
+        List<Object> params = new ArrayList<>(changes.size() + 1 + (expectedStatuses == null ? 0 : expectedStatuses.size()));
+        for (Map.Entry<BookingField, Object> change : changes.entrySet()) {
+            if (!params.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append(change.getKey().column()).append(" = ?");
+            params.add(change.getKey().toJdbc(change.getValue()));
+        }
+        sql.append(" WHERE booking_id = ?");
+        params.add(id);
+        
+        if (expectedStatuses != null) {
+            if (expectedStatuses.isEmpty()) {
+                return false;
+            }
+            sql.append(" AND booking_status IN (")
+               .append(String.join(", ", Collections.nCopies(expectedStatuses.size(), "?")))
+               .append(")");
+            params.addAll(expectedStatuses);
+        }
+        
+        return jdbcTemplate.update(sql.toString(), params.toArray()) > 0;
+    }
+
+    /**
+     * Reads only the status of a booking
+     * Used to explain why a conditional update did not apply
+     * 
+     * @param id The booking ID
+     * @return The current status, or empty if the booking does not exist
+     */
+    public Optional<String> findStatusById(Integer id) {
+        List<String> statuses = jdbcTemplate.queryForList(
+            "SELECT booking_status FROM bookings WHERE booking_id = ?",
+            String.class,
+            id
+        );
+        return statuses.isEmpty() ? Optional.empty() : Optional.ofNullable(statuses.get(0));
+    }
+
+    /**
+     * Reads and locks the status and time slot of many bookings
+     * The rows stay locked until the surrounding transaction ends, so the statuses read
+     * here are still current when the bulk update runs
+     *
+     * @param ids The booking IDs (at most IN_CHUNK_SIZE per statement; larger lists are split)
+     * @return Status rows of the bookings that exist, keyed by booking ID
+     */
+    public Map<Integer, StatusRow> findStatusRowsForUpdate(List<Integer> ids) {
+        Map<Integer, StatusRow> rows = new LinkedHashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + IN_CHUNK_SIZE));
+            jdbcTemplate.query(
+                "SELECT booking_id, booking_status, booking_date, booking_time_start, booking_time_end " +
+                "FROM bookings WHERE booking_id IN (" + placeholders(chunk.size()) + ") FOR UPDATE",
+                rs -> {
+                    StatusRow row = new StatusRow(
+                        rs.getInt("booking_id"),
+                        rs.getString("booking_status"),
+                        rs.getDate("booking_date").toLocalDate(),
+                        rs.getTime("booking_time_start").toLocalTime(),
+                        rs.getTime("booking_time_end").toLocalTime()
+                    );
+                    rows.put(row.bookingId(), row);
+                },
+                chunk.toArray()
+            );
+        }
+        return rows;
+    }
+
+    /**
+     * Sets the status of many bookings with one UPDATE per chunk of IDs
+     * Only bookings that still have one of the expected statuses are changed
+     *
+     * @param ids The booking IDs to update
+     * @param status The new status
+     * @param adminNotes Notes to store, or null to keep the existing notes
+     * @param expectedStatuses Statuses the bookings must currently have (must not be empty)
+     * @return Number of updated bookings
+     */
+    public int updateStatusIn(List<Integer> ids, String status, String adminNotes, Collection<String> expectedStatuses) {
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + IN_CHUNK_SIZE));
+            List<Object> params = new ArrayList<>(chunk.size() + expectedStatuses.size() + 2);
+            params.add(status);
+            params.add(adminNotes);
+            params.addAll(chunk);
+            params.addAll(expectedStatuses);
+            updated += jdbcTemplate.update(
+                "UPDATE bookings SET booking_status = ?, admin_notes = COALESCE(?, admin_notes) " +
+                "WHERE booking_id IN (" + placeholders(chunk.size()) + ") " +
+                "AND booking_status IN (" + placeholders(expectedStatuses.size()) + ")",
+                params.toArray()
+            );
+        }
+        return updated;
+    }
+
+    // "?, ?, ?" for an IN list of the given size
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * Projection of a booking's status and time slot (for bulk status changes)
+     *
+     * @param bookingId Booking ID
+     * @param status Current status
+     * @param date Booking date
+     * @param start Start time
+     * @param end End time
+     */
+    public record StatusRow(Integer bookingId, String status, LocalDate date, LocalTime start, LocalTime end) {
+    }
+
     /**
      * Finds all upcoming (future) bookings that are not cancelled
      * 
@@ -326,21 +687,23 @@ public class BookingRepository {
     /**
      * Finds all approved bookings (CONFIRMED or COMPLETED) for a specific date
      * Used for calendar views and availability checking
+     * Identical concurrent calls under the same bookings version share one query (RequestCoalescer); the list is read-only
      * 
      * @param date The date to check
      * @return List of approved bookings for that date
      */
     public List<Booking> findApprovedBookingsByDate(LocalDate date) {
-        return jdbcTemplate.query(
+        return requestCoalescer.execute(ResourceVersions.Resource.BOOKINGS, "bookings/approved/date|" + date, () -> Collections.unmodifiableList(jdbcTemplate.query(
             "SELECT * FROM bookings WHERE booking_date = ? AND booking_status IN ('CONFIRMED', 'COMPLETED') ORDER BY booking_time_start",
             bookingRowMapper,
             java.sql.Date.valueOf(date)
-        );
+        )));
     }
     
     /**
      * Finds all approved bookings for a specific month and year
      * Used for monthly calendar views
+     * Identical concurrent calls under the same bookings version share one query (RequestCoalescer); the list is read-only
      * 
      * @param year The year
      * @param month The month (1-12)
@@ -351,11 +714,307 @@ public class BookingRepository {
         LocalDate startOfMonth = LocalDate.of(year, month, 1);
         LocalDate endOfMonth = startOfMonth.plusMonths(1).minusDays(1);
         
-        return jdbcTemplate.query(
+        return requestCoalescer.execute(ResourceVersions.Resource.BOOKINGS, "bookings/approved/month|" + year + "|" + month, () -> Collections.unmodifiableList(jdbcTemplate.query(
             "SELECT * FROM bookings WHERE booking_date BETWEEN ? AND ? AND booking_status IN ('CONFIRMED', 'COMPLETED') ORDER BY booking_date, booking_time_start",
             bookingRowMapper,
             java.sql.Date.valueOf(startOfMonth),
             java.sql.Date.valueOf(endOfMonth)
+        )));
+    }
+
+    /**
+     * Finds the occupied slots (every status except CANCELLED) between two dates in one range scan
+     * Reads only columns held by idx_bookings_date_status_time, so no row lookups are needed
+     * Identical concurrent calls under the same bookings version share one query (RequestCoalescer); the list is read-only
+     * 
+     * @param from First date (inclusive)
+     * @param to Last date (inclusive)
+     * @return Slots with their status, ordered by date and start time
+     */
+    public List<CalendarSlot> findCalendarSlotsBetween(LocalDate from, LocalDate to) {
+        return requestCoalescer.execute(ResourceVersions.Resource.BOOKINGS, "bookings/calendar-slots|" + from + "|" + to, () -> Collections.unmodifiableList(jdbcTemplate.query(
+            "SELECT booking_date, booking_status, booking_time_start, booking_time_end FROM bookings " +
+            "WHERE booking_date BETWEEN ? AND ? AND booking_status != 'CANCELLED' " +
+            "ORDER BY booking_date, booking_time_start",
+            (rs, rowNum) -> new CalendarSlot(
+                rs.getDate("booking_date").toLocalDate(),
+                rs.getTime("booking_time_start").toLocalTime(),
+                rs.getTime("booking_time_end").toLocalTime(),
+                rs.getString("booking_status")
+            ),
+            java.sql.Date.valueOf(from),
+            java.sql.Date.valueOf(to)
+        )));
+    }
+
+    /**
+     * Projection of an occupied slot for calendar summaries (no guest or payment data)
+     * 
+     * @param date Booking date
+     * @param start Start time
+     * @param end End time
+     * @param status Booking status
+     */
+    public record CalendarSlot(LocalDate date, LocalTime start, LocalTime end, String status) {
+    }
+
+    /**
+     * Flags a booking whose payment proof looks like the proof of an earlier booking
+     * The flag is shown to administrators when they review the booking
+     * 
+     * @param bookingId The booking with the suspicious proof
+     * @param duplicateOfBookingId The earlier booking with a near-identical proof
+     */
+    public void markProofDuplicate(Integer bookingId, Integer duplicateOfBookingId) {
+        jdbcTemplate.update(
+            "UPDATE bookings SET proof_duplicate_of = ? WHERE booking_id = ?",
+            duplicateOfBookingId,
+            bookingId
+        );
+    }
+
+    /**
+     * Finds the occupied time slots from a date onwards
+     * Reads only the three columns needed for availability, so no guest data leaves the database
+     * Identical concurrent calls under the same bookings version share one query (RequestCoalescer); the list is read-only
+     * 
+     * @param fromDate First date to include (usually today)
+     * @param status Booking status to include, or null for every status except CANCELLED
+     * @return Slots ordered by date and start time
+     */
+    public List<BookedSlot> findBookedSlots(LocalDate fromDate, String status) {
+        String statusFilter = status != null ? "booking_status = ?" : "booking_status != 'CANCELLED'";
+        Object[] params = status != null
+            ? new Object[] { java.sql.Date.valueOf(fromDate), status }
+            : new Object[] { java.sql.Date.valueOf(fromDate) };
+        
+        return requestCoalescer.execute(ResourceVersions.Resource.BOOKINGS, "bookings/booked-slots|" + fromDate + "|" + status, () -> Collections.unmodifiableList(jdbcTemplate.query(
+            "SELECT booking_date, booking_time_start, booking_time_end FROM bookings " +
+            "WHERE booking_date >= ? AND " + statusFilter + " " +
+            "ORDER BY booking_date, booking_time_start",
+            (rs, rowNum) -> new BookedSlot(
+                rs.getDate("booking_date").toLocalDate(),
+                rs.getTime("booking_time_start").toLocalTime(),
+                rs.getTime("booking_time_end").toLocalTime()
+            ),
+            params
+        )));
+    }
+
+    /**
+     * Projection of an occupied time slot (no guest or payment data)
+     * 
+     * @param date Booking date
+     * @param start Start time
+     * @param end End time
+     */
+    public record BookedSlot(LocalDate date, LocalTime start, LocalTime end) {
+    }
+
+    // Columns of the in-memory analytics snapshot (the only guest data is the email, which the snapshot hashes)
+    private static final String SNAPSHOT_COLUMNS =
+        "booking_id, booking_date, booking_time_start, booking_time_end, package_price, booking_status, " +
+        "category_name, package_name, location, created_at, guest_email";
+
+    // Maps a row to its snapshot projection
+    private static SnapshotRow snapshotRow(ResultSet rs) throws SQLException {
+        Timestamp created = rs.getTimestamp("created_at");
+        return new SnapshotRow(
+            rs.getInt("booking_id"),
+            rs.getDate("booking_date").toLocalDate(),
+            rs.getTime("booking_time_start").toLocalTime(),
+            rs.getTime("booking_time_end").toLocalTime(),
+            rs.getDouble("package_price"),
+            rs.getString("booking_status"),
+            rs.getString("category_name"),
+            rs.getString("package_name"),
+            rs.getString("location"),
+            created == null ? null : created.toLocalDateTime().toLocalDate(),
+            rs.getString("guest_email")
+        );
+    }
+
+    /**
+     * Streams every booking's snapshot projection in booking ID order
+     * Rows are fetched in batches and handed over one at a time, so the whole table is
+     * never held in memory
+     * 
+     * @param consumer Receives each row
+     */
+    public void scanSnapshotRows(Consumer<SnapshotRow> consumer) {
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement ps = connection.prepareStatement(
+                    "SELECT " + SNAPSHOT_COLUMNS + " FROM bookings ORDER BY booking_id",
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY
+                );
+                ps.setFetchSize(1000);
+                return ps;
+            },
+            rs -> {
+                consumer.accept(snapshotRow(rs));
+            }
+        );
+    }
+
+    /**
+     * Finds the snapshot projections of several bookings (one query per 500 IDs)
+     * 
+     * @param ids The booking IDs
+     * @return The rows of the bookings that exist, in no particular order
+     */
+    public List<SnapshotRow> findSnapshotRows(Collection<Integer> ids) {
+        List<SnapshotRow> rows = new ArrayList<>();
+        List<Integer> list = new ArrayList<>(ids);
+        for (int from = 0; from < list.size(); from += IN_CHUNK_SIZE) {
+            List<Integer> chunk = list.subList(from, Math.min(list.size(), from + IN_CHUNK_SIZE));
+            rows.addAll(jdbcTemplate.query(
+                "SELECT " + SNAPSHOT_COLUMNS + " FROM bookings WHERE booking_id IN (" + placeholders(chunk.size()) + ")",
+                (rs, rowNum) -> snapshotRow(rs),
+                chunk.toArray()
+            ));
+        }
+        return rows;
+    }
+
+    /**
+     * Projection of a booking for the in-memory analytics snapshot
+     * 
+     * @param bookingId Booking ID
+     * @param date Booking date
+     * @param start Start time
+     * @param end End time
+     * @param price Package price
+     * @param status Booking status
+     * @param category Category name
+     * @param packageName Package name
+     * @param location Location
+     * @param createdDate Date the booking was made (null if unknown)
+     * @param guestEmail Guest email, only used to count distinct customers
+     */
+    public record SnapshotRow(int bookingId, LocalDate date, LocalTime start, LocalTime end, double price,
+                              String status, String category, String packageName, String location,
+                              LocalDate createdDate, String guestEmail) {
+    }
+
+    /**
+     * Reads the database clock
+     * Change tokens are based on database time so they compare correctly with updated_at
+     * 
+     * @return The current database timestamp (millisecond precision)
+     */
+    public Timestamp currentTimestamp() {
+        return jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP(3)", Timestamp.class);
+    }
+
+    /**
+     * Finds bookings that changed since a point in time
+     * A booking counts as changed when its own row or one of its payments was updated
+     * Both branches use the updated_at indexes
+     * 
+     * @param since Lower bound (inclusive) for updated_at
+     * @return Changed bookings ordered by ID
+     */
+    public List<Booking> findChangedSince(Timestamp since) {
+        return jdbcTemplate.query(
+            "SELECT b.* FROM bookings b WHERE b.updated_at >= ? " +
+            "UNION " +
+            "SELECT b.* FROM payments p JOIN bookings b ON b.booking_id = p.booking_id WHERE p.updated_at >= ? " +
+            "ORDER BY booking_id",
+            bookingRowMapper,
+            since,
+            since
+        );
+    }
+
+    /**
+     * Finds the IDs of bookings deleted since a point in time
+     * 
+     * @param since Lower bound (inclusive) for the deletion time
+     * @return IDs of deleted bookings
+     */
+    public List<Integer> findDeletedSince(Timestamp since) {
+        return jdbcTemplate.queryForList(
+            "SELECT booking_id FROM booking_tombstones WHERE deleted_at >= ? ORDER BY booking_id",
+            Integer.class,
+            since
+        );
+    }
+
+    /**
+     * Removes tombstones older than the retention period
+     * Clients whose last sync is older than that receive a full snapshot instead
+     * 
+     * @param before Tombstones deleted before this time are removed
+     * @return Number of removed tombstones
+     */
+    public int purgeTombstones(Timestamp before) {
+        return jdbcTemplate.update("DELETE FROM booking_tombstones WHERE deleted_at < ?", before);
+    }
+
+    /**
+     * Finds a booking together with its payments in one query
+     * 
+     * @param id The booking ID to search for
+     * @return The booking with its payments (newest first), if found
+     */
+    public Optional<BookingWithPayments> findByIdWithPayments(Integer id) {
+        List<BookingWithPayments> result = jdbcTemplate.query(
+            BOOKING_WITH_PAYMENTS_SELECT +
+            "WHERE b.booking_id = ? " +
+            "ORDER BY p.payment_date DESC",
+            bookingWithPaymentsExtractor,
+            id
         );
+        return result == null || result.isEmpty() ? Optional.empty() : Optional.of(result.get(0));
+    }
+
+    /**
+     * Finds all bookings with a status together with their payments in one query
+     * Used for the admin review queue (pending bookings with payment and proof)
+     * 
+     * @param status The status to search for (e.g., "PENDING")
+     * @return Bookings ordered by date (newest first), each with its payments
+     */
+    public List<BookingWithPayments> findByStatusWithPayments(String status) {
+        return jdbcTemplate.query(
+            BOOKING_WITH_PAYMENTS_SELECT +
+            "WHERE b.booking_status = ? " +
+            "ORDER BY b.booking_date DESC, b.booking_id, p.payment_date DESC",
+            bookingWithPaymentsExtractor,
+            status
+        );
+    }
+
+    // Maps the payment columns with a prefix of a joined row (null when there is no such payment)
+    private static Payment mapJoinedPayment(ResultSet rs, String prefix) throws SQLException {
+        Integer paymentId = rs.getObject(prefix + "payment_id", Integer.class);
+        if (paymentId == null) {
+            return null;
+        }
+        Timestamp paymentDate = rs.getTimestamp(prefix + "payment_date");
+        return Payment.builder()
+            .paymentId(paymentId)
+            .bookingId(rs.getInt(prefix + "booking_id"))
+            .amount(rs.getDouble(prefix + "amount"))
+            .paymentType(rs.getString(prefix + "payment_type"))
+            .paymentMethod(rs.getString(prefix + "payment_method"))
+            .paymentStatus(rs.getString(prefix + "payment_status"))
+            .remainingBalance(rs.getDouble(prefix + "remaining_balance"))
+            .gcashNumber(rs.getString(prefix + "gcash_number"))
+            .paymentProof(rs.getString(prefix + "payment_proof"))
+            .paymentDate(paymentDate != null ? paymentDate.toLocalDateTime() : null)
+            .build();
+    }
+
+    /**
+     * A booking with its payments, read in one query
+     * 
+     * @param booking The booking
+     * @param payments Payments linked to the booking (payments.booking_id), newest first
+     * @param payment The payment the booking references (bookings.payment_id), or null
+     */
+    public record BookingWithPayments(Booking booking, List<Payment> payments, Payment payment) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,127 @@
+/**
+ * Business Hours Repository
+ *
+ * This repository class is responsible for database operations related to the
+ * business-hours template: opening windows (business_hours), holidays
+ * (business_holidays) and the slot granularity (business_calendar_settings).
+ *
+ * Key features:
+ * - Direct JDBC database access using Spring's JdbcTemplate
+ * - Loads the whole template in three small queries
+ * - Replaces the whole template at once; callers run this inside a transaction
+ *
+ * This repository is used by the BusinessHoursService, which compiles the template
+ * into a BusinessCalendar.
+ */
+package com.La.Visual.repository;
+
+// Import the calendar model whose template this repository stores
+import com.La.Visual.entity.BusinessCalendar;
+// Import Spring annotations and JDBC components
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+// Import Java time and utility classes
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Mark this class as a repository component in Spring's component scanning
+@Repository
+public class BusinessHoursRepository {
+
+    // Spring's JdbcTemplate for executing SQL queries safely
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor with dependency injection
+     * @param jdbcTemplate Spring's JdbcTemplate for database operations
+     */
+    @Autowired
+    public BusinessHoursRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Loads the opening windows
+     *
+     * @return Windows ordered by weekday and opening time
+     */
+    public List<BusinessCalendar.Window> findWindows() {
+        return jdbcTemplate.query(
+            "SELECT day_of_week, open_time, close_time FROM business_hours ORDER BY day_of_week, open_time",
+            (rs, rowNum) -> new BusinessCalendar.Window(
+                DayOfWeek.of(rs.getInt("day_of_week")),
+                rs.getTime("open_time").toLocalTime(),
+                rs.getTime("close_time").toLocalTime()
+            )
+        );
+    }
+
+    /**
+     * Loads the holidays
+     *
+     * @return Holiday labels by date
+     */
+    public Map<LocalDate, String> findHolidays() {
+        Map<LocalDate, String> holidays = new LinkedHashMap<>();
+        jdbcTemplate.query(
+            "SELECT holiday_date, label FROM business_holidays ORDER BY holiday_date",
+            rs -> {
+                holidays.put(rs.getDate("holiday_date").toLocalDate(), rs.getString("label"));
+            }
+        );
+        return holidays;
+    }
+
+    /**
+     * Loads the slot granularity
+     *
+     * @param defaultMinutes Value used if the settings row is missing
+     * @return Slot length in minutes
+     */
+    public int findSlotMinutes(int defaultMinutes) {
+        List<Integer> minutes = jdbcTemplate.queryForList(
+            "SELECT slot_minutes FROM business_calendar_settings WHERE id = 1", Integer.class);
+        return minutes.isEmpty() ? defaultMinutes : minutes.get(0);
+    }
+
+    /**
+     * Replaces the whole template
+     *
+     * @param slotMinutes Slot length in minutes
+     * @param windows The new opening windows
+     * @param holidays The new holidays
+     */
+    public void replaceAll(int slotMinutes, List<BusinessCalendar.Window> windows, Map<LocalDate, String> holidays) {
+        jdbcTemplate.update(
+            "INSERT INTO business_calendar_settings (id, slot_minutes) VALUES (1, ?) " +
+            "ON DUPLICATE KEY UPDATE slot_minutes = VALUES(slot_minutes)",
+            slotMinutes
+        );
+
+        jdbcTemplate.update("DELETE FROM business_hours");
+        List<Object[]> windowRows = new ArrayList<>(windows.size());
+        for (BusinessCalendar.Window window : windows) {
+            windowRows.add(new Object[] {
+                window.day().getValue(),
+                java.sql.Time.valueOf(window.open()),
+                java.sql.Time.valueOf(window.close())
+            });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO business_hours (day_of_week, open_time, close_time) VALUES (?, ?, ?)", windowRows);
+
+        jdbcTemplate.update("DELETE FROM business_holidays");
+        List<Object[]> holidayRows = new ArrayList<>(holidays.size());
+        for (Map.Entry<LocalDate, String> holiday : holidays.entrySet()) {
+            holidayRows.add(new Object[] { java.sql.Date.valueOf(holiday.getKey()), holiday.getValue() });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO business_holidays (holiday_date, label) VALUES (?, ?)", holidayRows);
+    }
+}
@@ -22,6 +22,7 @@ package com.La.Visual.repository;
 // Import the Payment entity class
 import com.La.Visual.entity.Payment;
 // Import Spring JDBC components for database access
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
@@ -30,11 +31,18 @@ import org.springframework.stereotype.Repository;
 
 // Import Java SQL classes for database operations
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 // Import Java utility classes
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 // Mark this class as a repository component in Spring's component scanning
 @Repository
@@ -123,6 +131,79 @@ public class PaymentRepository {
             .build();
     }
 
+    /**
+     * Inserts many payments (without booking_id) with one batched statement
+     * Used by the bulk import; the bookings are linked afterwards with linkBookings
+     * 
+     * @param payments The payments to insert
+     * @return The payments with their generated IDs, in the same order
+     */
+    public List<Payment> insertBatch(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(
+                "INSERT INTO payments (booking_id, amount, payment_type, payment_method, payment_status, remaining_balance, gcash_number) " +
+                "VALUES (NULL, ?, ?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS
+            ),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Payment payment = payments.get(i);
+                    ps.setDouble(1, payment.getAmount());
+                    ps.setString(2, payment.getPaymentType());
+                    ps.setString(3, payment.getPaymentMethod());
+                    ps.setString(4, payment.getPaymentStatus());
+                    ps.setDouble(5, payment.getRemainingBalance());
+                    ps.setString(6, payment.getGcashNumber());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return payments.size();
+                }
+            },
+            keyHolder
+        );
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != payments.size()) {
+            throw new IllegalStateException("Expected " + payments.size() + " generated payment IDs but got " + keys.size());
+        }
+        List<Payment> saved = new ArrayList<>(payments.size());
+        for (int i = 0; i < payments.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            saved.add(payments.get(i).withPaymentId(id.intValue()));
+        }
+        return saved;
+    }
+
+    /**
+     * Sets booking_id on many payments with one batched statement
+     * 
+     * @param payments Payments whose bookingId is already set
+     */
+    public void linkBookings(List<Payment> payments) {
+        jdbcTemplate.batchUpdate(
+            "UPDATE payments SET booking_id = ? WHERE payment_id = ?",
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setInt(1, payments.get(i).getBookingId());
+                    ps.setInt(2, payments.get(i).getPaymentId());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return payments.size();
+                }
+            }
+        );
+    }
+
     /**
      * Updates a payment record with a reference to a payment proof file
      * 
@@ -240,4 +321,104 @@ public class PaymentRepository {
             bookingId
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns which of the given file names are still referenced as a payment proof
+     * Checks both payments.payment_proof and bookings.payment_proof in a single round trip
+     * Used by the orphaned upload sweeper to decide which stored files can be removed
+     * 
+     * @param fileNames Candidate file names from the upload directory
+     * @return The subset of file names that at least one row still points to
+     */
+    public Set<String> findReferencedProofs(Collection<String> fileNames) {
+        if (fileNames.isEmpty()) {
+            return Collections.emptySet();
+        }
+        
+        // One "?" per candidate, reused for both sides of the UNION
+        String placeholders = String.join(", ", Collections.nCopies(fileNames.size(), "?"));
+        Object[] params = new Object[fileNames.size() * 2];
+        int i = 0;
+        for (String name : fileNames) {
+            params[i] = name;
+            params[i + fileNames.size()] = name;
+            i++;
+        }
+        
+        List<String> referenced = jdbcTemplate.queryForList(
+            "SELECT payment_proof FROM payments WHERE payment_proof IN (" + placeholders + ") " +
+            "UNION " +
+            "SELECT payment_proof FROM bookings WHERE payment_proof IN (" + placeholders + ")",
+            String.class,
+            params
+        );
+        return new HashSet<>(referenced);
+    }
+
+    /**
+     * Stores the perceptual hash of a payment's proof image
+     * 
+     * @param paymentId ID of the payment
+     * @param proofHash 64-bit dHash of the proof image
+     */
+    public void updateProofHash(Integer paymentId, long proofHash) {
+        jdbcTemplate.update(
+            "UPDATE payments SET proof_hash = ? WHERE payment_id = ?",
+            proofHash,
+            paymentId
+        );
+    }
+
+    /**
+     * Loads every stored proof hash of payments linked to a booking
+     * Used to rebuild the in-memory near-duplicate index at startup, so only the
+     * three needed columns are read
+     * 
+     * @return One row per hashed payment proof
+     */
+    public List<ProofHashRow> findProofHashes() {
+        return jdbcTemplate.query(
+            "SELECT payment_id, booking_id, proof_hash FROM payments " +
+            "WHERE proof_hash IS NOT NULL AND booking_id IS NOT NULL",
+            (rs, rowNum) -> new ProofHashRow(rs.getInt("payment_id"), rs.getInt("booking_id"), rs.getLong("proof_hash"))
+        );
+    }
+
+    /**
+     * Finds payments that have a proof file but no stored hash yet
+     * (proofs uploaded before hashing was introduced)
+     * 
+     * @return Payments whose proof still needs to be hashed
+     */
+    public List<Payment> findProofsWithoutHash() {
+        return jdbcTemplate.query(
+            "SELECT * FROM payments WHERE proof_hash IS NULL AND payment_proof IS NOT NULL AND booking_id IS NOT NULL",
+            paymentRowMapper
+        );
+    }
+
+    /**
+     * Finds payments linked to a booking that changed since a point in time
+     * Uses the payments.updated_at index
+     * 
+     * @param since Lower bound (inclusive) for updated_at
+     * @return Changed payments ordered by ID
+     */
+    public List<Payment> findChangedSince(Timestamp since) {
+        return jdbcTemplate.query(
+            "SELECT * FROM payments WHERE updated_at >= ? AND booking_id IS NOT NULL ORDER BY payment_id",
+            paymentRowMapper,
+            since
+        );
+    }
+
+    /**
+     * Projection of a payment's proof hash
+     * 
+     * @param paymentId ID of the payment
+     * @param bookingId ID of the booking the payment belongs to
+     * @param proofHash 64-bit dHash of the proof image
+     */
+    public record ProofHashRow(int paymentId, int bookingId, long proofHash) {
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Request Coalescer
+ *
+ * Single-flight layer for identical concurrent reads. When the studio opens, dozens of
+ * clients ask for the same month calendar or booked slots at the same moment; without
+ * this layer each of them runs its own identical query.
+ *
+ * How it works:
+ * - The first caller for a key registers a CompletableFuture and runs the query
+ * - Callers arriving with the same key while it runs wait on that future and receive
+ *   the same result (or the same exception) instead of querying again
+ * - The future is removed as soon as it completes, so nothing is cached: a caller
+ *   arriving afterwards runs a fresh query
+ * - Calls inside a database transaction are never coalesced, because they may need to
+ *   see their own uncommitted writes (or hold row locks)
+ * - Reads of cached resources put the current ResourceVersions version in the key. A
+ *   caller that arrives after a committed write (and so already sees the new version)
+ *   never joins a query that started before that write; otherwise ResponseCache could
+ *   store the old rows under the new version and serve them until the next change
+ *
+ * Shared results are handed to several callers at once and must be treated as read-only.
+ */
+package com.La.Visual.repository;
+
+// Import the version counters of the cached resources
+import com.La.Visual.service.ResourceVersions;
+
+// Import Spring annotations and transaction support
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Import Java utility and concurrency classes
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Mark this class as a Spring component so repositories and services share one instance
+@Component
+public class RequestCoalescer {
+
+    // Versions of the resources whose reads are coalesced
+    private final ResourceVersions resourceVersions;
+
+    // Queries currently running, by key
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    // Counters for monitoring
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong collapsed = new AtomicLong();
+    private final AtomicLong bypassed = new AtomicLong();
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param resourceVersions Version counters of the cached resources
+     */
+    @Autowired
+    public RequestCoalescer(ResourceVersions resourceVersions) {
+        this.resourceVersions = resourceVersions;
+    }
+
+    /**
+     * Runs a read of a versioned resource, or joins an identical read that started
+     * under the same version of that resource
+     *
+     * @param resource The data the read returns
+     * @param key Identifies the read, e.g. "bookings/month|2025|4"; equal keys must mean equal results
+     * @param loader Runs the read
+     * @param <T> Result type
+     * @return The result of the read (possibly shared with other callers)
+     */
+    public <T> T execute(ResourceVersions.Resource resource, String key, Supplier<T> loader) {
+        // Read before the query starts, like ResponseCache does
+        return execute(key + "|v" + resourceVersions.current(resource), loader);
+    }
+
+    /**
+     * Runs a read, or joins an identical read that is already running
+     *
+     * @param key Identifies the read, e.g. "bookings/month|2025|4"; equal keys must mean equal results
+     * @param loader Runs the read
+     * @param <T> Result type
+     * @return The result of the read (possibly shared with other callers)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> loader) {
+        calls.incrementAndGet();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            bypassed.incrementAndGet();
+            return loader.get();
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            collapsed.incrementAndGet();
+            return (T) await(running);
+        }
+
+        executions.incrementAndGet();
+        try {
+            T result = loader.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Returns the coalescing statistics for monitoring
+     *
+     * @return Map with call, execution and collapsed counters
+     */
+    public Map<String, Object> getStats() {
+        long callCount = calls.get();
+        long collapsedCount = collapsed.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("calls", callCount);
+        stats.put("executions", executions.get());
+        stats.put("collapsed", collapsedCount);
+        stats.put("bypassedInTransaction", bypassed.get());
+        stats.put("collapsedRatio", callCount == 0 ? 0.0 : (double) collapsedCount / callCount);
+        stats.put("inFlight", inFlight.size());
+        return stats;
+    }
+
+    // Waits for the leader's result and rethrows its failure unchanged
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced read", e);
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
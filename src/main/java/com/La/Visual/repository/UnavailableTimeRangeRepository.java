@@ -9,7 +9,8 @@
  * - Direct JDBC database access using Spring's JdbcTemplate
  * - SQL query execution for persisting unavailable time ranges 
  * - Row mapping from database results to UnavailableTimeRange entity objects
- * - Support for batch operations (deleting all ranges for a date)
+ * - Typed (LocalDate/LocalTime) range queries for month and date-range views
+ * - Support for batch operations (deleting all ranges for a date, batched inserts and deletes)
  * - Automatic ID generation for new records
  * 
  * This repository is used by the ScheduleService to manage unavailable time slots,
@@ -29,15 +30,23 @@ import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
-// Import Java SQL and utility classes
+// Import Java SQL, time and utility classes
 import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 // Mark this class as a repository component in Spring's component scanning
 @Repository
 public class UnavailableTimeRangeRepository {
     
+    // The API has always exchanged times as HH:mm
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    
     // Spring's JdbcTemplate for executing SQL queries safely
     private final JdbcTemplate jdbcTemplate;
     
@@ -47,11 +56,24 @@ public class UnavailableTimeRangeRepository {
      */
     private final RowMapper<UnavailableTimeRange> unavailableTimeRangeRowMapper = (rs, rowNum) -> 
         new UnavailableTimeRange(
-            rs.getInt("id"),                // Primary key
-            rs.getString("date"),           // Date in string format (YYYY-MM-DD)
-            rs.getString("start_time"),     // Start time in string format (HH:mm)
-            rs.getString("end_time"),       // End time in string format (HH:mm)
-            rs.getString("status")          // Status (typically "unavailable")
+            rs.getInt("id"),                                                    // Primary key
+            rs.getDate("date").toLocalDate().toString(),                        // Date in string format (YYYY-MM-DD)
+            rs.getTime("start_time").toLocalTime().format(TIME_FORMAT),         // Start time in string format (HH:mm)
+            rs.getTime("end_time").toLocalTime().format(TIME_FORMAT),           // End time in string format (HH:mm)
+            rs.getString("status")                                              // Status (typically "unavailable")
+        );
+    
+    /**
+     * Row mapper for the typed projection used by range queries
+     * Reads the DATE and TIME columns directly, no string parsing per row
+     */
+    private final RowMapper<BlockedRange> blockedRangeRowMapper = (rs, rowNum) ->
+        new BlockedRange(
+            rs.getInt("id"),
+            rs.getDate("date").toLocalDate(),
+            rs.getTime("start_time").toLocalTime(),
+            rs.getTime("end_time").toLocalTime(),
+            rs.getString("status")
         );
     
     /**
@@ -77,6 +99,93 @@ public class UnavailableTimeRangeRepository {
         );
     }
     
+    /**
+     * Finds the blocked ranges between two dates (inclusive), ordered by date and start time
+     * 
+     * @param from First date
+     * @param to Last date
+     * @return Typed ranges in the period
+     */
+    public List<BlockedRange> findBlockedRangesBetween(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+            "SELECT id, date, start_time, end_time, status FROM unavailable_time_ranges " +
+            "WHERE date BETWEEN ? AND ? ORDER BY date, start_time",
+            blockedRangeRowMapper,
+            java.sql.Date.valueOf(from),
+            java.sql.Date.valueOf(to)
+        );
+    }
+    
+    /**
+     * Finds the blocked ranges of one month, ordered by date and start time
+     * 
+     * @param year The year
+     * @param month The month (1-12)
+     * @return Typed ranges in the month
+     */
+    public List<BlockedRange> findBlockedRangesInMonth(int year, int month) {
+        LocalDate startOfMonth = LocalDate.of(year, month, 1);
+        return findBlockedRangesBetween(startOfMonth, startOfMonth.withDayOfMonth(startOfMonth.lengthOfMonth()));
+    }
+    
+    /**
+     * Finds all unavailable time ranges for several dates in one query
+     * 
+     * @param dates The dates to search for in string format (YYYY-MM-DD)
+     * @return List of UnavailableTimeRange objects for the given dates
+     */
+    public List<UnavailableTimeRange> findByDates(Collection<String> dates) {
+        if (dates.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+            "SELECT * FROM unavailable_time_ranges WHERE date IN (" +
+            String.join(", ", Collections.nCopies(dates.size(), "?")) + ") FOR UPDATE",
+            unavailableTimeRangeRowMapper,
+            dates.toArray()
+        );
+    }
+    
+    /**
+     * Deletes unavailable time ranges by ID with one batched statement
+     * 
+     * @param ids IDs of the ranges to delete
+     */
+    public void deleteByIds(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+            "DELETE FROM unavailable_time_ranges WHERE id = ?",
+            ids,
+            ids.size(),
+            (ps, id) -> ps.setInt(1, id)
+        );
+    }
+    
+    /**
+     * Inserts unavailable time ranges with one batched statement
+     * The generated IDs are not read back (callers only need the rows stored)
+     * 
+     * @param ranges The ranges to insert
+     */
+    public void insertBatch(List<UnavailableTimeRange> ranges) {
+        if (ranges.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO unavailable_time_ranges (date, start_time, end_time, status) VALUES (?, ?, ?, ?)",
+            ranges,
+            ranges.size(),
+            (ps, range) -> {
+                ps.setDate(1, java.sql.Date.valueOf(LocalDate.parse(range.getDate())));       // Date
+                ps.setTime(2, java.sql.Time.valueOf(LocalTime.parse(range.getStartTime())));  // Start time
+                ps.setTime(3, java.sql.Time.valueOf(LocalTime.parse(range.getEndTime())));    // End time
+                ps.setString(4, range.getStatus());                                           // Status
+            }
+        );
+    }
+    
     /**
      * Deletes all unavailable time ranges for a specific date
      * Used when replacing all ranges for a date with a new set
@@ -122,10 +231,10 @@ public class UnavailableTimeRangeRepository {
                 Statement.RETURN_GENERATED_KEYS
             );
             // Set parameters for the prepared statement to prevent SQL injection
-            ps.setString(1, range.getDate());       // Date
-            ps.setString(2, range.getStartTime());  // Start time
-            ps.setString(3, range.getEndTime());    // End time
-            ps.setString(4, range.getStatus());     // Status
+            ps.setDate(1, java.sql.Date.valueOf(LocalDate.parse(range.getDate())));       // Date
+            ps.setTime(2, java.sql.Time.valueOf(LocalTime.parse(range.getStartTime())));  // Start time
+            ps.setTime(3, java.sql.Time.valueOf(LocalTime.parse(range.getEndTime())));    // End time
+            ps.setString(4, range.getStatus());                                           // Status
             return ps;
         }, keyHolder);
         
@@ -143,13 +252,25 @@ public class UnavailableTimeRangeRepository {
     private UnavailableTimeRange update(UnavailableTimeRange range) {
         jdbcTemplate.update(
             "UPDATE unavailable_time_ranges SET date = ?, start_time = ?, end_time = ?, status = ? WHERE id = ?",
-            range.getDate(),       // Date
-            range.getStartTime(),  // Start time
-            range.getEndTime(),    // End time
-            range.getStatus(),     // Status
+            java.sql.Date.valueOf(LocalDate.parse(range.getDate())),       // Date
+            java.sql.Time.valueOf(LocalTime.parse(range.getStartTime())),  // Start time
+            java.sql.Time.valueOf(LocalTime.parse(range.getEndTime())),    // End time
+            range.getStatus(),                                             // Status
             range.getId()          // Primary key for WHERE clause
         );
         
         return range;
     }
+    
+    /**
+     * Typed projection of a blocked range
+     * 
+     * @param id Primary key
+     * @param date Blocked date
+     * @param start Start time
+     * @param end End time
+     * @param status Status (typically "unavailable")
+     */
+    public record BlockedRange(Integer id, LocalDate date, LocalTime start, LocalTime end, String status) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,521 @@
+/**
+ * Analytics Engine
+ *
+ * Computes per-month booking aggregates for the admin dashboard from the in-memory
+ * BookingSnapshot. Each month is summarized once into a MonthAggregate (counts per
+ * status, revenue, demand per weekday and start hour, lead time, bookings per category
+ * and package, plus small sketches of its distinct customers and of the price and lead
+ * time distributions); any range is then answered by merging the months it covers.
+ *
+ * How it works:
+ * - The snapshot rows are split into chunks that are aggregated in parallel on a
+ *   fork-join pool; each chunk produces partial aggregates per month, and partials are
+ *   merged pairwise on the way back up (merging is associative, so the split does not
+ *   change the result)
+ * - Closed months (before the current month) are cached together with the snapshot's
+ *   version of that month; while the version is unchanged the month is skipped in the
+ *   scan and its cached aggregate is reused
+ * - So in the usual case only the current and upcoming months are recomputed per
+ *   request; a late change to an old booking bumps that month and only it is redone
+ */
+package com.La.Visual.service;
+
+// Import the entity
+import com.La.Visual.entity.BookingStatus;
+
+// Import Spring annotations and lifecycle interfaces
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+// Import Java time, utility and concurrency classes
+import java.time.DayOfWeek;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Mark this class as a service component in Spring's component scanning
+@Service
+public class AnalyticsEngine implements DisposableBean {
+
+    // Rows per fork-join leaf task
+    private static final int CHUNK_ROWS = 32_768;
+    // Status codes as stored in the snapshot
+    private static final byte CONFIRMED = (byte) BookingStatus.CONFIRMED.ordinal();
+    private static final byte CANCELLED = (byte) BookingStatus.CANCELLED.ordinal();
+    private static final byte COMPLETED = (byte) BookingStatus.COMPLETED.ordinal();
+
+    // Source of the booking data
+    private final BookingSnapshot bookingSnapshot;
+    // Pool the partial aggregates are computed on
+    private final ForkJoinPool pool;
+
+    // Aggregates of closed months, by month number
+    private final Map<Integer, CachedMonth> closedMonths = new ConcurrentHashMap<>();
+
+    // Statistics of the last run
+    private volatile int lastReusedMonths;
+    private volatile int lastComputedMonths;
+    private volatile long lastMillis;
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param bookingSnapshot Columnar in-memory copy of the bookings
+     * @param parallelism Worker threads of the analytics pool (0 = one per processor)
+     */
+    @Autowired
+    public AnalyticsEngine(BookingSnapshot bookingSnapshot,
+                           @Value("${analytics.engine.parallelism:0}") int parallelism) {
+        this.bookingSnapshot = bookingSnapshot;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Returns the aggregate of every month that has bookings
+     *
+     * @return Months with their aggregates, oldest first; category and package ids are
+     *         resolved through the returned Months
+     */
+    public Months aggregateMonths() {
+        return bookingSnapshot.query(this::aggregate);
+    }
+
+    /**
+     * Returns engine statistics for monitoring
+     *
+     * @return Map with cached, reused and recomputed month counts and the last run time
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("parallelism", pool.getParallelism());
+        stats.put("cachedClosedMonths", closedMonths.size());
+        stats.put("lastReusedMonths", lastReusedMonths);
+        stats.put("lastComputedMonths", lastComputedMonths);
+        stats.put("lastMillis", lastMillis);
+        return stats;
+    }
+
+    /**
+     * Stops the pool on shutdown
+     */
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    // Runs under the snapshot's read lock
+    private Months aggregate(BookingSnapshot.View view) {
+        long started = System.nanoTime();
+        int currentMonth = monthNumber(YearMonth.now());
+
+        // Closed months whose cached aggregate is still current are skipped in the scan
+        Map<Integer, MonthAggregate> reused = new HashMap<>();
+        for (Map.Entry<Integer, CachedMonth> entry : closedMonths.entrySet()) {
+            CachedMonth cached = entry.getValue();
+            if (entry.getKey() < currentMonth
+                    && cached.generation() == view.generation()
+                    && cached.version() == view.monthVersion(entry.getKey())) {
+                reused.put(entry.getKey(), cached.aggregate());
+            } else {
+                closedMonths.remove(entry.getKey(), cached);
+            }
+        }
+
+        BitSet skipMonths = new BitSet();
+        reused.keySet().forEach(skipMonths::set);
+        Map<Integer, MonthAggregate> computed = pool.invoke(new ChunkTask(view, skipMonths, 0, view.size()));
+        for (Map.Entry<Integer, MonthAggregate> entry : computed.entrySet()) {
+            if (entry.getKey() < currentMonth) {
+                closedMonths.put(entry.getKey(),
+                    new CachedMonth(view.generation(), view.monthVersion(entry.getKey()), entry.getValue()));
+            }
+        }
+
+        SortedMap<YearMonth, MonthAggregate> months = new TreeMap<>();
+        reused.forEach((month, aggregate) -> months.put(yearMonth(month), aggregate));
+        computed.forEach((month, aggregate) -> months.put(yearMonth(month), aggregate));
+
+        // Dictionaries only grow within a generation, so a copy of the names resolves every id
+        List<String> categories = new ArrayList<>();
+        for (int id = 0; id < view.categoryCount(); id++) {
+            categories.add(view.categoryName(id));
+        }
+        List<String> packages = new ArrayList<>();
+        for (int id = 0; id < view.packageCount(); id++) {
+            packages.add(view.packageName(id));
+        }
+
+        lastReusedMonths = reused.size();
+        lastComputedMonths = computed.size();
+        lastMillis = (System.nanoTime() - started) / 1_000_000;
+        return new Months(Collections.unmodifiableSortedMap(months), categories, packages);
+    }
+
+    private static int monthNumber(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+
+    private static YearMonth yearMonth(int monthNumber) {
+        return YearMonth.of(Math.floorDiv(monthNumber, 12), Math.floorMod(monthNumber, 12) + 1);
+    }
+
+    // Aggregates rows [from, to), splitting into halves until a chunk is small enough
+    private static final class ChunkTask extends RecursiveTask<Map<Integer, MonthAggregate>> {
+        private final BookingSnapshot.View view;
+        private final BitSet skipMonths;
+        private final int from;
+        private final int to;
+
+        private ChunkTask(BookingSnapshot.View view, BitSet skipMonths, int from, int to) {
+            this.view = view;
+            this.skipMonths = skipMonths;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Integer, MonthAggregate> compute() {
+            if (to - from > CHUNK_ROWS) {
+                int middle = (from + to) >>> 1;
+                ChunkTask left = new ChunkTask(view, skipMonths, from, middle);
+                left.fork();
+                Map<Integer, MonthAggregate> right = new ChunkTask(view, skipMonths, middle, to).compute();
+                return merge(left.join(), right);
+            }
+
+            Map<Integer, MonthAggregate> partial = new HashMap<>();
+            // Rows of one month tend to be adjacent, so the last conversion is usually reused
+            int lastDay = Integer.MIN_VALUE;
+            int month = 0;
+            MonthAggregate aggregate = null;
+            for (int row = from; row < to; row++) {
+                byte status = view.status(row);
+                if (status == BookingSnapshot.DELETED) {
+                    continue;
+                }
+                int day = view.epochDay(row);
+                if (day != lastDay) {
+                    lastDay = day;
+                    int dayMonth = BookingSnapshot.epochMonth(day);
+                    if (aggregate == null || dayMonth != month) {
+                        month = dayMonth;
+                        aggregate = month >= 0 && skipMonths.get(month) ? null
+                            : partial.computeIfAbsent(month, key -> new MonthAggregate());
+                    }
+                }
+                if (aggregate != null) {
+                    aggregate.add(view, row, status, day);
+                }
+            }
+            return partial;
+        }
+
+        // Combines two partial results; months present in both are merged
+        private static Map<Integer, MonthAggregate> merge(Map<Integer, MonthAggregate> left,
+                                                          Map<Integer, MonthAggregate> right) {
+            if (left.size() < right.size()) {
+                Map<Integer, MonthAggregate> swap = left;
+                left = right;
+                right = swap;
+            }
+            for (Map.Entry<Integer, MonthAggregate> entry : right.entrySet()) {
+                left.merge(entry.getKey(), entry.getValue(), MonthAggregate::merge);
+            }
+            return left;
+        }
+    }
+
+    /**
+     * Aggregates of one month, or of several months merged together
+     * Filled by a single task, then read-only
+     */
+    public static final class MonthAggregate {
+        // Bookings per BookingStatus ordinal
+        private final long[] statusCounts = new long[BookingStatus.values().length];
+        // Revenue of confirmed and completed bookings, in cents
+        private long revenueCents;
+        // Pending, confirmed and completed bookings per weekday (Monday first) and start hour
+        private final long[] weekdayDemand = new long[7];
+        private final long[] hourDemand = new long[24];
+        // Days between making and holding a booking, over bookings with a known creation date
+        private long leadDays;
+        private long leadBookings;
+        // Confirmed and completed bookings per category and package id
+        private long[] categoryCounts = new long[0];
+        private long[] packageCounts = new long[0];
+        // Distinct guests of pending, confirmed and completed bookings
+        private HyperLogLog customers = new HyperLogLog();
+        // Prices of confirmed and completed bookings, lead days of the demand bookings
+        private QuantileSketch prices = new QuantileSketch();
+        private QuantileSketch leadTimes = new QuantileSketch();
+
+        private void add(BookingSnapshot.View view, int row, byte status, int day) {
+            statusCounts[status]++;
+            if (status == CANCELLED) {
+                return;
+            }
+            weekdayDemand[Math.floorMod(day + 3, 7)]++; // 1970-01-01 was a Thursday
+            hourDemand[view.startMinute(row) / 60]++;
+            long guest = view.guestHash(row);
+            if (guest != 0) {
+                customers.add(guest);
+            }
+            int created = view.createdDay(row);
+            if (created != BookingSnapshot.NO_DAY && created <= day) {
+                leadDays += day - created;
+                leadBookings++;
+                leadTimes.add(day - created);
+            }
+            if (status == CONFIRMED || status == COMPLETED) {
+                revenueCents += view.priceCents(row);
+                prices.add(view.priceCents(row) / 100.0);
+                categoryCounts = count(categoryCounts, view.category(row));
+                packageCounts = count(packageCounts, view.packageId(row));
+            }
+        }
+
+        private static long[] count(long[] counts, int id) {
+            if (id < 0) {
+                return counts;
+            }
+            if (id >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(id + 1, counts.length * 2));
+            }
+            counts[id]++;
+            return counts;
+        }
+
+        /**
+         * Combines two aggregates into a new one; neither input is changed
+         *
+         * @param a First aggregate
+         * @param b Second aggregate
+         * @return The combined aggregate
+         */
+        public static MonthAggregate merge(MonthAggregate a, MonthAggregate b) {
+            MonthAggregate merged = new MonthAggregate();
+            sum(merged.statusCounts, a.statusCounts, b.statusCounts);
+            sum(merged.weekdayDemand, a.weekdayDemand, b.weekdayDemand);
+            sum(merged.hourDemand, a.hourDemand, b.hourDemand);
+            merged.revenueCents = a.revenueCents + b.revenueCents;
+            merged.leadDays = a.leadDays + b.leadDays;
+            merged.leadBookings = a.leadBookings + b.leadBookings;
+            merged.categoryCounts = new long[Math.max(a.categoryCounts.length, b.categoryCounts.length)];
+            sum(merged.categoryCounts, a.categoryCounts, b.categoryCounts);
+            merged.packageCounts = new long[Math.max(a.packageCounts.length, b.packageCounts.length)];
+            sum(merged.packageCounts, a.packageCounts, b.packageCounts);
+            merged.customers = HyperLogLog.merge(a.customers, b.customers);
+            merged.prices = QuantileSketch.merge(a.prices, b.prices);
+            merged.leadTimes = QuantileSketch.merge(a.leadTimes, b.leadTimes);
+            return merged;
+        }
+
+        private static void sum(long[] target, long[] a, long[] b) {
+            for (int i = 0; i < a.length; i++) {
+                target[i] += a[i];
+            }
+            for (int i = 0; i < b.length; i++) {
+                target[i] += b[i];
+            }
+        }
+
+        /**
+         * @param status A status
+         * @return Number of bookings with that status
+         */
+        public long count(BookingStatus status) {
+            return statusCounts[status.ordinal()];
+        }
+
+        /**
+         * @return Number of confirmed and completed bookings
+         */
+        public long paidBookings() {
+            return count(BookingStatus.CONFIRMED) + count(BookingStatus.COMPLETED);
+        }
+
+        /**
+         * @return Number of bookings of any status
+         */
+        public long totalBookings() {
+            long total = 0;
+            for (long count : statusCounts) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * @return Revenue of confirmed and completed bookings, in cents
+         */
+        public long revenueCents() {
+            return revenueCents;
+        }
+
+        /**
+         * @return Share of bookings that were cancelled (0 if there are none)
+         */
+        public double cancellationRate() {
+            long total = totalBookings();
+            return total == 0 ? 0.0 : (double) count(BookingStatus.CANCELLED) / total;
+        }
+
+        /**
+         * @return Average days between making a booking and its date (0 if unknown)
+         */
+        public double averageLeadDays() {
+            return leadBookings == 0 ? 0.0 : (double) leadDays / leadBookings;
+        }
+
+        /**
+         * @return Estimated number of distinct guests (cancelled bookings excluded)
+         */
+        public long uniqueCustomers() {
+            return customers.estimate();
+        }
+
+        /**
+         * Estimates how many guests of this aggregate had also booked in another one
+         * (inclusion-exclusion over the two customer sketches)
+         *
+         * @param earlier Aggregate of an earlier period
+         * @return Estimated number of guests present in both
+         */
+        public long returningCustomers(MonthAggregate earlier) {
+            long mine = uniqueCustomers();
+            long both = mine + earlier.uniqueCustomers() - HyperLogLog.merge(customers, earlier.customers).estimate();
+            return Math.max(0, Math.min(both, mine));
+        }
+
+        /**
+         * @param quantile Between 0 and 1
+         * @return Package price at that quantile over confirmed and completed bookings
+         */
+        public double priceQuantile(double quantile) {
+            return prices.quantile(quantile);
+        }
+
+        /**
+         * @param quantile Between 0 and 1
+         * @return Lead time in days at that quantile (cancelled bookings excluded)
+         */
+        public double leadTimeQuantile(double quantile) {
+            return leadTimes.quantile(quantile);
+        }
+
+        /**
+         * @param day A weekday
+         * @return Number of bookings held on that weekday (cancelled ones excluded)
+         */
+        public long weekdayDemand(DayOfWeek day) {
+            return weekdayDemand[day.getValue() - 1];
+        }
+
+        /**
+         * @param hour Hour of the day (0-23)
+         * @return Number of bookings starting in that hour (cancelled ones excluded)
+         */
+        public long hourDemand(int hour) {
+            return hourDemand[hour];
+        }
+    }
+
+    /**
+     * Result of aggregateMonths
+     *
+     * @param months Aggregate per month with bookings, oldest first
+     * @param categories Category names by id
+     * @param packages Package names by id
+     */
+    public record Months(SortedMap<YearMonth, MonthAggregate> months, List<String> categories, List<String> packages) {
+
+        /**
+         * Merges the months of a range
+         *
+         * @param from First month (inclusive)
+         * @param to Last month (inclusive)
+         * @return The combined aggregate (empty if no month has bookings)
+         */
+        public MonthAggregate between(YearMonth from, YearMonth to) {
+            MonthAggregate merged = new MonthAggregate();
+            for (MonthAggregate month : months.subMap(from, to.plusMonths(1)).values()) {
+                merged = MonthAggregate.merge(merged, month);
+            }
+            return merged;
+        }
+
+        /**
+         * Merges every month before a given one
+         *
+         * @param month The first month not included
+         * @return The combined aggregate (empty if there is no earlier month)
+         */
+        public MonthAggregate before(YearMonth month) {
+            MonthAggregate merged = new MonthAggregate();
+            for (MonthAggregate earlier : months.headMap(month).values()) {
+                merged = MonthAggregate.merge(merged, earlier);
+            }
+            return merged;
+        }
+
+        /**
+         * @return The combined aggregate of every month
+         */
+        public MonthAggregate all() {
+            MonthAggregate merged = new MonthAggregate();
+            for (MonthAggregate month : months.values()) {
+                merged = MonthAggregate.merge(merged, month);
+            }
+            return merged;
+        }
+
+        /**
+         * @param aggregate An aggregate of these months
+         * @return Confirmed and completed bookings per category name
+         */
+        public Map<String, Integer> categoryCounts(MonthAggregate aggregate) {
+            return named(aggregate.categoryCounts, categories);
+        }
+
+        /**
+         * @param aggregate An aggregate of these months
+         * @return Confirmed and completed bookings per package name
+         */
+        public Map<String, Integer> packageCounts(MonthAggregate aggregate) {
+            return named(aggregate.packageCounts, packages);
+        }
+
+        private static Map<String, Integer> named(long[] counts, List<String> names) {
+            Map<String, Integer> named = new HashMap<>();
+            for (int id = 0; id < counts.length; id++) {
+                if (counts[id] > 0) {
+                    named.put(names.get(id), (int) counts[id]);
+                }
+            }
+            return named;
+        }
+    }
+
+    /**
+     * A closed month's aggregate with the snapshot state it was computed from
+     *
+     * @param generation Snapshot build number
+     * @param version Snapshot version of the month
+     * @param aggregate The aggregate
+     */
+    private record CachedMonth(long generation, long version, MonthAggregate aggregate) {
+    }
+}
@@ -0,0 +1,352 @@
+/**
+ * Analytics Service
+ *
+ * This service computes the admin dashboard analytics (GET /api/analytics/dashboard)
+ * and keeps one cached result per range (month, quarter, year).
+ *
+ * How the cache behaves:
+ * - Fresh (younger than refresh-after): served as is
+ * - Stale (older than refresh-after, or a booking changed since): served immediately
+ *   while one background refresh recomputes it (stale-while-revalidate)
+ * - Expired (older than expire-after) or missing: computed before answering; concurrent
+ *   callers for the same range wait for that one computation (RequestCoalescer)
+ * - Results are merged from per-month aggregates (AnalyticsEngine), computed in parallel
+ *   from BookingSnapshot, the columnar in-memory copy of the bookings
+ * - All three ranges are computed in the background once the application is ready, so
+ *   the first admin after a restart does not pay for the aggregation
+ */
+package com.La.Visual.service;
+
+// Import the coalescer
+import com.La.Visual.repository.RequestCoalescer;
+
+// Import Spring annotations and lifecycle interfaces
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+// Import Java time, utility and concurrency classes
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+// Mark this class as a service component in Spring's component scanning
+@Service
+public class AnalyticsService implements DisposableBean {
+
+    // Ranges offered by the dashboard
+    private static final List<String> RANGES = List.of("month", "quarter", "year");
+
+    // Dependencies for the booking data, the aggregation and single-flight computation
+    private final BookingSnapshot bookingSnapshot;
+    private final AnalyticsEngine analyticsEngine;
+    private final RequestCoalescer requestCoalescer;
+    // Age after which a result is refreshed in the background
+    private final long refreshAfterNanos;
+    // Age after which a result is no longer served
+    private final long expireAfterNanos;
+
+    // Latest result per range
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    // Ranges with a background refresh queued or running
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    // Runs background refreshes one at a time
+    private final ExecutorService refresher;
+
+    // Counters for monitoring
+    private final AtomicLong fresh = new AtomicLong();
+    private final AtomicLong staleServed = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong computations = new AtomicLong();
+    private volatile long lastComputeMillis;
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param bookingSnapshot Columnar in-memory copy of the bookings
+     * @param analyticsEngine Parallel per-month aggregation
+     * @param requestCoalescer Single-flight layer so a miss computes once
+     * @param refreshAfter Age after which a result is refreshed in the background
+     * @param expireAfter Age after which a result is recomputed before answering
+     */
+    @Autowired
+    public AnalyticsService(BookingSnapshot bookingSnapshot,
+                            AnalyticsEngine analyticsEngine,
+                            RequestCoalescer requestCoalescer,
+                            @Value("${analytics.dashboard.refresh-after:PT15S}") Duration refreshAfter,
+                            @Value("${analytics.dashboard.expire-after:PT5M}") Duration expireAfter) {
+        this.bookingSnapshot = bookingSnapshot;
+        this.analyticsEngine = analyticsEngine;
+        this.requestCoalescer = requestCoalescer;
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.expireAfterNanos = Math.max(expireAfter.toNanos(), refreshAfterNanos);
+        this.refresher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analytics-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the dashboard data of a range
+     *
+     * @param range The time range (month, quarter, year; anything else means year)
+     * @return The analytics data (read-only)
+     */
+    public Map<String, Object> getDashboard(String range) {
+        String key = normalize(range);
+        Entry entry = cache.get(key);
+        long now = System.nanoTime();
+
+        if (entry == null || now - entry.computedAt() > expireAfterNanos) {
+            // Cold or too old to show: compute now, once for all concurrent callers
+            misses.incrementAndGet();
+            return compute(key).data();
+        }
+        if (entry.version() != bookingSnapshot.getChangeCount() || now - entry.computedAt() > refreshAfterNanos) {
+            // Answer with what we have and bring it up to date in the background
+            staleServed.incrementAndGet();
+            refreshAsync(key);
+        } else {
+            fresh.incrementAndGet();
+        }
+        return entry.data();
+    }
+
+    /**
+     * Computes every range in the background once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        for (String range : RANGES) {
+            refreshAsync(range);
+        }
+    }
+
+    /**
+     * Returns cache statistics for monitoring
+     *
+     * @return Map with fresh/stale/miss counters and the last computation time
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedRanges", cache.size());
+        stats.put("fresh", fresh.get());
+        stats.put("staleServed", staleServed.get());
+        stats.put("misses", misses.get());
+        stats.put("computations", computations.get());
+        stats.put("refreshing", refreshing.size());
+        stats.put("lastComputeMillis", lastComputeMillis);
+        stats.put("engine", analyticsEngine.getStats());
+        return stats;
+    }
+
+    /**
+     * Stops the refresh thread on shutdown
+     */
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+    }
+
+    // Queues one background refresh per range; further requests while it is pending are ignored
+    private void refreshAsync(String range) {
+        if (!refreshing.add(range)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    compute(range);
+                } catch (Exception e) {
+                    System.err.println("Could not refresh " + range + " analytics: " + e.getMessage());
+                } finally {
+                    refreshing.remove(range);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            refreshing.remove(range);
+        }
+    }
+
+    // Computes a range and stores the result; concurrent calls for a range share one computation
+    private Entry compute(String range) {
+        // Keyed by the change count too, so a caller that saw a newer change never joins an older computation
+        return requestCoalescer.execute("analytics/dashboard|" + range + "|" + bookingSnapshot.getChangeCount(), () -> {
+            // Both taken before reading, so a booking change during the computation leaves the result stale
+            long version = bookingSnapshot.getChangeCount();
+            long started = System.nanoTime();
+            Entry entry = new Entry(computeDashboard(range), started, version);
+            lastComputeMillis = (System.nanoTime() - started) / 1_000_000;
+            computations.incrementAndGet();
+            cache.put(range, entry);
+            return entry;
+        });
+    }
+
+    private static String normalize(String range) {
+        String lower = range == null ? "" : range.toLowerCase();
+        return RANGES.contains(lower) ? lower : "year";
+    }
+
+    /**
+     * Computes the dashboard data for a time range
+     * 
+     * @param range The time range to analyze (month, quarter, year)
+     * @return The analytics data shown on the dashboard (read-only, shared by all callers)
+     */
+    private Map<String, Object> computeDashboard(String range) {
+        // Determine date range based on parameter
+        LocalDate startDate;
+        LocalDate endDate = LocalDate.now(); // End date is always today
+        
+        // Set the start date based on the requested range
+        switch (range.toLowerCase()) {
+            case "month":
+                startDate = endDate.minusMonths(1);
+                break;
+            case "quarter":
+                startDate = endDate.minusMonths(3);
+                break;
+            default: // year
+                startDate = endDate.minusMonths(12);
+        }
+        
+        // Per-month aggregates; closed months come from the engine's cache
+        AnalyticsEngine.Months months = analyticsEngine.aggregateMonths();
+        AnalyticsEngine.MonthAggregate all = months.all();
+        int totalBookings = (int) all.paidBookings();
+        double totalProfit = all.revenueCents() / 100.0;
+        
+        // Calculate monthly averages over the months that have confirmed bookings (avoid division by zero)
+        long paidMonths = months.months().values().stream()
+            .filter(aggregate -> aggregate.paidBookings() > 0)
+            .count();
+        double monthlyAvgBookings = paidMonths == 0 ? 0 : (double) totalBookings / paidMonths;
+        double monthlyAvgProfit = paidMonths == 0 ? 0 : totalProfit / paidMonths;
+        
+        // Get current month statistics
+        AnalyticsEngine.MonthAggregate currentMonth = months.between(YearMonth.now(), YearMonth.now());
+        int currentMonthBookingsCount = (int) currentMonth.paidBookings();
+        double currentMonthProfit = currentMonth.revenueCents() / 100.0;
+        
+        // Prepare data structures for monthly chart visualizations
+        List<Map<String, Object>> monthlyBookingsData = new ArrayList<>();
+        List<Map<String, Object>> monthlyProfitData = new ArrayList<>();
+        
+        // Format month as "MMM yyyy" (e.g., "Jan 2023")
+        DateTimeFormatter monthFormatter = DateTimeFormatter.ofPattern("MMM yyyy");
+        
+        List<Map<String, Object>> monthlyCustomersData = new ArrayList<>();
+        
+        // Fill in data for each month in the selected range
+        YearMonth firstMonth = YearMonth.from(startDate);
+        YearMonth lastMonth = YearMonth.from(endDate);
+        for (YearMonth m = firstMonth; !m.isAfter(lastMonth); m = m.plusMonths(1)) {
+            // Format month as user-friendly string (e.g., "Jan 2023")
+            String monthLabel = m.format(monthFormatter);
+            AnalyticsEngine.MonthAggregate month = months.between(m, m);
+            
+            // Create data point for bookings count chart
+            Map<String, Object> bookingData = new HashMap<>();
+            bookingData.put("month", monthLabel);
+            bookingData.put("value", (int) month.paidBookings());
+            monthlyBookingsData.add(bookingData);
+            
+            // Create data point for profit chart
+            Map<String, Object> profitData = new HashMap<>();
+            profitData.put("month", monthLabel);
+            profitData.put("value", month.revenueCents() / 100.0);
+            monthlyProfitData.add(profitData);
+            
+            // Create data point for distinct customers chart (estimated from the month's sketch)
+            Map<String, Object> customersData = new HashMap<>();
+            customersData.put("month", monthLabel);
+            customersData.put("value", month.uniqueCustomers());
+            monthlyCustomersData.add(customersData);
+        }
+        
+        // Demand, lead time and cancellations over the selected range
+        AnalyticsEngine.MonthAggregate inRange = months.between(firstMonth, lastMonth);
+        List<Map<String, Object>> weekdayDemand = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            Map<String, Object> point = new HashMap<>();
+            point.put("day", day.name());
+            point.put("value", inRange.weekdayDemand(day));
+            weekdayDemand.add(point);
+        }
+        List<Map<String, Object>> hourDemand = new ArrayList<>();
+        for (int hour = 0; hour < 24; hour++) {
+            Map<String, Object> point = new HashMap<>();
+            point.put("hour", hour);
+            point.put("value", inRange.hourDemand(hour));
+            hourDemand.add(point);
+        }
+        
+        // Distinct customers, returning customers and distributions over the selected range
+        long uniqueCustomers = inRange.uniqueCustomers();
+        long returningCustomers = inRange.returningCustomers(months.before(firstMonth));
+        
+        // Build complete response data structure with all analytics data
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("totalBookings", totalBookings);
+        responseData.put("totalProfit", totalProfit);
+        responseData.put("monthlyAvgBookings", Math.round(monthlyAvgBookings));
+        responseData.put("monthlyAvgProfit", Math.round(monthlyAvgProfit));
+        responseData.put("currentMonthBookings", currentMonthBookingsCount);
+        responseData.put("currentMonthProfit", currentMonthProfit);
+        responseData.put("monthlyBookings", monthlyBookingsData);
+        responseData.put("monthlyProfit", monthlyProfitData);
+        responseData.put("categoryDistribution", months.categoryCounts(all));
+        responseData.put("packagePopularity", months.packageCounts(all));
+        responseData.put("weekdayDemand", weekdayDemand);
+        responseData.put("hourDemand", hourDemand);
+        responseData.put("averageLeadTimeDays", Math.round(inRange.averageLeadDays() * 10) / 10.0);
+        responseData.put("cancellationRate", inRange.cancellationRate());
+        responseData.put("monthlyUniqueCustomers", monthlyCustomersData);
+        responseData.put("uniqueCustomers", uniqueCustomers);
+        responseData.put("returningCustomers", returningCustomers);
+        responseData.put("repeatCustomerRate", uniqueCustomers == 0 ? 0.0 : (double) returningCustomers / uniqueCustomers);
+        responseData.put("pricePercentiles", percentiles(inRange::priceQuantile));
+        responseData.put("leadTimePercentiles", percentiles(inRange::leadTimeQuantile));
+        return Collections.unmodifiableMap(responseData);
+    }
+
+    // Median, p90 and p99 of a sketched distribution, rounded to two decimals
+    private static Map<String, Object> percentiles(DoubleUnaryOperator quantile) {
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", Math.round(quantile.applyAsDouble(0.5) * 100) / 100.0);
+        percentiles.put("p90", Math.round(quantile.applyAsDouble(0.9) * 100) / 100.0);
+        percentiles.put("p99", Math.round(quantile.applyAsDouble(0.99) * 100) / 100.0);
+        return percentiles;
+    }
+
+    /**
+     * A computed result
+     *
+     * @param data The dashboard data
+     * @param computedAt System.nanoTime() when the computation started
+     * @param version Booking change count when the computation started
+     */
+    private record Entry(Map<String, Object> data, long computedAt, long version) {
+    }
+}
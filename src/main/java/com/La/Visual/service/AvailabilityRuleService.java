@@ -0,0 +1,394 @@
+/**
+ * Availability Rule Service
+ *
+ * This service manages recurring availability rules ("every Sunday", "weekday mornings
+ * until December") and answers which times they block on a given date.
+ *
+ * How it works:
+ * - Rules are stored once per pattern and loaded into memory as an immutable snapshot,
+ *   indexed by weekday
+ * - A date is expanded lazily: only the rules of its weekday are evaluated, each with
+ *   plain date arithmetic (AvailabilityRule.appliesOn), so the cost does not depend on
+ *   how long a rule runs
+ * - Expanded days are kept in a bounded LRU cache; the oldest days are dropped once the
+ *   cache is full
+ * - Creating or deleting a rule or one of its exceptions publishes a ScheduleChangedEvent
+ *   without a date (many dates are affected); once it commits, the snapshot and its
+ *   cache are discarded and rebuilt on the next lookup
+ */
+package com.La.Visual.service;
+
+// Import the DTOs, entity, event and repository
+import com.La.Visual.dto.AvailabilityRuleRequest;
+import com.La.Visual.dto.RequestResponse;
+import com.La.Visual.entity.AvailabilityRule;
+import com.La.Visual.entity.BusinessCalendar;
+import com.La.Visual.event.ScheduleChangedEvent;
+import com.La.Visual.repository.AvailabilityRuleRepository;
+
+// Import Spring annotations
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Import Java time, utility and concurrency classes
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Mark this class as a service component in Spring's component scanning
+@Service
+public class AvailabilityRuleService {
+
+    // Longest supported week interval
+    private static final int MAX_INTERVAL_WEEKS = 52;
+
+    // Dependencies for data access and change events
+    private final AvailabilityRuleRepository ruleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    // Expanded days kept per snapshot
+    private final int cacheSize;
+
+    // Current rules; null until first use and after every committed change
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    // Counts committed rule changes; a snapshot loaded across a change is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    // Counters for monitoring the expansion cache
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param ruleRepository Repository for availability rules
+     * @param eventPublisher Publisher for schedule change events
+     * @param cacheSize Number of expanded days kept in memory
+     */
+    @Autowired
+    public AvailabilityRuleService(AvailabilityRuleRepository ruleRepository,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${bookings.rules.cache-size:1024}") int cacheSize) {
+        this.ruleRepository = ruleRepository;
+        this.eventPublisher = eventPublisher;
+        this.cacheSize = Math.max(1, cacheSize);
+    }
+
+    /**
+     * Returns all rules
+     *
+     * @return The rules ordered by ID
+     */
+    public List<AvailabilityRule> getRules() {
+        return snapshot().rules();
+    }
+
+    /**
+     * Returns the ranges blocked by rules on a date
+     *
+     * @param date The date
+     * @return Blocked ranges ordered by start time (empty if no rule applies)
+     */
+    public List<RuleRange> getBlockedRanges(LocalDate date) {
+        Snapshot current = snapshot();
+        synchronized (current.days()) {
+            List<RuleRange> cached = current.days().get(date);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+        List<RuleRange> expanded = expand(current, date);
+        synchronized (current.days()) {
+            current.days().put(date, expanded);
+        }
+        return expanded;
+    }
+
+    /**
+     * Checks whether a rule blocks any part of a time range
+     *
+     * @param date The date
+     * @param start Start of the range
+     * @param end End of the range
+     * @return true if the range overlaps a blocked range
+     */
+    public boolean isBlocked(LocalDate date, LocalTime start, LocalTime end) {
+        int from = minuteOf(start);
+        int to = end.equals(LocalTime.MIDNIGHT) ? 24 * 60 : minuteOf(end);
+        for (RuleRange range : getBlockedRanges(date)) {
+            if (range.startMinute() < to && range.endMinute() > from) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a rule
+     *
+     * @param request The rule definition
+     * @return RequestResponse with the created rule, or 400 if the definition is invalid
+     */
+    @Transactional
+    public RequestResponse createRule(AvailabilityRuleRequest request) {
+        AvailabilityRule rule;
+        try {
+            rule = toRule(request);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return new RequestResponse("Invalid rule: " + e.getMessage(), null, 400, false);
+        }
+
+        int id = ruleRepository.insert(rule);
+        rulesChanged();
+        return new RequestResponse(
+            "Availability rule created successfully",
+            Map.of("rule", rule.withId(id)),
+            201,
+            true
+        );
+    }
+
+    /**
+     * Deletes a rule
+     *
+     * @param id The rule ID
+     * @return RequestResponse, 404 if the rule does not exist
+     */
+    @Transactional
+    public RequestResponse deleteRule(Integer id) {
+        if (!ruleRepository.deleteById(id)) {
+            return new RequestResponse("Availability rule not found", null, 404, false);
+        }
+        rulesChanged();
+        return new RequestResponse("Availability rule deleted successfully", null, 200, true);
+    }
+
+    /**
+     * Excludes a date from a rule, or makes the rule apply on it again
+     *
+     * @param id The rule ID
+     * @param date The date (YYYY-MM-DD)
+     * @param excluded true to exclude the date, false to include it again
+     * @return RequestResponse, 404 if the rule does not exist
+     */
+    @Transactional
+    public RequestResponse setException(Integer id, String date, boolean excluded) {
+        LocalDate day;
+        try {
+            day = LocalDate.parse(date);
+        } catch (DateTimeParseException | NullPointerException e) {
+            return new RequestResponse("Invalid date: " + date, null, 400, false);
+        }
+        if (!ruleRepository.existsById(id)) {
+            return new RequestResponse("Availability rule not found", null, 404, false);
+        }
+        if (excluded) {
+            ruleRepository.addException(id, day);
+        } else {
+            ruleRepository.removeException(id, day);
+        }
+        rulesChanged();
+        return new RequestResponse(
+            excluded ? "Date excluded from the rule" : "Date included in the rule again",
+            null,
+            200,
+            true
+        );
+    }
+
+    /**
+     * Returns statistics of the expansion cache for monitoring
+     *
+     * @return Map with rule count, cached days, hits and misses
+     */
+    public Map<String, Object> getCacheStats() {
+        Snapshot current = snapshot();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rules", current.rules().size());
+        synchronized (current.days()) {
+            stats.put("cachedDays", current.days().size());
+        }
+        stats.put("maxCachedDays", cacheSize);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        return stats;
+    }
+
+    /**
+     * Drops the snapshot once a rule change has been committed
+     * Date-specific schedule changes do not affect rules and are ignored
+     *
+     * @param event The schedule change
+     */
+    // Runs before the other listeners of this event (ResourceVersions, ResponseCache,
+    // ChangeBroadcaster), so nothing cached or reloaded under the new version sees the old state
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        if (event.date() == null) {
+            // Bump first, so a load that started before this change cannot install its result
+            generation.incrementAndGet();
+            snapshot.set(null);
+        }
+    }
+
+    // Announces a rule change; listeners (this service, caches, streams) react after commit
+    private void rulesChanged() {
+        eventPublisher.publishEvent(new ScheduleChangedEvent(null, List.of()));
+    }
+
+    // Returns the current snapshot, loading the rules on first use
+    private Snapshot snapshot() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            long loadedAt = generation.get();
+            current = Snapshot.of(ruleRepository.findAll(), cacheSize);
+            // Another thread may have loaded concurrently - either copy is current
+            if (!snapshot.compareAndSet(null, current)) {
+                Snapshot other = snapshot.get();
+                if (other != null) {
+                    current = other;
+                }
+            } else if (generation.get() != loadedAt) {
+                // A rule change committed while loading; the rules read may predate it, so
+                // do not keep them (this call still uses them, the next one reloads)
+                snapshot.compareAndSet(current, null);
+            }
+        }
+        return current;
+    }
+
+    // Evaluates the rules of the date's weekday
+    private static List<RuleRange> expand(Snapshot current, LocalDate date) {
+        List<RuleRange> ranges = new ArrayList<>();
+        for (AvailabilityRule rule : current.byWeekday().get(date.getDayOfWeek().getValue() - 1)) {
+            if (rule.appliesOn(date)) {
+                int end = rule.getEndTime().equals(LocalTime.MIDNIGHT) ? 24 * 60 : minuteOf(rule.getEndTime());
+                ranges.add(new RuleRange(rule.getId(), rule.getLabel(), rule.getStartTime(), rule.getEndTime(),
+                    minuteOf(rule.getStartTime()), end));
+            }
+        }
+        ranges.sort((a, b) -> Integer.compare(a.startMinute(), b.startMinute()));
+        return List.copyOf(ranges);
+    }
+
+    // Validates a request and turns it into a rule
+    private static AvailabilityRule toRule(AvailabilityRuleRequest request) {
+        String label = request.getLabel() == null ? "" : request.getLabel().trim();
+        if (label.isEmpty() || label.length() > 100) {
+            throw new IllegalArgumentException("label is required (at most 100 characters)");
+        }
+
+        if (request.getDays() == null || request.getDays().isEmpty()) {
+            throw new IllegalArgumentException("at least one day is required");
+        }
+        int mask = 0;
+        for (String name : request.getDays()) {
+            mask |= AvailabilityRule.bitOf(BusinessCalendar.parseDay(name));
+        }
+
+        if (request.getStartTime() == null || request.getEndTime() == null) {
+            throw new IllegalArgumentException("startTime and endTime are required");
+        }
+        LocalTime start = LocalTime.parse(request.getStartTime());
+        LocalTime end = LocalTime.parse(request.getEndTime());
+        if (!end.isAfter(start) && !end.equals(LocalTime.MIDNIGHT)) {
+            throw new IllegalArgumentException("endTime must be after startTime (use 00:00 for midnight)");
+        }
+
+        LocalDate validFrom = request.getValidFrom() == null ? LocalDate.now() : LocalDate.parse(request.getValidFrom());
+        LocalDate validUntil = request.getValidUntil() == null ? null : LocalDate.parse(request.getValidUntil());
+        if (validUntil != null && validUntil.isBefore(validFrom)) {
+            throw new IllegalArgumentException("validUntil must not be before validFrom");
+        }
+
+        int interval = request.getIntervalWeeks() == null ? 1 : request.getIntervalWeeks();
+        if (interval < 1 || interval > MAX_INTERVAL_WEEKS) {
+            throw new IllegalArgumentException("intervalWeeks must be between 1 and " + MAX_INTERVAL_WEEKS);
+        }
+
+        Set<LocalDate> exceptions = new HashSet<>();
+        if (request.getExceptions() != null) {
+            for (String date : request.getExceptions()) {
+                exceptions.add(LocalDate.parse(date));
+            }
+        }
+
+        return AvailabilityRule.builder()
+            .label(label)
+            .daysOfWeek(mask)
+            .startTime(start)
+            .endTime(end)
+            .validFrom(validFrom)
+            .validUntil(validUntil)
+            .intervalWeeks(interval)
+            .exceptions(Set.copyOf(exceptions))
+            .build();
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * A range blocked by a rule on one date
+     *
+     * @param ruleId The rule that blocks it
+     * @param label The rule's label
+     * @param start Start time
+     * @param end End time (00:00 = midnight)
+     * @param startMinute Start as minute of the day
+     * @param endMinute End as minute of the day (1440 for midnight)
+     */
+    public record RuleRange(Integer ruleId, String label, LocalTime start, LocalTime end,
+                            int startMinute, int endMinute) {
+    }
+
+    /**
+     * Immutable set of loaded rules with its own expansion cache
+     *
+     * @param rules All rules
+     * @param byWeekday Rules per weekday (index 0 = Monday)
+     * @param days Expanded days (access-ordered, bounded; guarded by synchronizing on it)
+     */
+    private record Snapshot(List<AvailabilityRule> rules,
+                            List<List<AvailabilityRule>> byWeekday,
+                            Map<LocalDate, List<RuleRange>> days) {
+
+        private static Snapshot of(List<AvailabilityRule> rules, int cacheSize) {
+            List<List<AvailabilityRule>> byWeekday = new ArrayList<>(7);
+            for (DayOfWeek day : DayOfWeek.values()) {
+                List<AvailabilityRule> onDay = new ArrayList<>();
+                for (AvailabilityRule rule : rules) {
+                    if ((rule.getDaysOfWeek() & AvailabilityRule.bitOf(day)) != 0) {
+                        onDay.add(rule);
+                    }
+                }
+                byWeekday.add(List.copyOf(onDay));
+            }
+            Map<LocalDate, List<RuleRange>> days = new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<LocalDate, List<RuleRange>> eldest) {
+                    return size() > cacheSize;
+                }
+            };
+            return new Snapshot(List.copyOf(rules), List.copyOf(byWeekday), days);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Booked Slots Service
+ *
+ * This service produces the public availability payload used by the booking page
+ * (GET /api/bookings/booked-slots). The endpoint is open to everyone, so it only
+ * exposes which date/time ranges are taken - never guest, price or payment data.
+ *
+ * Key characteristics:
+ * - Reads only booking_date, booking_time_start and booking_time_end
+ * - Serializes slots as compact tuples: ["2025-04-18", "09:00", "13:00"]
+ * - Keeps the final JSON bytes in the shared ResponseCache per (day, status), so repeated
+ *   requests skip the database and Jackson entirely
+ * - The cached bytes are dropped whenever a booking change is committed and naturally
+ *   roll over when the date changes
+ */
+package com.La.Visual.service;
+
+// Import the response DTO and repository
+import com.La.Visual.dto.RequestResponse;
+import com.La.Visual.repository.BookingRepository;
+
+// Import Spring annotations
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+// Import Java time and utility classes
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Mark this class as a service component in Spring's component scanning
+@Service
+public class BookedSlotsService {
+
+    // Statuses a caller may filter on (matches the bookings.booking_status ENUM)
+    private static final Set<String> STATUSES = Set.of("PENDING", "CONFIRMED", "CANCELLED", "COMPLETED");
+    // Times only need minute precision on the booking page
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    // Column names of each tuple, sent once per response
+    private static final List<String> FIELDS = List.of("date", "start", "end");
+
+    // Dependencies for data access and response caching
+    private final BookingRepository bookingRepository;
+    private final ResponseCache responseCache;
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param bookingRepository Repository for booking data operations
+     * @param responseCache Shared cache of serialized responses
+     */
+    @Autowired
+    public BookedSlotsService(BookingRepository bookingRepository, ResponseCache responseCache) {
+        this.bookingRepository = bookingRepository;
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * Checks whether a status filter is acceptable
+     *
+     * @param status Requested status (null means "all but cancelled")
+     * @return true if the status can be used
+     */
+    public boolean isValidStatus(String status) {
+        return status == null || STATUSES.contains(status);
+    }
+
+    /**
+     * Returns the serialized booked-slots response for upcoming bookings
+     *
+     * @param status Booking status to include, or null for every status except CANCELLED
+     * @return The cached JSON response with its ETag
+     */
+    public ResponseCache.CachedResponse getBookedSlots(String status) {
+        LocalDate today = LocalDate.now();
+        return responseCache.get(
+            ResourceVersions.Resource.BOOKINGS,
+            "booked-slots|" + today + "|" + status,
+            () -> render(today, status)
+        );
+    }
+
+    // Queries the slots and wraps them as tuples in the standard response envelope
+    private RequestResponse render(LocalDate today, String status) {
+        List<BookingRepository.BookedSlot> slots = bookingRepository.findBookedSlots(today, status);
+
+        List<String[]> tuples = new ArrayList<>(slots.size());
+        for (BookingRepository.BookedSlot slot : slots) {
+            tuples.add(new String[] {
+                slot.date().toString(),
+                slot.start().format(TIME_FORMAT),
+                slot.end().format(TIME_FORMAT)
+            });
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("fields", FIELDS);
+        data.put("slots", tuples);
+
+        return new RequestResponse(
+            "Booked slots retrieved successfully",
+            data,
+            200,
+            true
+        );
+    }
+}
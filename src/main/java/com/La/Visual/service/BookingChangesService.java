@@ -0,0 +1,152 @@
+/**
+ * Booking Changes Service
+ *
+ * This service answers delta sync requests from admin clients
+ * (GET /api/bookings/changes?since=<token>). A client keeps a local copy of the
+ * bookings and, instead of reloading the whole table, asks only for what changed
+ * since its last sync.
+ *
+ * How it works:
+ * - bookings.updated_at and payments.updated_at are maintained by the database
+ * - Deleted bookings leave a row in booking_tombstones
+ * - The token is the database time at which the previous answer was read
+ * - Rows are selected from a little before the token (the overlap window), because a
+ *   transaction stamps its rows when it writes them but they only become visible when
+ *   it commits. Clients apply rows by ID, so receiving a row twice is harmless.
+ * - Without a token, with an expired token (older than the tombstone retention) or
+ *   with a token from the future, a full snapshot is returned and the client replaces
+ *   its copy
+ *
+ * Tombstones older than the retention period are purged periodically.
+ */
+package com.La.Visual.service;
+
+// Import the response DTO, entities and repositories
+import com.La.Visual.dto.RequestResponse;
+import com.La.Visual.entity.Booking;
+import com.La.Visual.entity.Payment;
+import com.La.Visual.repository.BookingRepository;
+import com.La.Visual.repository.PaymentRepository;
+
+// Import Spring annotations
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+// Import Java SQL, time and utility classes
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Mark this class as a service component in Spring's component scanning
+@Service
+public class BookingChangesService {
+
+    // Dependencies for data access
+    private final BookingRepository bookingRepository;
+    private final PaymentRepository paymentRepository;
+    // How far before the token rows are re-read (covers late commits)
+    private final Duration overlap;
+    // How long tombstones are kept; older tokens get a full snapshot
+    private final Duration tombstoneRetention;
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param bookingRepository Repository for booking data and tombstones
+     * @param paymentRepository Repository for payment data
+     * @param overlap How far before the token rows are re-read
+     * @param tombstoneRetention How long deletions can be synced
+     */
+    @Autowired
+    public BookingChangesService(BookingRepository bookingRepository,
+                                 PaymentRepository paymentRepository,
+                                 @Value("${bookings.changes.overlap:PT5S}") Duration overlap,
+                                 @Value("${bookings.changes.tombstone-retention:P30D}") Duration tombstoneRetention) {
+        this.bookingRepository = bookingRepository;
+        this.paymentRepository = paymentRepository;
+        this.overlap = overlap;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    /**
+     * Returns the bookings, payments and deletions since a change token
+     *
+     * @param since Token from the previous answer, or null for a full snapshot
+     * @return RequestResponse with token, full flag, bookings, payments and deleted booking IDs
+     */
+    public RequestResponse getChangesSince(String since) {
+        Long sinceMillis = null;
+        if (since != null && !since.isBlank()) {
+            try {
+                sinceMillis = Long.parseLong(since, 36);
+            } catch (NumberFormatException e) {
+                return new RequestResponse("Invalid change token: " + since, null, 400, false);
+            }
+        }
+
+        try {
+            // Read the next token first, so nothing committed during the reads below is skipped
+            Timestamp now = bookingRepository.currentTimestamp();
+            boolean full = sinceMillis == null
+                || sinceMillis > now.getTime()
+                || sinceMillis < now.getTime() - tombstoneRetention.toMillis();
+
+            List<Booking> bookings;
+            List<Payment> payments;
+            List<Integer> deleted;
+            if (full) {
+                bookings = bookingRepository.findAll();
+                payments = paymentRepository.findChangedSince(new Timestamp(0));
+                deleted = List.of();
+            } else {
+                Timestamp from = new Timestamp(sinceMillis - overlap.toMillis());
+                bookings = bookingRepository.findChangedSince(from);
+                payments = paymentRepository.findChangedSince(from);
+                deleted = bookingRepository.findDeletedSince(from);
+            }
+
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("token", Long.toString(now.getTime(), 36));
+            data.put("full", full);
+            data.put("bookings", bookings);
+            data.put("payments", payments);
+            data.put("deleted", deleted);
+
+            return new RequestResponse(
+                full ? "Full booking snapshot retrieved successfully" : "Booking changes retrieved successfully",
+                data,
+                200,
+                true
+            );
+        } catch (Exception e) {
+            e.printStackTrace(); // Log error for debugging
+            return new RequestResponse(
+                "Error retrieving booking changes: " + e.getMessage(),
+                null,
+                500,
+                false
+            );
+        }
+    }
+
+    /**
+     * Removes tombstones that are older than the retention period
+     */
+    @Scheduled(initialDelayString = "PT10M", fixedDelayString = "${bookings.changes.purge-interval:PT6H}")
+    public void purgeTombstones() {
+        try {
+            Timestamp before = new Timestamp(System.currentTimeMillis() - tombstoneRetention.toMillis());
+            int removed = bookingRepository.purgeTombstones(before);
+            if (removed > 0) {
+                System.out.println("Purged " + removed + " booking tombstone(s)");
+            }
+        } catch (Exception e) {
+            // Try again on the next run
+            System.err.println("Could not purge booking tombstones: " + e.getMessage());
+        }
+    }
+}
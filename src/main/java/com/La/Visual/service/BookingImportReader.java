@@ -0,0 +1,254 @@
+/**
+ * Booking Import Reader
+ *
+ * Reads the rows of a booking import one at a time, so an upload of any size is
+ * processed with constant memory. Two formats are supported:
+ *
+ * - CSV: the first record is the header; fields may be quoted ("..."), quotes inside
+ *   a quoted field are doubled ("") and quoted fields may span lines
+ * - NDJSON: one JSON object per line; blank lines are skipped
+ *
+ * Column names are normalized (case, spaces, "_" and "-" are ignored), so both
+ * "guestName" and "guest_name" select the same field. Every row carries the line on
+ * which it starts, for error messages.
+ */
+package com.La.Visual.service;
+
+// Import Jackson for parsing NDJSON lines
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Import Java I/O and utility classes
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+abstract class BookingImportReader implements Closeable {
+
+    // Byte order mark some spreadsheet programs write at the start of a CSV export
+    private static final char BOM = '\uFEFF';
+
+    protected final BufferedReader in;
+
+    private BookingImportReader(Reader in) {
+        this.in = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in, 64 * 1024);
+    }
+
+    /**
+     * Creates a reader for CSV input with a header record
+     *
+     * @param in The character stream
+     * @return A row reader
+     */
+    static BookingImportReader csv(Reader in) {
+        return new Csv(in);
+    }
+
+    /**
+     * Creates a reader for newline-delimited JSON input
+     *
+     * @param in The character stream
+     * @param objectMapper Jackson mapper used to parse each line
+     * @return A row reader
+     */
+    static BookingImportReader ndjson(Reader in, ObjectMapper objectMapper) {
+        return new NdJson(in, objectMapper);
+    }
+
+    /**
+     * Reads the next row
+     *
+     * @return The next row, or null at the end of the input
+     * @throws IOException If the input cannot be read
+     */
+    abstract Row next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // Lower-cases a column name and drops separators ("Guest_Name" -> "guestname")
+    static String normalize(String name) {
+        StringBuilder key = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c != '_' && c != '-' && c != BOM && !Character.isWhitespace(c)) {
+                key.append(Character.toLowerCase(c));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * One input row
+     *
+     * @param line Line number on which the row starts (1-based)
+     * @param values Field values by normalized column name (blank values are left out)
+     * @param error Why the row could not be read, or null
+     */
+    record Row(long line, Map<String, String> values, String error) {
+    }
+
+    // CSV reader (RFC 4180 quoting)
+    private static final class Csv extends BookingImportReader {
+
+        private List<String> header;
+        // Line of the next character
+        private long line = 1;
+        private boolean eof;
+
+        private Csv(Reader in) {
+            super(in);
+        }
+
+        @Override
+        Row next() throws IOException {
+            if (header == null) {
+                List<String> names = readRecord();
+                if (names == null) {
+                    return null;
+                }
+                header = new ArrayList<>(names.size());
+                for (String name : names) {
+                    header.add(normalize(name));
+                }
+            }
+
+            List<String> fields;
+            long startLine;
+            do {
+                startLine = line;
+                fields = readRecord();
+                if (fields == null) {
+                    return null;
+                }
+                // Skip empty lines
+            } while (fields.size() == 1 && fields.get(0).isEmpty());
+
+            if (fields.size() > header.size()) {
+                return new Row(startLine, Map.of(), "Row has " + fields.size() + " fields but the header has " + header.size());
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                String value = fields.get(i).trim();
+                if (!value.isEmpty()) {
+                    values.put(header.get(i), value);
+                }
+            }
+            return new Row(startLine, values, null);
+        }
+
+        // Reads one record; returns null at the end of the input
+        private List<String> readRecord() throws IOException {
+            if (eof) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+
+            while (true) {
+                int c = in.read();
+                if (c == -1) {
+                    eof = true;
+                    if (!any) {
+                        return null;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                }
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        in.mark(1);
+                        int following = in.read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (following != -1) {
+                                in.reset();
+                            }
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r') {
+                    // Handled with the following '\n'
+                } else if (c == '\n') {
+                    line++;
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+            }
+        }
+    }
+
+    // Newline-delimited JSON reader
+    private static final class NdJson extends BookingImportReader {
+
+        private final ObjectMapper objectMapper;
+        private long line;
+
+        private NdJson(Reader in, ObjectMapper objectMapper) {
+            super(in);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        Row next() throws IOException {
+            String text;
+            do {
+                text = in.readLine();
+                if (text == null) {
+                    return null;
+                }
+                line++;
+            } while (text.isBlank());
+
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                return new Row(line, Map.of(), "Invalid JSON: " + e.getOriginalMessage());
+            }
+            if (node == null || !node.isObject()) {
+                return new Row(line, Map.of(), "Expected a JSON object");
+            }
+
+            Map<String, String> values = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode value = field.getValue();
+                if (value.isNull() || value.isContainerNode()) {
+                    continue;
+                }
+                String string = value.asText().trim();
+                if (!string.isEmpty()) {
+                    values.put(normalize(field.getKey()), string);
+                }
+            }
+            return new Row(line, values, null);
+        }
+    }
+}
@@ -0,0 +1,470 @@
+/**
+ * Booking Import Service
+ *
+ * This service imports bookings in bulk (POST /api/bookings/import), for example when
+ * moving from the old spreadsheet or from another studio location. Creating them one
+ * by one through POST /api/bookings/manual costs four statements per booking; an import
+ * of tens of thousands of rows goes through here instead.
+ *
+ * How it works:
+ * - The upload (CSV with a header, or NDJSON) is read row by row, never held in memory
+ * - Each row is validated on its own; invalid rows are reported with their line number
+ *   and skipped, the rest are imported
+ * - Rows that are not cancelled must fit the business hours, holidays, slot alignment
+ *   and recurring rules, like bookings made through the site
+ * - Overlaps are checked against an in-memory index of the occupied time ranges per
+ *   day, loaded from the database once per date and extended with every accepted row,
+ *   so rows also cannot overlap each other
+ * - Valid rows are written in chunks, each in its own transaction: one batched insert
+ *   for the payments, one for the bookings and one batched update linking the payments
+ *   back (three statements per chunk instead of four per booking)
+ * - If a chunk fails, only that chunk is rolled back and its rows are reported
+ *
+ * Accepted columns match BookingRequest (guestName, bookingDate, bookingTimeStart, ...)
+ * plus bookingStatus, paymentStatus, remainingBalance, adminNotes and createdAt.
+ * Imported bookings default to CONFIRMED with a COMPLETED full payment, like manual ones.
+ */
+package com.La.Visual.service;
+
+// Import the response DTO, entities, events and repositories
+import com.La.Visual.dto.RequestResponse;
+import com.La.Visual.entity.Booking;
+import com.La.Visual.entity.BookingStatus;
+import com.La.Visual.entity.BusinessCalendar;
+import com.La.Visual.entity.Payment;
+import com.La.Visual.event.BookingChangedEvent;
+import com.La.Visual.repository.BookingRepository;
+import com.La.Visual.repository.PaymentRepository;
+
+// Import Jackson for NDJSON parsing
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Import Spring annotations and transaction support
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Import Java I/O, time and utility classes
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+// Mark this class as a service component in Spring's component scanning
+@Service
+public class BookingImportService {
+
+    // Payment values accepted by the payments table ENUMs
+    private static final Set<String> PAYMENT_TYPES = Set.of("FULL", "DOWNPAYMENT");
+    private static final Set<String> PAYMENT_STATUSES = Set.of("PENDING", "COMPLETED", "FAILED");
+
+    // Dependencies for data access, transactions and change events
+    private final BookingRepository bookingRepository;
+    private final PaymentRepository paymentRepository;
+    private final BusinessHoursService businessHoursService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    // Rows written per transaction
+    private final int chunkSize;
+    // Row errors listed in the response (the count is always complete)
+    private final int maxReportedErrors;
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param bookingRepository Repository for booking data operations
+     * @param paymentRepository Repository for payment data operations
+     * @param businessHoursService Service that checks times against the business hours
+     * @param transactionTemplate Template for the per-chunk transactions
+     * @param eventPublisher Publisher for booking change events
+     * @param objectMapper Jackson mapper used for NDJSON input
+     * @param chunkSize Rows written per transaction
+     * @param maxReportedErrors Row errors listed in the response
+     */
+    @Autowired
+    public BookingImportService(BookingRepository bookingRepository,
+                                PaymentRepository paymentRepository,
+                                BusinessHoursService businessHoursService,
+                                TransactionTemplate transactionTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                ObjectMapper objectMapper,
+                                @Value("${bookings.import.chunk-size:500}") int chunkSize,
+                                @Value("${bookings.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.bookingRepository = bookingRepository;
+        this.paymentRepository = paymentRepository;
+        this.businessHoursService = businessHoursService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Imports bookings from a CSV or NDJSON upload
+     *
+     * @param in The request body
+     * @param contentType Content type of the body (text/csv or application/x-ndjson)
+     * @return RequestResponse with imported and failed counts and the row errors
+     */
+    public RequestResponse importBookings(InputStream in, String contentType) {
+        String type = contentType == null ? "" : contentType.toLowerCase();
+        InputStreamReader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        BookingImportReader rows;
+        if (type.contains("csv")) {
+            rows = BookingImportReader.csv(reader);
+        } else if (type.contains("ndjson") || type.contains("jsonl") || type.contains("json-seq")) {
+            rows = BookingImportReader.ndjson(reader, objectMapper);
+        } else {
+            return new RequestResponse("Send the import as text/csv or application/x-ndjson", null, 415, false);
+        }
+
+        Run run = new Run();
+        long started = System.nanoTime();
+        try (rows) {
+            List<Candidate> chunk = new ArrayList<>(chunkSize);
+            BookingImportReader.Row row;
+            while ((row = rows.next()) != null) {
+                run.rows++;
+                if (row.error() != null) {
+                    run.fail(row.line(), row.error());
+                    continue;
+                }
+                try {
+                    chunk.add(toCandidate(row));
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    run.fail(row.line(), e.getMessage());
+                    continue;
+                }
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, run);
+                    chunk.clear();
+                }
+            }
+            writeChunk(chunk, run);
+        } catch (IOException e) {
+            // Chunks written so far stay imported
+            return new RequestResponse(
+                "Import stopped after " + run.rows + " row(s), the upload could not be read: " + e.getMessage(),
+                run.summary(started),
+                400,
+                false
+            );
+        }
+
+        Map<String, Object> data = run.summary(started);
+        System.out.println("Booking import: " + run.imported + " imported, " + run.failed + " failed in " + data.get("elapsedMs") + " ms");
+        return new RequestResponse(
+            run.imported + " booking(s) imported, " + run.failed + " row(s) failed",
+            data,
+            200,
+            true
+        );
+    }
+
+    // Validates a chunk against the day index and writes the accepted rows in one transaction
+    private void writeChunk(List<Candidate> chunk, Run run) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // Load the occupied ranges of dates not seen before (one query per chunk)
+        Set<LocalDate> newDates = new LinkedHashSet<>();
+        Set<String> references = new HashSet<>();
+        for (Candidate candidate : chunk) {
+            if (!run.days.containsKey(candidate.booking.getBookingDate())) {
+                newDates.add(candidate.booking.getBookingDate());
+            }
+            if (candidate.referenceGiven) {
+                references.add(candidate.booking.getBookingReference());
+            }
+        }
+        if (!newDates.isEmpty()) {
+            for (LocalDate date : newDates) {
+                run.days.put(date, new TreeMap<>());
+            }
+            for (BookingRepository.BookedSlot slot : bookingRepository.findOccupiedSlotsOn(newDates)) {
+                occupy(run.days.get(slot.date()), minuteOf(slot.start()), BusinessCalendar.endMinuteOf(slot.end()));
+            }
+        }
+        Set<String> takenReferences = references.isEmpty() ? Set.of() : bookingRepository.findExistingReferences(references);
+
+        // Accept rows in input order, so a later row that overlaps an earlier one is the one rejected
+        List<Candidate> accepted = new ArrayList<>(chunk.size());
+        for (Candidate candidate : chunk) {
+            Booking booking = candidate.booking;
+            String reference = booking.getBookingReference();
+            if (takenReferences.contains(reference) || !run.references.add(reference)) {
+                run.fail(candidate.line, "Booking reference " + reference + " already exists");
+                continue;
+            }
+            if (!"CANCELLED".equals(booking.getBookingStatus())) {
+                TreeMap<Integer, Integer> day = run.days.get(booking.getBookingDate());
+                int start = minuteOf(booking.getBookingTimeStart());
+                int end = BusinessCalendar.endMinuteOf(booking.getBookingTimeEnd());
+                if (overlaps(day, start, end)) {
+                    run.fail(candidate.line, "Overlaps another booking on " + booking.getBookingDate());
+                    run.references.remove(reference);
+                    continue;
+                }
+                occupy(day, start, end);
+            }
+            accepted.add(candidate);
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Payment> payments = new ArrayList<>(accepted.size());
+                for (Candidate candidate : accepted) {
+                    payments.add(candidate.payment);
+                }
+                payments = paymentRepository.insertBatch(payments);
+
+                List<Booking> bookings = new ArrayList<>(accepted.size());
+                for (int i = 0; i < accepted.size(); i++) {
+                    bookings.add(accepted.get(i).booking.withPaymentId(payments.get(i).getPaymentId()));
+                }
+                bookings = bookingRepository.insertBatch(bookings);
+
+                List<Payment> links = new ArrayList<>(bookings.size());
+                for (int i = 0; i < bookings.size(); i++) {
+                    links.add(payments.get(i).withBookingId(bookings.get(i).getBookingId()));
+                }
+                paymentRepository.linkBookings(links);
+
+                // Delivered after this chunk commits
+                for (Booking booking : bookings) {
+                    eventPublisher.publishEvent(new BookingChangedEvent(
+                        booking.getBookingId(),
+                        BookingChangedEvent.Change.CREATED,
+                        new BookingChangedEvent.Slot(
+                            booking.getBookingDate(),
+                            booking.getBookingTimeStart(),
+                            booking.getBookingTimeEnd(),
+                            booking.getBookingStatus()
+                        )
+                    ));
+                }
+            });
+            run.imported += accepted.size();
+        } catch (Exception e) {
+            System.err.println("Booking import chunk failed: " + e.getMessage());
+            // The chunk was rolled back - release its ranges and references again
+            for (Candidate candidate : accepted) {
+                Booking booking = candidate.booking;
+                if (!"CANCELLED".equals(booking.getBookingStatus())) {
+                    run.days.get(booking.getBookingDate()).remove(minuteOf(booking.getBookingTimeStart()));
+                }
+                run.references.remove(booking.getBookingReference());
+                run.fail(candidate.line, "Not imported, its chunk failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Converts a row into the booking and payment to insert, or throws with the reason
+    private Candidate toCandidate(BookingImportReader.Row row) {
+        Map<String, String> values = row.values();
+
+        LocalDate date = LocalDate.parse(required(values, "bookingdate"));
+        LocalTime start = LocalTime.parse(required(values, "bookingtimestart"));
+        LocalTime end = LocalTime.parse(required(values, "bookingtimeend"));
+        // An end time of 00:00 means midnight, as everywhere else
+        int minutes = BusinessCalendar.endMinuteOf(end) - minuteOf(start);
+        if (minutes <= 0) {
+            throw new IllegalArgumentException("bookingTimeEnd must be after bookingTimeStart");
+        }
+
+        String statusName = values.getOrDefault("bookingstatus", "CONFIRMED");
+        BookingStatus status = BookingStatus.parse(statusName);
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown bookingStatus: " + statusName);
+        }
+        // Cancelled rows occupy no time, every other row must be bookable
+        if (status != BookingStatus.CANCELLED) {
+            String reason = businessHoursService.rejectionReason(date, start, end);
+            if (reason != null) {
+                throw new IllegalArgumentException(reason);
+            }
+        }
+
+        double price = number(values, "packageprice", null);
+        String paymentType = values.getOrDefault("paymenttype", "FULL").toUpperCase();
+        if (!PAYMENT_TYPES.contains(paymentType)) {
+            throw new IllegalArgumentException("Unknown paymentType: " + paymentType);
+        }
+        String paymentStatus = values.getOrDefault("paymentstatus", "COMPLETED").toUpperCase();
+        if (!PAYMENT_STATUSES.contains(paymentStatus)) {
+            throw new IllegalArgumentException("Unknown paymentStatus: " + paymentStatus);
+        }
+        double amount = number(values, "amount", price);
+        double remaining = number(values, "remainingbalance", "FULL".equals(paymentType) ? 0.0 : Math.max(0.0, price - amount));
+
+        String paymentMethod = text(values, "paymentmethod", 50, false);
+        String reference = text(values, "bookingreference", 50, false);
+        Integer hours = values.containsKey("bookinghours")
+            ? (int) number(values, "bookinghours", null)
+            : Math.max(1, (minutes + 59) / 60);
+        String createdAt = values.get("createdat");
+
+        Booking booking = Booking.builder()
+            .guestName(text(values, "guestname", 255, true))
+            .guestEmail(values.containsKey("guestemail") ? text(values, "guestemail", 255, true) : "manual-booking@admin.com")
+            .guestPhone(text(values, "guestphone", 20, true))
+            .bookingDate(date)
+            .bookingTimeStart(start)
+            .bookingTimeEnd(end)
+            .bookingHours(hours)
+            .location(text(values, "location", 255, true))
+            .categoryName(text(values, "categoryname", 255, true))
+            .packageName(text(values, "packagename", 255, true))
+            .packagePrice(price)
+            .specialRequests(values.get("specialrequests"))
+            .bookingStatus(status.name())
+            .bookingReference(reference != null ? reference : "BK-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase())
+            .adminNotes(values.get("adminnotes"))
+            .createdAt(createdAt == null ? null : parseDateTime(createdAt))
+            .build();
+
+        Payment payment = Payment.builder()
+            .amount(amount)
+            .remainingBalance(remaining)
+            .paymentType(paymentType)
+            .paymentMethod(paymentMethod != null ? paymentMethod : "CASH")
+            .paymentStatus(paymentStatus)
+            .gcashNumber(text(values, "gcashnumber", 20, false))
+            .build();
+
+        return new Candidate(row.line(), booking, payment, reference != null);
+    }
+
+    // Returns a required field or throws
+    private static String required(Map<String, String> values, String key) {
+        String value = values.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + key);
+        }
+        return value;
+    }
+
+    // Returns a text field after checking its length against the column size
+    private static String text(Map<String, String> values, String key, int maxLength, boolean required) {
+        String value = required ? required(values, key) : values.get(key);
+        if (value != null && value.length() > maxLength) {
+            throw new IllegalArgumentException(key + " is longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    // Parses a numeric field, falling back to a default when it is absent (null default = required)
+    private static double number(Map<String, String> values, String key, Double defaultValue) {
+        String value = defaultValue == null ? required(values, key) : values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            double number = Double.parseDouble(value);
+            if (number < 0 || Double.isNaN(number) || Double.isInfinite(number)) {
+                throw new IllegalArgumentException(key + " must be a non-negative number");
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " is not a number: " + value);
+        }
+    }
+
+    // Accepts "2024-05-01T10:00:00", "2024-05-01 10:00:00" or a plain date
+    private static LocalDateTime parseDateTime(String value) {
+        if (value.length() == 10) {
+            return LocalDate.parse(value).atStartOfDay();
+        }
+        return LocalDateTime.parse(value.replace(' ', 'T'));
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    // The ranges of one day are disjoint and sorted, so only the last range starting before "end" can overlap
+    private static boolean overlaps(TreeMap<Integer, Integer> day, int start, int end) {
+        Map.Entry<Integer, Integer> before = day.lowerEntry(end);
+        return before != null && before.getValue() > start;
+    }
+
+    // Adds a range, merging it with ranges it overlaps (existing bookings may overlap each other)
+    private static void occupy(TreeMap<Integer, Integer> day, int start, int end) {
+        Map.Entry<Integer, Integer> before;
+        while ((before = day.lowerEntry(end)) != null && before.getValue() > start) {
+            start = Math.min(start, before.getKey());
+            end = Math.max(end, before.getValue());
+            day.remove(before.getKey());
+        }
+        day.put(start, end);
+    }
+
+    /**
+     * A validated row waiting to be written
+     *
+     * @param line Line number in the upload
+     * @param booking The booking to insert (without payment ID yet)
+     * @param payment Its payment
+     * @param referenceGiven Whether the reference came from the upload (and must be checked)
+     */
+    private record Candidate(long line, Booking booking, Payment payment, boolean referenceGiven) {
+    }
+
+    // State and counters of one import
+    private final class Run {
+        // Occupied minute ranges per day: start -> end
+        private final Map<LocalDate, TreeMap<Integer, Integer>> days = new HashMap<>();
+        // References used by rows of this import
+        private final Set<String> references = new HashSet<>();
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long failed;
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("line", line);
+                error.put("error", message);
+                errors.add(error);
+            }
+        }
+
+        private Map<String, Object> summary(long started) {
+            long elapsedNanos = System.nanoTime() - started;
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("rows", rows);
+            data.put("imported", imported);
+            data.put("failed", failed);
+            data.put("errors", errors);
+            data.put("errorsTruncated", failed > errors.size());
+            data.put("elapsedMs", Duration.ofNanos(elapsedNanos).toMillis());
+            data.put("rowsPerSecond", elapsedNanos == 0 ? 0 : Math.round(rows * 1e9 / elapsedNanos));
+            return data;
+        }
+    }
+}
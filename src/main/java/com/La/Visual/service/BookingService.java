@@ -26,26 +26,41 @@ package com.La.Visual.service;
 import com.La.Visual.dto.BookingRequest;
 import com.La.Visual.dto.BookingTimeUpdateRequest;
 import com.La.Visual.dto.BookingUpdateRequest;
+import com.La.Visual.dto.BulkStatusRequest;
 import com.La.Visual.dto.RequestResponse;
 // Import entity classes representing database records
 import com.La.Visual.entity.Booking;
+import com.La.Visual.entity.BookingStatus;
+import com.La.Visual.entity.BusinessCalendar;
 import com.La.Visual.entity.Payment;
 // Import repositories for database operations
+import com.La.Visual.repository.BookingField;
 import com.La.Visual.repository.BookingRepository;
 import com.La.Visual.repository.PaymentRepository;
+// Import the event published after booking writes
+import com.La.Visual.event.BookingChangedEvent;
+// Import the signer for payment proof URLs
+import com.La.Visual.storage.FileUrlSigner;
 // Import Spring annotations for dependency injection and transaction management
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 // Import Java utility classes
 import java.util.UUID;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import java.util.Random;
 import java.util.HashMap;
@@ -55,9 +70,18 @@ import com.La.Visual.entity.Payment;
 @Service
 public class BookingService {
 
+    // Maximum number of bookings changed by one bulk status request
+    private static final int MAX_BULK_SIZE = 5000;
+
     // Repository dependencies needed for data access, marked as final for immutability
     private final BookingRepository bookingRepository;
     private final PaymentRepository paymentRepository;
+    // Creates short-lived signed URLs for payment proof files
+    private final FileUrlSigner fileUrlSigner;
+    // Publishes BookingChangedEvent so caches and other derived data can refresh
+    private final ApplicationEventPublisher eventPublisher;
+    // Checks booking times against business hours, holidays and recurring rules
+    private final BusinessHoursService businessHoursService;
 
     /**
      * Constructor with dependency injection via @Autowired
@@ -65,11 +89,19 @@ public class BookingService {
      * 
      * @param bookingRepository Repository for booking data operations
      * @param paymentRepository Repository for payment data operations
+     * @param fileUrlSigner Signer for payment proof URLs
+     * @param eventPublisher Publisher for booking change events
+     * @param businessHoursService Service for business hours and availability checks
      */
     @Autowired
-    public BookingService(BookingRepository bookingRepository, PaymentRepository paymentRepository) {
+    public BookingService(BookingRepository bookingRepository, PaymentRepository paymentRepository,
+                          FileUrlSigner fileUrlSigner, ApplicationEventPublisher eventPublisher,
+                          BusinessHoursService businessHoursService) {
         this.bookingRepository = bookingRepository;
         this.paymentRepository = paymentRepository;
+        this.fileUrlSigner = fileUrlSigner;
+        this.eventPublisher = eventPublisher;
+        this.businessHoursService = businessHoursService;
     }
 
     /**
@@ -82,6 +114,12 @@ public class BookingService {
     @Transactional // Ensures this method executes as a database transaction (all or nothing)
     public RequestResponse createBooking(BookingRequest request) {
         try {
+            // Reject times outside business hours before anything is written
+            RequestResponse rejected = checkBookable(request);
+            if (rejected != null) {
+                return rejected;
+            }
+            
             // Step 1: Create initial payment (without booking_id)
             // This step creates a payment record first, which will later be linked to the booking
             Payment initialPayment = paymentRepository.saveInitial(
@@ -136,6 +174,9 @@ public class BookingService {
             data.put("paymentId", initialPayment.getPaymentId());
             data.put("bookingReference", savedBooking.getBookingReference()); // Add this line
             
+            // Let listeners (caches, availability) know once the transaction commits
+            publishChange(savedBooking, BookingChangedEvent.Change.CREATED);
+            
             // Return success response with booking data
             return new RequestResponse(
                 "Booking created successfully",
@@ -155,6 +196,26 @@ public class BookingService {
         }
     }
     
+    /**
+     * Publishes a BookingChangedEvent for a booking write
+     * Listeners using @TransactionalEventListener receive it after the surrounding transaction commits
+     * 
+     * @param booking The booking as stored after the change (as it was, for deletions)
+     * @param change What kind of change happened
+     */
+    private void publishChange(Booking booking, BookingChangedEvent.Change change) {
+        eventPublisher.publishEvent(new BookingChangedEvent(
+            booking.getBookingId(),
+            change,
+            new BookingChangedEvent.Slot(
+                booking.getBookingDate(),
+                booking.getBookingTimeStart(),
+                booking.getBookingTimeEnd(),
+                booking.getBookingStatus()
+            )
+        ));
+    }
+    
     /**
      * Generates a unique booking reference code
      * Format: BK-XXXXXXXX where X is an uppercase alphanumeric character
@@ -173,16 +234,13 @@ public class BookingService {
      */
     public RequestResponse getBookingById(Integer id) {
         try {
-            // Use the repository to find the booking by ID, returning an Optional
-            return bookingRepository.findById(id)
-                .map(booking -> {
-                    // If booking is found, get its payments
-                    List<Payment> payments = paymentRepository.findByBookingId(booking.getBookingId());
-                    
+            // Load the booking and its payments in one query, returning an Optional
+            return bookingRepository.findByIdWithPayments(id)
+                .map(found -> {
                     // Prepare data for response
                     Map<String, Object> data = new HashMap<>();
-                    data.put("booking", booking);
-                    data.put("payments", payments);
+                    data.put("booking", found.booking());
+                    data.put("payments", found.payments());
                     
                     // Return success response
                     return new RequestResponse(
@@ -271,6 +329,7 @@ public class BookingService {
     /**
      * Updates the status of a booking
      * Used for changing booking states (e.g., pending to confirmed)
+     * Only the status column is written; the booking is read afterwards for the response
      * 
      * @param id The ID of the booking to update
      * @param status The new status to set
@@ -278,29 +337,14 @@ public class BookingService {
      */
     @Transactional
     public RequestResponse updateBookingStatus(Integer id, String status) {
+        if (status == null || status.isBlank()) {
+            return new RequestResponse("Status is required", null, 400, false);
+        }
+        
         try {
-            // Find the booking by ID
-            return bookingRepository.findById(id)
-                .map(booking -> {
-                    // Create a new booking with updated status (immutable pattern)
-                    Booking updatedBooking = booking.withBookingStatus(status);
-                    // Save the updated booking
-                    bookingRepository.update(updatedBooking);
-                    
-                    // Return success response with updated booking
-                    return new RequestResponse(
-                        "Booking status updated successfully",
-                        Map.of("booking", updatedBooking),
-                        200,
-                        true
-                    );
-                })
-                .orElse(new RequestResponse(
-                    "Booking not found",
-                    null,
-                    404,
-                    false
-                ));
+            EnumMap<BookingField, Object> changes = new EnumMap<>(BookingField.class);
+            changes.put(BookingField.BOOKING_STATUS, status);
+            return applyStatusChange(id, changes, null, "updated", "Booking status updated successfully");
         } catch (Exception e) {
             // If any error occurs, return an error response
             return new RequestResponse(
@@ -312,17 +356,70 @@ public class BookingService {
         }
     }
 
+    /**
+     * Writes a status change with a single (optionally conditional) UPDATE and reports
+     * the outcome: 200 with the updated booking, 404 if it does not exist, or 409 if its
+     * current status does not allow the change
+     * 
+     * @param id The booking ID
+     * @param changes The columns to write (including the new status)
+     * @param expectedStatuses Statuses the booking must currently have, or null for any
+     * @param verb Past participle for the conflict message (e.g., "approved")
+     * @param successMessage Message of the success response
+     * @return RequestResponse with the outcome
+     */
+    private RequestResponse applyStatusChange(Integer id,
+                                              EnumMap<BookingField, Object> changes,
+                                              Set<String> expectedStatuses,
+                                              String verb,
+                                              String successMessage) {
+        if (bookingRepository.updateFieldsIf(id, changes, expectedStatuses)) {
+            // Read back the stored row for the response and the change event
+            Booking updatedBooking = bookingRepository.findById(id)
+                .orElseThrow(() -> new IllegalStateException("Booking " + id + " disappeared during update"));
+            publishChange(updatedBooking, BookingChangedEvent.Change.STATUS_CHANGED);
+            return new RequestResponse(
+                successMessage,
+                Map.of("booking", updatedBooking),
+                200,
+                true
+            );
+        }
+        
+        // Nothing was updated - find out why (only on this failure path)
+        return bookingRepository.findStatusById(id)
+            .map(current -> new RequestResponse(
+                "Booking cannot be " + verb + " while it is " + current,
+                Map.of("currentStatus", current),
+                409,
+                false
+            ))
+            .orElse(new RequestResponse(
+                "Booking not found",
+                null,
+                404,
+                false
+            ));
+    }
+    
     /**
      * Creates a new booking with payment proof in a single operation
      * Similar to createBooking but includes payment proof processing
      * 
      * @param request The BookingRequest containing all booking information
      * @param proofFileName The filename of the uploaded payment proof
-     * @return RequestResponse with booking, payment IDs and proof info if successful
+     * @return RequestResponse with booking, payment IDs and proof info if successful;
+     *         on failure nothing has been written (the transaction is rolled back)
      */
     @Transactional
     public RequestResponse createBookingWithProof(BookingRequest request, String proofFileName) {
         try {
+            // Reject times outside business hours before anything is written
+            RequestResponse rejected = checkBookable(request);
+            if (rejected != null) {
+                return rejected;
+            }
+            
             // Step 1: Create initial payment (without booking_id)
             Payment initialPayment = paymentRepository.saveInitial(
                 null, // Will be set after booking creation
@@ -379,6 +476,7 @@ public class BookingService {
                 .withPaymentProof(proofFileName);
                 
             paymentRepository.update(updatedPayment);
+            publishChange(savedBooking, BookingChangedEvent.Change.CREATED);
             
             // Prepare response data
             Map<String, Object> data = new HashMap<>();
@@ -386,6 +484,8 @@ public class BookingService {
             data.put("paymentId", initialPayment.getPaymentId());
             data.put("bookingReference", savedBooking.getBookingReference());
             data.put("paymentProof", proofFileName);
+            // Signed URL so the guest can see their uploaded proof on the confirmation page
+            data.put("paymentProofUrl", fileUrlSigner.viewUrl(proofFileName));
             
             // Return success response
             return new RequestResponse(
@@ -395,7 +495,10 @@ public class BookingService {
                 true
             );
         } catch (Exception e) {
-            // If any error occurs, return an error response
+            e.printStackTrace(); // Log error for debugging
+            // Undo the payment rows already written, so a failed booking leaves nothing that
+            // references the proof and the caller can safely remove the file
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return new RequestResponse(
                 "Error creating booking: " + e.getMessage(),
                 null,
@@ -438,6 +541,7 @@ public class BookingService {
                         if (paymentId != null) {
                             paymentRepository.deleteById(paymentId);
                         }
+                        publishChange(booking, BookingChangedEvent.Change.DELETED);
                         
                         // Return success response
                         return new RequestResponse(
@@ -476,8 +580,9 @@ public class BookingService {
     }
 
     /**
-     * Updates general booking information
+     * Updates the general information of a booking
      * Different from updateBookingStatus as it changes multiple fields
+     * All six editable fields are written (PUT semantics) with a single UPDATE of just those columns
      * 
      * @param id The ID of the booking to update
      * @param request The BookingUpdateRequest with new field values
@@ -486,21 +591,80 @@ public class BookingService {
      */
     @Transactional
     public Booking updateBooking(Long id, BookingUpdateRequest request) {
-        // Find the booking by ID
-        Booking existingBooking = bookingRepository.findById(id.intValue())
+        EnumMap<BookingField, Object> changes = new EnumMap<>(BookingField.class);
+        changes.put(BookingField.PACKAGE_NAME, request.packageName());
+        changes.put(BookingField.CATEGORY_NAME, request.category());
+        changes.put(BookingField.GUEST_NAME, request.guestName());
+        changes.put(BookingField.GUEST_PHONE, request.phoneNumber());
+        changes.put(BookingField.LOCATION, request.location());
+        changes.put(BookingField.SPECIAL_REQUESTS, request.specialRequest());
+        
+        if (!bookingRepository.updateFields(id.intValue(), changes)) {
+            throw new RuntimeException("Booking not found with id: " + id);
+        }
+        
+        // Read back the stored row for the response and the change event
+        Booking savedBooking = bookingRepository.findById(id.intValue())
             .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
+        publishChange(savedBooking, BookingChangedEvent.Change.UPDATED);
+        return savedBooking;
+    }
+
+    /**
+     * Partially updates the general information of a booking (PATCH semantics)
+     * Only fields present (non-null) in the request are written
+     * 
+     * @param id The ID of the booking to update
+     * @param request The BookingUpdateRequest; null fields are left unchanged
+     * @return RequestResponse with the updated booking if successful
+     */
+    @Transactional
+    public RequestResponse patchBooking(Integer id, BookingUpdateRequest request) {
+        EnumMap<BookingField, Object> changes = new EnumMap<>(BookingField.class);
+        putIfPresent(changes, BookingField.PACKAGE_NAME, request.packageName());
+        putIfPresent(changes, BookingField.CATEGORY_NAME, request.category());
+        putIfPresent(changes, BookingField.GUEST_NAME, request.guestName());
+        putIfPresent(changes, BookingField.GUEST_PHONE, request.phoneNumber());
+        putIfPresent(changes, BookingField.LOCATION, request.location());
+        putIfPresent(changes, BookingField.SPECIAL_REQUESTS, request.specialRequest());
         
-        // Update the booking fields using the immutable pattern (.with methods)
-        Booking updatedBooking = existingBooking
-            .withPackageName(request.packageName())
-            .withCategoryName(request.category())
-            .withGuestName(request.guestName())
-            .withGuestPhone(request.phoneNumber())
-            .withLocation(request.location())
-            .withSpecialRequests(request.specialRequest());
+        if (changes.isEmpty()) {
+            return new RequestResponse("No fields to update", null, 400, false);
+        }
         
-        // Save the updated booking
-        return bookingRepository.update(updatedBooking);
+        try {
+            if (!bookingRepository.updateFields(id, changes)) {
+                return new RequestResponse("Booking not found", null, 404, false);
+            }
+            
+            // Read back the stored row for the response and the change event
+            Booking savedBooking = bookingRepository.findById(id)
+                .orElseThrow(() -> new IllegalStateException("Booking " + id + " disappeared during update"));
+            publishChange(savedBooking, BookingChangedEvent.Change.UPDATED);
+            
+            return new RequestResponse(
+                "Booking updated successfully",
+                Map.of("booking", savedBooking, "updatedFields", changes.keySet()),
+                200,
+                true
+            );
+        } catch (Exception e) {
+            // Log the stack trace for debugging
+            e.printStackTrace();
+            return new RequestResponse(
+                "Error updating booking: " + e.getMessage(),
+                null,
+                500,
+                false
+            );
+        }
+    }
+
+    // Adds a change only when the request contains a value for the field
+    private static void putIfPresent(EnumMap<BookingField, Object> changes, BookingField field, Object value) {
+        if (value != null) {
+            changes.put(field, value);
+        }
     }
 
     /**
@@ -531,16 +695,15 @@ public class BookingService {
             LocalTime startTime = LocalTime.parse(request.getStartTime());
             LocalTime endTime = LocalTime.parse(request.getEndTime());
             
-            // Calculate the new booking hours
-            int startHour = startTime.getHour();
-            int endHour = endTime.getHour();
-            int bookingHours = endHour - startHour;
-            
-            // If end hour is earlier than start hour (overnight booking), add 24 hours
-            if (bookingHours < 0) {
-                bookingHours += 24;
+            // The new times must fit the business hours (this also rejects ranges that end before they start)
+            String reason = businessHoursService.rejectionReason(booking.getBookingDate(), startTime, endTime);
+            if (reason != null) {
+                return new RequestResponse(reason, null, 400, false);
             }
             
+            // Calculate the new booking hours
+            int bookingHours = calculateHours(startTime, endTime);
+            
             // Check if there are any overlapping bookings (excluding the current booking)
             List<Booking> overlappingBookings = bookingRepository.findOverlappingBookings(
                 booking.getBookingDate(), 
@@ -559,14 +722,20 @@ public class BookingService {
                 );
             }
             
-            // Create updated booking with new time range
-            Booking updatedBooking = booking
-                .withBookingTimeStart(startTime)
-                .withBookingTimeEnd(endTime)
-                .withBookingHours(bookingHours);
+            // Write only the three time columns
+            EnumMap<BookingField, Object> changes = new EnumMap<>(BookingField.class);
+            changes.put(BookingField.BOOKING_TIME_START, startTime);
+            changes.put(BookingField.BOOKING_TIME_END, endTime);
+            changes.put(BookingField.BOOKING_HOURS, bookingHours);
+            bookingRepository.updateFields(booking.getBookingId(), changes);
             
-            // Save the updated booking
-            Booking savedBooking = bookingRepository.update(updatedBooking);
+            // The booking as stored now
+            Booking savedBooking = booking.toBuilder()
+                .bookingTimeStart(startTime)
+                .bookingTimeEnd(endTime)
+                .bookingHours(bookingHours)
+                .build();
+            publishChange(savedBooking, BookingChangedEvent.Change.RESCHEDULED);
             
             // Return success response with the updated booking
             return new RequestResponse(
@@ -598,6 +767,12 @@ public class BookingService {
     @Transactional
     public RequestResponse createManualBooking(BookingRequest request) {
         try {
+            // Admins book within business hours too, so the calendar stays consistent
+            RequestResponse rejected = checkBookable(request);
+            if (rejected != null) {
+                return rejected;
+            }
+            
             // Generate a unique booking reference
             String bookingReference = generateBookingReference();
             
@@ -639,6 +814,7 @@ public class BookingService {
                 .withBookingId(savedBooking.getBookingId());
             
             paymentRepository.update(updatedPayment);
+            publishChange(savedBooking, BookingChangedEvent.Change.CREATED);
             
             // Prepare response data
             Map<String, Object> responseData = new HashMap<>();
@@ -665,30 +841,35 @@ public class BookingService {
         }
     }
 
+    /**
+     * Checks a new booking's date and times against business hours, holidays and recurring rules
+     * 
+     * @param request The booking request
+     * @return A 400 response if the time is not bookable, null if it is
+     */
+    private RequestResponse checkBookable(BookingRequest request) {
+        String reason = businessHoursService.rejectionReason(
+            request.bookingDate(), request.bookingTimeStart(), request.bookingTimeEnd());
+        return reason == null ? null : new RequestResponse(reason, null, 400, false);
+    }
+
     /**
      * Helper method to calculate booking hours from start and end times
-     * Handles the case of overnight bookings (where end time is on the next day)
+     * Bookings stay within one day: an end time of 00:00 means midnight, partial hours round up
      * 
      * @param startTime The start time of the booking
-     * @param endTime The end time of the booking
-     * @return The number of hours between start and end time
+     * @param endTime The end time of the booking (after startTime, or 00:00)
+     * @return The number of started hours between start and end time
      */
     private int calculateHours(LocalTime startTime, LocalTime endTime) {
-        int startHour = startTime.getHour();
-        int endHour = endTime.getHour();
-        int bookingHours = endHour - startHour;
-        
-        // If end hour is earlier than start hour (overnight booking), add 24 hours
-        if (bookingHours < 0) {
-            bookingHours += 24;
-        }
-        
-        return bookingHours;
+        int minutes = BusinessCalendar.endMinuteOf(endTime) - BusinessCalendar.minuteOf(startTime);
+        return (minutes + 59) / 60;
     }
 
     /**
      * Approves a booking, changing its status to CONFIRMED
      * Also stores admin notes about the approval
+     * Only PENDING bookings can be approved; the check and the write are one conditional UPDATE
      * 
      * @param id The ID of the booking to approve
      * @param adminNotes Notes added by the administrator during approval
@@ -700,64 +881,16 @@ public class BookingService {
             // Log for debugging
             System.out.println("Approving booking with ID: " + id + ", adminNotes: " + adminNotes);
             
-            // Find the booking by ID
-            return bookingRepository.findById(id)
-                .map(booking -> {
-                    try {
-                        // Log for debugging
-                        System.out.println("Found booking: " + booking.getBookingId() + ", current status: " + booking.getBookingStatus());
-                        
-                        // Create updated booking with new status and admin notes
-                        // Using constructor instead of builder since we're updating all fields
-                        Booking updatedBooking = new Booking(
-                            booking.getBookingId(),
-                            booking.getGuestName(),
-                            booking.getGuestEmail(),
-                            booking.getGuestPhone(),
-                            booking.getBookingDate(),
-                            booking.getBookingTimeStart(),
-                            booking.getBookingTimeEnd(),
-                            booking.getBookingHours(),
-                            booking.getLocation(),
-                            booking.getCategoryName(),
-                            booking.getPackageName(),
-                            booking.getPackagePrice(),
-                            booking.getSpecialRequests(),
-                            "CONFIRMED", // Change from "APPROVED" to "CONFIRMED" to match the ENUM
-                            booking.getBookingReference(),
-                            booking.getPaymentId(),
-                            booking.getPaymentProof(),
-                            adminNotes,
-                            booking.getCreatedAt()
-                        );
-                        
-                        // Save the updated booking
-                        bookingRepository.update(updatedBooking);
-                        System.out.println("Successfully updated booking status to CONFIRMED");
-                        
-                        // Email notification would go here
-                        // emailService.sendBookingApprovalEmail(...);
-                        
-                        // Return success response with the updated booking
-                        return new RequestResponse(
-                            "Booking approved successfully",
-                            Map.of("booking", updatedBooking),
-                            200,
-                            true
-                        );
-                    } catch (Exception e) {
-                        // Log the error for debugging
-                        System.err.println("Error updating booking: " + e.getMessage());
-                        e.printStackTrace();
-                        throw new RuntimeException("Error updating booking: " + e.getMessage(), e);
-                    }
-                })
-                .orElse(new RequestResponse(
-                    "Booking not found",
-                    null,
-                    404,
-                    false
-                ));
+            EnumMap<BookingField, Object> changes = new EnumMap<>(BookingField.class);
+            changes.put(BookingField.BOOKING_STATUS, "CONFIRMED"); // "CONFIRMED" matches the ENUM
+            changes.put(BookingField.ADMIN_NOTES, adminNotes);
+            RequestResponse response = applyStatusChange(id, changes, BookingStatus.CONFIRMED.sourceNames(), "approved", "Booking approved successfully");
+            
+            // Email notification would go here
+            // emailService.sendBookingApprovalEmail(...);
+            
+            System.out.println("Approve booking " + id + ": " + response.getMessage());
+            return response;
         } catch (Exception e) {
             // Handle exceptions
             return new RequestResponse(
@@ -772,6 +905,7 @@ public class BookingService {
     /**
      * Rejects a booking, changing its status to CANCELLED
      * Also stores the reason for rejection
+     * Only PENDING or CONFIRMED bookings can be rejected; the check and the write are one conditional UPDATE
      * 
      * @param id The ID of the booking to reject
      * @param rejectionReason The reason for rejection
@@ -780,34 +914,14 @@ public class BookingService {
     @Transactional
     public RequestResponse rejectBooking(Integer id, String rejectionReason) {
         try {
-            // Find the booking by ID
-            return bookingRepository.findById(id)
-                .map(booking -> {
-                    // Update booking status using the immutable pattern
-                    Booking updatedBooking = booking
-                        .withBookingStatus("CANCELLED") // Change from "REJECTED" to "CANCELLED"
-                        .withAdminNotes(rejectionReason);
-                    
-                    // Save the updated booking
-                    bookingRepository.update(updatedBooking);
-                    
-                    // Email notification would go here
-                    // emailService.sendBookingRejectionEmail(...);
-                    
-                    // Return success response with the updated booking
-                    return new RequestResponse(
-                        "Booking rejected successfully",
-                        Map.of("booking", updatedBooking),
-                        200,
-                        true
-                    );
-                })
-                .orElse(new RequestResponse(
-                    "Booking not found",
-                    null,
-                    404,
-                    false
-                ));
+            EnumMap<BookingField, Object> changes = new EnumMap<>(BookingField.class);
+            changes.put(BookingField.BOOKING_STATUS, "CANCELLED"); // "CANCELLED" matches the ENUM
+            changes.put(BookingField.ADMIN_NOTES, rejectionReason);
+            
+            // Email notification would go here
+            // emailService.sendBookingRejectionEmail(...);
+            
+            return applyStatusChange(id, changes, BookingStatus.CANCELLED.sourceNames(), "rejected", "Booking rejected successfully");
         } catch (Exception e) {
             // If any error occurs, return an error response
             return new RequestResponse(
@@ -819,6 +933,122 @@ public class BookingService {
         }
     }
 
+    /**
+     * Changes the status of many bookings at once (bulk approve, reject or complete)
+     * Every booking is checked against the BookingStatus transition table; the allowed ones
+     * are written with one UPDATE per chunk of IDs instead of one statement per booking
+     *
+     * The rows are locked while they are checked, so the outcome reported for each ID is
+     * exactly what was written. Each ID gets one of these outcomes:
+     * - UPDATED: the status was changed
+     * - UNCHANGED: the booking already had the target status
+     * - NOT_ALLOWED: its current status cannot move to the target status
+     * - NOT_FOUND: no booking with this ID
+     *
+     * @param request The IDs, the target status and optional admin notes
+     * @return RequestResponse with per-ID outcomes and counts per outcome
+     */
+    @Transactional
+    public RequestResponse bulkUpdateStatus(BulkStatusRequest request) {
+        BookingStatus target = BookingStatus.parse(request.getStatus());
+        if (target == null) {
+            return new RequestResponse("Unknown status: " + request.getStatus(), null, 400, false);
+        }
+        if (target.sourceNames().isEmpty()) {
+            return new RequestResponse("Bookings cannot be moved to " + target, null, 400, false);
+        }
+        if (request.getIds() == null || request.getIds().isEmpty()) {
+            return new RequestResponse("At least one booking ID is required", null, 400, false);
+        }
+
+        // Drop duplicates and nulls, keep the request order for the response
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+        ids.remove(null);
+        if (ids.size() > MAX_BULK_SIZE) {
+            return new RequestResponse("At most " + MAX_BULK_SIZE + " bookings can be changed at once", null, 400, false);
+        }
+
+        try {
+            Map<Integer, BookingRepository.StatusRow> current = bookingRepository.findStatusRowsForUpdate(ids);
+
+            // Classify every ID with the compiled transition table
+            Map<Integer, Map<String, Object>> outcomes = new LinkedHashMap<>();
+            List<Integer> toUpdate = new ArrayList<>();
+            for (Integer id : ids) {
+                Map<String, Object> outcome = new LinkedHashMap<>();
+                BookingRepository.StatusRow row = current.get(id);
+                BookingStatus from = row == null ? null : BookingStatus.parse(row.status());
+                if (row == null) {
+                    outcome.put("outcome", "NOT_FOUND");
+                } else if (from == target) {
+                    outcome.put("outcome", "UNCHANGED");
+                    outcome.put("previousStatus", row.status());
+                } else if (from == null || !from.canTransitionTo(target)) {
+                    outcome.put("outcome", "NOT_ALLOWED");
+                    outcome.put("previousStatus", row.status());
+                } else {
+                    outcome.put("outcome", "UPDATED");
+                    outcome.put("previousStatus", row.status());
+                    toUpdate.add(id);
+                }
+                outcomes.put(id, outcome);
+            }
+
+            if (!toUpdate.isEmpty()) {
+                int updated = bookingRepository.updateStatusIn(toUpdate, target.name(), request.getAdminNotes(), target.sourceNames());
+                if (updated != toUpdate.size()) {
+                    // Cannot happen while the rows are locked; fail rather than report wrong outcomes
+                    throw new IllegalStateException("Expected " + toUpdate.size() + " updates but " + updated + " were applied");
+                }
+                for (Integer id : toUpdate) {
+                    BookingRepository.StatusRow row = current.get(id);
+                    eventPublisher.publishEvent(new BookingChangedEvent(
+                        id,
+                        BookingChangedEvent.Change.STATUS_CHANGED,
+                        new BookingChangedEvent.Slot(row.date(), row.start(), row.end(), target.name())
+                    ));
+                }
+            }
+
+            // Count the outcomes for a quick summary
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (Map<String, Object> outcome : outcomes.values()) {
+                counts.merge((String) outcome.get("outcome"), 1, Integer::sum);
+            }
+
+            List<Map<String, Object>> results = new ArrayList<>(outcomes.size());
+            for (Map.Entry<Integer, Map<String, Object>> entry : outcomes.entrySet()) {
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("id", entry.getKey());
+                result.putAll(entry.getValue());
+                results.add(result);
+            }
+
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("status", target.name());
+            data.put("counts", counts);
+            data.put("results", results);
+
+            System.out.println("Bulk status change to " + target + ": " + counts);
+            return new RequestResponse(
+                toUpdate.size() + " of " + ids.size() + " booking(s) changed to " + target,
+                data,
+                200,
+                true
+            );
+        } catch (Exception e) {
+            e.printStackTrace(); // Log error for debugging
+            // Undo any chunks already written - a bulk change is all or nothing
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return new RequestResponse(
+                "Error changing booking statuses: " + e.getMessage(),
+                null,
+                500,
+                false
+            );
+        }
+    }
+
     /**
      * Retrieves all bookings with PENDING status
      * Used by administrators to review bookings that need approval
@@ -856,43 +1086,85 @@ public class BookingService {
         }
     }
 
+    /**
+     * Retrieves the admin review queue: every pending booking with its payment and a
+     * signed payment proof URL, loaded in a single query
+     * 
+     * @return RequestResponse with a list of {booking, payment, paymentProofUrl} entries
+     */
+    public RequestResponse getPendingBookingsForReview() {
+        try {
+            List<BookingRepository.BookingWithPayments> pending = bookingRepository.findByStatusWithPayments("PENDING");
+            
+            List<Map<String, Object>> entries = new ArrayList<>(pending.size());
+            for (BookingRepository.BookingWithPayments found : pending) {
+                entries.add(reviewEntry(found));
+            }
+            
+            Map<String, Object> data = new HashMap<>();
+            data.put("bookings", entries);
+            
+            return new RequestResponse(
+                "Pending bookings for review retrieved successfully",
+                data,
+                200,
+                true
+            );
+        } catch (Exception e) {
+            // Log the stack trace for debugging
+            e.printStackTrace();
+            return new RequestResponse(
+                "Error retrieving pending bookings for review: " + e.getMessage(),
+                null,
+                500,
+                false
+            );
+        }
+    }
+
+    /**
+     * Builds the review data of one booking: the booking, the payment it references
+     * and a signed URL for the payment proof (from the payment, else from the booking)
+     * 
+     * @param found The booking with its payments
+     * @return Map with "booking", "payment" and (if a proof exists) "paymentProofUrl"
+     */
+    private Map<String, Object> reviewEntry(BookingRepository.BookingWithPayments found) {
+        Booking booking = found.booking();
+        Payment payment = found.payment();
+        
+        Map<String, Object> data = new HashMap<>();
+        data.put("booking", booking);
+        if (booking.getPaymentId() != null) {
+            data.put("payment", payment);
+            
+            // Prefer the proof stored on the payment; fall back to the booking's copy
+            String proof = payment != null && payment.getPaymentProof() != null && !payment.getPaymentProof().isEmpty()
+                ? payment.getPaymentProof()
+                : booking.getPaymentProof();
+            if (proof != null && !proof.isEmpty()) {
+                data.put("paymentProofUrl", fileUrlSigner.viewUrl(proof));
+            }
+        }
+        return data;
+    }
+
     /**
      * Retrieves detailed booking information including payment proof
-     * Generates a URL for viewing the payment proof file
+     * Generates a short-lived signed URL for viewing the payment proof file
      * 
      * @param id The ID of the booking to retrieve details for
      * @return RequestResponse with booking details and payment proof URL if available
      */
     public RequestResponse getBookingDetailsWithPaymentProof(Integer id) {
         try {
-            // Find the booking by ID
-            return bookingRepository.findById(id)
-                .map(booking -> {
-                    // Prepare data for response
-                    Map<String, Object> data = new HashMap<>();
-                    data.put("booking", booking);
-                    
-                    // Get payment info if exists
-                    Payment payment = null;
-                    if (booking.getPaymentId() != null) {
-                        payment = paymentRepository.findById(booking.getPaymentId()).orElse(null);
-                        data.put("payment", payment);
-                        
-                        // Add payment proof URL if exists in the payment object
-                        if (payment != null && payment.getPaymentProof() != null && !payment.getPaymentProof().isEmpty()) {
-                            String paymentProofUrl = "/api/files/view/" + payment.getPaymentProof();
-                            data.put("paymentProofUrl", paymentProofUrl);
-                            System.out.println("Found payment proof: " + payment.getPaymentProof());
-                        } else {
-                            // Try to get from booking as fallback (depending on your schema)
-                            if (booking.getPaymentProof() != null && !booking.getPaymentProof().isEmpty()) {
-                                String paymentProofUrl = "/api/files/view/" + booking.getPaymentProof();
-                                data.put("paymentProofUrl", paymentProofUrl);
-                                System.out.println("Found booking payment proof: " + booking.getPaymentProof());
-                            } else {
-                                System.out.println("No payment proof found for booking ID: " + id);
-                            }
-                        }
+            // Find the booking and its payment in one query
+            return bookingRepository.findByIdWithPayments(id)
+                .map(found -> {
+                    // Prepare data for response (booking, payment and signed proof URL)
+                    Map<String, Object> data = reviewEntry(found);
+                    if (!data.containsKey("paymentProofUrl")) {
+                        System.out.println("No payment proof found for booking ID: " + id);
                     }
                     
                     // Return success response with booking details and payment information
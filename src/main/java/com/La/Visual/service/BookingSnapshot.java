@@ -0,0 +1,804 @@
+/**
+ * Booking Snapshot
+ *
+ * Compact, columnar in-memory copy of the bookings table for analytics. Instead of a
+ * List<Booking> (one object per booking, each with a dozen boxed fields and strings),
+ * every attribute the analytics need is kept in its own primitive array:
+ *
+ *   int[]   epoch day          short[] start / end minute (end 1..1440, 00:00 = midnight)
+ *   int[]   epoch day the booking was made
+ *   long[]  hash of the guest email (the address itself is not kept)
+ *   long[]  price in cents     byte[]  status (BookingStatus ordinal, -1 = deleted)
+ *   int[]   category, package and location ids (dictionary-encoded strings)
+ *
+ * That is about 45 bytes per booking, and a query is a tight loop over arrays.
+ *
+ * How it stays current:
+ * - Built by one streaming scan of the table (BookingRepository.scanSnapshotRows)
+ * - After that, committed status, reschedule and delete events are applied in place,
+ *   since they carry the new values
+ * - Other changes (created, edited) only queue the booking ID. A background thread
+ *   re-reads the queued bookings in batches (one IN query per 500 IDs) and installs
+ *   them, so an import of thousands of rows costs a few queries, not one per row,
+ *   and the committing thread never waits for the database
+ * - Changes committed while a build scans are queued the same way once it finishes
+ * - Deleted bookings are marked and skipped; once they make up a configurable share
+ *   of the rows (analytics.snapshot.rebuild-deleted-ratio), the background thread
+ *   rebuilds the snapshot, which drops them
+ * - Every change bumps a version counter of the month(s) it touches, so per-month
+ *   results computed from the snapshot can tell whether they are still current
+ *
+ * Queries run under a read lock, changes under a write lock. The database is never
+ * queried while the write lock is held.
+ */
+package com.La.Visual.service;
+
+// Import the entity, event and repository
+import com.La.Visual.entity.BookingStatus;
+import com.La.Visual.entity.BusinessCalendar;
+import com.La.Visual.event.BookingChangedEvent;
+import com.La.Visual.repository.BookingRepository;
+
+// Import Spring annotations
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Import Java time, utility and concurrency classes
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+// Mark this class as a service component in Spring's component scanning
+@Service
+public class BookingSnapshot implements DisposableBean {
+
+    // Status code of deleted rows
+    public static final byte DELETED = -1;
+    // Created day of bookings without a creation timestamp
+    public static final int NO_DAY = Integer.MIN_VALUE;
+    // Deleted rows below which a rebuild is never worth it
+    private static final int MIN_DELETED_FOR_REBUILD = 1000;
+
+    // Source of the rows
+    private final BookingRepository bookingRepository;
+
+    // Guards the columns: queries share the read lock, changes take the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Current data; null until the first build
+    private Columns columns;
+    // True while a build scans the table
+    private boolean building;
+    // Bookings changed while the build was scanning, re-read once it finishes
+    private final Set<Integer> changedDuringBuild = new LinkedHashSet<>();
+    // Bookings waiting to be re-read by the reloader
+    private final Set<Integer> dirty = new LinkedHashSet<>();
+    // Bookings the reloader is reading right now
+    private final Set<Integer> inFlight = new LinkedHashSet<>();
+    // True while a maintenance task is queued or running
+    private boolean maintenanceScheduled;
+
+    // Single background thread that re-reads queued bookings and rebuilds
+    private final ExecutorService reloader;
+    // Share of deleted rows at which the snapshot is rebuilt
+    private final double rebuildDeletedRatio;
+
+    // Number of builds so far; each build starts new month versions and dictionaries
+    private long generation;
+
+    // Statistics of the last build
+    private volatile long lastBuildMillis;
+    private volatile long appliedChanges;
+    private volatile long reloadBatches;
+    private volatile long rebuilds;
+    // Counts every committed change seen, whether applied now or after a build
+    private final AtomicLong changeCount = new AtomicLong();
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param bookingRepository Repository for booking data operations
+     * @param rebuildDeletedRatio Share of deleted rows at which the snapshot is rebuilt
+     */
+    @Autowired
+    public BookingSnapshot(BookingRepository bookingRepository,
+                           @Value("${analytics.snapshot.rebuild-deleted-ratio:0.2}") double rebuildDeletedRatio) {
+        this.bookingRepository = bookingRepository;
+        this.rebuildDeletedRatio = rebuildDeletedRatio;
+        this.reloader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-snapshot-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs a query against the snapshot, building it first if needed
+     * The view is only valid inside the query and must not be kept
+     *
+     * @param query Reads the columns and returns its result
+     * @param <T> Result type
+     * @return The query result
+     */
+    public <T> T query(Function<View, T> query) {
+        ensureBuilt();
+        lock.readLock().lock();
+        try {
+            return query.apply(columns);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the snapshot unless it already exists
+     */
+    public void ensureBuilt() {
+        lock.readLock().lock();
+        try {
+            if (columns != null) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        synchronized (this) {
+            // Another thread may have built it while this one waited
+            lock.readLock().lock();
+            try {
+                if (columns != null) {
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuilds the snapshot from one streaming scan of the table
+     * Queries keep using the previous data until the new columns are installed
+     */
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            building = true;
+            changedDuringBuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long started = System.currentTimeMillis();
+        Columns built = new Columns(1024, generation + 1);
+        try {
+            bookingRepository.scanSnapshotRows(built::append);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                building = false;
+                changedDuringBuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            columns = built;
+            generation = built.generation;
+            building = false;
+            // Changes committed during the scan may or may not be in it - read them again
+            dirty.addAll(changedDuringBuild);
+            changedDuringBuild.clear();
+            if (!dirty.isEmpty()) {
+                scheduleMaintenance();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        rebuilds++;
+        lastBuildMillis = System.currentTimeMillis() - started;
+        System.out.println("Booking snapshot built: " + built.size + " bookings in " + lastBuildMillis + " ms");
+    }
+
+    /**
+     * Applies a committed booking change to the snapshot, or queues the booking to be re-read
+     * Never queries the database, so the committing thread only holds the lock briefly
+     *
+     * @param event The booking change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.bookingId() == null) {
+            return;
+        }
+        // A queued change is counted once the reloader has installed it
+        boolean applied = false;
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                changedDuringBuild.add(event.bookingId());
+                return;
+            }
+            if (columns == null) {
+                // Not built yet; the first build reads the current table
+                applied = true;
+                return;
+            }
+            applied = apply(event);
+            if (applied) {
+                appliedChanges++;
+            }
+            if (!dirty.isEmpty() || needsRebuild()) {
+                scheduleMaintenance();
+            }
+        } finally {
+            if (applied) {
+                changeCount.incrementAndGet();
+            }
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of booking changes visible in the snapshot so far
+     * Read it before a query: if it has moved on afterwards, the result may be missing a change
+     *
+     * @return The change count
+     */
+    public long getChangeCount() {
+        return changeCount.get();
+    }
+
+    /**
+     * Returns snapshot statistics for monitoring
+     *
+     * @return Map with row counts, dictionary sizes, memory estimate and build time
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            stats.put("built", columns != null);
+            stats.put("queuedReloads", dirty.size() + changedDuringBuild.size());
+            if (columns != null) {
+                stats.put("generation", columns.generation);
+                stats.put("rows", columns.size);
+                stats.put("deletedRows", columns.deleted);
+                stats.put("categories", columns.categories.size());
+                stats.put("packages", columns.packages.size());
+                stats.put("locations", columns.locations.size());
+                stats.put("approxBytes", columns.approxBytes());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        stats.put("appliedChanges", appliedChanges);
+        stats.put("reloadBatches", reloadBatches);
+        stats.put("rebuilds", rebuilds);
+        stats.put("lastBuildMillis", lastBuildMillis);
+        return stats;
+    }
+
+    /**
+     * Stops the reloader thread on shutdown
+     */
+    @Override
+    public void destroy() {
+        reloader.shutdownNow();
+    }
+
+    // Applies a change in place and bumps the months it touched (write lock held)
+    // Returns false if the booking was queued to be re-read instead
+    private boolean apply(BookingChangedEvent event) {
+        Integer id = event.bookingId();
+        if (inFlight.contains(id)) {
+            // The reloader may have read this booking before the change; it reads it again
+            dirty.add(id);
+        }
+        int row = columns.rowOf(id);
+        BookingChangedEvent.Slot slot = event.slot();
+        switch (event.change()) {
+            case DELETED -> {
+                if (row >= 0) {
+                    columns.touch(columns.epochDay[row]);
+                    columns.markDeleted(row);
+                }
+                return true;
+            }
+            case STATUS_CHANGED -> {
+                if (row >= 0 && slot != null && slot.status() != null) {
+                    columns.touch(columns.epochDay[row]);
+                    columns.status[row] = statusCode(slot.status());
+                    return true;
+                }
+            }
+            case RESCHEDULED -> {
+                if (row >= 0 && slot != null && slot.date() != null) {
+                    columns.touch(columns.epochDay[row]);
+                    columns.epochDay[row] = (int) slot.date().toEpochDay();
+                    columns.startMinute[row] = minuteOf(slot.start());
+                    columns.endMinute[row] = endMinuteOf(slot.end());
+                    columns.touch(columns.epochDay[row]);
+                    return true;
+                }
+            }
+            default -> {
+                // Created or edited: the event does not carry every column
+            }
+        }
+        dirty.add(id);
+        return false;
+    }
+
+    // Queues the maintenance task unless it is already queued (write lock held)
+    private void scheduleMaintenance() {
+        if (!maintenanceScheduled && !reloader.isShutdown()) {
+            maintenanceScheduled = true;
+            reloader.execute(this::maintain);
+        }
+    }
+
+    // Runs on the reloader thread: re-reads queued bookings, then rebuilds if many rows are deleted
+    private void maintain() {
+        boolean failed = false;
+        try {
+            while (reloadBatch()) {
+                // Keep going while changes arrive
+            }
+            boolean rebuild;
+            lock.readLock().lock();
+            try {
+                rebuild = needsRebuild();
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (rebuild) {
+                rebuild();
+            }
+        } catch (RuntimeException e) {
+            // The queued IDs stay queued; the next change retries
+            failed = true;
+            System.err.println("Booking snapshot reload failed: " + e.getMessage());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                maintenanceScheduled = false;
+                // Changes queued after the last batch was taken (a running build queues its own)
+                if (!failed && !building && !dirty.isEmpty()) {
+                    scheduleMaintenance();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Re-reads every queued booking (one IN query per 500 IDs) and installs the rows
+    // Returns false if nothing was queued
+    private boolean reloadBatch() {
+        List<Integer> ids;
+        long batchGeneration;
+        lock.writeLock().lock();
+        try {
+            if (dirty.isEmpty() || columns == null || building) {
+                return false;
+            }
+            ids = new ArrayList<>(dirty);
+            dirty.clear();
+            inFlight.addAll(ids);
+            batchGeneration = columns.generation;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Read outside the lock; queries and changes continue meanwhile
+        Map<Integer, BookingRepository.SnapshotRow> found = new HashMap<>();
+        try {
+            for (BookingRepository.SnapshotRow row : bookingRepository.findSnapshotRows(ids)) {
+                found.put(row.bookingId(), row);
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                inFlight.clear();
+                dirty.addAll(ids);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            inFlight.clear();
+            if (columns.generation != batchGeneration) {
+                // A rebuild installed new columns meanwhile; read these again for them
+                dirty.addAll(ids);
+                return true;
+            }
+            for (Integer id : ids) {
+                // Changed again while being read - the next batch has the newer row
+                if (!dirty.contains(id)) {
+                    install(id, found.get(id));
+                }
+            }
+            appliedChanges += ids.size();
+            reloadBatches++;
+            changeCount.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return true;
+    }
+
+    // Stores a re-read booking, or marks it deleted if it no longer exists (write lock held)
+    private void install(Integer id, BookingRepository.SnapshotRow found) {
+        int row = columns.rowOf(id);
+        if (row >= 0) {
+            columns.touch(columns.epochDay[row]);
+        }
+        if (found == null) {
+            if (row >= 0) {
+                columns.markDeleted(row);
+            }
+            return;
+        }
+        if (row >= 0) {
+            columns.set(row, found);
+        } else {
+            columns.append(found);
+        }
+        columns.touch((int) found.date().toEpochDay());
+    }
+
+    // True once deleted rows make up the configured share (lock held)
+    private boolean needsRebuild() {
+        return columns != null
+            && columns.deleted >= MIN_DELETED_FOR_REBUILD
+            && columns.deleted > columns.size * rebuildDeletedRatio;
+    }
+
+    private static byte statusCode(String status) {
+        BookingStatus parsed = BookingStatus.parse(status);
+        // Unknown statuses count as pending, like the database default
+        return (byte) (parsed == null ? BookingStatus.PENDING : parsed).ordinal();
+    }
+
+    private static short minuteOf(LocalTime time) {
+        return (short) (time == null ? 0 : time.getHour() * 60 + time.getMinute());
+    }
+
+    // An end of 00:00 is midnight (1440), as in BusinessCalendar; still fits a short
+    private static short endMinuteOf(LocalTime time) {
+        return (short) (time == null ? 0 : BusinessCalendar.endMinuteOf(time));
+    }
+
+    /**
+     * Converts an epoch day to a month number (year * 12 + month - 1)
+     *
+     * @param epochDay Days since 1970-01-01
+     * @return The month number
+     */
+    public static int epochMonth(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    /**
+     * Read-only view of the columns, valid inside BookingSnapshot.query
+     * Row indexes run from 0 to size() - 1; skip rows whose status is DELETED
+     */
+    public interface View {
+
+        /**
+         * @return Number of rows, including deleted ones
+         */
+        int size();
+
+        /**
+         * @param row Row index
+         * @return Booking ID
+         */
+        int bookingId(int row);
+
+        /**
+         * @param row Row index
+         * @return Booking date as epoch day
+         */
+        int epochDay(int row);
+
+        /**
+         * @param row Row index
+         * @return Epoch day the booking was made, or NO_DAY
+         */
+        int createdDay(int row);
+
+        /**
+         * @param row Row index
+         * @return HyperLogLog.hash of the guest email (0 if none)
+         */
+        long guestHash(int row);
+
+        /**
+         * @param row Row index
+         * @return Start as minute of the day
+         */
+        int startMinute(int row);
+
+        /**
+         * @param row Row index
+         * @return End as minute of the day (1440 for a booking ending at midnight)
+         */
+        int endMinute(int row);
+
+        /**
+         * @param row Row index
+         * @return Package price in cents
+         */
+        long priceCents(int row);
+
+        /**
+         * @param row Row index
+         * @return BookingStatus ordinal, or DELETED
+         */
+        byte status(int row);
+
+        /**
+         * @param row Row index
+         * @return Category id (-1 if none)
+         */
+        int category(int row);
+
+        /**
+         * @param row Row index
+         * @return Package id (-1 if none)
+         */
+        int packageId(int row);
+
+        /**
+         * @param row Row index
+         * @return Location id (-1 if none)
+         */
+        int location(int row);
+
+        /**
+         * @param id Category id
+         * @return Category name
+         */
+        String categoryName(int id);
+
+        /**
+         * @param id Package id
+         * @return Package name
+         */
+        String packageName(int id);
+
+        /**
+         * @param id Location id
+         * @return Location
+         */
+        String locationName(int id);
+
+        /**
+         * @return Number of distinct categories
+         */
+        int categoryCount();
+
+        /**
+         * @return Number of distinct packages
+         */
+        int packageCount();
+
+        /**
+         * @return Build number of this data; month versions and dictionary ids are only
+         *         comparable within one generation
+         */
+        long generation();
+
+        /**
+         * @param epochMonth Month number (see epochMonth)
+         * @return How often rows of the month have changed since the build
+         */
+        long monthVersion(int epochMonth);
+    }
+
+    // The column arrays; rows are in booking ID order because IDs only grow
+    private static final class Columns implements View {
+        private final long generation;
+        // Changes per month number since the build
+        private final Map<Integer, Long> monthVersions = new HashMap<>();
+        private int size;
+        private int deleted;
+        private int[] bookingId;
+        private int[] epochDay;
+        private int[] createdDay;
+        private long[] guestHash;
+        private short[] startMinute;
+        private short[] endMinute;
+        private long[] priceCents;
+        private byte[] status;
+        private int[] category;
+        private int[] packageId;
+        private int[] location;
+        private final Dictionary categories = new Dictionary();
+        private final Dictionary packages = new Dictionary();
+        private final Dictionary locations = new Dictionary();
+
+        private Columns(int capacity, long generation) {
+            this.generation = generation;
+            bookingId = new int[capacity];
+            epochDay = new int[capacity];
+            createdDay = new int[capacity];
+            guestHash = new long[capacity];
+            startMinute = new short[capacity];
+            endMinute = new short[capacity];
+            priceCents = new long[capacity];
+            status = new byte[capacity];
+            category = new int[capacity];
+            packageId = new int[capacity];
+            location = new int[capacity];
+        }
+
+        private void append(BookingRepository.SnapshotRow found) {
+            if (size > 0 && found.bookingId() <= bookingId[size - 1]) {
+                // IDs arrive in ascending order; an older ID means the row already exists
+                int row = rowOf(found.bookingId());
+                if (row >= 0) {
+                    set(row, found);
+                    return;
+                }
+                int point = insertionPoint(found.bookingId());
+                insertAt(point);
+                set(point, found);
+                return;
+            }
+            if (size == bookingId.length) {
+                grow(size * 2);
+            }
+            size++;
+            set(size - 1, found);
+        }
+
+        private void set(int row, BookingRepository.SnapshotRow found) {
+            if (row < size && status[row] == DELETED && bookingId[row] == found.bookingId()) {
+                deleted--;
+            }
+            bookingId[row] = found.bookingId();
+            epochDay[row] = (int) found.date().toEpochDay();
+            createdDay[row] = found.createdDate() == null ? NO_DAY : (int) found.createdDate().toEpochDay();
+            guestHash[row] = HyperLogLog.hash(found.guestEmail());
+            startMinute[row] = minuteOf(found.start());
+            endMinute[row] = endMinuteOf(found.end());
+            priceCents[row] = Math.round(found.price() * 100);
+            status[row] = statusCode(found.status());
+            category[row] = categories.id(found.category());
+            packageId[row] = packages.id(found.packageName());
+            location[row] = locations.id(found.location());
+        }
+
+        private void markDeleted(int row) {
+            if (status[row] != DELETED) {
+                status[row] = DELETED;
+                deleted++;
+            }
+        }
+
+        // Binary search over the ascending IDs
+        private int rowOf(int id) {
+            int found = Arrays.binarySearch(bookingId, 0, size, id);
+            return found >= 0 ? found : -1;
+        }
+
+        private int insertionPoint(int id) {
+            int found = Arrays.binarySearch(bookingId, 0, size, id);
+            return found >= 0 ? found : -found - 1;
+        }
+
+        // Opens a gap at a row for an out-of-order ID (rare: only when a change arrives before its scan)
+        private void insertAt(int row) {
+            if (size == bookingId.length) {
+                grow(size * 2);
+            }
+            int tail = size - row;
+            System.arraycopy(bookingId, row, bookingId, row + 1, tail);
+            System.arraycopy(epochDay, row, epochDay, row + 1, tail);
+            System.arraycopy(createdDay, row, createdDay, row + 1, tail);
+            System.arraycopy(guestHash, row, guestHash, row + 1, tail);
+            System.arraycopy(startMinute, row, startMinute, row + 1, tail);
+            System.arraycopy(endMinute, row, endMinute, row + 1, tail);
+            System.arraycopy(priceCents, row, priceCents, row + 1, tail);
+            System.arraycopy(status, row, status, row + 1, tail);
+            System.arraycopy(category, row, category, row + 1, tail);
+            System.arraycopy(packageId, row, packageId, row + 1, tail);
+            System.arraycopy(location, row, location, row + 1, tail);
+            size++;
+        }
+
+        private void grow(int capacity) {
+            bookingId = Arrays.copyOf(bookingId, capacity);
+            epochDay = Arrays.copyOf(epochDay, capacity);
+            createdDay = Arrays.copyOf(createdDay, capacity);
+            guestHash = Arrays.copyOf(guestHash, capacity);
+            startMinute = Arrays.copyOf(startMinute, capacity);
+            endMinute = Arrays.copyOf(endMinute, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            status = Arrays.copyOf(status, capacity);
+            category = Arrays.copyOf(category, capacity);
+            packageId = Arrays.copyOf(packageId, capacity);
+            location = Arrays.copyOf(location, capacity);
+        }
+
+        private void touch(int day) {
+            monthVersions.merge(epochMonth(day), 1L, Long::sum);
+        }
+
+        private long approxBytes() {
+            // 4 + 4 + 4 + 8 + 2 + 2 + 8 + 1 + 4 + 4 + 4 bytes per allocated row
+            return (long) bookingId.length * 45;
+        }
+
+        @Override public int size() { return size; }
+        @Override public int bookingId(int row) { return bookingId[row]; }
+        @Override public int epochDay(int row) { return epochDay[row]; }
+        @Override public int createdDay(int row) { return createdDay[row]; }
+        @Override public long guestHash(int row) { return guestHash[row]; }
+        @Override public int startMinute(int row) { return startMinute[row]; }
+        @Override public int endMinute(int row) { return endMinute[row]; }
+        @Override public long priceCents(int row) { return priceCents[row]; }
+        @Override public byte status(int row) { return status[row]; }
+        @Override public int category(int row) { return category[row]; }
+        @Override public int packageId(int row) { return packageId[row]; }
+        @Override public int location(int row) { return location[row]; }
+        @Override public String categoryName(int id) { return categories.value(id); }
+        @Override public String packageName(int id) { return packages.value(id); }
+        @Override public String locationName(int id) { return locations.value(id); }
+        @Override public int categoryCount() { return categories.size(); }
+        @Override public int packageCount() { return packages.size(); }
+        @Override public long generation() { return generation; }
+        @Override public long monthVersion(int epochMonth) { return monthVersions.getOrDefault(epochMonth, 0L); }
+    }
+
+    // Maps each distinct string to a small int id (null = -1)
+    private static final class Dictionary {
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> ids = new HashMap<>();
+
+        private int id(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                values.add(value);
+                ids.put(value, id);
+            }
+            return id;
+        }
+
+        private String value(int id) {
+            return id < 0 ? null : values.get(id);
+        }
+
+        private int size() {
+            return values.size();
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/**
+ * Business Hours Service
+ *
+ * This service owns the business-hours template (opening windows per weekday,
+ * holidays, slot granularity) and answers whether a booking fits it and which start
+ * times are still free on a date.
+ *
+ * How it works:
+ * - The template is compiled into an immutable BusinessCalendar with one slot mask per
+ *   weekday and published through an AtomicReference
+ * - Lookups read the reference and work on the immutable calendar - no locks
+ * - Editing the template stores it, then compiles a fresh calendar after the
+ *   transaction commits and swaps it in (copy-on-write); readers see either the old or
+ *   the new calendar, never a mix
+ * - Recurring availability rules are checked together with the business hours, so a
+ *   booking on a blocked Sunday is rejected like one outside opening times
+ */
+package com.La.Visual.service;
+
+// Import the DTOs, entities, event and repositories
+import com.La.Visual.dto.BusinessHoursRequest;
+import com.La.Visual.dto.RequestResponse;
+import com.La.Visual.entity.BusinessCalendar;
+import com.La.Visual.event.ScheduleChangedEvent;
+import com.La.Visual.repository.BookingRepository;
+import com.La.Visual.repository.BusinessHoursRepository;
+import com.La.Visual.repository.UnavailableTimeRangeRepository;
+
+// Import Spring annotations
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Import Java time, utility and concurrency classes
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Mark this class as a service component in Spring's component scanning
+@Service
+public class BusinessHoursService {
+
+    // Granularity used if the settings row is missing (any whole minute, like the seed)
+    private static final int DEFAULT_SLOT_MINUTES = 1;
+    // Times only need minute precision in responses
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    // Dependencies for data access, rules and change events
+    private final BusinessHoursRepository hoursRepository;
+    private final BookingRepository bookingRepository;
+    private final UnavailableTimeRangeRepository unavailableRepository;
+    private final AvailabilityRuleService ruleService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Current compiled calendar; null until first use
+    private final AtomicReference<BusinessCalendar> calendar = new AtomicReference<>();
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param hoursRepository Repository for the business-hours template
+     * @param bookingRepository Repository for booking data operations
+     * @param unavailableRepository Repository for unavailable time ranges
+     * @param ruleService Service for recurring availability rules
+     * @param eventPublisher Publisher for schedule change events
+     */
+    @Autowired
+    public BusinessHoursService(BusinessHoursRepository hoursRepository,
+                                BookingRepository bookingRepository,
+                                UnavailableTimeRangeRepository unavailableRepository,
+                                AvailabilityRuleService ruleService,
+                                ApplicationEventPublisher eventPublisher) {
+        this.hoursRepository = hoursRepository;
+        this.bookingRepository = bookingRepository;
+        this.unavailableRepository = unavailableRepository;
+        this.ruleService = ruleService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Returns the current calendar, compiling it from the database on first use
+     *
+     * @return The compiled calendar
+     */
+    public BusinessCalendar getCalendar() {
+        BusinessCalendar current = calendar.get();
+        if (current == null) {
+            current = load();
+            // Another thread may have loaded concurrently - either copy is current
+            if (!calendar.compareAndSet(null, current)) {
+                current = calendar.get();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Checks whether a booking may be placed at a time
+     * Covers business hours, holidays, slot alignment and recurring rules
+     *
+     * @param date The booking date
+     * @param start Start time
+     * @param end End time (00:00 = midnight)
+     * @return null if the time is bookable, otherwise the reason it is not
+     */
+    public String rejectionReason(LocalDate date, LocalTime start, LocalTime end) {
+        String reason = getCalendar().rejectionReason(date, start, end);
+        if (reason == null && ruleService.isBlocked(date, start, end)) {
+            reason = "The studio is unavailable at that time";
+        }
+        return reason;
+    }
+
+    /**
+     * Finds the start times at which a booking of a given length still fits on a date
+     * Takes business hours, bookings, unavailable ranges and recurring rules into account
+     *
+     * @param date The date
+     * @param minutes Length of the booking in minutes
+     * @return RequestResponse with the free start times
+     */
+    public RequestResponse findAvailableStarts(LocalDate date, int minutes) {
+        BusinessCalendar current = getCalendar();
+        int slotMinutes = current.getSlotMinutes();
+        if (minutes <= 0 || minutes > BusinessCalendar.MINUTES_PER_DAY || minutes % slotMinutes != 0) {
+            return new RequestResponse(
+                "Duration must be a positive multiple of " + slotMinutes + " minutes",
+                null,
+                400,
+                false
+            );
+        }
+
+        // Start from the open slots of the day and clear everything that is taken
+        long[] free = current.openSlots(date);
+        for (BookingRepository.BookedSlot slot : bookingRepository.findOccupiedSlotsOn(List.of(date))) {
+            current.clear(free, slot.start(), slot.end());
+        }
+        for (UnavailableTimeRangeRepository.BlockedRange range : unavailableRepository.findBlockedRangesBetween(date, date)) {
+            current.clear(free, range.start(), range.end());
+        }
+        for (AvailabilityRuleService.RuleRange range : ruleService.getBlockedRanges(date)) {
+            current.clear(free, range.start(), range.end());
+        }
+
+        List<String> starts = new ArrayList<>();
+        for (LocalTime start : current.startsOf(free, minutes / slotMinutes)) {
+            starts.add(start.format(TIME_FORMAT));
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("date", date.toString());
+        data.put("slotMinutes", slotMinutes);
+        data.put("durationMinutes", minutes);
+        data.put("holiday", current.getHolidays().get(date));
+        data.put("starts", starts);
+        return new RequestResponse("Available start times retrieved successfully", data, 200, true);
+    }
+
+    /**
+     * Returns the business-hours template
+     *
+     * @return RequestResponse with slot granularity, windows and holidays
+     */
+    public RequestResponse getBusinessHours() {
+        BusinessCalendar current = getCalendar();
+        List<Map<String, Object>> windows = new ArrayList<>();
+        for (BusinessCalendar.Window window : current.getWindows()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("day", window.day().name());
+            entry.put("open", window.open().format(TIME_FORMAT));
+            entry.put("close", window.close().format(TIME_FORMAT));
+            windows.add(entry);
+        }
+        List<Map<String, Object>> holidays = new ArrayList<>();
+        for (Map.Entry<LocalDate, String> holiday : current.getHolidays().entrySet()) {
+            holidays.add(Map.of("date", holiday.getKey().toString(), "label", holiday.getValue()));
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("slotMinutes", current.getSlotMinutes());
+        data.put("windows", windows);
+        data.put("holidays", holidays);
+        return new RequestResponse("Business hours retrieved successfully", data, 200, true);
+    }
+
+    /**
+     * Replaces the business-hours template
+     * The new calendar is compiled before anything is stored, so an invalid template
+     * never reaches the database
+     *
+     * @param request The new template
+     * @return RequestResponse, 400 if the template is invalid
+     */
+    @Transactional
+    public RequestResponse updateBusinessHours(BusinessHoursRequest request) {
+        int slotMinutes;
+        List<BusinessCalendar.Window> windows = new ArrayList<>();
+        Map<LocalDate, String> holidays = new LinkedHashMap<>();
+        try {
+            slotMinutes = request.getSlotMinutes() == null ? DEFAULT_SLOT_MINUTES : request.getSlotMinutes();
+            if (request.getWindows() != null) {
+                for (BusinessHoursRequest.Window window : request.getWindows()) {
+                    if (window.getOpen() == null || window.getClose() == null) {
+                        throw new IllegalArgumentException("every window needs open and close times");
+                    }
+                    windows.add(new BusinessCalendar.Window(
+                        BusinessCalendar.parseDay(window.getDay()),
+                        LocalTime.parse(window.getOpen()),
+                        LocalTime.parse(window.getClose())
+                    ));
+                }
+            }
+            if (request.getHolidays() != null) {
+                for (BusinessHoursRequest.Holiday holiday : request.getHolidays()) {
+                    String label = holiday.getLabel() == null ? "" : holiday.getLabel().trim();
+                    if (label.isEmpty() || label.length() > 100) {
+                        throw new IllegalArgumentException("every holiday needs a label (at most 100 characters)");
+                    }
+                    if (holiday.getDate() == null) {
+                        throw new IllegalArgumentException("every holiday needs a date");
+                    }
+                    holidays.put(LocalDate.parse(holiday.getDate()), label);
+                }
+            }
+            // Fails on misaligned or inverted windows before anything is written
+            BusinessCalendar.compile(slotMinutes, windows, holidays);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return new RequestResponse("Invalid business hours: " + e.getMessage(), null, 400, false);
+        }
+
+        hoursRepository.replaceAll(slotMinutes, windows, holidays);
+        // Caches and live streams refresh, and this service recompiles, once the change commits
+        eventPublisher.publishEvent(new ScheduleChangedEvent(null, List.of()));
+        return new RequestResponse("Business hours updated successfully", null, 200, true);
+    }
+
+    /**
+     * Swaps in a freshly compiled calendar once a template or rule change has committed
+     * Date-specific schedule changes do not affect the template and are ignored
+     *
+     * @param event The schedule change
+     */
+    // Runs before the other listeners of this event (ResourceVersions, ResponseCache,
+    // ChangeBroadcaster), so nothing cached or reloaded under the new version sees the old state
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        if (event.date() == null) {
+            calendar.set(load());
+        }
+    }
+
+    // Reads the template and compiles it
+    private BusinessCalendar load() {
+        BusinessCalendar compiled = BusinessCalendar.compile(
+            hoursRepository.findSlotMinutes(DEFAULT_SLOT_MINUTES),
+            hoursRepository.findWindows(),
+            hoursRepository.findHolidays()
+        );
+        System.out.println("Business hours compiled: " + compiled.getWindows().size() + " windows, "
+            + compiled.getHolidays().size() + " holidays, " + compiled.getSlotMinutes() + "-minute slots");
+        return compiled;
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * Calendar Summary Service
+ *
+ * This service produces the per-day occupancy summary behind the admin calendar's month
+ * and year views (GET /api/bookings/calendar/range?from=&to=). Instead of one request
+ * per month or per day, a whole range of up to twelve months is answered at once.
+ *
+ * How it works:
+ * - One range scan over bookings (covered by idx_bookings_date_status_time) and one
+ *   over unavailable time ranges (idx_unavailable_time_ranges_date_start)
+ * - Both results arrive ordered by date, so they are grouped in a single pass while
+ *   walking the days of the range
+ * - Recurring rules and business hours come from memory (AvailabilityRuleService,
+ *   BusinessHoursService)
+ * - Each day is one compact tuple; column names are sent once per response
+ * - The JSON is cached in the shared ResponseCache under the bookings version, with the
+ *   schedules version in the key, so either kind of change produces a fresh summary
+ * - Business hours and rules are refreshed by listeners ordered before the version bump,
+ *   so a summary cached under a new schedules version never holds the old hours or rules
+ */
+package com.La.Visual.service;
+
+// Import the response DTO, calendar model and repositories
+import com.La.Visual.dto.RequestResponse;
+import com.La.Visual.entity.BusinessCalendar;
+import com.La.Visual.repository.BookingRepository;
+import com.La.Visual.repository.UnavailableTimeRangeRepository;
+
+// Import Spring annotations
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+// Import Java time and utility classes
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Mark this class as a service component in Spring's component scanning
+@Service
+public class CalendarSummaryService {
+
+    // Longest range one request may cover
+    public static final int MAX_MONTHS = 12;
+    // Column names of each day tuple, sent once per response
+    private static final List<String> FIELDS = List.of(
+        "date", "pending", "confirmed", "bookedMinutes", "blockedMinutes", "openMinutes", "freeMinutes", "holiday", "completed");
+
+    // Dependencies for data access, schedule data and response caching
+    private final BookingRepository bookingRepository;
+    private final UnavailableTimeRangeRepository unavailableRepository;
+    private final AvailabilityRuleService ruleService;
+    private final BusinessHoursService businessHoursService;
+    private final ResponseCache responseCache;
+    private final ResourceVersions resourceVersions;
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param bookingRepository Repository for booking data operations
+     * @param unavailableRepository Repository for unavailable time ranges
+     * @param ruleService Service for recurring availability rules
+     * @param businessHoursService Service for business hours
+     * @param responseCache Shared cache of serialized responses
+     * @param resourceVersions Version counters of the cached resources
+     */
+    @Autowired
+    public CalendarSummaryService(BookingRepository bookingRepository,
+                                  UnavailableTimeRangeRepository unavailableRepository,
+                                  AvailabilityRuleService ruleService,
+                                  BusinessHoursService businessHoursService,
+                                  ResponseCache responseCache,
+                                  ResourceVersions resourceVersions) {
+        this.bookingRepository = bookingRepository;
+        this.unavailableRepository = unavailableRepository;
+        this.ruleService = ruleService;
+        this.businessHoursService = businessHoursService;
+        this.responseCache = responseCache;
+        this.resourceVersions = resourceVersions;
+    }
+
+    /**
+     * Checks whether a range can be summarized
+     *
+     * @param from First date
+     * @param to Last date
+     * @return null if the range is valid, otherwise the reason it is not
+     */
+    public String rangeError(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return "'to' must not be before 'from'";
+        }
+        if (!to.isBefore(from.plusMonths(MAX_MONTHS))) {
+            return "A range covers at most " + MAX_MONTHS + " months";
+        }
+        return null;
+    }
+
+    /**
+     * Returns the serialized per-day summary of a date range
+     *
+     * @param from First date (inclusive)
+     * @param to Last date (inclusive)
+     * @return The cached JSON response with its ETag
+     */
+    public ResponseCache.CachedResponse getSummary(LocalDate from, LocalDate to) {
+        // The version is read before rendering: hours and rules are already current for it
+        return responseCache.get(
+            ResourceVersions.Resource.BOOKINGS,
+            "calendar/range|" + from + "|" + to + "|" + resourceVersions.current(ResourceVersions.Resource.SCHEDULES),
+            () -> render(from, to)
+        );
+    }
+
+    // Runs the two range scans and groups them per day
+    private RequestResponse render(LocalDate from, LocalDate to) {
+        List<BookingRepository.CalendarSlot> slots = bookingRepository.findCalendarSlotsBetween(from, to);
+        List<UnavailableTimeRangeRepository.BlockedRange> blocked = unavailableRepository.findBlockedRangesBetween(from, to);
+        BusinessCalendar calendar = businessHoursService.getCalendar();
+
+        List<Object[]> days = new ArrayList<>();
+        int slotIndex = 0;
+        int blockedIndex = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            long[] free = calendar.openSlots(date);
+            int openMinutes = calendar.minutesIn(free);
+
+            // Bookings of the day (ordered by start time)
+            int pending = 0;
+            int confirmed = 0;
+            int completed = 0;
+            List<int[]> booked = new ArrayList<>();
+            for (; slotIndex < slots.size() && slots.get(slotIndex).date().equals(date); slotIndex++) {
+                BookingRepository.CalendarSlot slot = slots.get(slotIndex);
+                // Cancelled bookings are not loaded
+                if ("PENDING".equals(slot.status())) {
+                    pending++;
+                } else if ("CONFIRMED".equals(slot.status())) {
+                    confirmed++;
+                } else {
+                    completed++;
+                }
+                booked.add(range(slot.start(), slot.end()));
+                calendar.clear(free, slot.start(), slot.end());
+            }
+
+            // Unavailable ranges and recurring rules of the day
+            List<int[]> unavailable = new ArrayList<>();
+            for (; blockedIndex < blocked.size() && blocked.get(blockedIndex).date().equals(date); blockedIndex++) {
+                UnavailableTimeRangeRepository.BlockedRange range = blocked.get(blockedIndex);
+                unavailable.add(range(range.start(), range.end()));
+                calendar.clear(free, range.start(), range.end());
+            }
+            for (AvailabilityRuleService.RuleRange range : ruleService.getBlockedRanges(date)) {
+                unavailable.add(new int[] { range.startMinute(), range.endMinute() });
+                calendar.clear(free, range.start(), range.end());
+            }
+            unavailable.sort((a, b) -> Integer.compare(a[0], b[0]));
+
+            days.add(new Object[] {
+                date.toString(),
+                pending,
+                confirmed,
+                unionMinutes(booked),
+                unionMinutes(unavailable),
+                openMinutes,
+                calendar.minutesIn(free),
+                calendar.getHolidays().get(date),
+                completed
+            });
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("from", from.toString());
+        data.put("to", to.toString());
+        data.put("slotMinutes", calendar.getSlotMinutes());
+        data.put("fields", FIELDS);
+        data.put("days", days);
+
+        return new RequestResponse(
+            "Calendar summary retrieved successfully",
+            data,
+            200,
+            true
+        );
+    }
+
+    // A time range as [start, end) minutes of the day (an end of 00:00 is midnight)
+    private static int[] range(LocalTime start, LocalTime end) {
+        return new int[] { BusinessCalendar.minuteOf(start), BusinessCalendar.endMinuteOf(end) };
+    }
+
+    // Minutes covered by ranges sorted by start, counting overlaps once
+    private static int unionMinutes(List<int[]> ranges) {
+        int total = 0;
+        int coveredUntil = 0;
+        for (int[] range : ranges) {
+            int start = Math.max(range[0], coveredUntil);
+            if (range[1] > start) {
+                total += range[1] - start;
+                coveredUntil = range[1];
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,445 @@
+/**
+ * Change Broadcaster
+ *
+ * This component pushes booking and schedule changes to connected browsers as
+ * Server-Sent Events (GET /api/bookings/stream), so the booking page and the admin
+ * dashboard no longer need to poll booked-slots and pending bookings.
+ *
+ * Every change is sent as a compact delta without guest data:
+ *   event: booking   data: {"id":42,"change":"STATUS_CHANGED","date":"2025-04-18","start":"09:00","end":"13:00","status":"CONFIRMED"}
+ *   event: schedule  data: {"date":"2025-04-18","ranges":[["09:00","12:00"]]}
+ *
+ * How fan-out works:
+ * - A single broadcaster serializes each delta once and offers it to every subscriber
+ * - Each subscriber has a small bounded buffer; a shared pool of a few writer threads
+ *   drains buffers that have pending messages, so idle connections cost no thread
+ *   (the servlet container keeps them open asynchronously)
+ * - A subscriber that falls behind far enough to fill its buffer loses its backlog and
+ *   receives a single "resync" event instead - the client then reloads the data once
+ *   rather than the server queueing an unbounded number of deltas for it
+ * - Writes are blocking servlet writes, so each one has a deadline: a watchdog closes a
+ *   subscriber whose write takes longer than write-timeout (a client that stopped
+ *   reading) and starts a replacement writer thread while the stuck one waits for the
+ *   socket to give up, so one stalled client never holds up delivery to the others
+ * - A comment line is sent periodically as a heartbeat, so proxies keep idle
+ *   connections open and dead ones are detected
+ *
+ * Deltas are published after the surrounding transaction commits, so clients never
+ * see changes that were rolled back.
+ */
+package com.La.Visual.service;
+
+// Import the change events
+import com.La.Visual.event.BookingChangedEvent;
+import com.La.Visual.event.ScheduleChangedEvent;
+
+// Import Jackson for serializing deltas
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Import Spring annotations and SSE support
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Import Java I/O, time, utility and concurrency classes
+import java.io.IOException;
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Mark this class as a Spring component so it receives change events
+@Component
+public class ChangeBroadcaster implements DisposableBean {
+
+    // Times only need minute precision on the client
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    // Placeholder queued for heartbeats (sent as an SSE comment)
+    private static final Message HEARTBEAT = new Message(0, null, null);
+
+    // Jackson mapper used to serialize each delta once
+    private final ObjectMapper objectMapper;
+    // Stream settings
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+
+    // Connected clients
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Most replacement writers started for stuck writes at the same time
+    private static final int MAX_REPLACEMENT_WRITERS = 32;
+
+    // Shared writer threads (only busy while some subscriber has pending messages)
+    private final ThreadPoolExecutor writers;
+    private final int writerThreads;
+    // Longest a single write may block before its subscriber is dropped
+    private final long writeTimeoutNanos;
+    // Writer threads currently stuck in a write that exceeded its deadline
+    private final AtomicInteger stuckWriters = new AtomicInteger();
+    // Event ID of the last published delta
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Counters for monitoring
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+    private final AtomicLong disconnects = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong slowDropped = new AtomicLong();
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param objectMapper Spring's configured Jackson mapper
+     * @param bufferSize Pending deltas kept per subscriber before it is told to resync
+     * @param maxSubscribers Maximum number of open streams
+     * @param timeout How long one stream stays open (browsers reconnect automatically)
+     * @param writerThreads Number of threads that write to subscribers
+     * @param writeTimeout Longest a single write may block before the subscriber is dropped
+     */
+    @Autowired
+    public ChangeBroadcaster(ObjectMapper objectMapper,
+                             @Value("${bookings.stream.buffer-size:64}") int bufferSize,
+                             @Value("${bookings.stream.max-subscribers:5000}") int maxSubscribers,
+                             @Value("${bookings.stream.timeout:PT30M}") Duration timeout,
+                             @Value("${bookings.stream.writer-threads:2}") int writerThreads,
+                             @Value("${bookings.stream.write-timeout:PT5S}") Duration writeTimeout) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        this.writerThreads = Math.max(1, writerThreads);
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+
+        // Fixed size, except that a replacement thread is added for each stuck write (see checkWrites)
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.writers = new ThreadPoolExecutor(
+            this.writerThreads, this.writerThreads + MAX_REPLACEMENT_WRITERS,
+            60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "sse-writer-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+
+    /**
+     * Opens a new change stream
+     * The first event is "ready"; clients load the current data when they receive it
+     *
+     * @return The emitter to return from the controller, or null if too many streams are open
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            rejected.incrementAndGet();
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+
+        subscriber.offer(new Message(sequence.get(), "ready", "{}"));
+        return emitter;
+    }
+
+    /**
+     * Pushes a booking delta once a booking change has been committed
+     *
+     * @param event The booking change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("id", event.bookingId());
+        delta.put("change", event.change().name());
+        BookingChangedEvent.Slot slot = event.slot();
+        if (slot != null) {
+            delta.put("date", slot.date() == null ? null : slot.date().toString());
+            delta.put("start", slot.start() == null ? null : slot.start().format(TIME_FORMAT));
+            delta.put("end", slot.end() == null ? null : slot.end().format(TIME_FORMAT));
+            delta.put("status", slot.status());
+        }
+        publish("booking", delta);
+    }
+
+    /**
+     * Pushes a schedule delta once a schedule change has been committed
+     *
+     * @param event The schedule change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        List<String[]> ranges = new ArrayList<>();
+        if (event.ranges() != null) {
+            for (ScheduleChangedEvent.Range range : event.ranges()) {
+                ranges.add(new String[] { range.start(), range.end() });
+            }
+        }
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("date", event.date());
+        delta.put("ranges", ranges);
+        publish("schedule", delta);
+    }
+
+    /**
+     * Sends a heartbeat comment to idle subscribers
+     */
+    @Scheduled(initialDelayString = "${bookings.stream.heartbeat:PT20S}", fixedDelayString = "${bookings.stream.heartbeat:PT20S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offerHeartbeat();
+        }
+    }
+
+    /**
+     * Drops subscribers whose current write has blocked past its deadline
+     * Their writer thread stays stuck until the socket times out, so a replacement
+     * writer is started meanwhile and the other subscribers keep receiving deltas
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void checkWrites() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.writeStarted;
+            if (started != 0 && now - started > writeTimeoutNanos
+                    && subscriber.writeStarted == started && subscriber.markStuck()) {
+                slowDropped.incrementAndGet();
+                stuckWriters.incrementAndGet();
+                resizeWriters();
+                // Only detach it here: completing the emitter would wait for the stuck write
+                subscriber.detach();
+            }
+        }
+    }
+
+    /**
+     * Returns stream statistics for monitoring
+     *
+     * @return Map with open streams and delivery counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("maxSubscribers", maxSubscribers);
+        stats.put("bufferSize", bufferSize);
+        stats.put("lastEventId", sequence.get());
+        stats.put("published", published.get());
+        stats.put("resyncs", resyncs.get());
+        stats.put("disconnects", disconnects.get());
+        stats.put("rejected", rejected.get());
+        stats.put("slowDropped", slowDropped.get());
+        stats.put("stuckWriters", stuckWriters.get());
+        stats.put("writerThreads", writers.getCorePoolSize());
+        return stats;
+    }
+
+    /**
+     * Closes all streams and stops the writer threads on shutdown
+     */
+    @Override
+    public void destroy() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+        writers.shutdownNow();
+    }
+
+    // Serializes a delta once and hands it to every subscriber
+    private void publish(String name, Map<String, Object> delta) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(delta);
+        } catch (JsonProcessingException e) {
+            System.err.println("Could not serialize " + name + " change: " + e.getMessage());
+            return;
+        }
+        Message message = new Message(sequence.incrementAndGet(), name, json);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(message);
+        }
+        published.incrementAndGet();
+    }
+
+    // One writer per configured thread plus one per stuck write (up to the cap)
+    private synchronized void resizeWriters() {
+        int target = writerThreads + Math.min(stuckWriters.get(), MAX_REPLACEMENT_WRITERS);
+        if (target != writers.getCorePoolSize()) {
+            writers.setCorePoolSize(target);
+        }
+    }
+
+    /**
+     * A queued SSE event
+     *
+     * @param id Event ID
+     * @param name Event name (null for a heartbeat comment)
+     * @param json Serialized delta
+     */
+    private record Message(long id, String name, String json) {
+    }
+
+    /**
+     * One connected client: its emitter and bounded buffer of pending messages
+     * At most one writer thread drains a subscriber at a time
+     */
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Message> buffer = new ArrayBlockingQueue<>(bufferSize);
+        // True while a writer task for this subscriber is queued or running
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // Set when the backlog was dropped; the client is told to reload
+        private volatile boolean resync;
+        private volatile boolean closed;
+        // System.nanoTime() when the current write started, 0 while not writing
+        private volatile long writeStarted;
+        // Set once the watchdog gave up on the current write
+        private final AtomicBoolean stuck = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // Queues a message, or switches to resync mode when the client is too far behind
+        private void offer(Message message) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(message)) {
+                buffer.clear();
+                resync = true;
+                resyncs.incrementAndGet();
+            }
+            schedule();
+        }
+
+        // Queues a heartbeat unless real messages are already on their way
+        private void offerHeartbeat() {
+            if (!closed && buffer.isEmpty() && !resync) {
+                offer(HEARTBEAT);
+            }
+        }
+
+        // Hands this subscriber to a writer thread unless one already has it
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        // Writes all pending messages (runs on a writer thread)
+        @Override
+        public void run() {
+            try {
+                do {
+                    if (resync) {
+                        resync = false;
+                        write(SseEmitter.event().id(String.valueOf(sequence.get())).name("resync").data("{}"));
+                    }
+                    Message message;
+                    while (!closed && (message = buffer.poll()) != null) {
+                        send(message);
+                    }
+                    scheduled.set(false);
+                    // A message may have arrived after the last poll - take it too
+                } while (!closed && (!buffer.isEmpty() || resync) && scheduled.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // Client went away (or the emitter already completed)
+                scheduled.set(false);
+                close();
+            } finally {
+                if (stuck.get()) {
+                    // The stuck write has finally returned - end the stream and retire the replacement writer
+                    scheduled.set(false);
+                    stuckWriters.decrementAndGet();
+                    resizeWriters();
+                    completeEmitter();
+                }
+            }
+        }
+
+        // Marks the current write as stuck; true only the first time
+        private boolean markStuck() {
+            return stuck.compareAndSet(false, true);
+        }
+
+        // Writes one message to the client
+        private void send(Message message) throws IOException {
+            if (message.name() == null) {
+                write(SseEmitter.event().comment("heartbeat"));
+            } else {
+                write(SseEmitter.event()
+                    .id(String.valueOf(message.id()))
+                    .name(message.name())
+                    .data(message.json()));
+            }
+        }
+
+        // Blocking write, timed so the watchdog can see it hang
+        private void write(SseEmitter.SseEventBuilder event) throws IOException {
+            writeStarted = System.nanoTime();
+            try {
+                emitter.send(event);
+            } finally {
+                writeStarted = 0;
+            }
+        }
+
+        // Removes the subscriber and ends its stream
+        private void close() {
+            if (detach()) {
+                completeEmitter();
+            }
+        }
+
+        // Removes the subscriber from the fan-out without touching the emitter; true the first time
+        private boolean detach() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            subscribers.remove(this);
+            buffer.clear();
+            disconnects.incrementAndGet();
+            return true;
+        }
+
+        private void completeEmitter() {
+            try {
+                emitter.complete();
+            } catch (Exception e) {
+                // Already completed
+            }
+        }
+    }
+}
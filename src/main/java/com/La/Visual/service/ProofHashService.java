@@ -0,0 +1,209 @@
+/**
+ * Proof Hash Service
+ *
+ * This service detects payment proofs that are reused across bookings. Guests sometimes
+ * upload the same (or a lightly edited) GCash screenshot for more than one booking;
+ * such bookings are flagged so administrators can check them before approval.
+ *
+ * Key responsibilities:
+ * - Computing a perceptual hash (dHash) for every uploaded proof image
+ * - Persisting the hash on the payment record (payments.proof_hash)
+ * - Looking up near-identical proofs in the in-memory ProofHashIndex
+ * - Flagging the new booking with the closest earlier booking (bookings.proof_duplicate_of)
+ * - Rebuilding the index from the database when the application starts, and hashing
+ *   proofs that were uploaded before hashing existed
+ *
+ * Hashing never blocks a booking: an unreadable image or a failed lookup is logged and
+ * the booking continues as usual.
+ */
+package com.La.Visual.service;
+
+// Import repositories for payment and booking data access
+import com.La.Visual.entity.Payment;
+import com.La.Visual.event.BookingChangedEvent;
+import com.La.Visual.repository.BookingRepository;
+import com.La.Visual.repository.PaymentRepository;
+// Import storage classes for file access and hashing
+import com.La.Visual.storage.PerceptualHash;
+import com.La.Visual.storage.ProofHashIndex;
+import com.La.Visual.storage.StorageProperties;
+import com.La.Visual.storage.StorageService;
+
+// Import Spring annotations and events
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+// Import Java utility classes
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Mark this class as a service component in Spring's component scanning
+@Service
+public class ProofHashService {
+
+    // Dependencies for data and file access
+    private final PaymentRepository paymentRepository;
+    private final BookingRepository bookingRepository;
+    private final StorageService storageService;
+    // Publishes the flag so cached booking responses and ETags are refreshed
+    private final ApplicationEventPublisher eventPublisher;
+    // Maximum hash distance that counts as the same image
+    private final int threshold;
+
+    // The near-duplicate index (rebuilt at startup, updated on every upload)
+    private final ProofHashIndex index = new ProofHashIndex();
+
+    // Counters for monitoring
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong lookupNanos = new AtomicLong();
+    private final AtomicLong flagged = new AtomicLong();
+    private volatile long lastRebuildMillis;
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param paymentRepository Repository for payment data (stores hashes)
+     * @param bookingRepository Repository for booking data (stores the duplicate flag)
+     * @param storageService Storage service to locate proof files
+     * @param properties Storage settings (match threshold)
+     * @param eventPublisher Publisher for booking change events
+     */
+    @Autowired
+    public ProofHashService(PaymentRepository paymentRepository,
+                            BookingRepository bookingRepository,
+                            StorageService storageService,
+                            StorageProperties properties,
+                            ApplicationEventPublisher eventPublisher) {
+        this.paymentRepository = paymentRepository;
+        this.bookingRepository = bookingRepository;
+        this.storageService = storageService;
+        this.eventPublisher = eventPublisher;
+        this.threshold = Math.max(0, Math.min(properties.getProofMatchThreshold(), ProofHashIndex.MAX_THRESHOLD));
+    }
+
+    /**
+     * Hashes a newly uploaded proof, flags the booking if another booking has a
+     * near-identical proof, and adds the proof to the index
+     *
+     * @param paymentId The payment the proof was uploaded for
+     * @param bookingId The booking the payment belongs to
+     * @param proofFileName The stored proof file name
+     * @return The ID of the earlier booking with a matching proof, if any
+     */
+    public Optional<Integer> checkAndRecord(Integer paymentId, Integer bookingId, String proofFileName) {
+        try {
+            Long hash = PerceptualHash.dHash(storageService.load(proofFileName));
+            if (hash == null) {
+                System.out.println("Payment proof " + proofFileName + " is not a readable image - skipping duplicate check");
+                return Optional.empty();
+            }
+            paymentRepository.updateProofHash(paymentId, hash);
+
+            // Look for the same image on other bookings before adding this one
+            long started = System.nanoTime();
+            List<ProofHashIndex.Match> matches = index.findNear(hash, threshold, bookingId);
+            lookupNanos.addAndGet(System.nanoTime() - started);
+            lookups.incrementAndGet();
+
+            index.put(paymentId, bookingId, hash);
+
+            if (matches.isEmpty()) {
+                return Optional.empty();
+            }
+
+            // Flag with the closest match; admins see the rest via the linked booking
+            ProofHashIndex.Match closest = matches.get(0);
+            bookingRepository.markProofDuplicate(bookingId, closest.bookingId());
+            flagged.incrementAndGet();
+            eventPublisher.publishEvent(new BookingChangedEvent(bookingId, BookingChangedEvent.Change.UPDATED));
+            System.out.println("Booking " + bookingId + " payment proof matches booking " + closest.bookingId()
+                + " (distance " + closest.distance() + ", " + matches.size() + " match(es))");
+            return Optional.of(closest.bookingId());
+        } catch (Exception e) {
+            // Duplicate detection is advisory - never fail the upload because of it
+            System.err.println("Could not check payment proof " + proofFileName + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Removes a deleted booking's proofs from the index so they are no longer matched
+     *
+     * @param bookingId The deleted booking
+     */
+    public void forgetBooking(Integer bookingId) {
+        index.removeBooking(bookingId);
+    }
+
+    /**
+     * Rebuilds the index from the stored hashes once the application is ready,
+     * then hashes any proofs that were uploaded before hashing was introduced
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        long started = System.currentTimeMillis();
+        try {
+            List<PaymentRepository.ProofHashRow> rows = paymentRepository.findProofHashes();
+            int[] paymentIds = new int[rows.size()];
+            int[] bookingIds = new int[rows.size()];
+            long[] hashes = new long[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                PaymentRepository.ProofHashRow row = rows.get(i);
+                paymentIds[i] = row.paymentId();
+                bookingIds[i] = row.bookingId();
+                hashes[i] = row.proofHash();
+            }
+            index.replaceAll(paymentIds, bookingIds, hashes);
+
+            int backfilled = backfillMissingHashes();
+            lastRebuildMillis = System.currentTimeMillis() - started;
+            System.out.println("Payment proof index rebuilt: " + index.size() + " proofs ("
+                + backfilled + " newly hashed) in " + lastRebuildMillis + " ms");
+        } catch (Exception e) {
+            System.err.println("Could not rebuild payment proof index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns index statistics for monitoring
+     *
+     * @return Map with index size, lookup count and average lookup time
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long lookupCount = lookups.get();
+        stats.put("indexedProofs", index.size());
+        stats.put("threshold", threshold);
+        stats.put("lookups", lookupCount);
+        stats.put("avgLookupMicros", lookupCount == 0 ? 0.0 : lookupNanos.get() / 1000.0 / lookupCount);
+        stats.put("flaggedBookings", flagged.get());
+        stats.put("lastRebuildMillis", lastRebuildMillis);
+        return stats;
+    }
+
+    // Hashes stored proofs that have no hash yet and adds them to the index (no flagging)
+    private int backfillMissingHashes() {
+        int count = 0;
+        for (Payment payment : paymentRepository.findProofsWithoutHash()) {
+            try {
+                Long hash = PerceptualHash.dHash(storageService.load(payment.getPaymentProof()));
+                if (hash == null) {
+                    continue;
+                }
+                paymentRepository.updateProofHash(payment.getPaymentId(), hash);
+                index.put(payment.getPaymentId(), payment.getBookingId(), hash);
+                count++;
+            } catch (Exception e) {
+                // File missing or unreadable - try again on the next start
+                System.err.println("Could not hash payment proof " + payment.getPaymentProof() + ": " + e.getMessage());
+            }
+        }
+        return count;
+    }
+}
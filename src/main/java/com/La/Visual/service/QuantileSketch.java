@@ -0,0 +1,132 @@
+/**
+ * Quantile Sketch
+ *
+ * Small, mergeable sketch for percentiles (median, p90, p99) of non-negative values
+ * such as package prices or booking lead times.
+ *
+ * How it works:
+ * - Values are counted in logarithmic buckets, each 2% wider than the previous one, so
+ *   any reported percentile is within 1% of a value actually added (relative error)
+ * - Zero gets its own bucket (same-day bookings have a lead time of 0)
+ * - Merging adds the bucket counts, so per-month sketches combine exactly into any
+ *   range; the result does not depend on how the data was split
+ * - A few hundred buckets cover everything from cents to millions
+ */
+package com.La.Visual.service;
+
+// Import Java utility classes
+import java.util.Arrays;
+
+// Class definition - a mutable sketch, filled by one thread and read-only afterwards
+public final class QuantileSketch {
+
+    // Relative accuracy of reported values
+    private static final double ACCURACY = 0.01;
+    private static final double GAMMA = (1 + ACCURACY) / (1 - ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    // Values below this count as zero
+    private static final double MIN_VALUE = 1e-9;
+
+    // Count of values per bucket index (bucket i covers (GAMMA^(i-1), GAMMA^i])
+    private long[] counts = new long[0];
+    // Index of counts[0]
+    private int offset;
+    private long zeroCount;
+    private long total;
+
+    /**
+     * Adds a value
+     *
+     * @param value A non-negative value (negative values count as zero)
+     */
+    public void add(double value) {
+        total++;
+        if (value < MIN_VALUE) {
+            zeroCount++;
+            return;
+        }
+        int index = (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+        ensureRange(index);
+        counts[index - offset]++;
+    }
+
+    /**
+     * Returns the estimated value at a quantile
+     *
+     * @param quantile Between 0 and 1 (0.5 = median)
+     * @return The estimate, or 0 if the sketch is empty
+     */
+    public double quantile(double quantile) {
+        if (total == 0) {
+            return 0;
+        }
+        // Rank of the requested value among all values (0-based)
+        long rank = (long) Math.floor(Math.min(Math.max(quantile, 0), 1) * (total - 1));
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                // Middle of the bucket, which keeps the relative error within ACCURACY
+                return 2 * Math.pow(GAMMA, i + offset) / (GAMMA + 1);
+            }
+        }
+        return 2 * Math.pow(GAMMA, counts.length - 1 + offset) / (GAMMA + 1);
+    }
+
+    /**
+     * Returns the number of values added
+     *
+     * @return The count
+     */
+    public long count() {
+        return total;
+    }
+
+    /**
+     * Combines two sketches into a new one; neither input is changed
+     *
+     * @param a First sketch
+     * @param b Second sketch
+     * @return A sketch of all values of both
+     */
+    public static QuantileSketch merge(QuantileSketch a, QuantileSketch b) {
+        QuantileSketch merged = new QuantileSketch();
+        merged.total = a.total + b.total;
+        merged.zeroCount = a.zeroCount + b.zeroCount;
+        if (a.counts.length == 0 && b.counts.length == 0) {
+            return merged;
+        }
+        int low = Math.min(a.counts.length == 0 ? b.offset : a.offset, b.counts.length == 0 ? a.offset : b.offset);
+        int high = Math.max(a.offset + a.counts.length, b.offset + b.counts.length);
+        merged.offset = low;
+        merged.counts = new long[high - low];
+        for (int i = 0; i < a.counts.length; i++) {
+            merged.counts[a.offset - low + i] += a.counts[i];
+        }
+        for (int i = 0; i < b.counts.length; i++) {
+            merged.counts[b.offset - low + i] += b.counts[i];
+        }
+        return merged;
+    }
+
+    // Grows the bucket array so it covers an index
+    private void ensureRange(int index) {
+        if (counts.length == 0) {
+            counts = new long[16];
+            offset = index;
+            return;
+        }
+        if (index < offset) {
+            int grow = Math.max(offset - index, 16);
+            long[] grown = new long[counts.length + grow];
+            System.arraycopy(counts, 0, grown, grow, counts.length);
+            counts = grown;
+            offset -= grow;
+        } else if (index >= offset + counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(index - offset + 1, counts.length + 16));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Resource Versions
+ *
+ * This component keeps a version counter for each kind of data the read APIs expose
+ * (bookings, schedules). A version is bumped once every committed write, using the
+ * same BookingChangedEvent / ScheduleChangedEvent that the response cache reacts to.
+ *
+ * The version is exposed as a strong ETag ("bookings-<boot id>-<version>"). A polling
+ * client sends it back in If-None-Match and, while nothing changed, receives
+ * 304 Not Modified without a single row being loaded.
+ *
+ * The boot ID is part of the ETag because counters restart at zero on every startup;
+ * without it an ETag from before a restart could match a different data state.
+ *
+ * ResponseCache also uses these versions as its cache generations.
+ */
+package com.La.Visual.service;
+
+// Import the change events
+import com.La.Visual.event.BookingChangedEvent;
+import com.La.Visual.event.ScheduleChangedEvent;
+
+// Import Spring annotations
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Import Java utility classes
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Mark this class as a Spring component shared by controllers and caches
+@Component
+public class ResourceVersions {
+
+    /**
+     * The kinds of data whose changes are tracked
+     */
+    public enum Resource {
+        BOOKINGS,   // bookings and the payments shown with them
+        SCHEDULES   // unavailable time ranges
+    }
+
+    // Distinguishes this run from earlier ones (counters restart at zero)
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+    // Current version per resource
+    private final Map<Resource, AtomicLong> versions = new EnumMap<>(Resource.class);
+
+    /**
+     * Creates a counter for every resource
+     */
+    public ResourceVersions() {
+        for (Resource resource : Resource.values()) {
+            versions.put(resource, new AtomicLong());
+        }
+    }
+
+    /**
+     * Returns the current version of a resource
+     *
+     * @param resource The resource
+     * @return Version number (increases with every committed change)
+     */
+    public long current(Resource resource) {
+        return versions.get(resource).get();
+    }
+
+    /**
+     * Returns the current strong ETag of a resource
+     * Read it BEFORE loading data: a response tagged with an older version is re-sent
+     * on the next poll, but newer data is never hidden behind an old tag
+     *
+     * @param resource The resource
+     * @return Quoted ETag value
+     */
+    public String etag(Resource resource) {
+        return "\"" + resource.name().toLowerCase() + "-" + bootId + "-" + current(resource) + "\"";
+    }
+
+    /**
+     * Marks a resource as changed
+     *
+     * @param resource The resource that changed
+     */
+    public void bump(Resource resource) {
+        versions.get(resource).incrementAndGet();
+    }
+
+    /**
+     * Bumps the bookings version once a booking change has been committed
+     *
+     * @param event The booking change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        bump(Resource.BOOKINGS);
+    }
+
+    /**
+     * Bumps the schedules version once a schedule change has been committed
+     *
+     * @param event The schedule change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        bump(Resource.SCHEDULES);
+    }
+
+    /**
+     * Checks an If-None-Match header against an ETag
+     * Handles "*", comma-separated lists and weak (W/) validators
+     *
+     * @param ifNoneMatch The request header value (may be null)
+     * @param etag The current quoted ETag
+     * @return true if the client already has the current representation
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
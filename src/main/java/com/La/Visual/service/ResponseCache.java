@@ -0,0 +1,227 @@
+/**
+ * Response Cache
+ *
+ * This component caches the final JSON bytes of hot read endpoints (calendar views,
+ * booked slots, unavailable ranges) together with a strong ETag. On a cache hit the
+ * controller writes the stored bytes directly - no repository call, no RequestResponse
+ * construction and no Jackson serialization.
+ *
+ * Entries are grouped by the resource they are derived from (ResourceVersions.Resource):
+ * - BOOKINGS  - outdated by every committed BookingChangedEvent
+ * - SCHEDULES - outdated by every committed ScheduleChangedEvent
+ *
+ * Each entry remembers the resource version it was built from. An entry is only served
+ * while that version is still current, so a response rendered from data read before a
+ * write can never be served after that write. Outdated entries are also cleared when a
+ * change event arrives, to free their memory.
+ *
+ * Only successful (200) responses are cached. The number of entries per namespace is
+ * bounded, since keys include request parameters such as dates.
+ */
+package com.La.Visual.service;
+
+// Import the response DTO and change events
+import com.La.Visual.dto.RequestResponse;
+import com.La.Visual.service.ResourceVersions.Resource;
+import com.La.Visual.event.BookingChangedEvent;
+import com.La.Visual.event.ScheduleChangedEvent;
+
+// Import Jackson for serialization
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Import Spring annotations and HTTP classes
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Import Java security and utility classes
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Mark this class as a Spring component so controllers and services can share one cache
+@Component
+public class ResponseCache {
+
+    // Upper bound on cached responses per namespace (keys contain dates and filters)
+    private static final int MAX_ENTRIES_PER_NAMESPACE = 2000;
+
+    // Jackson mapper used to serialize responses on a miss
+    private final ObjectMapper objectMapper;
+    // Version counters that decide whether an entry is still current
+    private final ResourceVersions resourceVersions;
+
+    // Per-resource entries
+    private final Map<Resource, Map<String, CachedResponse>> entries = new EnumMap<>(Resource.class);
+
+    // Counters for monitoring
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param objectMapper Spring's configured Jackson mapper
+     * @param resourceVersions Version counters of the cached resources
+     */
+    @Autowired
+    public ResponseCache(ObjectMapper objectMapper, ResourceVersions resourceVersions) {
+        this.objectMapper = objectMapper;
+        this.resourceVersions = resourceVersions;
+        for (Resource resource : Resource.values()) {
+            entries.put(resource, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Returns the cached response for a key, building and caching it on a miss
+     *
+     * @param resource The data the response is derived from
+     * @param key Route and parameters, e.g. "calendar/month|2025|4"
+     * @param loader Builds the response on a miss (runs the query)
+     * @return The serialized response with its ETag and status code
+     */
+    public CachedResponse get(Resource resource, String key, Supplier<RequestResponse> loader) {
+        Map<String, CachedResponse> cache = entries.get(resource);
+        // Read the version before loading, so newer data is never stored under an old version
+        long generation = resourceVersions.current(resource);
+
+        CachedResponse cached = cache.get(key);
+        if (cached != null && cached.generation() == generation) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+
+        RequestResponse response = loader.get();
+        CachedResponse built = serialize(response, generation);
+        if (response.getStatusCode() == 200) {
+            if (cache.size() >= MAX_ENTRIES_PER_NAMESPACE) {
+                cache.clear();
+            }
+            cache.put(key, built);
+        }
+        return built;
+    }
+
+    /**
+     * Frees the memory of every cached response of a resource
+     * (the entries are already unusable once the resource version changed)
+     *
+     * @param resource The resource whose data changed
+     */
+    public void invalidate(Resource resource) {
+        entries.get(resource).clear();
+        invalidations.incrementAndGet();
+    }
+
+    /**
+     * Drops booking-derived responses once a booking change has been committed
+     *
+     * @param event The booking change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        invalidate(Resource.BOOKINGS);
+    }
+
+    /**
+     * Drops schedule-derived responses once a schedule change has been committed
+     *
+     * @param event The schedule change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        invalidate(Resource.SCHEDULES);
+    }
+
+    /**
+     * Returns cache statistics for monitoring
+     *
+     * @return Map with hit/miss counters and entry counts
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        for (Resource resource : Resource.values()) {
+            stats.put(resource.name().toLowerCase() + "Entries", entries.get(resource).size());
+        }
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    // Serializes a response once and derives its ETag from the bytes
+    private CachedResponse serialize(RequestResponse response, long generation) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            return new CachedResponse(body, etagOf(body), response.getStatusCode(), generation);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response", e);
+        }
+    }
+
+    // Strong ETag: quoted hex of the first 16 bytes of the body's SHA-256
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            StringBuilder etag = new StringBuilder("\"");
+            for (int i = 0; i < 16; i++) {
+                etag.append(String.format("%02x", digest[i]));
+            }
+            return etag.append('"').toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A serialized response ready to be written to the client
+     *
+     * @param body UTF-8 JSON bytes
+     * @param etag Strong ETag of the body (quoted)
+     * @param statusCode HTTP status of the response
+     * @param generation Resource version the response was built from
+     */
+    public record CachedResponse(byte[] body, String etag, int statusCode, long generation) {
+
+        /**
+         * Converts the cached response into an HTTP response with JSON content type and ETag
+         *
+         * @return The response entity
+         */
+        public ResponseEntity<byte[]> toResponseEntity() {
+            return toResponseEntity(null);
+        }
+
+        /**
+         * Converts the cached response into an HTTP response, answering 304 Not Modified
+         * when the client already holds this exact body
+         *
+         * @param ifNoneMatch The request's If-None-Match header (may be null)
+         * @return The response entity
+         */
+        public ResponseEntity<byte[]> toResponseEntity(String ifNoneMatch) {
+            if (statusCode == 200 && ResourceVersions.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.status(statusCode)
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .body(body);
+        }
+    }
+}
@@ -7,7 +7,8 @@
  * 
  * Key responsibilities:
  * - Managing unavailable time ranges for specific dates
- * - Saving new unavailable time ranges (replacing existing ones for a date)
+ * - Saving new unavailable time ranges (replacing existing ones for a date, writing only the difference)
+ * - Saving the ranges of many dates in one transaction
  * - Retrieving unavailable time ranges for calendar display
  * - Converting between DTO and entity objects for unavailable time ranges
  * 
@@ -22,70 +23,228 @@ package com.La.Visual.service;
 
 // Import DTO (Data Transfer Object) for API communications
 import com.La.Visual.dto.UnavailableTimeRange;
+// Import the event published after schedule writes
+import com.La.Visual.event.ScheduleChangedEvent;
 // Import repository for database operations
+import com.La.Visual.repository.RequestCoalescer;
 import com.La.Visual.repository.UnavailableTimeRangeRepository;
 // Import Spring annotations for dependency injection and component scanning
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 // Import Spring annotation for transaction management
 import org.springframework.transaction.annotation.Transactional;
 
-// Import Java utility classes for collections and streams
+// Import Java time, utility classes for collections and streams
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 // Mark this class as a service component in Spring's component scanning
 @Service
 public class ScheduleService {
     
+    // Status stored on ranges blocked by an administrator
+    private static final String STATUS = "unavailable";
+    
     // Repository dependency for database operations, marked final for immutability
     private final UnavailableTimeRangeRepository unavailableRepository;
+    // Publishes ScheduleChangedEvent so cached schedule responses can refresh
+    private final ApplicationEventPublisher eventPublisher;
+    // Lets identical concurrent reads of a date share one query
+    private final RequestCoalescer requestCoalescer;
     
     /**
      * Constructor with dependency injection
      * The @Autowired annotation tells Spring to inject the repository bean
      * 
      * @param unavailableRepository Repository for unavailable time range data operations
+     * @param eventPublisher Publisher for schedule change events
+     * @param requestCoalescer Single-flight layer for date reads
      */
     @Autowired
-    public ScheduleService(UnavailableTimeRangeRepository unavailableRepository) {
+    public ScheduleService(UnavailableTimeRangeRepository unavailableRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           RequestCoalescer requestCoalescer) {
         this.unavailableRepository = unavailableRepository;
+        this.eventPublisher = eventPublisher;
+        this.requestCoalescer = requestCoalescer;
     }
     
     /**
      * Saves a list of unavailable time ranges for a specific date
-     * Uses a "replace all" approach by first deleting existing ranges
+     * The stored ranges are replaced by the given ones, but only the difference is written
      * 
      * @param date The date for which to save unavailable ranges (YYYY-MM-DD format)
      * @param unavailableRanges List of DTO objects with time range information
+     * @return How many ranges were inserted, deleted and kept
+     */
+    @Transactional // Ensures database consistency - all operations succeed or all fail
+    public SaveSummary saveUnavailableTimeRanges(String date, List<UnavailableTimeRange> unavailableRanges) {
+        Map<String, List<UnavailableTimeRange>> byDate = new LinkedHashMap<>();
+        byDate.put(date, unavailableRanges);
+        return saveUnavailableTimeRanges(byDate);
+    }
+    
+    /**
+     * Saves the unavailable time ranges of several dates in one transaction
+     * (for example blocking every day of a two-week vacation in one request)
+     * 
+     * For each date the stored ranges are compared with the requested ones:
+     * ranges that are no longer requested are deleted, new ones are inserted and
+     * unchanged ones are left alone. All deletes go out as one batch and all inserts
+     * as another, whatever the number of dates.
+     * 
+     * @param rangesByDate Requested ranges per date (YYYY-MM-DD); an empty list clears the date
+     * @return How many ranges were inserted, deleted and kept
      */
     @Transactional // Ensures database consistency - all operations succeed or all fail
-    public void saveUnavailableTimeRanges(String date, List<UnavailableTimeRange> unavailableRanges) {
-        // First, delete ALL existing unavailable time ranges for this date
-        unavailableRepository.deleteByDate(date);
+    public SaveSummary saveUnavailableTimeRanges(Map<String, List<UnavailableTimeRange>> rangesByDate) {
+        // The columns are typed now - reject malformed values before anything is written
+        for (Map.Entry<String, List<UnavailableTimeRange>> entry : rangesByDate.entrySet()) {
+            String date = entry.getKey();
+            if (date == null || date.isBlank()) {
+                throw new IllegalArgumentException("Every entry needs a date");
+            }
+            try {
+                LocalDate.parse(date);
+                if (entry.getValue() != null) {
+                    for (UnavailableTimeRange rangeDto : entry.getValue()) {
+                        if (rangeDto.getStartTime() == null || rangeDto.getEndTime() == null) {
+                            throw new IllegalArgumentException("Every range on " + date + " needs a start and end time");
+                        }
+                        LocalTime.parse(rangeDto.getStartTime());
+                        LocalTime.parse(rangeDto.getEndTime());
+                    }
+                }
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid date or time on " + date + " (expected YYYY-MM-DD and HH:mm)");
+            }
+        }
+        
+        // Stored ranges of all dates in one query, grouped by date and range
+        Map<String, Map<String, List<com.La.Visual.entity.UnavailableTimeRange>>> stored = new HashMap<>();
+        for (com.La.Visual.entity.UnavailableTimeRange range : unavailableRepository.findByDates(rangesByDate.keySet())) {
+            stored.computeIfAbsent(range.getDate(), d -> new HashMap<>())
+                .computeIfAbsent(key(range.getStartTime(), range.getEndTime(), range.getStatus()), k -> new ArrayList<>())
+                .add(range);
+        }
         
-        // Then save the new unavailable time ranges
-        for (UnavailableTimeRange rangeDto : unavailableRanges) {
-            // Create a new entity from the DTO data
-            com.La.Visual.entity.UnavailableTimeRange range = new com.La.Visual.entity.UnavailableTimeRange();
-            range.setDate(date);                             // Set date from parameter
-            range.setStartTime(rangeDto.getStartTime());     // Copy start time from DTO
-            range.setEndTime(rangeDto.getEndTime());         // Copy end time from DTO
-            range.setStatus("unavailable");                  // Set status explicitly
+        List<Integer> toDelete = new ArrayList<>();
+        List<com.La.Visual.entity.UnavailableTimeRange> toInsert = new ArrayList<>();
+        List<ScheduleChangedEvent> events = new ArrayList<>();
+        int kept = 0;
+        
+        for (Map.Entry<String, List<UnavailableTimeRange>> entry : rangesByDate.entrySet()) {
+            String date = entry.getKey();
+            List<UnavailableTimeRange> requested = entry.getValue() == null ? List.of() : entry.getValue();
+            Map<String, List<com.La.Visual.entity.UnavailableTimeRange>> existing = stored.getOrDefault(date, new HashMap<>());
+            
+            int deletesBefore = toDelete.size();
+            int insertsBefore = toInsert.size();
+            Set<String> wanted = new HashSet<>();
+            for (UnavailableTimeRange rangeDto : requested) {
+                String key = key(rangeDto.getStartTime(), rangeDto.getEndTime(), STATUS);
+                if (!wanted.add(key)) {
+                    continue; // Same range twice in the request
+                }
+                List<com.La.Visual.entity.UnavailableTimeRange> matches = existing.get(key);
+                if (matches != null && !matches.isEmpty()) {
+                    // Already stored - keep one row, drop accidental duplicates
+                    kept++;
+                    for (int i = 1; i < matches.size(); i++) {
+                        toDelete.add(matches.get(i).getId());
+                    }
+                } else {
+                    // Create a new entity from the DTO data
+                    com.La.Visual.entity.UnavailableTimeRange range = new com.La.Visual.entity.UnavailableTimeRange();
+                    range.setDate(date);                             // Set date from the map key
+                    range.setStartTime(rangeDto.getStartTime());     // Copy start time from DTO
+                    range.setEndTime(rangeDto.getEndTime());         // Copy end time from DTO
+                    range.setStatus(STATUS);                         // Set status explicitly
+                    toInsert.add(range);
+                }
+            }
+            // Stored ranges that are no longer requested
+            for (Map.Entry<String, List<com.La.Visual.entity.UnavailableTimeRange>> stale : existing.entrySet()) {
+                if (!wanted.contains(stale.getKey())) {
+                    for (com.La.Visual.entity.UnavailableTimeRange range : stale.getValue()) {
+                        toDelete.add(range.getId());
+                    }
+                }
+            }
             
-            // Save the entity to the database
-            unavailableRepository.save(range);
+            // Only dates that actually changed are announced
+            if (toDelete.size() != deletesBefore || toInsert.size() != insertsBefore) {
+                List<ScheduleChangedEvent.Range> ranges = new ArrayList<>(requested.size());
+                Set<String> announced = new HashSet<>();
+                for (UnavailableTimeRange rangeDto : requested) {
+                    if (announced.add(key(rangeDto.getStartTime(), rangeDto.getEndTime(), STATUS))) {
+                        ranges.add(new ScheduleChangedEvent.Range(rangeDto.getStartTime(), rangeDto.getEndTime()));
+                    }
+                }
+                events.add(new ScheduleChangedEvent(date, ranges));
+            }
+        }
+        
+        unavailableRepository.deleteByIds(toDelete);
+        unavailableRepository.insertBatch(toInsert);
+        
+        // Let listeners (response cache, change stream) know once the transaction commits
+        for (ScheduleChangedEvent event : events) {
+            eventPublisher.publishEvent(event);
+        }
+        
+        return new SaveSummary(rangesByDate.size(), events.size(), toInsert.size(), toDelete.size(), kept);
+    }
+    
+    // Identifies a range independently of how its times were written ("09:00" and "09:00:00" match)
+    private static String key(String startTime, String endTime, String status) {
+        return normalizeTime(startTime) + "|" + normalizeTime(endTime) + "|" + status;
+    }
+    
+    private static String normalizeTime(String time) {
+        if (time == null) {
+            return "";
+        }
+        try {
+            return LocalTime.parse(time.trim()).toString();
+        } catch (DateTimeParseException e) {
+            return time.trim();
         }
     }
     
+    /**
+     * Outcome of saving unavailable time ranges
+     * 
+     * @param dates Number of dates in the request
+     * @param changedDates Number of dates whose ranges changed
+     * @param inserted Ranges inserted
+     * @param deleted Ranges deleted
+     * @param kept Ranges that were already stored and left alone
+     */
+    public record SaveSummary(int dates, int changedDates, int inserted, int deleted, int kept) {
+    }
+    
     /**
      * Retrieves all unavailable time ranges for a specific date as entity objects
      * 
      * @param date The date to retrieve ranges for (YYYY-MM-DD format)
+     * Identical concurrent calls under the same schedules version share one query (RequestCoalescer); the list is read-only
      * @return List of entity objects representing unavailable time ranges
      */
     public List<com.La.Visual.entity.UnavailableTimeRange> getUnavailableTimeRanges(String date) {
-        return unavailableRepository.findByDate(date);
+        return requestCoalescer.execute(ResourceVersions.Resource.SCHEDULES, "schedules/unavailable|" + date,
+            () -> Collections.unmodifiableList(unavailableRepository.findByDate(date)));
     }
     
     /**
@@ -96,8 +255,8 @@ public class ScheduleService {
      * @return List of DTO objects representing unavailable time ranges
      */
     public List<UnavailableTimeRange> getUnavailableTimeRangesDto(String date) {
-        // Get entity objects from the database
-        List<com.La.Visual.entity.UnavailableTimeRange> ranges = unavailableRepository.findByDate(date);
+        // Get entity objects from the database (shared with identical concurrent reads)
+        List<com.La.Visual.entity.UnavailableTimeRange> ranges = getUnavailableTimeRanges(date);
         
         // Convert entities to DTOs using Java Stream API
         return ranges.stream()
@@ -25,11 +25,17 @@ package com.La.Visual.storage;
 // Import Java IO and file handling classes
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
 import java.util.stream.Stream;
 
 // Import Spring Framework annotations and utilities
@@ -48,6 +54,15 @@ public class FileSystemStorageService implements StorageService {
     // The root directory where files will be stored
     private final Path rootLocation;
 
+    // Name of the manifest file marking an initialized storage location
+    // Starts with a dot so the orphaned upload sweeper never treats it as an upload
+    static final String MANIFEST_NAME = ".storage-manifest";
+    // Bump when the on-disk layout changes and init() has new work to do
+    private static final int LAYOUT_VERSION = 1;
+
+    // In-memory cache for frequently viewed files (null when disabled)
+    private final HotFileCache hotFileCache;
+
     /**
      * Constructor that initializes the storage location
      * The @Autowired annotation tells Spring to inject the StorageProperties bean
@@ -58,6 +73,10 @@ public class FileSystemStorageService implements StorageService {
     public FileSystemStorageService(StorageProperties properties) {
         // Convert the configured location string to a Path object
         this.rootLocation = Paths.get(properties.getLocation());
+        // Set up the hot-file cache with the configured byte budget
+        this.hotFileCache = properties.isCacheEnabled()
+            ? new HotFileCache(properties.getCacheMaxBytes().toBytes(), properties.getCacheMaxEntryBytes().toBytes())
+            : null;
         // Log the absolute path for debugging purposes
         System.out.println("Storage location initialized: " + this.rootLocation.toAbsolutePath());
         try {
@@ -105,6 +124,8 @@ public class FileSystemStorageService implements StorageService {
                 Files.copy(inputStream, destinationFile,
                     StandardCopyOption.REPLACE_EXISTING);  // Replace if file already exists
             }
+            // The old contents (if any) must not be served from the cache anymore
+            invalidateCached(destinationFile.getFileName().toString());
         }
         catch (IOException e) {
             // Wrap IOException in a custom StorageException
@@ -145,6 +166,8 @@ public class FileSystemStorageService implements StorageService {
                 Files.copy(inputStream, destinationFile,
                     StandardCopyOption.REPLACE_EXISTING);
             }
+            // The old contents (if any) must not be served from the cache anymore
+            invalidateCached(destinationFile.getFileName().toString());
         }
         catch (IOException e) {
             throw new StorageException("Failed to store file.", e);
@@ -194,6 +217,15 @@ public class FileSystemStorageService implements StorageService {
         try {
             // Get the path to the file
             Path file = load(filename);
+
+            // Serve from the hot-file cache when possible
+            if (hotFileCache != null) {
+                Resource cached = loadCached(filename, file);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+
             // Create a resource from the file URI
             Resource resource = new UrlResource(file.toUri());
             
@@ -213,6 +245,43 @@ public class FileSystemStorageService implements StorageService {
         }
     }
 
+    /**
+     * Deletes a single file from the storage location
+     * Applies the same directory traversal check as store() so only files
+     * directly inside the root location can be removed
+     *
+     * @param filename The name of the file to delete
+     * @return The number of bytes freed (0 if the file did not exist)
+     * @throws StorageException if the file cannot be deleted
+     */
+    @Override
+    public long delete(String filename) {
+        try {
+            // Resolve and normalize the path the same way store() does
+            Path target = this.rootLocation.resolve(Paths.get(filename))
+                    .normalize().toAbsolutePath();
+
+            // Security check to prevent deleting anything outside the root location
+            if (!target.getParent().equals(this.rootLocation.toAbsolutePath())) {
+                throw new StorageException("Cannot delete file outside current directory.");
+            }
+
+            // Nothing to do if the file is already gone
+            if (!Files.isRegularFile(target)) {
+                return 0;
+            }
+
+            // Remember the size before deleting so callers can report reclaimed space
+            long size = Files.size(target);
+            boolean deleted = Files.deleteIfExists(target);
+            invalidateCached(target.getFileName().toString());
+            return deleted ? size : 0;
+        }
+        catch (IOException e) {
+            throw new StorageException("Failed to delete file: " + filename, e);
+        }
+    }
+
     /**
      * Deletes all files in the storage location
      * Completely removes the directory and its contents
@@ -220,20 +289,91 @@ public class FileSystemStorageService implements StorageService {
     @Override
     public void deleteAll() {
         FileSystemUtils.deleteRecursively(rootLocation.toFile());  // Spring utility to recursively delete a directory
+        if (hotFileCache != null) {
+            hotFileCache.clear();
+        }
+    }
+
+    /**
+     * Returns hot-file cache statistics (hits, misses, bytes used)
+     * 
+     * @return Map of cache metrics, empty if the cache is disabled
+     */
+    @Override
+    public Map<String, Object> getCacheStats() {
+        return hotFileCache != null ? hotFileCache.getStats() : Collections.emptyMap();
+    }
+
+    /**
+     * Looks the file up in the hot-file cache and loads it into the cache on a miss
+     * 
+     * @param filename The stored file name
+     * @param file The resolved path of the file
+     * @return A cached resource, or null if the file is missing or not admitted to the cache
+     */
+    private Resource loadCached(String filename, Path file) {
+        try {
+            // One stat call validates the cached copy against the file on disk
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return null;
+            }
+            long size = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+
+            Resource cached = hotFileCache.get(filename, size, lastModified);
+            return cached != null ? cached : hotFileCache.load(filename, file, size, lastModified);
+        } catch (IOException e) {
+            // Missing or unreadable - let the regular path produce the error
+            return null;
+        }
     }
 
     /**
-     * Initializes the storage by creating the root directory
+     * Drops a file from the hot-file cache after it was overwritten or deleted
+     */
+    private void invalidateCached(String filename) {
+        if (hotFileCache != null) {
+            hotFileCache.invalidate(filename);
+        }
+    }
+
+    /**
+     * Initializes the storage location
+     * A manifest file in the root directory records that the layout has been set up.
+     * When it is present and matches the current layout version (warm restart) nothing
+     * else is done, so startup cost does not grow with the number of stored files.
      * 
-     * @throws StorageException if the directory cannot be created
+     * @throws StorageException if the directory or manifest cannot be created
      */
     @Override
     public void init() {
+        Path manifest = rootLocation.resolve(MANIFEST_NAME);
         try {
+            // Warm restart: storage was initialized before with the same layout
+            if (Files.isRegularFile(manifest)) {
+                Properties existing = new Properties();
+                try (InputStream in = Files.newInputStream(manifest)) {
+                    existing.load(in);
+                }
+                if (String.valueOf(LAYOUT_VERSION).equals(existing.getProperty("layout-version"))) {
+                    System.out.println("Storage manifest found - skipping storage initialization");
+                    return;
+                }
+            }
+
+            // First start (or older layout): create the directory structure and record it
             Files.createDirectories(rootLocation);  // Create the root directory if it doesn't exist
+            Properties written = new Properties();
+            written.setProperty("layout-version", String.valueOf(LAYOUT_VERSION));
+            written.setProperty("initialized-at", Instant.now().toString());
+            try (OutputStream out = Files.newOutputStream(manifest)) {
+                written.store(out, "LaVisual upload storage manifest - do not delete");
+            }
+            System.out.println("Storage initialized, manifest written to " + manifest.toAbsolutePath());
         }
         catch (IOException e) {
             throw new StorageException("Could not initialize storage", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,145 @@
+/**
+ * File URL Signer
+ *
+ * This component creates and verifies short-lived signed URLs for stored files
+ * (mainly payment proofs). The file endpoints stay open to unauthenticated requests
+ * so images can be used directly in <img> tags, but a request is only served when it
+ * carries a valid, unexpired signature.
+ *
+ * URL format:
+ *   /api/files/view/{fileName}?expires={epochSeconds}&sig={signature}
+ *
+ * The signature is an HMAC-SHA256 over the file name and expiry time, encoded as
+ * URL-safe Base64. It covers the file name rather than the endpoint, so the same
+ * query string works for both /view and /download.
+ *
+ * Verification needs no database query and no JWT parsing: one HMAC computation and
+ * a constant-time comparison, so serving a file stays about as cheap as static content.
+ *
+ * The key comes from file.url-signing-key. If it is blank a random key is generated
+ * at startup, which means signed URLs stop working after a restart.
+ */
+package com.La.Visual.storage;
+
+// Import Spring annotations
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+// Import Java crypto and utility classes
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+// Mark this class as a Spring component so it can be injected into services and controllers
+@Component
+public class FileUrlSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    // The HMAC key
+    private final SecretKeySpec key;
+    // How long a generated URL stays valid
+    private final Duration ttl;
+
+    // Mac instances are not thread-safe, so each thread keeps its own
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param properties Storage settings (signing key and URL lifetime)
+     */
+    @Autowired
+    public FileUrlSigner(StorageProperties properties) {
+        byte[] keyBytes;
+        String configured = properties.getUrlSigningKey();
+        if (configured == null || configured.isBlank()) {
+            // No key configured - generate one (URLs will not survive a restart)
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            System.out.println("No file.url-signing-key configured - using a random key for this run");
+        } else {
+            keyBytes = configured.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttl = properties.getUrlTtl();
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Builds a signed URL for viewing a file in the browser
+     *
+     * @param fileName The stored file name
+     * @return Relative URL including expiry and signature
+     */
+    public String viewUrl(String fileName) {
+        return "/api/files/view/" + UriUtils.encodePathSegment(fileName, StandardCharsets.UTF_8) + signatureQuery(fileName);
+    }
+
+    /**
+     * Builds a signed URL for downloading a file
+     *
+     * @param fileName The stored file name
+     * @return Relative URL including expiry and signature
+     */
+    public String downloadUrl(String fileName) {
+        return "/api/files/download/" + UriUtils.encodePathSegment(fileName, StandardCharsets.UTF_8) + signatureQuery(fileName);
+    }
+
+    /**
+     * Checks that a request for a file carries a valid, unexpired signature
+     *
+     * @param fileName The requested file name
+     * @param expires The expiry time from the URL (epoch seconds)
+     * @param signature The signature from the URL
+     * @return true if the URL was issued by this application and has not expired
+     */
+    public boolean verify(String fileName, Long expires, String signature) {
+        if (fileName == null || expires == null || signature == null) {
+            return false;
+        }
+        if (Instant.now().getEpochSecond() > expires) {
+            return false;
+        }
+        byte[] expected = sign(fileName, expires);
+        byte[] actual;
+        try {
+            actual = Base64.getUrlDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        // Constant-time comparison so the signature cannot be guessed byte by byte
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    // Builds "?expires=...&sig=..." for a file name
+    private String signatureQuery(String fileName) {
+        long expires = Instant.now().plus(ttl).getEpochSecond();
+        String signature = Base64.getUrlEncoder().withoutPadding().encodeToString(sign(fileName, expires));
+        return "?expires=" + expires + "&sig=" + signature;
+    }
+
+    // HMAC over "fileName\nexpires"
+    private byte[] sign(String fileName, long expires) {
+        Mac mac = macs.get();
+        return mac.doFinal((fileName + "\n" + expires).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Creates a Mac initialized with the signing key
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not initialize file URL signing", e);
+        }
+    }
+}
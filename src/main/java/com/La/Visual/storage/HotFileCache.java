@@ -0,0 +1,307 @@
+/**
+ * Hot File Cache
+ *
+ * This class keeps the contents of frequently viewed files (mainly payment proof images)
+ * in memory so repeated views by several admins do not hit the disk every time.
+ * It sits in front of FileSystemStorageService.loadAsResource.
+ *
+ * Key characteristics:
+ * - LRU eviction under a configurable total byte budget
+ * - File contents are held in off-heap (direct) ByteBuffers so large images don't
+ *   add pressure to the Java heap
+ * - Admission control: files above a size threshold are never cached
+ * - Entries are validated against the file's size and modification time, and the
+ *   storage service invalidates them explicitly on overwrite or delete
+ * - Hit/miss/eviction/byte counters are exposed for monitoring
+ *
+ * This is a plain helper owned by FileSystemStorageService rather than a Spring bean,
+ * since its lifecycle is tied to the storage location it caches.
+ */
+package com.La.Visual.storage;
+
+// Import Spring's Resource abstraction used for the cached resource type
+import org.springframework.core.io.AbstractResource;
+
+// Import Java I/O and NIO classes for reading files into buffers
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+// Import Java utility classes
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class HotFileCache {
+
+    // Total bytes the cache may hold and the largest single file it admits
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    // Access-ordered map gives us LRU iteration order (eldest = least recently used)
+    // Guarded by "this"
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long usedBytes;
+
+    // Counters for monitoring
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Creates a cache with the given budget
+     *
+     * @param maxBytes Total byte budget for cached file contents
+     * @param maxEntryBytes Files larger than this are not admitted
+     */
+    public HotFileCache(long maxBytes, long maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxBytes);
+    }
+
+    /**
+     * Returns a cached resource for the file if its contents are cached and still current
+     *
+     * @param filename The stored file name (cache key)
+     * @param size The file's current size on disk
+     * @param lastModified The file's current modification time in milliseconds
+     * @return The cached resource, or null on a miss
+     */
+    public Resource get(String filename, long size, long lastModified) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(filename);
+            // Drop entries that no longer match what is on disk (changed outside the app)
+            if (entry != null && (entry.size != size || entry.lastModified != lastModified)) {
+                removeEntry(filename);
+                invalidations.incrementAndGet();
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return new Resource(entry);
+    }
+
+    /**
+     * Loads the file into the cache if it passes admission, and returns a resource over it
+     *
+     * @param filename The stored file name (cache key)
+     * @param path The file's location on disk
+     * @param size The file's size as observed before reading
+     * @param lastModified The file's modification time as observed before reading
+     * @return The cached resource, or null if the file was not admitted
+     * @throws IOException if the file cannot be read
+     */
+    public Resource load(String filename, Path path, long size, long lastModified) throws IOException {
+        // Admission: never cache files above the threshold
+        if (size > maxEntryBytes) {
+            rejections.incrementAndGet();
+            return null;
+        }
+
+        // Read the whole file into an off-heap buffer outside the lock
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the buffer is full or EOF
+            }
+        }
+        if (buffer.hasRemaining()) {
+            // File shrank while we were reading it - don't cache a partial copy
+            return null;
+        }
+        buffer.flip();
+
+        Entry entry = new Entry(filename, path, buffer.asReadOnlyBuffer(), size, lastModified);
+        synchronized (this) {
+            removeEntry(filename);
+            entries.put(filename, entry);
+            usedBytes += size;
+            evictToBudget();
+        }
+        return new Resource(entry);
+    }
+
+    /**
+     * Removes a file from the cache (called when a file is overwritten or deleted)
+     *
+     * @param filename The stored file name
+     */
+    public synchronized void invalidate(String filename) {
+        if (removeEntry(filename)) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes every cached file
+     */
+    public synchronized void clear() {
+        invalidations.addAndGet(entries.size());
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    /**
+     * Returns cache statistics for monitoring
+     *
+     * @return Map with hit/miss counters and byte usage
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        synchronized (this) {
+            stats.put("entries", entries.size());
+            stats.put("usedBytes", usedBytes);
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("maxEntryBytes", maxEntryBytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("rejections", rejections.get());
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    // Removes one entry and releases its bytes from the budget (caller holds the lock)
+    private boolean removeEntry(String filename) {
+        Entry removed = entries.remove(filename);
+        if (removed != null) {
+            usedBytes -= removed.size;
+            return true;
+        }
+        return false;
+    }
+
+    // Evicts least recently used entries until the budget is respected (caller holds the lock)
+    private void evictToBudget() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            usedBytes -= eldest.size;
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Immutable cache entry holding a read-only view of the file contents
+     */
+    private static final class Entry {
+        private final String filename;
+        private final Path path;
+        private final ByteBuffer contents;
+        private final long size;
+        private final long lastModified;
+
+        private Entry(String filename, Path path, ByteBuffer contents, long size, long lastModified) {
+            this.filename = filename;
+            this.path = path;
+            this.contents = contents;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * Spring Resource backed by a cached buffer
+     * Each call to getInputStream() reads from an independent duplicate of the buffer,
+     * so many responses can stream the same entry concurrently. getFile()/getURI() still
+     * point at the file on disk so content-type detection keeps working.
+     */
+    public static final class Resource extends AbstractResource {
+        private final Entry entry;
+
+        private Resource(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public long contentLength() {
+            return entry.size;
+        }
+
+        @Override
+        public long lastModified() {
+            return entry.lastModified;
+        }
+
+        @Override
+        public String getFilename() {
+            return entry.filename;
+        }
+
+        @Override
+        public URI getURI() {
+            return entry.path.toUri();
+        }
+
+        @Override
+        public File getFile() {
+            return entry.path.toFile();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new BufferInputStream(entry.contents.duplicate());
+        }
+
+        @Override
+        public String getDescription() {
+            return "cached file [" + entry.path.toAbsolutePath() + "]";
+        }
+    }
+
+    /**
+     * Minimal InputStream over a ByteBuffer (no copy to the heap until read)
+     */
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+/**
+ * Orphaned Upload Sweeper
+ *
+ * This component periodically removes uploaded files that no database row references anymore.
+ * Files become orphaned when an upload succeeds but the booking insert that should reference it
+ * fails, when a proof is uploaded through /api/files/upload and never attached, or when a booking
+ * is deleted (payment proofs are not removed together with the booking).
+ *
+ * Key characteristics:
+ * - Incremental: each run resumes from a cursor (the last file name it inspected) so large
+ *   upload directories are covered over several runs instead of in one long scan
+ * - Batched: files are checked against payments.payment_proof and bookings.payment_proof
+ *   in batches, one query per batch
+ * - Rate limited: a bounded number of batches per run with a pause between batches
+ * - Safe: only files older than the configured grace period are deleted, so uploads whose
+ *   booking is still being created are never touched
+ * - Runs on its own background thread, never on a request thread. The scheduler thread
+ *   only hands the run over, so the pauses between batches do not hold up other
+ *   scheduled jobs (SSE heartbeats, stuck-writer checks, tombstone purges)
+ *
+ * Finding the files after the cursor still lists the whole upload directory on every run,
+ * because a directory listing has no order to resume from. Only the next window of names
+ * is kept while listing (a bounded sorted set), so the run never holds or sorts every name.
+ *
+ * Statistics (files scanned/deleted, bytes reclaimed) are kept in memory and exposed through
+ * the FileController so administrators can see how much space has been recovered.
+ */
+package com.La.Visual.storage;
+
+// Import the repository used to look up which proofs are still referenced
+import com.La.Visual.repository.PaymentRepository;
+// Import Spring annotations for dependency injection and scheduling
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Import Java I/O and NIO classes for inspecting stored files
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+// Import Java time and utility classes
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Mark this class as a Spring component so the scheduled method is picked up
+@Component
+public class OrphanedUploadSweeper implements DisposableBean {
+
+    // Storage service used to list and delete files
+    private final StorageService storageService;
+    // Repository used to check which files are still referenced by payments/bookings
+    private final PaymentRepository paymentRepository;
+    // Sweeper configuration (grace period, batch size, pacing)
+    private final StorageProperties properties;
+
+    // Background thread the sweeps run on
+    private final ExecutorService worker;
+    // True while a sweep is queued or running, so runs never overlap
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Name of the last file inspected; the next run continues after it (null = start over)
+    private volatile String cursor;
+
+    // Running totals reported by getStats()
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong filesScanned = new AtomicLong();
+    private final AtomicLong filesDeleted = new AtomicLong();
+    private final AtomicLong bytesReclaimed = new AtomicLong();
+    private volatile Instant lastRunAt;
+    private volatile long lastRunMillis;
+    private volatile long lastRunBytesReclaimed;
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param storageService Service for file storage operations
+     * @param paymentRepository Repository used to look up referenced proof files
+     * @param properties Storage configuration including the sweeper settings
+     */
+    @Autowired
+    public OrphanedUploadSweeper(StorageService storageService,
+                                 PaymentRepository paymentRepository,
+                                 StorageProperties properties) {
+        this.storageService = storageService;
+        this.paymentRepository = paymentRepository;
+        this.properties = properties;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upload-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Scheduled entry point - hands a sweep to the sweeper thread and returns at once
+     * The interval is configurable with file.gc-interval (default 15 minutes); a run that
+     * is still busy when the next one is due is not doubled up
+     */
+    @Scheduled(initialDelayString = "${file.gc-initial-delay:PT5M}", fixedDelayString = "${file.gc-interval:PT15M}")
+    public void scheduledSweep() {
+        if (!properties.isGcEnabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            worker.execute(() -> {
+                try {
+                    sweep();
+                } catch (Exception e) {
+                    // Never let a failed sweep kill the sweeper thread
+                    System.err.println("Orphaned upload sweep failed: " + e.getMessage());
+                    e.printStackTrace();
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            running.set(false);
+        }
+    }
+
+    /**
+     * Stops the sweeper thread on shutdown
+     */
+    @Override
+    public void destroy() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Performs one incremental sweep
+     * Inspects at most gcBatchSize * gcMaxBatchesPerRun files, starting after the cursor
+     *
+     * @return The number of bytes reclaimed by this run
+     */
+    public long sweep() {
+        long started = System.currentTimeMillis();
+        Instant cutoff = Instant.now().minus(properties.getGcGracePeriod());
+        int batchSize = Math.max(1, properties.getGcBatchSize());
+        int maxFiles = batchSize * Math.max(1, properties.getGcMaxBatchesPerRun());
+
+        // Pick the next window of file names after the cursor (sorted so the cursor is stable)
+        List<String> window = nextWindow(cursor, maxFiles);
+        long reclaimed = 0;
+
+        for (int from = 0; from < window.size(); from += batchSize) {
+            List<String> batch = window.subList(from, Math.min(from + batchSize, window.size()));
+            reclaimed += sweepBatch(batch, cutoff);
+            cursor = batch.get(batch.size() - 1);
+
+            // Give request I/O room between batches
+            if (from + batchSize < window.size()) {
+                pause();
+            }
+        }
+
+        // A short window means we reached the end of the directory; start over next time
+        if (window.size() < maxFiles) {
+            cursor = null;
+        }
+
+        runs.incrementAndGet();
+        lastRunAt = Instant.now();
+        lastRunMillis = System.currentTimeMillis() - started;
+        lastRunBytesReclaimed = reclaimed;
+        if (reclaimed > 0) {
+            System.out.println("Orphaned upload sweep reclaimed " + reclaimed + " bytes in " + lastRunMillis + " ms");
+        }
+        return reclaimed;
+    }
+
+    /**
+     * Lists up to limit stored file names that sort after the given cursor
+     * Hidden files (such as storage metadata) are never candidates
+     * Lists the whole directory, but keeps only the smallest limit names while doing so
+     */
+    private List<String> nextWindow(String after, int limit) {
+        TreeSet<String> window = new TreeSet<>();
+        try (Stream<Path> files = storageService.loadAll()) {
+            files.forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.startsWith(".") || (after != null && name.compareTo(after) <= 0)) {
+                    return;
+                }
+                if (window.size() < limit) {
+                    window.add(name);
+                } else if (name.compareTo(window.last()) < 0) {
+                    window.add(name);
+                    window.pollLast();
+                }
+            });
+        }
+        return new ArrayList<>(window);
+    }
+
+    /**
+     * Checks one batch of file names and deletes those that are old enough and unreferenced
+     *
+     * @return The number of bytes reclaimed from this batch
+     */
+    private long sweepBatch(List<String> batch, Instant cutoff) {
+        // Only files past the grace period are candidates
+        List<String> candidates = new ArrayList<>();
+        for (String name : batch) {
+            filesScanned.incrementAndGet();
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(storageService.load(name), BasicFileAttributes.class);
+                if (attributes.isRegularFile() && attributes.lastModifiedTime().toInstant().isBefore(cutoff)) {
+                    candidates.add(name);
+                }
+            } catch (IOException e) {
+                // File vanished or is unreadable - skip it this round
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        // One query tells us which candidates are still in use
+        Set<String> referenced = paymentRepository.findReferencedProofs(candidates);
+
+        long reclaimed = 0;
+        for (String name : candidates) {
+            if (referenced.contains(name)) {
+                continue;
+            }
+            try {
+                long freed = storageService.delete(name);
+                if (freed > 0 || !Files.exists(storageService.load(name))) {
+                    filesDeleted.incrementAndGet();
+                    reclaimed += freed;
+                }
+            } catch (StorageException e) {
+                System.err.println("Could not delete orphaned upload " + name + ": " + e.getMessage());
+            }
+        }
+        bytesReclaimed.addAndGet(reclaimed);
+        return reclaimed;
+    }
+
+    /**
+     * Sleeps for the configured pause between batches
+     */
+    private void pause() {
+        long millis = properties.getGcBatchPause().toMillis();
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the sweeper statistics for reporting
+     *
+     * @return Map of counters and details about the last run
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isGcEnabled());
+        stats.put("gracePeriod", properties.getGcGracePeriod().toString());
+        stats.put("runs", runs.get());
+        stats.put("filesScanned", filesScanned.get());
+        stats.put("filesDeleted", filesDeleted.get());
+        stats.put("bytesReclaimed", bytesReclaimed.get());
+        stats.put("lastRunAt", lastRunAt != null ? lastRunAt.toString() : null);
+        stats.put("lastRunMillis", lastRunMillis);
+        stats.put("lastRunBytesReclaimed", lastRunBytesReclaimed);
+        stats.put("cursor", cursor);
+        return stats;
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Perceptual Hash
+ *
+ * This utility computes a 64-bit difference hash (dHash) for an uploaded image.
+ * Unlike a cryptographic hash, visually similar images (re-saved, re-compressed,
+ * slightly cropped or brightened screenshots) produce hashes that differ in only
+ * a few bits, so the Hamming distance between two hashes measures how alike the
+ * images look.
+ *
+ * How the hash is built:
+ * - The image is scaled down to 9x8 pixels and converted to grayscale
+ * - Each bit records whether a pixel is brighter than its right-hand neighbour
+ * - 8 rows x 8 comparisons = 64 bits
+ *
+ * This is used to spot payment proofs (e.g. GCash screenshots) that are reused
+ * across bookings. Formats ImageIO cannot decode simply produce no hash.
+ */
+package com.La.Visual.storage;
+
+// Import Java imaging classes for decoding and scaling
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+// Import Java I/O classes
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class PerceptualHash {
+
+    // The hash compares 9 columns per row to produce 8 bits per row
+    private static final int WIDTH = 9;
+    private static final int HEIGHT = 8;
+
+    // Static utility - no instances
+    private PerceptualHash() {
+    }
+
+    /**
+     * Computes the dHash of an image file
+     *
+     * @param file The image on disk
+     * @return The 64-bit hash, or null if the file is not an image ImageIO can read
+     * @throws IOException if the file cannot be read
+     */
+    public static Long dHash(Path file) throws IOException {
+        BufferedImage image;
+        try (InputStream in = Files.newInputStream(file)) {
+            image = ImageIO.read(in);
+        }
+        return image != null ? dHash(image) : null;
+    }
+
+    /**
+     * Computes the dHash of a decoded image
+     *
+     * @param image The decoded image
+     * @return The 64-bit hash
+     */
+    public static long dHash(BufferedImage image) {
+        // Scale down to 9x8 grayscale; the smoothing removes noise and compression artifacts
+        BufferedImage small = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = small.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, WIDTH, HEIGHT, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        // One bit per adjacent pixel pair: 1 if the left pixel is brighter
+        long hash = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH - 1; x++) {
+                int left = small.getRaster().getSample(x, y, 0);
+                int right = small.getRaster().getSample(x + 1, y, 0);
+                hash = (hash << 1) | (left > right ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Number of differing bits between two hashes
+     *
+     * @param a First hash
+     * @param b Second hash
+     * @return Hamming distance (0 = identical, 64 = inverted)
+     */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+}
@@ -0,0 +1,259 @@
+/**
+ * Proof Hash Index
+ *
+ * In-memory near-duplicate index over the perceptual hashes of payment proofs.
+ * Given a new hash it returns every stored proof within a small Hamming distance,
+ * without comparing against every stored hash.
+ *
+ * The index uses multi-index hashing:
+ * - Each 64-bit hash is split into four 16-bit chunks, and each chunk position has
+ *   its own table of 65,536 buckets holding entry numbers
+ * - If two hashes differ in at most 7 bits, at least one of their four chunks differs
+ *   in at most 1 bit (pigeonhole), so probing each chunk's exact bucket plus its 16
+ *   one-bit neighbours (68 bucket lookups in total) finds every candidate
+ * - Candidates are then verified with a full 64-bit popcount
+ *
+ * Entries are stored in parallel primitive arrays, so hundreds of thousands of proofs
+ * fit in a few megabytes and a lookup touches only a handful of short buckets.
+ *
+ * Like HotFileCache this is a plain helper; ProofHashService owns the instance,
+ * rebuilds it from the database at startup and keeps it up to date on uploads.
+ */
+package com.La.Visual.storage;
+
+// Import Java utility and concurrency classes
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class ProofHashIndex {
+
+    // Largest Hamming distance the 4 x 16-bit layout answers exactly (4 chunks x 1 bit + 3)
+    public static final int MAX_THRESHOLD = 7;
+
+    // Number of chunks per hash and bits per chunk
+    private static final int CHUNKS = 4;
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+    // Entry storage (parallel arrays, grown on demand); entry numbers index into these
+    private long[] hashes = new long[1024];
+    private int[] paymentIds = new int[1024];
+    private int[] bookingIds = new int[1024];
+    // Removed entries stay in the arrays and buckets but are skipped by queries
+    private boolean[] removed = new boolean[1024];
+    private int size;
+    private int liveCount;
+
+    // Payment ID -> entry number, so a re-uploaded proof replaces the old hash
+    private final Map<Integer, Integer> entryByPayment = new HashMap<>();
+
+    // buckets[chunk][chunkValue] = entry numbers (first bucketSizes[chunk][chunkValue] are used)
+    private final int[][][] buckets = new int[CHUNKS][1 << CHUNK_BITS][];
+    private final int[][] bucketSizes = new int[CHUNKS][1 << CHUNK_BITS];
+
+    // Readers (queries) run concurrently; writers (uploads, rebuild) are exclusive
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds or replaces the hash of a payment's proof
+     *
+     * @param paymentId The payment the proof belongs to
+     * @param bookingId The booking the payment belongs to
+     * @param hash The proof's perceptual hash
+     */
+    public void put(int paymentId, int bookingId, long hash) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = entryByPayment.get(paymentId);
+            if (previous != null && !removed[previous]) {
+                removed[previous] = true;
+                liveCount--;
+            }
+
+            ensureCapacity(size + 1);
+            int entry = size++;
+            hashes[entry] = hash;
+            paymentIds[entry] = paymentId;
+            bookingIds[entry] = bookingId;
+            entryByPayment.put(paymentId, entry);
+            liveCount++;
+
+            for (int chunk = 0; chunk < CHUNKS; chunk++) {
+                addToBucket(chunk, chunkOf(hash, chunk), entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all proofs that belong to a booking (e.g. after the booking was deleted)
+     *
+     * @param bookingId The deleted booking
+     * @return The number of entries removed
+     */
+    public int removeBooking(int bookingId) {
+        lock.writeLock().lock();
+        try {
+            int count = 0;
+            for (int entry = 0; entry < size; entry++) {
+                if (!removed[entry] && bookingIds[entry] == bookingId) {
+                    removed[entry] = true;
+                    entryByPayment.remove(paymentIds[entry]);
+                    liveCount--;
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds stored proofs whose hash is within the given Hamming distance
+     *
+     * @param hash The hash of the new proof
+     * @param threshold Maximum number of differing bits (capped at MAX_THRESHOLD)
+     * @param excludeBookingId Booking to ignore (the booking the new proof belongs to)
+     * @return Matches ordered by distance, closest first
+     */
+    public List<Match> findNear(long hash, int threshold, int excludeBookingId) {
+        int limit = Math.min(threshold, MAX_THRESHOLD);
+        List<Match> matches = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (int chunk = 0; chunk < CHUNKS; chunk++) {
+                int value = chunkOf(hash, chunk);
+                // The exact bucket, then every bucket one bit away
+                collect(chunk, value, hash, limit, excludeBookingId, matches);
+                for (int bit = 0; bit < CHUNK_BITS; bit++) {
+                    collect(chunk, value ^ (1 << bit), hash, limit, excludeBookingId, matches);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.comparingInt(Match::distance));
+        return matches;
+    }
+
+    /**
+     * Replaces the whole index content in one step (used when rebuilding from the database)
+     *
+     * @param paymentIds Payment IDs
+     * @param bookingIds Booking IDs, same order
+     * @param hashes Hashes, same order
+     */
+    public void replaceAll(int[] paymentIds, int[] bookingIds, long[] hashes) {
+        lock.writeLock().lock();
+        try {
+            clearLocked();
+            for (int i = 0; i < hashes.length; i++) {
+                put(paymentIds[i], bookingIds[i], hashes[i]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of live (not removed) proofs in the index
+     *
+     * @return Entry count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Checks bucket candidates and keeps those within the threshold (caller holds the read lock)
+    private void collect(int chunk, int value, long hash, int limit, int excludeBookingId, List<Match> matches) {
+        int[] bucket = buckets[chunk][value];
+        int count = bucketSizes[chunk][value];
+        for (int i = 0; i < count; i++) {
+            int entry = bucket[i];
+            if (removed[entry] || bookingIds[entry] == excludeBookingId) {
+                continue;
+            }
+            int distance = Long.bitCount(hashes[entry] ^ hash);
+            if (distance > limit || foundInEarlierChunk(hashes[entry], hash, chunk)) {
+                continue;
+            }
+            matches.add(new Match(paymentIds[entry], bookingIds[entry], distance));
+        }
+    }
+
+    // An entry within 1 bit on an earlier chunk was already reported by that chunk's probe
+    private static boolean foundInEarlierChunk(long stored, long query, int chunk) {
+        for (int earlier = 0; earlier < chunk; earlier++) {
+            if (Integer.bitCount(chunkOf(stored, earlier) ^ chunkOf(query, earlier)) <= 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Extracts one 16-bit chunk of a hash
+    private static int chunkOf(long hash, int chunk) {
+        return (int) (hash >>> (chunk * CHUNK_BITS)) & CHUNK_MASK;
+    }
+
+    // Appends an entry number to a bucket, growing it as needed (caller holds the write lock)
+    private void addToBucket(int chunk, int value, int entry) {
+        int[] bucket = buckets[chunk][value];
+        int count = bucketSizes[chunk][value];
+        if (bucket == null) {
+            bucket = new int[2];
+        } else if (count == bucket.length) {
+            bucket = Arrays.copyOf(bucket, count * 2);
+        }
+        bucket[count] = entry;
+        buckets[chunk][value] = bucket;
+        bucketSizes[chunk][value] = count + 1;
+    }
+
+    // Grows the entry arrays (caller holds the write lock)
+    private void ensureCapacity(int needed) {
+        if (needed <= hashes.length) {
+            return;
+        }
+        int capacity = Math.max(needed, hashes.length * 2);
+        hashes = Arrays.copyOf(hashes, capacity);
+        paymentIds = Arrays.copyOf(paymentIds, capacity);
+        bookingIds = Arrays.copyOf(bookingIds, capacity);
+        removed = Arrays.copyOf(removed, capacity);
+    }
+
+    // Drops all entries (caller holds the write lock)
+    private void clearLocked() {
+        size = 0;
+        liveCount = 0;
+        entryByPayment.clear();
+        for (int chunk = 0; chunk < CHUNKS; chunk++) {
+            Arrays.fill(buckets[chunk], null);
+            Arrays.fill(bucketSizes[chunk], 0);
+        }
+    }
+
+    /**
+     * A stored proof that is close to the queried hash
+     *
+     * @param paymentId Payment the stored proof belongs to
+     * @param bookingId Booking the stored proof belongs to
+     * @param distance Number of differing hash bits
+     */
+    public record Match(int paymentId, int bookingId, int distance) {
+    }
+}
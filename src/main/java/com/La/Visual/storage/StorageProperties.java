@@ -20,12 +20,50 @@ package com.La.Visual.storage;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+// Import Spring's DataSize for byte-based settings
+import org.springframework.util.unit.DataSize;
+
+// Import Java time API for duration-based settings
+import java.time.Duration;
+
 // Binds all properties with the prefix "file." from application.properties to fields in this class
 @ConfigurationProperties("file")
 public class StorageProperties {
     // Default upload directory if none specified in configuration
     // This provides a fallback location for storing files
     private String uploadDir = "upload-dir";
+
+    // Orphaned upload sweeper settings (file.gc-*)
+    // Whether the background sweeper is allowed to delete unreferenced uploads
+    private boolean gcEnabled = true;
+    // How old an unreferenced file must be before it is considered orphaned
+    // Protects uploads whose booking insert is still in flight
+    private Duration gcGracePeriod = Duration.ofHours(24);
+    // Number of files inspected (and looked up in the database) per batch
+    private int gcBatchSize = 200;
+    // Upper bound on batches per sweep so a single run never monopolizes the disk
+    private int gcMaxBatchesPerRun = 10;
+    // Pause between batches to keep the sweeper from competing with request I/O
+    private Duration gcBatchPause = Duration.ofMillis(250);
+
+    // Hot-file cache settings (file.cache-*)
+    // Whether frequently viewed files are served from memory
+    private boolean cacheEnabled = true;
+    // Total off-heap memory the cache may use for file contents
+    private DataSize cacheMaxBytes = DataSize.ofMegabytes(64);
+    // Files larger than this are never cached (admission threshold)
+    private DataSize cacheMaxEntryBytes = DataSize.ofMegabytes(2);
+
+    // Maximum Hamming distance between proof hashes that counts as "same image" (0-7)
+    private int proofMatchThreshold = 6;
+
+    // Secret used to sign file URLs (file.url-signing-key); random per run when blank
+    private String urlSigningKey = "";
+    // How long a signed file URL stays valid
+    private Duration urlTtl = Duration.ofMinutes(15);
+
+    // Whether the upload directory is wiped on every startup (development only)
+    private boolean resetOnStartup = false;
     
     /**
      * Gets the configured upload directory location
@@ -48,4 +86,196 @@ public class StorageProperties {
     public void setLocation(String location) {
         this.uploadDir = location;
     }
-}
\ No newline at end of file
+
+    /**
+     * Whether the orphaned upload sweeper may delete files
+     * @return true if sweeping is enabled
+     */
+    public boolean isGcEnabled() {
+        return gcEnabled;
+    }
+
+    /**
+     * Enables or disables the orphaned upload sweeper
+     * @param gcEnabled true to allow deletions
+     */
+    public void setGcEnabled(boolean gcEnabled) {
+        this.gcEnabled = gcEnabled;
+    }
+
+    /**
+     * Minimum age of an unreferenced file before it is deleted
+     * @return the grace period
+     */
+    public Duration getGcGracePeriod() {
+        return gcGracePeriod;
+    }
+
+    /**
+     * Sets the minimum age of an unreferenced file before it is deleted
+     * @param gcGracePeriod the grace period (e.g. "24h")
+     */
+    public void setGcGracePeriod(Duration gcGracePeriod) {
+        this.gcGracePeriod = gcGracePeriod;
+    }
+
+    /**
+     * Number of files inspected per sweeper batch
+     * @return the batch size
+     */
+    public int getGcBatchSize() {
+        return gcBatchSize;
+    }
+
+    /**
+     * Sets the number of files inspected per sweeper batch
+     * @param gcBatchSize the batch size
+     */
+    public void setGcBatchSize(int gcBatchSize) {
+        this.gcBatchSize = gcBatchSize;
+    }
+
+    /**
+     * Maximum number of batches processed in a single sweep
+     * @return the batch limit per run
+     */
+    public int getGcMaxBatchesPerRun() {
+        return gcMaxBatchesPerRun;
+    }
+
+    /**
+     * Sets the maximum number of batches processed in a single sweep
+     * @param gcMaxBatchesPerRun the batch limit per run
+     */
+    public void setGcMaxBatchesPerRun(int gcMaxBatchesPerRun) {
+        this.gcMaxBatchesPerRun = gcMaxBatchesPerRun;
+    }
+
+    /**
+     * Pause inserted between sweeper batches
+     * @return the pause duration
+     */
+    public Duration getGcBatchPause() {
+        return gcBatchPause;
+    }
+
+    /**
+     * Sets the pause inserted between sweeper batches
+     * @param gcBatchPause the pause duration (e.g. "250ms")
+     */
+    public void setGcBatchPause(Duration gcBatchPause) {
+        this.gcBatchPause = gcBatchPause;
+    }
+
+    /**
+     * Whether the in-memory hot-file cache is used
+     * @return true if the cache is enabled
+     */
+    public boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    /**
+     * Enables or disables the in-memory hot-file cache
+     * @param cacheEnabled true to serve hot files from memory
+     */
+    public void setCacheEnabled(boolean cacheEnabled) {
+        this.cacheEnabled = cacheEnabled;
+    }
+
+    /**
+     * Total byte budget of the hot-file cache
+     * @return the cache budget
+     */
+    public DataSize getCacheMaxBytes() {
+        return cacheMaxBytes;
+    }
+
+    /**
+     * Sets the total byte budget of the hot-file cache
+     * @param cacheMaxBytes the cache budget (e.g. "64MB")
+     */
+    public void setCacheMaxBytes(DataSize cacheMaxBytes) {
+        this.cacheMaxBytes = cacheMaxBytes;
+    }
+
+    /**
+     * Largest file size admitted into the hot-file cache
+     * @return the admission threshold
+     */
+    public DataSize getCacheMaxEntryBytes() {
+        return cacheMaxEntryBytes;
+    }
+
+    /**
+     * Sets the largest file size admitted into the hot-file cache
+     * @param cacheMaxEntryBytes the admission threshold (e.g. "2MB")
+     */
+    public void setCacheMaxEntryBytes(DataSize cacheMaxEntryBytes) {
+        this.cacheMaxEntryBytes = cacheMaxEntryBytes;
+    }
+
+    /**
+     * Whether all stored files are deleted when the application starts
+     * @return true if storage is reset on startup
+     */
+    public boolean isResetOnStartup() {
+        return resetOnStartup;
+    }
+
+    /**
+     * Enables or disables wiping the upload directory on startup
+     * @param resetOnStartup true to start with empty storage (loses all uploads)
+     */
+    public void setResetOnStartup(boolean resetOnStartup) {
+        this.resetOnStartup = resetOnStartup;
+    }
+
+    /**
+     * Largest perceptual hash distance at which two payment proofs are flagged as the same image
+     * @return the match threshold in bits
+     */
+    public int getProofMatchThreshold() {
+        return proofMatchThreshold;
+    }
+
+    /**
+     * Sets the perceptual hash distance used to flag reused payment proofs
+     * @param proofMatchThreshold the match threshold in bits (0-7; 0 = identical images only)
+     */
+    public void setProofMatchThreshold(int proofMatchThreshold) {
+        this.proofMatchThreshold = proofMatchThreshold;
+    }
+
+    /**
+     * Secret key used to sign file URLs
+     * @return the signing key (blank means a random key is generated at startup)
+     */
+    public String getUrlSigningKey() {
+        return urlSigningKey;
+    }
+
+    /**
+     * Sets the secret key used to sign file URLs
+     * @param urlSigningKey the signing key (keep it out of version control in production)
+     */
+    public void setUrlSigningKey(String urlSigningKey) {
+        this.urlSigningKey = urlSigningKey;
+    }
+
+    /**
+     * How long a signed file URL stays valid
+     * @return the URL lifetime
+     */
+    public Duration getUrlTtl() {
+        return urlTtl;
+    }
+
+    /**
+     * Sets how long a signed file URL stays valid
+     * @param urlTtl the URL lifetime (e.g. "15m")
+     */
+    public void setUrlTtl(Duration urlTtl) {
+        this.urlTtl = urlTtl;
+    }
+}
@@ -25,6 +25,8 @@ import org.springframework.web.multipart.MultipartFile;
 
 // Import Java's file path handling and stream API
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
 import java.util.stream.Stream;
 
 // Interface defining the contract for all storage implementations
@@ -75,9 +77,27 @@ public interface StorageService {
      */
     Resource loadAsResource(String filename);
 
+    /**
+     * Deletes a single file from storage
+     * Missing files are ignored so callers can use this for best-effort cleanup
+     *
+     * @param filename The name of the file to delete
+     * @return The number of bytes freed (0 if the file did not exist)
+     */
+    long delete(String filename);
+
     /**
      * Deletes all files in storage
      * Typically used for cleanup or resetting the storage system
      */
     void deleteAll();
+
+    /**
+     * Returns statistics for any in-memory caching done by the implementation
+     * 
+     * @return Map of cache metrics (empty if the implementation does not cache)
+     */
+    default Map<String, Object> getCacheStats() {
+        return Collections.emptyMap();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+/**
+ * Payment proof perceptual hashes
+ *
+ * payments.proof_hash stores the 64-bit dHash of the uploaded proof image, used to
+ * rebuild the in-memory near-duplicate index at startup.
+ * bookings.proof_duplicate_of points at an earlier booking whose proof looks the same,
+ * so admins can review possible reuse of a payment screenshot.
+ */
+
+ALTER TABLE payments ADD COLUMN IF NOT EXISTS proof_hash BIGINT NULL;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS proof_duplicate_of INT NULL;
@@ -0,0 +1,26 @@
+/**
+ * Booking change tracking
+ *
+ * bookings.updated_at and payments.updated_at are maintained by the database on every
+ * insert and update (millisecond precision), and indexed so admin clients can ask for
+ * "rows changed since" without scanning the tables.
+ * booking_tombstones records bookings removed through BookingRepository.deleteById, so
+ * the same clients also learn about deletions.
+ */
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(3) NOT NULL
+    DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_updated_at ON bookings(updated_at);
+
+ALTER TABLE payments ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(3) NOT NULL
+    DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+
+CREATE INDEX IF NOT EXISTS idx_payments_updated_at ON payments(updated_at);
+
+-- One row per deleted booking; old rows are purged after the retention period
+CREATE TABLE IF NOT EXISTS booking_tombstones (
+    booking_id INT PRIMARY KEY,                                 -- The deleted booking
+    deleted_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), -- When it was deleted
+    INDEX idx_booking_tombstones_deleted_at (deleted_at)
+);
@@ -0,0 +1,25 @@
+/**
+ * Indexes for the booking and payment queries
+ *
+ * Every repository query that filters bookings by date, status or guest email, and
+ * every lookup of payments by booking, used to scan the whole table.
+ *
+ * idx_bookings_date_status_time leads with booking_date and also holds the status and
+ * both times. It serves the per-date, per-month and upcoming queries as well as the
+ * overlap check, and covers the booked-slots query completely (no row lookups).
+ */
+
+-- findByDate, findOverlappingBookings, findApprovedBookingsByDate,
+-- findApprovedBookingsInMonth, findUpcomingBookings, findBookedSlots (covering)
+CREATE INDEX IF NOT EXISTS idx_bookings_date_status_time
+    ON bookings(booking_date, booking_status, booking_time_start, booking_time_end);
+
+-- findByStatus (ORDER BY booking_date DESC is read from the index)
+CREATE INDEX IF NOT EXISTS idx_bookings_status_date ON bookings(booking_status, booking_date);
+
+-- findByGuestEmail (ORDER BY booking_date DESC is read from the index)
+CREATE INDEX IF NOT EXISTS idx_bookings_guest_email_date ON bookings(guest_email, booking_date);
+
+-- PaymentRepository.findByBookingId (ORDER BY payment_date DESC is read from the index);
+-- also serves the payments.booking_id foreign key
+CREATE INDEX IF NOT EXISTS idx_payments_booking_date ON payments(booking_id, payment_date);
@@ -0,0 +1,9 @@
+/**
+ * Booking admin notes
+ *
+ * BookingRepository has always written bookings.admin_notes (approval notes and
+ * rejection reasons), but the baseline schema only mentions the column in a comment.
+ * Make sure it exists on every database.
+ */
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS admin_notes TEXT NULL;
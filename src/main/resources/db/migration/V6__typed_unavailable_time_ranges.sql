@@ -0,0 +1,26 @@
+/**
+ * Typed columns for unavailable time ranges
+ *
+ * unavailable_time_ranges stored its date and times as VARCHAR ("2025-06-02",
+ * "09:00"), so every comparison was a string comparison and the table could only be
+ * looked up by exact date. The columns become DATE and TIME; the existing values are
+ * converted in place (MariaDB parses both "HH:MM" and "HH:MM:SS").
+ *
+ * The single-column date index is replaced by (date, start_time), which serves the
+ * per-date lookup, month and date-range fetches, and returns the rows already sorted.
+ */
+
+-- Values were written by the admin schedule editor; drop stray whitespace before converting
+UPDATE unavailable_time_ranges
+   SET date = TRIM(date), start_time = TRIM(start_time), end_time = TRIM(end_time);
+
+ALTER TABLE unavailable_time_ranges
+    MODIFY COLUMN date DATE NOT NULL,        -- Blocked date
+    MODIFY COLUMN start_time TIME NOT NULL,  -- Start of the blocked range
+    MODIFY COLUMN end_time TIME NOT NULL;    -- End of the blocked range
+
+DROP INDEX IF EXISTS idx_unavailable_time_ranges_date ON unavailable_time_ranges;
+
+-- findByDate, findByDates, findBlockedRangesBetween, findBlockedRangesInMonth
+CREATE INDEX IF NOT EXISTS idx_unavailable_time_ranges_date_start
+    ON unavailable_time_ranges(date, start_time);
@@ -0,0 +1,31 @@
+/**
+ * Recurring availability rules
+ *
+ * Blocking every Sunday or every weekday morning used to mean writing one
+ * unavailable_time_ranges row per date, forever. A rule stores the pattern once:
+ * which weekdays, which time of day, from when until when (open-ended if
+ * valid_until is NULL) and every how many weeks. Single dates can be excluded
+ * from a rule (for example a Sunday that is open after all).
+ *
+ * Rules are expanded in memory when a date is queried, never materialized as rows.
+ */
+
+CREATE TABLE IF NOT EXISTS availability_rules (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    label VARCHAR(100) NOT NULL,                      -- Shown to admins (e.g., "Sunday rest day")
+    days_of_week TINYINT UNSIGNED NOT NULL,           -- Bit 0 = Monday ... bit 6 = Sunday
+    start_time TIME NOT NULL,                         -- Start of the blocked range
+    end_time TIME NOT NULL,                           -- End of the blocked range (00:00 = midnight)
+    valid_from DATE NOT NULL,                         -- First date the rule applies to
+    valid_until DATE NULL,                            -- Last date the rule applies to (NULL = no end)
+    interval_weeks TINYINT UNSIGNED NOT NULL DEFAULT 1, -- 1 = every week, 2 = every other week, ...
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP    -- When the rule was created
+);
+
+-- Dates on which a rule does not apply
+CREATE TABLE IF NOT EXISTS availability_rule_exceptions (
+    rule_id INT NOT NULL,
+    exception_date DATE NOT NULL,
+    PRIMARY KEY (rule_id, exception_date),
+    FOREIGN KEY (rule_id) REFERENCES availability_rules(id) ON DELETE CASCADE
+);
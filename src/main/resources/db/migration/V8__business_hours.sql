@@ -0,0 +1,41 @@
+/**
+ * Business hours
+ *
+ * Booking times used to be accepted for any time of day. The business-hours
+ * template defines when the studio takes bookings: one or more opening windows
+ * per weekday, whole-day holidays, and the slot granularity that start and end
+ * times must align to.
+ *
+ * The seed opens every weekday around the clock in 1-minute slots, so every time
+ * that was accepted before (09:15, 10:47, ...) is still accepted until an admin
+ * edits the template, for example to restrict bookings to 30-minute slots.
+ */
+
+-- Opening windows per weekday (several rows per day for split shifts)
+CREATE TABLE IF NOT EXISTS business_hours (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    day_of_week TINYINT UNSIGNED NOT NULL,   -- 1 = Monday ... 7 = Sunday
+    open_time TIME NOT NULL,                 -- Start of the window
+    close_time TIME NOT NULL,                -- End of the window (00:00 = midnight)
+    INDEX idx_business_hours_day (day_of_week)
+);
+
+-- Dates on which no bookings are taken
+CREATE TABLE IF NOT EXISTS business_holidays (
+    holiday_date DATE PRIMARY KEY,
+    label VARCHAR(100) NOT NULL              -- Shown to admins and guests (e.g., "Christmas Day")
+);
+
+-- Single-row settings of the template
+CREATE TABLE IF NOT EXISTS business_calendar_settings (
+    id TINYINT UNSIGNED PRIMARY KEY,         -- Always 1
+    slot_minutes SMALLINT UNSIGNED NOT NULL  -- Booking times align to this many minutes
+);
+
+INSERT IGNORE INTO business_calendar_settings (id, slot_minutes) VALUES (1, 1);
+
+INSERT INTO business_hours (day_of_week, open_time, close_time)
+SELECT d.day, '00:00:00', '00:00:00'
+FROM (SELECT 1 AS day UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+      UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7) d
+WHERE NOT EXISTS (SELECT 1 FROM business_hours);
@@ -18,7 +18,7 @@
  * booking requests before they are confirmed and added to the schedule.
  */
 
-import React, { useState, useEffect } from 'react'; // Import React and core hooks
+import React, { useState, useEffect, useRef } from 'react'; // Import React and core hooks
 import axios from 'axios'; // Import axios for making HTTP requests
 import emailjs from '@emailjs/browser'; // Import emailjs for sending notification emails
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome'; // Import FontAwesome component
@@ -43,9 +43,62 @@ function PendingBookings() {
     // State to track when an approval/rejection action is in progress
     const [actionInProgress, setActionInProgress] = useState(false);
 
-    // Fetch pending bookings when component mounts
+    // Latest list, read by the stream handler (which is registered once)
+    const pendingBookingsRef = useRef([]);
+    useEffect(() => {
+        pendingBookingsRef.current = pendingBookings;
+    }, [pendingBookings]);
+
+    // Fetch pending bookings when component mounts, then keep the list current from the
+    // server's change stream (instead of polling). Bookings that leave PENDING are removed
+    // locally; the list is only reloaded for new or edited pending bookings (their payment
+    // details are not in the delta), on (re)connect and on resync.
     useEffect(() => {
         fetchPendingBookings();
+        
+        const source = new EventSource('http://localhost:8080/api/bookings/stream');
+        let connected = false;
+        // Several changes in a row (e.g. an import) cause a single reload
+        let reloadTimer = null;
+        const scheduleReload = () => {
+            clearTimeout(reloadTimer);
+            reloadTimer = setTimeout(fetchPendingBookings, 500);
+        };
+        
+        // Applies one booking delta to the pending list
+        const applyDelta = (event) => {
+            let delta;
+            try {
+                delta = JSON.parse(event.data);
+            } catch (err) {
+                scheduleReload();
+                return;
+            }
+            const listed = pendingBookingsRef.current.some(b => b.bookingId === delta.id);
+            if (delta.change === 'DELETED' || (delta.status && delta.status !== 'PENDING')) {
+                // No longer pending - drop it without asking the server
+                if (listed) {
+                    setPendingBookings(prev => prev.filter(b => b.bookingId !== delta.id));
+                }
+            } else if (delta.change === 'CREATED' || listed) {
+                scheduleReload();
+            }
+        };
+        
+        // "ready" is sent on every (re)connect - after a reconnect changes may have been missed
+        source.addEventListener('ready', () => {
+            if (connected) scheduleReload();
+            connected = true;
+        });
+        source.addEventListener('booking', applyDelta);
+        // Sent when this client fell too far behind and deltas were dropped
+        source.addEventListener('resync', scheduleReload);
+        
+        // Close the stream when the component unmounts
+        return () => {
+            clearTimeout(reloadTimer);
+            source.close();
+        };
     }, []);
 
     // Function to fetch all pending bookings from the backend API
@@ -458,14 +511,18 @@ function PendingBookings() {
                             <div className="space-y-4">
                                 <h4 className="text-lg font-medium text-white border-b border-gray-600 pb-2">Payment Proof</h4>
 
+                                {/* Warn when the same proof image was already used for another booking */}
+                                {selectedBooking.booking.proofDuplicateOf && (
+                                    <div className="p-3 rounded bg-yellow-900 text-yellow-200 text-sm">
+                                        This payment proof looks the same as the proof of booking ID {selectedBooking.booking.proofDuplicateOf}. Please verify the payment before approving.
+                                    </div>
+                                )}
+
                                 {/* Display payment proof image if available */}
-                                {selectedBooking.paymentProofUrl ? (
-                                    <PaymentProofViewer 
-                                        proofUrl={selectedBooking.paymentProofUrl} 
-                                    />
-                                ) : selectedBooking.payment && selectedBooking.payment.paymentProof ? (
+                                {/* The viewer signs a bare file name itself, since unsigned file URLs are rejected */}
+                                {selectedBooking.paymentProofUrl || selectedBooking.payment?.paymentProof ? (
                                     <PaymentProofViewer 
-                                        proofUrl={selectedBooking.payment.paymentProof} 
+                                        proofUrl={selectedBooking.paymentProofUrl || selectedBooking.payment.paymentProof} 
                                     />
                                 ) : (
                                     <div className="bg-gray-700 p-4 rounded-lg text-center text-gray-400">
@@ -6,7 +6,8 @@
  * as evidence of payment.
  * 
  * Key features:
- * - Handles different URL formats and transforms them to proper image URLs
+ * - Uses signed URLs only: an unsigned URL or bare filename is exchanged for a signed
+ *   one through GET /api/files/signed-url/{fileName}
  * - Shows a loading spinner while the image is being fetched
  * - Provides error handling with fallback image for missing or inaccessible files
  * - Allows opening the full-size image in a new tab
@@ -17,6 +18,7 @@
  */
 
 import React, { useState, useEffect } from 'react'; // Import React and hooks for state and side effects
+import axios from 'axios'; // Import axios for requesting signed URLs
 
 function PaymentProofViewer({ proofUrl, altText = "Payment Proof" }) {
     // State for tracking image loading process
@@ -24,30 +26,51 @@ function PaymentProofViewer({ proofUrl, altText = "Payment Proof" }) {
     const [error, setError] = useState(false); // Tracks if there was an error loading the image
     const [fullUrl, setFullUrl] = useState(''); // Stores the processed URL for the image
     
-    // Process the URL when the component mounts or when proofUrl changes
+    // Resolve a signed image URL when the component mounts or when proofUrl changes.
+    // /api/files/view/** only serves signed URLs, so an unsigned URL or a bare filename
+    // is exchanged for a signed one through the admin signed-url endpoint.
     useEffect(() => {
-        if (proofUrl) {
-            console.log("Original payment proof URL:", proofUrl); // Log for debugging
-            
-            // Handle different URL formats
-            let formattedUrl;
-            
-            if (proofUrl.startsWith('http')) {
-                // Already a full URL - use as is
-                formattedUrl = proofUrl;
-            } else if (proofUrl.startsWith('/api/')) {
-                // Relative URL starting with /api/ - prepend server base URL
-                formattedUrl = `http://localhost:8080${proofUrl}`;
-            } else {
-                // Just a filename - construct full API endpoint URL
-                formattedUrl = `http://localhost:8080/api/files/view/${proofUrl}`;
-            }
-            
-            console.log("Formatted payment proof URL:", formattedUrl); // Log processed URL
-            setFullUrl(formattedUrl); // Update state with formatted URL
-        } else {
+        let cancelled = false; // Ignore a late answer after proofUrl changed or the viewer closed
+        setLoading(true);
+        setError(false);
+        setFullUrl('');
+        
+        if (!proofUrl) {
             console.warn("No payment proof URL provided"); // Warning if no URL was provided
+            setLoading(false);
+            setError(true);
+            return;
+        }
+        
+        if (proofUrl.includes('sig=')) {
+            // Already signed - prepend the server base URL to relative URLs
+            setFullUrl(proofUrl.startsWith('http') ? proofUrl : `http://localhost:8080${proofUrl}`);
+            return;
         }
+        
+        // Only the file name is known - strip any path or query and ask for a signed URL
+        const fileName = decodeURIComponent(proofUrl.split('?')[0].split('/').pop());
+        const token = localStorage.getItem('token'); // Get auth token
+        axios.get(`http://localhost:8080/api/files/signed-url/${encodeURIComponent(fileName)}`, {
+            headers: { Authorization: `Bearer ${token}` }
+        })
+            .then(response => {
+                if (cancelled) return;
+                if (response.data.success) {
+                    setFullUrl(`http://localhost:8080${response.data.data.viewUrl}`);
+                } else {
+                    setLoading(false);
+                    setError(true);
+                }
+            })
+            .catch(err => {
+                if (cancelled) return;
+                console.error("Could not get a signed URL for payment proof:", err);
+                setLoading(false);
+                setError(true);
+            });
+        
+        return () => { cancelled = true; };
     }, [proofUrl]); // Only re-run when proofUrl changes
     
     // Called when the image successfully loads
@@ -86,8 +109,8 @@ function PaymentProofViewer({ proofUrl, altText = "Payment Proof" }) {
                 </div>
             )}
             
-            {/* The actual image element */}
-            <img 
+            {/* The actual image element (rendered once a signed URL is known) */}
+            {fullUrl && <img 
                 src={fullUrl} // Use the processed URL
                 alt={altText} // Use provided alt text or default
                 className={`w-full max-h-60 object-contain rounded ${!error ? "cursor-pointer" : ""}`} // Make clickable if no error
@@ -95,7 +118,7 @@ function PaymentProofViewer({ proofUrl, altText = "Payment Proof" }) {
                 onClick={openFullSize} // Open full size on click
                 onLoad={handleImageLoad} // Handle successful load
                 onError={handleImageError} // Handle loading failure
-            />
+            />}
             
             {/* Instruction message shown when image is loaded successfully */}
             {!error && !loading && (
@@ -13,7 +13,7 @@
  * made to booking details.
  */
 
-import React, {useState} from 'react'; // Import React and useState hook
+import React, {useState, useEffect} from 'react'; // Import React, useState and useEffect hooks
 import UpdateSchedule from './UpdateSchedule'; // Import the UpdateSchedule component for editing bookings
 
 function ShowScheduleDetails({ booking, onClose, onUpdate }) {
@@ -37,6 +37,25 @@ function ShowScheduleDetails({ booking, onClose, onUpdate }) {
         id
     } = booking || {}; // Use empty object as fallback if booking is null/undefined
 
+    // Signed URL for the payment proof image (file URLs must be signed by the server)
+    const [proofUrl, setProofUrl] = useState(null);
+
+    // Request a short-lived signed URL whenever the displayed payment proof changes
+    useEffect(() => {
+        const fileName = paymentDetails?.paymentProof;
+        if (!fileName) {
+            setProofUrl(null);
+            return;
+        }
+        const token = localStorage.getItem('token');
+        fetch(`http://localhost:8080/api/files/signed-url/${encodeURIComponent(fileName)}`, {
+            headers: { 'Authorization': `Bearer ${token}` }
+        })
+            .then(response => response.json())
+            .then(result => setProofUrl(result.success ? `http://localhost:8080${result.data.downloadUrl}` : null))
+            .catch(error => console.error('Could not get payment proof URL:', error));
+    }, [paymentDetails?.paymentProof]);
+
     // Format date for display - converts ISO date to locale-specific format
     const formatDate = (dateString) => {
         if (!dateString) return ''; // Return empty string if date is not provided
@@ -249,15 +268,15 @@ function ShowScheduleDetails({ booking, onClose, onUpdate }) {
                         )}
                         
                         {/* Payment Proof - shows image if available */}
-                        {paymentDetails?.paymentProof && (
+                        {paymentDetails?.paymentProof && proofUrl && (
                             <div className="mb-4">
                                 <h4 className="text-sm text-gray-400 mb-2">Payment Proof</h4>
                                 <div className="p-3 rounded-lg border border-gray-600 bg-gray-700/50">
                                     <img 
-                                        src={`/api/files/download/${paymentDetails.paymentProof}`}
+                                        src={proofUrl}
                                         alt="Payment Proof" 
                                         className="w-full rounded"
-                                        onClick={() => window.open(`/api/files/download/${paymentDetails.paymentProof}`, '_blank')}
+                                        onClick={() => window.open(proofUrl, '_blank')}
                                         style={{ cursor: 'pointer' }}
                                         onError={(e) => {
                                             console.log("Admin view: Image failed to load");
@@ -29,9 +29,9 @@ function BookingConfirmation({ bookingData }) {
 
   // Effect to handle loading the payment proof image when component mounts or bookingData changes
   useEffect(() => {
-    if (bookingData.paymentProof) {
+    if (bookingData.paymentProofUrl) {
       const img = new Image(); // Create a new image object to preload
-      img.src = `/api/files/download/${bookingData.paymentProof}`; // Set source to API endpoint
+      img.src = bookingData.paymentProofUrl; // Signed URL returned when the booking was created
       img.onload = () => {
         // When image loads successfully, update states
         setImageLoaded(true);
@@ -42,7 +42,7 @@ function BookingConfirmation({ bookingData }) {
         setImageSrc('/images/payment-placeholder.png');
       };
     }
-  }, [bookingData.paymentProof]); // Only re-run if payment proof changes
+  }, [bookingData.paymentProofUrl]); // Only re-run if payment proof changes
 
   // Helper function to convert time from 24-hour format to 12-hour AM/PM format
   const formatTime = (timeString) => {
@@ -188,7 +188,8 @@ function BookingSummary({ onBack, data, onComplete }) {
           bookingId: bookingResult.data.bookingId,
           reference: bookingResult.data.bookingReference || data.reference,
           paymentProofUploaded: true,
-          paymentProof: bookingResult.data.paymentProof
+          paymentProof: bookingResult.data.paymentProof,
+          paymentProofUrl: bookingResult.data.paymentProofUrl // Short-lived signed URL for the proof image
         };
         
         // Call parent component's completion handler with final data
@@ -16,7 +16,7 @@
  * management functions from its parent component.
  */
 
-import { useState, useEffect } from 'react'; // Import React hooks for state management and side effects
+import { useState, useEffect, useRef } from 'react'; // Import React hooks for state management and side effects
 import axios from 'axios'; // Import axios for making HTTP requests
 import 'react-calendar/dist/Calendar.css'; // Import base calendar styling
 import CalendarComp from './CalendarComp'; // Import custom calendar component
@@ -50,9 +50,79 @@ function DateTimeSelection({ onNext, onBack, updateData, data }) {
   // Extract package duration from the data passed from parent component
   const packageDuration = data.packageDetails?.hours || 4; // Default to 4 hours if not specified
 
-  // Fetch booked time slots when component mounts
+  // Latest slot list, read by the stream handler (which is registered once)
+  const bookedTimeSlotsRef = useRef([]);
+  useEffect(() => {
+    bookedTimeSlotsRef.current = bookedTimeSlots;
+  }, [bookedTimeSlots]);
+
+  // Fetch booked time slots when component mounts, then keep them current from the
+  // server's change stream (instead of polling). Deltas are applied locally; the list is
+  // only reloaded on (re)connect, on resync, or when a delta is not enough on its own.
   useEffect(() => {
     fetchConfirmedBookedTimeSlots();
+    
+    const source = new EventSource('http://localhost:8080/api/bookings/stream');
+    let connected = false;
+    // Several changes in a row (e.g. an import) cause a single reload
+    let reloadTimer = null;
+    const scheduleReload = () => {
+      clearTimeout(reloadTimer);
+      reloadTimer = setTimeout(fetchConfirmedBookedTimeSlots, 500);
+    };
+    
+    // Applies one booking delta to the CONFIRMED slot list
+    const applyDelta = (event) => {
+      let delta;
+      try {
+        delta = JSON.parse(event.data);
+      } catch (err) {
+        scheduleReload();
+        return;
+      }
+      if (!delta.date) {
+        scheduleReload();
+        return;
+      }
+      const slot = { date: delta.date, startTime: delta.start, endTime: delta.end };
+      const sameSlot = (s) => s.date === slot.date && s.startTime === slot.startTime && s.endTime === slot.endTime;
+      const remove = () => setBookedTimeSlots(prev => prev.filter(s => !sameSlot(s)));
+      
+      switch (delta.change) {
+        case 'CREATED':
+        case 'STATUS_CHANGED':
+          if (delta.status === 'CONFIRMED') {
+            setBookedTimeSlots(prev => (prev.some(sameSlot) ? prev : [...prev, slot]));
+          } else if (delta.status === 'COMPLETED') {
+            remove(); // Only confirmed bookings can be completed
+          } else if (delta.status === 'CANCELLED' && bookedTimeSlotsRef.current.some(sameSlot)) {
+            scheduleReload(); // It may have been pending - let the server decide
+          }
+          // Pending bookings are not shown on this page
+          break;
+        case 'DELETED':
+          if (delta.status === 'CONFIRMED') remove();
+          break;
+        default:
+          // Moved or edited: the previous times are not in the delta
+          if (delta.status === 'CONFIRMED') scheduleReload();
+      }
+    };
+    
+    // "ready" is sent on every (re)connect - after a reconnect changes may have been missed
+    source.addEventListener('ready', () => {
+      if (connected) scheduleReload();
+      connected = true;
+    });
+    source.addEventListener('booking', applyDelta);
+    // Sent when this client fell too far behind and deltas were dropped
+    source.addEventListener('resync', scheduleReload);
+    
+    // Close the stream when the component unmounts
+    return () => {
+      clearTimeout(reloadTimer);
+      source.close();
+    };
   }, []);
   
   // Function to fetch existing bookings from the API
@@ -79,17 +149,12 @@ function DateTimeSelection({ onNext, onBack, updateData, data }) {
       
       // Process successful API response
       if (response.data && response.data.success) {
-        // Filter and map API data to the format needed by this component
-        const formattedSlots = response.data.data.bookings
-          .filter(booking => 
-            booking.bookingStatus === "CONFIRMED" || booking.bookingStatus === "APPROVED"
-          )
-          .map(booking => ({
-            date: booking.bookingDate, 
-            startTime: booking.bookingTimeStart,
-            endTime: booking.bookingTimeEnd,
-            bookingId: booking.bookingId
-          }));
+        // The API returns compact [date, start, end] tuples (already filtered by status)
+        const formattedSlots = response.data.data.slots.map(([date, startTime, endTime]) => ({
+          date,
+          startTime,
+          endTime
+        }));
         
         setBookedTimeSlots(formattedSlots); // Save formatted booking data
       } else {
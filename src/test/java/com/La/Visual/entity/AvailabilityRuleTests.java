@@ -0,0 +1,132 @@
+/**
+ * Availability Rule Tests
+ *
+ * Checks AvailabilityRule.appliesOn, in particular the week-interval arithmetic:
+ * weeks are counted from the Monday of the week validFrom falls in, so an
+ * every-other-week rule that starts mid-week still applies to the rest of its first
+ * week, skips the next one, and so on.
+ *
+ * Plain unit tests without a Spring context or database.
+ */
+package com.La.Visual.entity;
+
+// Import JUnit
+import org.junit.jupiter.api.Test;
+
+// Import Java time and utility classes
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvailabilityRuleTests {
+
+    // Wednesday 2025-06-04; its week starts on Monday 2025-06-02
+    private static final LocalDate WEDNESDAY = LocalDate.of(2025, 6, 4);
+
+    @Test
+    void weeklyRuleAppliesOnSelectedDaysOnly() {
+        AvailabilityRule rule = rule(days(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), WEDNESDAY, null, 1);
+
+        assertFalse(rule.appliesOn(WEDNESDAY));
+        assertTrue(rule.appliesOn(LocalDate.of(2025, 6, 7)));
+        assertTrue(rule.appliesOn(LocalDate.of(2025, 6, 8)));
+        assertFalse(rule.appliesOn(LocalDate.of(2025, 6, 9)));
+        // Open-ended: still applies years later
+        assertTrue(rule.appliesOn(LocalDate.of(2035, 6, 2).with(DayOfWeek.SUNDAY)));
+    }
+
+    @Test
+    void everyOtherWeekStartingMidWeek() {
+        // Mondays and Fridays every other week, from a Wednesday
+        AvailabilityRule rule = rule(days(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), WEDNESDAY, null, 2);
+
+        // Monday of the first week is before validFrom
+        assertFalse(rule.appliesOn(LocalDate.of(2025, 6, 2)));
+        // Friday of the first week is in week 0
+        assertTrue(rule.appliesOn(LocalDate.of(2025, 6, 6)));
+        // Week 1 is skipped
+        assertFalse(rule.appliesOn(LocalDate.of(2025, 6, 9)));
+        assertFalse(rule.appliesOn(LocalDate.of(2025, 6, 13)));
+        // Week 2 applies again, from its Monday
+        assertTrue(rule.appliesOn(LocalDate.of(2025, 6, 16)));
+        assertTrue(rule.appliesOn(LocalDate.of(2025, 6, 20)));
+    }
+
+    @Test
+    void everyOtherWeekStartingOnSunday() {
+        // validFrom is the last day of its week, so the next Sunday is skipped
+        LocalDate sunday = LocalDate.of(2025, 6, 8);
+        AvailabilityRule rule = rule(days(DayOfWeek.SUNDAY), sunday, null, 2);
+
+        assertTrue(rule.appliesOn(sunday));
+        assertFalse(rule.appliesOn(sunday.plusWeeks(1)));
+        assertTrue(rule.appliesOn(sunday.plusWeeks(2)));
+    }
+
+    @Test
+    void intervalCountsWholeWeeksOverLongPeriods() {
+        // Every third week, checked across a year boundary and a leap day
+        AvailabilityRule rule = rule(days(DayOfWeek.THURSDAY), WEDNESDAY, null, 3);
+        LocalDate thursday = WEDNESDAY.plusDays(1);
+
+        for (int week = 0; week < 200; week++) {
+            assertEquals(week % 3 == 0, rule.appliesOn(thursday.plusWeeks(week)), "week " + week);
+        }
+    }
+
+    @Test
+    void validityPeriodIsInclusive() {
+        LocalDate until = LocalDate.of(2025, 6, 30);
+        AvailabilityRule rule = rule(days(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY), WEDNESDAY, until, 1);
+
+        assertTrue(rule.appliesOn(WEDNESDAY));
+        assertTrue(rule.appliesOn(until));
+        assertFalse(rule.appliesOn(until.plusWeeks(1)));
+        assertFalse(rule.appliesOn(WEDNESDAY.minusWeeks(1)));
+    }
+
+    @Test
+    void exceptionDatesAreSkipped() {
+        LocalDate skipped = WEDNESDAY.plusWeeks(1);
+        AvailabilityRule rule = rule(days(DayOfWeek.WEDNESDAY), WEDNESDAY, null, 1).withExceptions(Set.of(skipped));
+
+        assertTrue(rule.appliesOn(WEDNESDAY));
+        assertFalse(rule.appliesOn(skipped));
+        assertTrue(rule.appliesOn(skipped.plusWeeks(1)));
+    }
+
+    @Test
+    void daysAreListedFromMonday() {
+        AvailabilityRule rule = rule(days(DayOfWeek.SUNDAY, DayOfWeek.MONDAY, DayOfWeek.THURSDAY), WEDNESDAY, null, 1);
+
+        assertEquals(List.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY, DayOfWeek.SUNDAY), rule.getDays());
+        assertEquals(64, AvailabilityRule.bitOf(DayOfWeek.SUNDAY));
+    }
+
+    private static AvailabilityRule rule(int daysOfWeek, LocalDate validFrom, LocalDate validUntil, int intervalWeeks) {
+        return AvailabilityRule.builder()
+            .label("Test rule")
+            .daysOfWeek(daysOfWeek)
+            .startTime(LocalTime.of(8, 0))
+            .endTime(LocalTime.of(12, 0))
+            .validFrom(validFrom)
+            .validUntil(validUntil)
+            .intervalWeeks(intervalWeeks)
+            .exceptions(Set.of())
+            .build();
+    }
+
+    private static int days(DayOfWeek... days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= AvailabilityRule.bitOf(day);
+        }
+        return mask;
+    }
+}
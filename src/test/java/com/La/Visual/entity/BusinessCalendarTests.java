@@ -0,0 +1,209 @@
+/**
+ * Business Calendar Tests
+ *
+ * Checks the compiled slot masks of the business-hours template. With 5-minute
+ * slots a day has 288 slots in five 64-bit words, and slot 64 (05:20) is the first
+ * one of the second word, so the tests place windows and bookings right at that edge:
+ * the range check (allSet), clearing booked time and listing free starts all work
+ * word by word.
+ *
+ * Plain unit tests without a Spring context or database.
+ */
+package com.La.Visual.entity;
+
+// Import JUnit
+import org.junit.jupiter.api.Test;
+
+// Import Java time and utility classes
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BusinessCalendarTests {
+
+    // A Monday
+    private static final LocalDate MONDAY = LocalDate.of(2025, 6, 2);
+    // Slot 64 with 5-minute slots: the first slot of the second mask word
+    private static final LocalTime WORD_EDGE = LocalTime.of(5, 20);
+
+    @Test
+    void bookingAcrossTheWordEdgeFitsAWindowAcrossIt() {
+        // Slots 63 and 64, one in each word
+        BusinessCalendar calendar = fiveMinuteCalendar(time(5, 15), time(5, 25));
+
+        assertNull(calendar.rejectionReason(MONDAY, time(5, 15), time(5, 25)));
+        assertNull(calendar.rejectionReason(MONDAY, time(5, 15), WORD_EDGE));
+        assertNull(calendar.rejectionReason(MONDAY, WORD_EDGE, time(5, 25)));
+        // One slot too many on either side
+        assertNotNull(calendar.rejectionReason(MONDAY, time(5, 10), time(5, 25)));
+        assertNotNull(calendar.rejectionReason(MONDAY, time(5, 15), time(5, 30)));
+    }
+
+    @Test
+    void windowEndingAtTheWordEdgeDoesNotLeakIntoTheNextWord() {
+        // Slots 0..63 fill exactly the first word
+        BusinessCalendar calendar = fiveMinuteCalendar(time(0, 0), WORD_EDGE);
+
+        assertNull(calendar.rejectionReason(MONDAY, time(0, 0), WORD_EDGE));
+        assertNotNull(calendar.rejectionReason(MONDAY, time(5, 15), time(5, 25)));
+        assertNotNull(calendar.rejectionReason(MONDAY, WORD_EDGE, time(5, 25)));
+        assertEquals(64 * 5, minutesOpen(calendar, calendar.openSlots(MONDAY)));
+    }
+
+    @Test
+    void windowStartingAtTheWordEdge() {
+        BusinessCalendar calendar = fiveMinuteCalendar(WORD_EDGE, time(12, 0));
+
+        assertNull(calendar.rejectionReason(MONDAY, WORD_EDGE, time(12, 0)));
+        assertNotNull(calendar.rejectionReason(MONDAY, time(5, 15), time(6, 0)));
+    }
+
+    @Test
+    void rangeSpanningSeveralWordsNeedsEverySlot() {
+        // Two windows leave slot 130 (10:50-10:55) closed in the third word
+        BusinessCalendar calendar = BusinessCalendar.compile(5, List.of(
+            new BusinessCalendar.Window(DayOfWeek.MONDAY, time(1, 0), time(10, 50)),
+            new BusinessCalendar.Window(DayOfWeek.MONDAY, time(10, 55), time(20, 0))
+        ), Map.of());
+
+        assertNull(calendar.rejectionReason(MONDAY, time(1, 0), time(10, 50)));
+        assertNull(calendar.rejectionReason(MONDAY, time(10, 55), time(20, 0)));
+        assertNotNull(calendar.rejectionReason(MONDAY, time(1, 0), time(20, 0)));
+    }
+
+    @Test
+    void midnightEndUsesTheLastSlotOfTheLastWord() {
+        // Slot 287 is the last bit used in the fifth word
+        BusinessCalendar calendar = fiveMinuteCalendar(time(22, 0), time(0, 0));
+
+        assertNull(calendar.rejectionReason(MONDAY, time(23, 55), time(0, 0)));
+        assertNull(calendar.rejectionReason(MONDAY, time(22, 0), time(0, 0)));
+        assertEquals(120, minutesOpen(calendar, calendar.openSlots(MONDAY)));
+    }
+
+    @Test
+    void clearRemovesPartiallyCoveredSlotsAcrossTheWordEdge() {
+        BusinessCalendar calendar = fiveMinuteCalendar(time(5, 0), time(6, 0));
+        long[] free = calendar.openSlots(MONDAY);
+
+        // 05:17-05:21 touches slot 63 (05:15) and slot 64 (05:20)
+        calendar.clear(free, time(5, 17), time(5, 21));
+
+        assertEquals(50, minutesOpen(calendar, free));
+        assertEquals(List.of(time(5, 0), time(5, 5), time(5, 10), time(5, 25), time(5, 30),
+                time(5, 35), time(5, 40), time(5, 45), time(5, 50), time(5, 55)),
+            calendar.startsOf(free, 1));
+        // The compiled calendar is not changed by clearing a copy
+        assertEquals(60, minutesOpen(calendar, calendar.openSlots(MONDAY)));
+    }
+
+    @Test
+    void startsOfFindsRunsAcrossTheWordEdge() {
+        // Slots 62..65
+        BusinessCalendar calendar = fiveMinuteCalendar(time(5, 10), time(5, 30));
+        long[] free = calendar.openSlots(MONDAY);
+
+        assertEquals(List.of(time(5, 10), time(5, 15), time(5, 20)), calendar.startsOf(free, 2));
+        assertEquals(List.of(time(5, 10)), calendar.startsOf(free, 4));
+        assertEquals(List.of(), calendar.startsOf(free, 5));
+    }
+
+    @Test
+    void startsOfRunsToMidnight() {
+        BusinessCalendar calendar = fiveMinuteCalendar(time(23, 40), time(0, 0));
+
+        assertEquals(List.of(time(23, 40), time(23, 45)), calendar.startsOf(calendar.openSlots(MONDAY), 3));
+    }
+
+    @Test
+    void holidaysHaveNoOpenSlots() {
+        BusinessCalendar calendar = BusinessCalendar.compile(30, List.of(
+            new BusinessCalendar.Window(DayOfWeek.MONDAY, time(9, 0), time(17, 0))
+        ), Map.of(MONDAY, "Studio anniversary"));
+
+        assertEquals(0, minutesOpen(calendar, calendar.openSlots(MONDAY)));
+        assertTrue(calendar.rejectionReason(MONDAY, time(9, 0), time(10, 0)).contains("Studio anniversary"));
+        assertNull(calendar.rejectionReason(MONDAY.plusWeeks(1), time(9, 0), time(10, 0)));
+    }
+
+    @Test
+    void misalignedTimesAreRejected() {
+        BusinessCalendar calendar = BusinessCalendar.compile(30, List.of(
+            new BusinessCalendar.Window(DayOfWeek.MONDAY, time(0, 0), time(0, 0))
+        ), Map.of());
+
+        assertNull(calendar.rejectionReason(MONDAY, time(9, 0), time(9, 30)));
+        assertNotNull(calendar.rejectionReason(MONDAY, time(9, 15), time(10, 0)));
+        assertNotNull(calendar.rejectionReason(MONDAY, time(10, 0), time(9, 0)));
+    }
+
+    @Test
+    void oneMinuteSlotsAcceptAnyWholeMinute() {
+        // The seeded template: every day around the clock, 1440 slots in 23 words
+        BusinessCalendar calendar = BusinessCalendar.compile(1, List.of(
+            new BusinessCalendar.Window(DayOfWeek.MONDAY, time(0, 0), time(0, 0))
+        ), Map.of());
+
+        assertNull(calendar.rejectionReason(MONDAY, time(9, 15), time(10, 47)));
+        assertNull(calendar.rejectionReason(MONDAY, time(23, 59), time(0, 0)));
+        assertEquals(BusinessCalendar.MINUTES_PER_DAY, minutesOpen(calendar, calendar.openSlots(MONDAY)));
+        // Seconds are still below the granularity
+        assertNotNull(calendar.rejectionReason(MONDAY, LocalTime.of(9, 15, 30), time(10, 0)));
+    }
+
+    @Test
+    void oneMinuteSlotsAtTheWordEdge() {
+        // Minute 64 (01:04) is the first slot of the second word
+        BusinessCalendar calendar = BusinessCalendar.compile(1, List.of(
+            new BusinessCalendar.Window(DayOfWeek.MONDAY, time(1, 3), time(1, 5))
+        ), Map.of());
+
+        assertNull(calendar.rejectionReason(MONDAY, time(1, 3), time(1, 5)));
+        assertNotNull(calendar.rejectionReason(MONDAY, time(1, 2), time(1, 5)));
+        assertNotNull(calendar.rejectionReason(MONDAY, time(1, 3), time(1, 6)));
+        assertEquals(List.of(time(1, 3)), calendar.startsOf(calendar.openSlots(MONDAY), 2));
+    }
+
+    @Test
+    void invalidTemplatesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> BusinessCalendar.compile(0, List.of(), Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> BusinessCalendar.compile(7, List.of(), Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> fiveMinuteCalendar(time(10, 0), time(9, 0)));
+        assertThrows(IllegalArgumentException.class, () -> BusinessCalendar.compile(30, List.of(
+            new BusinessCalendar.Window(DayOfWeek.MONDAY, time(9, 15), time(10, 0))
+        ), Map.of()));
+    }
+
+    @Test
+    void endMinuteReadsMidnightAsEndOfDay() {
+        assertEquals(0, BusinessCalendar.minuteOf(time(0, 0)));
+        assertEquals(BusinessCalendar.MINUTES_PER_DAY, BusinessCalendar.endMinuteOf(time(0, 0)));
+        assertEquals(23 * 60 + 55, BusinessCalendar.endMinuteOf(time(23, 55)));
+    }
+
+    // A calendar open on Mondays in one window, in 5-minute slots
+    private static BusinessCalendar fiveMinuteCalendar(LocalTime open, LocalTime close) {
+        return BusinessCalendar.compile(5, List.of(new BusinessCalendar.Window(DayOfWeek.MONDAY, open, close)), Map.of());
+    }
+
+    // Minutes in the set slots of a mask
+    private static int minutesOpen(BusinessCalendar calendar, long[] mask) {
+        int slots = 0;
+        for (long word : mask) {
+            slots += Long.bitCount(word);
+        }
+        return slots * calendar.getSlotMinutes();
+    }
+
+    private static LocalTime time(int hour, int minute) {
+        return LocalTime.of(hour, minute);
+    }
+}
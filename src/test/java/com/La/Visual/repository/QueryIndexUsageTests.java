@@ -0,0 +1,307 @@
+/**
+ * Query Index Usage Tests
+ *
+ * Runs EXPLAIN on the SQL of every repository query that filters on a column and
+ * asserts that MariaDB answers it through an index instead of a full table scan.
+ * A query (or a migration) change that loses its index fails here instead of
+ * slowing the application down once the tables have grown.
+ *
+ * The optimizer happily scans tiny tables, so the tests first insert a few thousand
+ * marked bookings, payments and blocked ranges with realistic selectivity (most
+ * bookings in the past, most of them COMPLETED), refresh the table statistics and
+ * remove the rows afterwards.
+ *
+ * The SQL strings are copies of the repository queries; keep them in sync.
+ */
+package com.La.Visual.repository;
+
+// Import JUnit and Spring test support
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Import Java SQL, time and utility classes
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryIndexUsageTests {
+
+    // Marks the seeded rows so they can be removed again
+    private static final String MARKER = "IDXTEST";
+    private static final int BOOKINGS = 2000;
+    private static final int DAYS = 730;
+
+    // Bookings joined with their linked payments (p) and their referenced payment (pp)
+    private static final String BOOKING_WITH_PAYMENTS_SELECT =
+        "SELECT b.*, p.payment_id AS p_payment_id, pp.payment_id AS pp_payment_id " +
+        "FROM bookings b " +
+        "LEFT JOIN payments p ON p.booking_id = b.booking_id " +
+        "LEFT JOIN payments pp ON pp.payment_id = b.payment_id ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+
+        // One shared payment satisfies bookings.payment_id NOT NULL
+        jdbcTemplate.update(
+            "INSERT INTO payments (booking_id, amount, payment_type, payment_method, remaining_balance) " +
+            "VALUES (NULL, 1000, 'FULL', ?, 0)",
+            MARKER
+        );
+        Integer paymentId = jdbcTemplate.queryForObject(
+            "SELECT MAX(payment_id) FROM payments WHERE payment_method = ?", Integer.class, MARKER);
+
+        // ~3 bookings per day over two years, ending shortly after today
+        List<Object[]> rows = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDate date = today.minusDays(DAYS - 10).plusDays(i % DAYS);
+            LocalTime start = LocalTime.of(8 + (i % 3) * 4, 0);
+            rows.add(new Object[] {
+                MARKER + "-" + i,
+                "Index Test " + i,
+                "idxtest" + (i % 500) + "@example.com",
+                "0000000000",
+                Date.valueOf(date),
+                Time.valueOf(start),
+                Time.valueOf(start.plusHours(3)),
+                "Test location",
+                "Test",
+                "Test package",
+                1000,
+                statusFor(i),
+                paymentId
+            });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO bookings (booking_reference, guest_name, guest_email, guest_phone, booking_date, " +
+            "booking_time_start, booking_time_end, booking_hours, location, category_name, package_name, " +
+            "package_price, booking_status, payment_id) VALUES (?, ?, ?, ?, ?, ?, ?, 3, ?, ?, ?, ?, ?, ?)",
+            rows
+        );
+
+        // One linked payment per booking for the payment lookups
+        jdbcTemplate.update(
+            "INSERT INTO payments (booking_id, amount, payment_type, payment_method, remaining_balance) " +
+            "SELECT booking_id, 1000, 'FULL', ?, 0 FROM bookings WHERE booking_reference LIKE ?",
+            MARKER, MARKER + "-%"
+        );
+
+        // One blocked range per day
+        List<Object[]> ranges = new ArrayList<>(DAYS);
+        for (int day = 0; day < DAYS; day++) {
+            ranges.add(new Object[] { today.minusDays(DAYS - 10).plusDays(day).toString(), MARKER });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO unavailable_time_ranges (date, start_time, end_time, status) VALUES (?, '12:00', '13:00', ?)",
+            ranges
+        );
+
+        // Make the optimizer see the new row counts and value distribution
+        jdbcTemplate.execute("ANALYZE TABLE bookings, payments, unavailable_time_ranges");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update(
+            "UPDATE payments SET booking_id = NULL WHERE payment_method = ?", MARKER);
+        jdbcTemplate.update(
+            "DELETE FROM bookings WHERE booking_reference LIKE ?", MARKER + "-%");
+        jdbcTemplate.update(
+            "DELETE FROM payments WHERE payment_method = ?", MARKER);
+        jdbcTemplate.update(
+            "DELETE FROM unavailable_time_ranges WHERE status = ?", MARKER);
+    }
+
+    @Test
+    void findByDateUsesIndex() {
+        assertUsesIndex(
+            "SELECT * FROM bookings WHERE booking_date = ?",
+            Date.valueOf(today.minusDays(30)));
+    }
+
+    @Test
+    void findByGuestEmailUsesIndex() {
+        assertUsesIndex(
+            "SELECT * FROM bookings WHERE guest_email = ? ORDER BY booking_date DESC",
+            "idxtest7@example.com");
+    }
+
+    @Test
+    void findByStatusUsesIndex() {
+        assertUsesIndex(
+            "SELECT * FROM bookings WHERE booking_status = ? ORDER BY booking_date DESC",
+            "PENDING");
+    }
+
+    @Test
+    void findOverlappingBookingsUsesIndex() {
+        Time start = Time.valueOf(LocalTime.of(9, 0));
+        Time end = Time.valueOf(LocalTime.of(12, 0));
+        assertUsesIndex(
+            "SELECT * FROM bookings " +
+            "WHERE booking_date = ? " +
+            "AND booking_id != ? " +
+            "AND booking_status != 'CANCELLED' " +
+            "AND (" +
+            "  (booking_time_start < ? AND booking_time_end > ?) OR " +
+            "  (booking_time_start < ? AND booking_time_end > ?) OR " +
+            "  (booking_time_start >= ? AND booking_time_end <= ?)" +
+            ")",
+            Date.valueOf(today.minusDays(30)), -1, end, start, start, start, start, end);
+    }
+
+    @Test
+    void findApprovedBookingsByDateUsesIndex() {
+        assertUsesIndex(
+            "SELECT * FROM bookings WHERE booking_date = ? AND booking_status IN ('CONFIRMED', 'COMPLETED') ORDER BY booking_time_start",
+            Date.valueOf(today.minusDays(30)));
+    }
+
+    @Test
+    void findApprovedBookingsInMonthUsesIndex() {
+        LocalDate startOfMonth = today.minusMonths(6).withDayOfMonth(1);
+        assertUsesIndex(
+            "SELECT * FROM bookings WHERE booking_date BETWEEN ? AND ? AND booking_status IN ('CONFIRMED', 'COMPLETED') ORDER BY booking_date, booking_time_start",
+            Date.valueOf(startOfMonth), Date.valueOf(startOfMonth.plusMonths(1).minusDays(1)));
+    }
+
+    @Test
+    void findUpcomingBookingsUsesIndex() {
+        assertUsesIndex(
+            "SELECT * FROM bookings WHERE booking_date >= ? AND booking_status != 'CANCELLED' ORDER BY booking_date, booking_time_start",
+            Date.valueOf(today));
+    }
+
+    @Test
+    void findBookedSlotsUsesIndex() {
+        assertUsesIndex(
+            "SELECT booking_date, booking_time_start, booking_time_end FROM bookings " +
+            "WHERE booking_date >= ? AND booking_status = ? ORDER BY booking_date, booking_time_start",
+            Date.valueOf(today), "CONFIRMED");
+        assertUsesIndex(
+            "SELECT booking_date, booking_time_start, booking_time_end FROM bookings " +
+            "WHERE booking_date >= ? AND booking_status != 'CANCELLED' ORDER BY booking_date, booking_time_start",
+            Date.valueOf(today));
+    }
+
+    @Test
+    void findCalendarSlotsBetweenUsesIndex() {
+        // A full twelve-month range is still answered from the covering index
+        assertUsesIndex(
+            "SELECT booking_date, booking_status, booking_time_start, booking_time_end FROM bookings " +
+            "WHERE booking_date BETWEEN ? AND ? AND booking_status != 'CANCELLED' " +
+            "ORDER BY booking_date, booking_time_start",
+            Date.valueOf(today.minusMonths(12)), Date.valueOf(today.minusDays(1)));
+    }
+
+    @Test
+    void findChangedSinceUsesIndex() {
+        Timestamp since = Timestamp.valueOf(today.plusDays(1).atStartOfDay());
+        assertUsesIndex(
+            "SELECT b.* FROM bookings b WHERE b.updated_at >= ? " +
+            "UNION " +
+            "SELECT b.* FROM payments p JOIN bookings b ON b.booking_id = p.booking_id WHERE p.updated_at >= ? " +
+            "ORDER BY booking_id",
+            since, since);
+        assertUsesIndex(
+            "SELECT * FROM payments WHERE updated_at >= ? AND booking_id IS NOT NULL ORDER BY payment_id",
+            since);
+    }
+
+    @Test
+    void findPaymentsByBookingIdUsesIndex() {
+        Integer bookingId = jdbcTemplate.queryForObject(
+            "SELECT MIN(booking_id) FROM bookings WHERE booking_reference LIKE ?", Integer.class, MARKER + "-%");
+        assertUsesIndex(
+            "SELECT * FROM payments WHERE booking_id = ? ORDER BY payment_date DESC",
+            bookingId);
+    }
+
+    @Test
+    void findByIdWithPaymentsUsesIndex() {
+        Integer bookingId = jdbcTemplate.queryForObject(
+            "SELECT MIN(booking_id) FROM bookings WHERE booking_reference LIKE ?", Integer.class, MARKER + "-%");
+        assertUsesIndex(
+            BOOKING_WITH_PAYMENTS_SELECT +
+            "WHERE b.booking_id = ? " +
+            "ORDER BY p.payment_date DESC",
+            bookingId);
+    }
+
+    @Test
+    void findByStatusWithPaymentsUsesIndex() {
+        assertUsesIndex(
+            BOOKING_WITH_PAYMENTS_SELECT +
+            "WHERE b.booking_status = ? " +
+            "ORDER BY b.booking_date DESC, b.booking_id, p.payment_date DESC",
+            "PENDING");
+    }
+
+    @Test
+    void findUnavailableRangesByDateUsesIndex() {
+        assertUsesIndex(
+            "SELECT * FROM unavailable_time_ranges WHERE date = ?",
+            today.toString());
+    }
+
+    @Test
+    void findBlockedRangesBetweenUsesIndex() {
+        LocalDate startOfMonth = today.minusMonths(6).withDayOfMonth(1);
+        assertUsesIndex(
+            "SELECT id, date, start_time, end_time, status FROM unavailable_time_ranges " +
+            "WHERE date BETWEEN ? AND ? ORDER BY date, start_time",
+            Date.valueOf(startOfMonth), Date.valueOf(startOfMonth.plusMonths(1).minusDays(1)));
+    }
+
+    // Spread of statuses: mostly completed, few pending
+    private static String statusFor(int i) {
+        int bucket = i % 100;
+        if (bucket < 3) {
+            return "PENDING";
+        }
+        if (bucket < 7) {
+            return "CANCELLED";
+        }
+        if (bucket < 15) {
+            return "CONFIRMED";
+        }
+        return "COMPLETED";
+    }
+
+    // Fails if any table in the plan is read by a full scan or without an index
+    private void assertUsesIndex(String sql, Object... params) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, params);
+        for (Map<String, Object> row : plan) {
+            Object table = row.get("table");
+            // Skip rows without a base table (union results, "no matching row" notes)
+            if (table == null || table.toString().startsWith("<")) {
+                continue;
+            }
+            if (row.get("Extra") != null && row.get("Extra").toString().contains("Impossible WHERE")) {
+                continue;
+            }
+            assertNotEquals("ALL", row.get("type"), () -> "Full scan of " + table + " for: " + sql + "\nPlan: " + plan);
+            assertNotNull(row.get("key"), () -> "No index used on " + table + " for: " + sql + "\nPlan: " + plan);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Request Coalescer Tests
+ *
+ * Checks that identical concurrent reads share one query, but only while they see the
+ * same resource version: a caller arriving after a committed write (version bump) must
+ * run its own query instead of joining one that started before the write, or
+ * ResponseCache would store the old rows under the new version.
+ *
+ * Plain unit tests without a Spring context or database; the "queries" are suppliers
+ * that block until the test releases them.
+ */
+package com.La.Visual.repository;
+
+// Import the version counters
+import com.La.Visual.service.ResourceVersions;
+
+// Import JUnit
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+// Import Java concurrency classes
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCoalescerTests {
+
+    private final ResourceVersions versions = new ResourceVersions();
+    private final RequestCoalescer coalescer = new RequestCoalescer(versions);
+    private final ExecutorService callers = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void callersUnderTheSameVersionShareOneQuery() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+
+        Future<String> leader = callers.submit(() -> coalescer.execute(ResourceVersions.Resource.BOOKINGS, "bookings/month|2025|4",
+            () -> blockingQuery(queries, started, release, "rows")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<String> joiner = callers.submit(() -> coalescer.execute(ResourceVersions.Resource.BOOKINGS, "bookings/month|2025|4",
+            () -> blockingQuery(queries, null, null, "second query")));
+        waitForJoiner();
+
+        release.countDown();
+        assertEquals("rows", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("rows", joiner.get(5, TimeUnit.SECONDS));
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void callerAfterVersionBumpDoesNotJoinEarlierQuery() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+
+        // A query that started before the write and is still running
+        Future<String> before = callers.submit(() -> coalescer.execute(ResourceVersions.Resource.BOOKINGS, "bookings/month|2025|4",
+            () -> blockingQuery(queries, started, release, "rows before the write")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // The write commits
+        versions.bump(ResourceVersions.Resource.BOOKINGS);
+
+        // Runs its own query and does not wait for the earlier one
+        String after = callers.submit(() -> coalescer.execute(ResourceVersions.Resource.BOOKINGS, "bookings/month|2025|4",
+            () -> blockingQuery(queries, null, null, "rows after the write"))).get(5, TimeUnit.SECONDS);
+        assertEquals("rows after the write", after);
+
+        release.countDown();
+        assertEquals("rows before the write", before.get(5, TimeUnit.SECONDS));
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    void otherResourceVersionsDoNotSplitQueries() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+
+        Future<String> leader = callers.submit(() -> coalescer.execute(ResourceVersions.Resource.SCHEDULES, "schedules/unavailable|2025-04-01",
+            () -> blockingQuery(queries, started, release, "ranges")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // A booking write does not change unavailable ranges
+        versions.bump(ResourceVersions.Resource.BOOKINGS);
+        Future<String> joiner = callers.submit(() -> coalescer.execute(ResourceVersions.Resource.SCHEDULES, "schedules/unavailable|2025-04-01",
+            () -> blockingQuery(queries, null, null, "second query")));
+        waitForJoiner();
+
+        release.countDown();
+        assertEquals("ranges", joiner.get(5, TimeUnit.SECONDS));
+        assertEquals("ranges", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(1, queries.get());
+    }
+
+    // Counts the query, signals that it runs and waits until released
+    private static String blockingQuery(AtomicInteger queries, CountDownLatch started, CountDownLatch release, String result) {
+        queries.incrementAndGet();
+        if (started != null) {
+            started.countDown();
+        }
+        if (release != null) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return result;
+    }
+
+    // The joiner is counted as collapsed once it waits on the leader's future
+    private void waitForJoiner() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((long) coalescer.getStats().get("collapsed") == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1L, coalescer.getStats().get("collapsed"));
+    }
+}
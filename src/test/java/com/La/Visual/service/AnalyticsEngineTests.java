@@ -0,0 +1,132 @@
+/**
+ * Analytics Engine Tests
+ *
+ * Checks the returning-customer count of MonthAggregate. It is derived by
+ * inclusion-exclusion from HyperLogLog estimates (mine + earlier - union), which
+ * can land slightly below zero or above the period's own customers; the result
+ * must be clamped to [0, uniqueCustomers].
+ *
+ * Plain unit tests without a Spring context or database: the snapshot is filled from
+ * a BookingRepository whose scan returns fixed rows.
+ */
+package com.La.Visual.service;
+
+// Import the repository whose scan is replaced
+import com.La.Visual.repository.BookingRepository;
+
+// Import JUnit
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Import Java time and utility classes
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalyticsEngineTests {
+
+    private static final YearMonth JANUARY = YearMonth.of(2024, 1);
+
+    private final List<BookingRepository.SnapshotRow> rows = new ArrayList<>();
+    private BookingSnapshot snapshot;
+    private AnalyticsEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        BookingRepository repository = new BookingRepository(null, null) {
+            @Override
+            public void scanSnapshotRows(Consumer<SnapshotRow> consumer) {
+                rows.forEach(consumer);
+            }
+        };
+        snapshot = new BookingSnapshot(repository, 0.2);
+        engine = new AnalyticsEngine(snapshot, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.destroy();
+        snapshot.destroy();
+    }
+
+    @Test
+    void customersSeenEarlierAreAllReturning() {
+        // January: guests 0..299; February: guests 100..199, every one seen in January
+        book(JANUARY, 0, 300);
+        book(JANUARY.plusMonths(1), 100, 100);
+
+        AnalyticsEngine.Months months = engine.aggregateMonths();
+        AnalyticsEngine.MonthAggregate february = months.between(JANUARY.plusMonths(1), JANUARY.plusMonths(1));
+        AnalyticsEngine.MonthAggregate earlier = months.before(JANUARY.plusMonths(1));
+
+        // The union is the earlier sketch itself, so the estimate cannot exceed February's own
+        assertEquals(february.uniqueCustomers(), february.returningCustomers(earlier));
+    }
+
+    @Test
+    void newCustomersAreNotReturning() {
+        // March guests never booked before
+        book(JANUARY, 0, 300);
+        book(JANUARY.plusMonths(2), 10_000, 50);
+
+        AnalyticsEngine.Months months = engine.aggregateMonths();
+        AnalyticsEngine.MonthAggregate march = months.between(JANUARY.plusMonths(2), JANUARY.plusMonths(2));
+        long returning = march.returningCustomers(months.before(JANUARY.plusMonths(2)));
+
+        assertTrue(returning >= 0 && returning <= 2, "returning " + returning);
+    }
+
+    @Test
+    void partialOverlapIsCountedAndClamped() {
+        // April guests 250..349: 50 of them booked in January
+        book(JANUARY, 0, 300);
+        book(JANUARY.plusMonths(3), 250, 100);
+
+        AnalyticsEngine.Months months = engine.aggregateMonths();
+        AnalyticsEngine.MonthAggregate april = months.between(JANUARY.plusMonths(3), JANUARY.plusMonths(3));
+        long returning = april.returningCustomers(months.before(JANUARY.plusMonths(3)));
+
+        assertTrue(Math.abs(returning - 50) <= 3, "returning " + returning);
+        assertTrue(returning <= april.uniqueCustomers());
+    }
+
+    @Test
+    void emptyPeriodsHaveNoReturningCustomers() {
+        book(JANUARY, 0, 300);
+
+        AnalyticsEngine.Months months = engine.aggregateMonths();
+        // Nothing booked in June, and nothing before January
+        AnalyticsEngine.MonthAggregate june = months.between(JANUARY.plusMonths(5), JANUARY.plusMonths(5));
+        AnalyticsEngine.MonthAggregate january = months.between(JANUARY, JANUARY);
+
+        assertEquals(0, june.returningCustomers(months.before(JANUARY.plusMonths(5))));
+        assertEquals(0, january.returningCustomers(months.before(JANUARY)));
+    }
+
+    // Adds one confirmed booking per guest, guest<first>@example.com onwards, spread over the month
+    private void book(YearMonth month, int first, int guests) {
+        for (int i = 0; i < guests; i++) {
+            LocalDate date = month.atDay(1 + i % month.lengthOfMonth());
+            rows.add(new BookingRepository.SnapshotRow(
+                rows.size() + 1,
+                date,
+                LocalTime.of(10, 0),
+                LocalTime.of(12, 0),
+                1500.0,
+                "CONFIRMED",
+                "Portrait",
+                "Basic",
+                "Studio",
+                date.minusDays(7),
+                "guest" + (first + i) + "@example.com"
+            ));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Booking Snapshot Tests
+ *
+ * Checks how the snapshot stores booking times: an end of 00:00 is midnight (minute
+ * 1440, as in BusinessCalendar), not the start of the day, both for rows read by the
+ * build and for reschedules applied in place.
+ *
+ * Plain unit tests without a Spring context or database: the snapshot is filled from
+ * a BookingRepository whose scan returns fixed rows.
+ */
+package com.La.Visual.service;
+
+// Import the event and the repository whose scan is replaced
+import com.La.Visual.event.BookingChangedEvent;
+import com.La.Visual.repository.BookingRepository;
+
+// Import JUnit
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Import Java time and utility classes
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingSnapshotTests {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 4);
+
+    private final List<BookingRepository.SnapshotRow> rows = new ArrayList<>();
+    private BookingSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        BookingRepository repository = new BookingRepository(null, null) {
+            @Override
+            public void scanSnapshotRows(Consumer<SnapshotRow> consumer) {
+                rows.forEach(consumer);
+            }
+        };
+        snapshot = new BookingSnapshot(repository, 0.2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        snapshot.destroy();
+    }
+
+    @Test
+    void buildReadsMidnightEndAsEndOfDay() {
+        rows.add(row(1, LocalTime.of(22, 0), LocalTime.MIDNIGHT));
+        rows.add(row(2, LocalTime.of(10, 0), LocalTime.of(12, 30)));
+
+        assertEquals(22 * 60, startMinuteOf(1));
+        assertEquals(1440, endMinuteOf(1));
+        assertEquals(12 * 60 + 30, endMinuteOf(2));
+    }
+
+    @Test
+    void rescheduleToMidnightEndIsAppliedAsEndOfDay() {
+        rows.add(row(1, LocalTime.of(10, 0), LocalTime.of(12, 0)));
+        snapshot.ensureBuilt();
+
+        snapshot.onBookingChanged(new BookingChangedEvent(1, BookingChangedEvent.Change.RESCHEDULED,
+            new BookingChangedEvent.Slot(DAY.plusDays(1), LocalTime.of(23, 0), LocalTime.MIDNIGHT, "CONFIRMED")));
+
+        assertEquals(23 * 60, startMinuteOf(1));
+        assertEquals(1440, endMinuteOf(1));
+        assertEquals(1, snapshot.getChangeCount());
+    }
+
+    private int startMinuteOf(int bookingId) {
+        return snapshot.query(view -> view.startMinute(rowOf(view, bookingId)));
+    }
+
+    private int endMinuteOf(int bookingId) {
+        return snapshot.query(view -> view.endMinute(rowOf(view, bookingId)));
+    }
+
+    private static int rowOf(BookingSnapshot.View view, int bookingId) {
+        for (int row = 0; row < view.size(); row++) {
+            if (view.bookingId(row) == bookingId) {
+                return row;
+            }
+        }
+        throw new AssertionError("booking " + bookingId + " is not in the snapshot");
+    }
+
+    private static BookingRepository.SnapshotRow row(int id, LocalTime start, LocalTime end) {
+        return new BookingRepository.SnapshotRow(
+            id,
+            DAY,
+            start,
+            end,
+            1500.0,
+            "CONFIRMED",
+            "Portrait",
+            "Basic",
+            "Studio",
+            DAY.minusDays(7),
+            "guest" + id + "@example.com"
+        );
+    }
+}
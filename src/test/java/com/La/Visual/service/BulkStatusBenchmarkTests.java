@@ -0,0 +1,189 @@
+/**
+ * Bulk Status Benchmark
+ *
+ * Measures approving 1,000 pending bookings through BookingService.bulkUpdateStatus
+ * (one locking read and one UPDATE per chunk of IDs) against approving them one by
+ * one through approveBooking (one conditional UPDATE and one read per booking), and
+ * checks that the bulk path reports the same result.
+ *
+ * The benchmark needs the database and takes a while, so it is tagged "benchmark" and
+ * excluded from the normal build. Run it with:
+ *   mvn test -Pbenchmark
+ *
+ * The seeded bookings are marked and removed afterwards.
+ */
+package com.La.Visual.service;
+
+// Import the DTOs used by the service
+import com.La.Visual.dto.BulkStatusRequest;
+import com.La.Visual.dto.RequestResponse;
+
+// Import JUnit and Spring test support
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Import Java SQL, time and utility classes
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BulkStatusBenchmarkTests {
+
+    // Marks the seeded rows so they can be removed again
+    private static final String MARKER = "BULKBENCH";
+    private static final int BOOKINGS = 1000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Integer> ids;
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+
+        // One shared payment satisfies bookings.payment_id NOT NULL
+        jdbcTemplate.update(
+            "INSERT INTO payments (booking_id, amount, payment_type, payment_method, remaining_balance) " +
+            "VALUES (NULL, 1000, 'FULL', ?, 0)",
+            MARKER
+        );
+        Integer paymentId = jdbcTemplate.queryForObject(
+            "SELECT MAX(payment_id) FROM payments WHERE payment_method = ?", Integer.class, MARKER);
+
+        LocalDate firstDay = LocalDate.now().plusYears(5);
+        List<Object[]> rows = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalTime start = LocalTime.of(8 + (i % 3) * 4, 0);
+            rows.add(new Object[] {
+                MARKER + "-" + i,
+                "Bulk Benchmark " + i,
+                "bulkbench" + i + "@example.com",
+                "0000000000",
+                Date.valueOf(firstDay.plusDays(i / 3)),
+                Time.valueOf(start),
+                Time.valueOf(start.plusHours(3)),
+                "Test location",
+                "Test",
+                "Test package",
+                1000,
+                paymentId
+            });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO bookings (booking_reference, guest_name, guest_email, guest_phone, booking_date, " +
+            "booking_time_start, booking_time_end, booking_hours, location, category_name, package_name, " +
+            "package_price, booking_status, payment_id) VALUES (?, ?, ?, ?, ?, ?, ?, 3, ?, ?, ?, ?, 'PENDING', ?)",
+            rows
+        );
+
+        ids = jdbcTemplate.queryForList(
+            "SELECT booking_id FROM bookings WHERE booking_reference LIKE ? ORDER BY booking_id",
+            Integer.class, MARKER + "-%");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update(
+            "DELETE FROM bookings WHERE booking_reference LIKE ?", MARKER + "-%");
+        jdbcTemplate.update(
+            "DELETE FROM payments WHERE payment_method = ?", MARKER);
+    }
+
+    @Test
+    void bulkApproveIsFasterThanOneByOne() {
+        // Warm up connection pool, JIT and statement caches
+        runBulk();
+        runOneByOne();
+
+        long bulkNanos = Long.MAX_VALUE;
+        long singleNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            bulkNanos = Math.min(bulkNanos, runBulk());
+            singleNanos = Math.min(singleNanos, runOneByOne());
+        }
+
+        System.out.printf("Approving %d bookings: bulk %.1f ms, one by one %.1f ms (%.1fx)%n",
+            BOOKINGS, bulkNanos / 1e6, singleNanos / 1e6, (double) singleNanos / bulkNanos);
+        assertTrue(bulkNanos < singleNanos, "Bulk approval should beat one request per booking");
+    }
+
+    @Test
+    void bulkReportsPerIdOutcomes() {
+        resetToPending();
+        jdbcTemplate.update("UPDATE bookings SET booking_status = 'COMPLETED' WHERE booking_id = ?", ids.get(0));
+
+        List<Integer> requested = new ArrayList<>(ids.subList(0, 10));
+        requested.add(-1);
+        RequestResponse response = bookingService.bulkUpdateStatus(request(requested));
+
+        assertEquals(200, response.getStatusCode());
+        @SuppressWarnings("unchecked")
+        Map<String, Integer> counts = (Map<String, Integer>) ((Map<String, Object>) response.getData()).get("counts");
+        assertEquals(9, counts.get("UPDATED"));
+        assertEquals(1, counts.get("NOT_ALLOWED"));
+        assertEquals(1, counts.get("NOT_FOUND"));
+    }
+
+    // Approves all seeded bookings with one bulk call and returns the elapsed time
+    private long runBulk() {
+        resetToPending();
+        long start = System.nanoTime();
+        RequestResponse response = bookingService.bulkUpdateStatus(request(ids));
+        long elapsed = System.nanoTime() - start;
+        assertEquals(200, response.getStatusCode(), response.getMessage());
+        assertEquals(BOOKINGS, countConfirmed());
+        return elapsed;
+    }
+
+    // Approves all seeded bookings one request at a time and returns the elapsed time
+    private long runOneByOne() {
+        resetToPending();
+        long start = System.nanoTime();
+        for (Integer id : ids) {
+            bookingService.approveBooking(id, "benchmark");
+        }
+        long elapsed = System.nanoTime() - start;
+        assertEquals(BOOKINGS, countConfirmed());
+        return elapsed;
+    }
+
+    private BulkStatusRequest request(List<Integer> bookingIds) {
+        BulkStatusRequest request = new BulkStatusRequest();
+        request.setIds(bookingIds);
+        request.setStatus("CONFIRMED");
+        request.setAdminNotes("benchmark");
+        return request;
+    }
+
+    private void resetToPending() {
+        jdbcTemplate.update(
+            "UPDATE bookings SET booking_status = 'PENDING' WHERE booking_reference LIKE ?", MARKER + "-%");
+    }
+
+    private int countConfirmed() {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM bookings WHERE booking_reference LIKE ? AND booking_status = 'CONFIRMED'",
+            Integer.class, MARKER + "-%");
+    }
+}
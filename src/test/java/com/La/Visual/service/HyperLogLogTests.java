@@ -0,0 +1,133 @@
+/**
+ * HyperLogLog Tests
+ *
+ * Checks the distinct-count sketch behind the analytics customer counts: estimates
+ * of known cardinalities stay within the expected error, small sets go through
+ * linear counting (near exact), and merging is order-independent.
+ *
+ * Plain unit tests without a Spring context or database. Email addresses are
+ * generated, so every run sees the same hashes.
+ */
+package com.La.Visual.service;
+
+// Import JUnit
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTests {
+
+    // About three standard errors of 4096 registers (1.04 / sqrt(4096) = 1.6%)
+    private static final double MAX_ERROR = 0.05;
+
+    @Test
+    void emptySketchEstimatesZero() {
+        assertEquals(0, new HyperLogLog().estimate());
+    }
+
+    @Test
+    void smallSetsAreNearExact() {
+        // Well below 2.5 * 4096 the estimate comes from linear counting; its only error
+        // is values sharing a register (about 1.2% of 1000 values, one in four sets of 50)
+        for (int size : new int[] { 1, 10, 50, 100, 1000 }) {
+            long estimate = sketchOf(0, size).estimate();
+            assertTrue(Math.abs(estimate - size) <= Math.max(2, size * 0.035),
+                size + " distinct values estimated as " + estimate);
+        }
+    }
+
+    @Test
+    void duplicatesAreCountedOnce() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add(HyperLogLog.hash("guest" + (i % 50) + "@example.com"));
+        }
+        // The same as adding each address once
+        assertEquals(sketchOf(0, 50).estimate(), sketch.estimate());
+        assertTrue(Math.abs(sketch.estimate() - 50) <= 2);
+    }
+
+    @Test
+    void estimatesStayWithinErrorBoundAroundLinearCountingSwitch() {
+        // Linear counting is used up to 2.5 * 4096 = 10240, the raw estimate above;
+        // neither side of the switch may jump away from the true count
+        for (int size : new int[] { 5_000, 9_000, 10_240, 11_000, 15_000 }) {
+            assertWithinBound(size, sketchOf(0, size).estimate());
+        }
+    }
+
+    @Test
+    void largeSetsStayWithinErrorBound() {
+        for (int size : new int[] { 50_000, 250_000, 1_000_000 }) {
+            assertWithinBound(size, sketchOf(0, size).estimate());
+        }
+    }
+
+    @Test
+    void mergeEstimatesTheUnion() {
+        // 0..59999 and 40000..99999 overlap in 20000 values
+        HyperLogLog union = HyperLogLog.merge(sketchOf(0, 60_000), sketchOf(40_000, 60_000));
+        assertWithinBound(100_000, union.estimate());
+    }
+
+    @Test
+    void mergeIsAssociativeAndCommutative() {
+        HyperLogLog a = sketchOf(0, 3_000);
+        HyperLogLog b = sketchOf(2_000, 20_000);
+        HyperLogLog c = sketchOf(100_000, 500);
+
+        long left = HyperLogLog.merge(HyperLogLog.merge(a, b), c).estimate();
+        long right = HyperLogLog.merge(a, HyperLogLog.merge(b, c)).estimate();
+        long swapped = HyperLogLog.merge(HyperLogLog.merge(c, a), b).estimate();
+        assertEquals(left, right);
+        assertEquals(left, swapped);
+        // The same values added to one sketch give the same registers
+        HyperLogLog direct = sketchOf(0, 22_000);
+        addRange(direct, 100_000, 500);
+        assertEquals(direct.estimate(), left);
+    }
+
+    @Test
+    void mergeLeavesInputsUnchanged() {
+        HyperLogLog a = sketchOf(0, 1_000);
+        HyperLogLog b = sketchOf(5_000, 1_000);
+        long before = a.estimate();
+        HyperLogLog.merge(a, b);
+        assertEquals(before, a.estimate());
+        // Merging a sketch with itself changes nothing
+        assertEquals(before, HyperLogLog.merge(a, a).estimate());
+    }
+
+    @Test
+    void hashIgnoresCaseAndSurroundingSpaces() {
+        assertEquals(HyperLogLog.hash("guest@example.com"), HyperLogLog.hash("  Guest@Example.COM "));
+        assertNotEquals(HyperLogLog.hash("guest@example.com"), HyperLogLog.hash("guest2@example.com"));
+    }
+
+    @Test
+    void missingAddressesHashToZero() {
+        assertEquals(0, HyperLogLog.hash(null));
+        assertEquals(0, HyperLogLog.hash("   "));
+        assertNotEquals(0, HyperLogLog.hash("a"));
+    }
+
+    // A sketch of the addresses guest<from>@example.com ... guest<from + count - 1>@example.com
+    private static HyperLogLog sketchOf(int from, int count) {
+        HyperLogLog sketch = new HyperLogLog();
+        addRange(sketch, from, count);
+        return sketch;
+    }
+
+    private static void addRange(HyperLogLog sketch, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            sketch.add(HyperLogLog.hash("guest" + i + "@example.com"));
+        }
+    }
+
+    private static void assertWithinBound(long expected, long estimate) {
+        double error = Math.abs(estimate - expected) / (double) expected;
+        assertTrue(error <= MAX_ERROR, expected + " distinct values estimated as " + estimate);
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Quantile Sketch Tests
+ *
+ * Checks the percentile sketch behind the analytics price and lead-time figures:
+ * percentiles of known distributions are within the 1% relative accuracy, single
+ * values land in the right logarithmic bucket, zero has its own bucket, and merging
+ * sketches whose buckets start at different offsets gives exactly the sketch of all
+ * values.
+ *
+ * Plain unit tests without a Spring context or database. Random data uses fixed
+ * seeds.
+ */
+package com.La.Visual.service;
+
+// Import JUnit
+import org.junit.jupiter.api.Test;
+
+// Import Java utility classes
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTests {
+
+    // Relative accuracy of the sketch, plus room for floating-point rounding
+    private static final double ACCURACY = 0.01 + 1e-9;
+    private static final double[] QUANTILES = { 0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1 };
+
+    @Test
+    void emptySketchReturnsZero() {
+        QuantileSketch sketch = new QuantileSketch();
+        assertEquals(0, sketch.quantile(0.5));
+        assertEquals(0, sketch.count());
+    }
+
+    @Test
+    void uniformValuesGiveExpectedPercentiles() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int value = 1; value <= 10_000; value++) {
+            sketch.add(value);
+        }
+        assertEquals(10_000, sketch.count());
+        // Rank floor(q * (n - 1)) of 1..10000 is the value rank + 1
+        assertClose(5_000, sketch.quantile(0.5));
+        assertClose(9_900, sketch.quantile(0.99));
+        assertClose(1, sketch.quantile(0));
+        assertClose(10_000, sketch.quantile(1));
+    }
+
+    @Test
+    void skewedValuesMatchExactPercentiles() {
+        // Log-normal, like package prices: most values small, a long tail of large ones
+        Random random = new Random(42);
+        double[] values = new double[50_000];
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(8 + random.nextGaussian());
+            sketch.add(values[i]);
+        }
+        assertMatches(values, sketch);
+    }
+
+    @Test
+    void singleValuesLandInTheirBucket() {
+        // Includes values right at and next to bucket boundaries (powers of 1.01 / 0.99)
+        double gamma = 1.01 / 0.99;
+        double[] values = { 0.01, 0.5, 1, Math.pow(gamma, 7), Math.nextUp(Math.pow(gamma, 7)), 99.99, 12_345.67, 1e7 };
+        for (double value : values) {
+            QuantileSketch sketch = new QuantileSketch();
+            sketch.add(value);
+            assertClose(value, sketch.quantile(0.5));
+        }
+    }
+
+    @Test
+    void zeroAndNegativeValuesShareTheZeroBucket() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(0);
+        sketch.add(-3);
+        sketch.add(0);
+        sketch.add(5);
+        assertEquals(4, sketch.count());
+        assertEquals(0, sketch.quantile(0));
+        // Rank floor(0.5 * 3) = 1 is still a zero
+        assertEquals(0, sketch.quantile(0.5));
+        assertClose(5, sketch.quantile(1));
+    }
+
+    @Test
+    void addingSmallerValuesLaterGrowsTheBucketsDownwards() {
+        QuantileSketch ascending = new QuantileSketch();
+        QuantileSketch descending = new QuantileSketch();
+        for (int i = 0; i <= 1_000; i++) {
+            ascending.add(0.01 * Math.pow(1.02, i));
+            descending.add(0.01 * Math.pow(1.02, 1_000 - i));
+        }
+        assertSame(ascending, descending);
+    }
+
+    @Test
+    void mergeAlignsDifferentOffsets() {
+        // Buckets of small, large and overlapping values start at very different indexes
+        QuantileSketch small = sketchOf(new Random(1), 0.5, 2, 1_000);
+        QuantileSketch large = sketchOf(new Random(2), 1_000, 5_000, 3_000);
+        QuantileSketch inside = sketchOf(new Random(3), 1, 1_500, 500);
+
+        QuantileSketch all = new QuantileSketch();
+        addFrom(all, new Random(1), 0.5, 2, 1_000);
+        addFrom(all, new Random(2), 1_000, 5_000, 3_000);
+        addFrom(all, new Random(3), 1, 1_500, 500);
+
+        QuantileSketch left = QuantileSketch.merge(QuantileSketch.merge(small, large), inside);
+        QuantileSketch right = QuantileSketch.merge(inside, QuantileSketch.merge(large, small));
+        assertEquals(4_500, left.count());
+        assertSame(all, left);
+        assertSame(all, right);
+    }
+
+    @Test
+    void mergeWithEmptyOrZeroOnlySketches() {
+        QuantileSketch values = sketchOf(new Random(4), 10, 100, 200);
+        QuantileSketch zeros = new QuantileSketch();
+        for (int i = 0; i < 50; i++) {
+            zeros.add(0);
+        }
+
+        assertSame(values, QuantileSketch.merge(values, new QuantileSketch()));
+        assertSame(values, QuantileSketch.merge(new QuantileSketch(), values));
+
+        QuantileSketch mixed = QuantileSketch.merge(zeros, values);
+        assertEquals(250, mixed.count());
+        assertEquals(0, mixed.quantile(0.1));
+        assertTrue(mixed.quantile(0.5) >= 10);
+    }
+
+    private static QuantileSketch sketchOf(Random random, double low, double high, int count) {
+        QuantileSketch sketch = new QuantileSketch();
+        addFrom(sketch, random, low, high, count);
+        return sketch;
+    }
+
+    private static void addFrom(QuantileSketch sketch, Random random, double low, double high, int count) {
+        for (int i = 0; i < count; i++) {
+            sketch.add(low + random.nextDouble() * (high - low));
+        }
+    }
+
+    // Compares every percentile with the exact value at the same rank
+    private static void assertMatches(double[] values, QuantileSketch sketch) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double quantile : QUANTILES) {
+            double exact = sorted[(int) Math.floor(quantile * (sorted.length - 1))];
+            assertClose(exact, sketch.quantile(quantile));
+        }
+    }
+
+    // Equal bucket counts give identical answers
+    private static void assertSame(QuantileSketch expected, QuantileSketch actual) {
+        assertEquals(expected.count(), actual.count());
+        for (double quantile : QUANTILES) {
+            assertEquals(expected.quantile(quantile), actual.quantile(quantile), "quantile " + quantile);
+        }
+    }
+
+    private static void assertClose(double expected, double actual) {
+        assertTrue(Math.abs(actual - expected) <= expected * ACCURACY, "expected " + expected + " but was " + actual);
+    }
+}